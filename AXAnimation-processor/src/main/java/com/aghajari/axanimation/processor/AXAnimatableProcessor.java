@@ -0,0 +1,392 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates an {@code android.util.Property} for each member annotated with
+ * {@code com.aghajari.axanimation.annotation.AXAnimatable} and a
+ * {@code ClassName_AXProperties} class which registers them on
+ * {@code com.aghajari.axanimation.AXPropertyRegistry}.
+ * <p>
+ * Generated properties call the setter, getter or field directly,
+ * So the animation doesn't need reflection (and keeps working after R8 renamed the members).
+ * float and int members get a {@code FloatProperty} or {@code IntProperty} on API 24+,
+ * So PropertyValuesHolder sets them without boxing the value on each frame.
+ * Fields are registered by the field name and setters by the setter name,
+ * A setter without getter is registered as write-only and its property returns null.
+ *
+ * @author AmirHossein Aghajari
+ */
+public class AXAnimatableProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION = "com.aghajari.axanimation.annotation.AXAnimatable";
+    static final String REGISTRY = "com.aghajari.axanimation.AXPropertyRegistry";
+    static final String SUFFIX = "_AXProperties";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(ANNOTATION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement annotation = processingEnv.getElementUtils().getTypeElement(ANNOTATION);
+        if (annotation == null)
+            return false;
+
+        Map<TypeElement, List<PropertyInfo>> classes = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            PropertyInfo info = createInfo(element, annotation);
+            if (info == null)
+                continue;
+
+            TypeElement owner = (TypeElement) element.getEnclosingElement();
+            List<PropertyInfo> list = classes.get(owner);
+            if (list == null) {
+                list = new ArrayList<>();
+                classes.put(owner, list);
+            }
+            list.add(info);
+        }
+
+        for (Map.Entry<TypeElement, List<PropertyInfo>> entry : classes.entrySet()) {
+            try {
+                write(entry.getKey(), entry.getValue());
+            } catch (IOException e) {
+                error(entry.getKey(), "Couldn't generate properties: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private PropertyInfo createInfo(Element element, TypeElement annotation) {
+        Set<Modifier> modifiers = element.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC)) {
+            error(element, "@AXAnimatable members must be non-private and non-static");
+            return null;
+        }
+        if (element.getEnclosingElement().getModifiers().contains(Modifier.PRIVATE)) {
+            error(element, "@AXAnimatable can't be used in a private class");
+            return null;
+        }
+
+        String name = getAnnotationValue(element, annotation);
+        PropertyInfo info = new PropertyInfo();
+
+        if (element.getKind() == ElementKind.FIELD) {
+            VariableElement field = (VariableElement) element;
+            if (modifiers.contains(Modifier.FINAL)) {
+                error(element, "@AXAnimatable fields must not be final");
+                return null;
+            }
+            info.name = name.isEmpty() ? field.getSimpleName().toString() : name;
+            info.type = field.asType();
+            info.field = field.getSimpleName().toString();
+
+        } else if (element.getKind() == ElementKind.METHOD) {
+            ExecutableElement setter = (ExecutableElement) element;
+            if (setter.getParameters().size() != 1) {
+                error(element, "@AXAnimatable setters must have exactly one parameter");
+                return null;
+            }
+            String setterName = setter.getSimpleName().toString();
+            String baseName = setterName.startsWith("set") && setterName.length() > 3
+                    ? setterName.substring(3) : setterName;
+
+            info.name = name.isEmpty() ? decapitalize(baseName) : name;
+            info.type = setter.getParameters().get(0).asType();
+            info.setter = setterName;
+            info.getter = findGetter((TypeElement) element.getEnclosingElement(), baseName, info.type);
+        } else {
+            return null;
+        }
+
+        if (info.type.getKind() == TypeKind.TYPEVAR) {
+            error(element, "@AXAnimatable doesn't support type variables");
+            return null;
+        }
+        return info;
+    }
+
+    private String findGetter(TypeElement owner, String baseName, TypeMirror type) {
+        String capitalized = Character.toUpperCase(baseName.charAt(0)) + baseName.substring(1);
+        for (ExecutableElement method : ElementFilter.methodsIn(
+                processingEnv.getElementUtils().getAllMembers(owner))) {
+            String methodName = method.getSimpleName().toString();
+            if (!methodName.equals("get" + capitalized) && !methodName.equals("is" + capitalized))
+                continue;
+            if (!method.getParameters().isEmpty()
+                    || method.getModifiers().contains(Modifier.PRIVATE)
+                    || method.getModifiers().contains(Modifier.STATIC))
+                continue;
+            if (processingEnv.getTypeUtils().isSameType(method.getReturnType(), type))
+                return methodName;
+        }
+        return null;
+    }
+
+    private String getAnnotationValue(Element element, TypeElement annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (!mirror.getAnnotationType().asElement().equals(annotation))
+                continue;
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                    : mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("value"))
+                    return String.valueOf(entry.getValue().getValue());
+            }
+        }
+        return "";
+    }
+
+    private void write(TypeElement owner, List<PropertyInfo> properties) throws IOException {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(owner);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String ownerName = processingEnv.getTypeUtils().erasure(owner.asType()).toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(owner).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName
+                : binaryName.substring(packageName.length() + 1)) + SUFFIX;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("// Generated by AXAnimation-processor. Do not modify!\n");
+        if (!packageName.isEmpty())
+            sb.append("package ").append(packageName).append(";\n\n");
+
+        sb.append("public final class ").append(simpleName).append(" {\n\n");
+
+        boolean hasPrimitive = false;
+        for (PropertyInfo info : properties) {
+            String boxed = boxedType(info.type);
+            String type = "android.util.Property<" + ownerName + ", " + boxed + ">";
+            sb.append("    public static final ").append(type).append(" ").append(constantName(info.name));
+
+            String primitive = getPrimitiveProperty(info.type);
+            if (primitive == null) {
+                sb.append(" =\n            ");
+                writeProperty(sb, info, ownerName, boxed, "    ");
+                sb.append(";\n\n");
+                continue;
+            }
+
+            // FloatProperty and IntProperty were added in API 24
+            hasPrimitive = true;
+            sb.append(" = ").append(createMethodName(info.name)).append("();\n\n");
+            sb.append("    private static ").append(type).append(" ").append(createMethodName(info.name)).append("() {\n")
+                    .append("        if (android.os.Build.VERSION.SDK_INT >= 24)\n")
+                    .append("            return Api24.").append(createMethodName(info.name)).append("();\n\n")
+                    .append("        return ");
+            writeProperty(sb, info, ownerName, boxed, "        ");
+            sb.append(";\n")
+                    .append("    }\n\n");
+        }
+
+        if (hasPrimitive) {
+            sb.append("    @android.annotation.TargetApi(24)\n")
+                    .append("    private static final class Api24 {\n\n");
+            for (PropertyInfo info : properties) {
+                String primitive = getPrimitiveProperty(info.type);
+                if (primitive == null)
+                    continue;
+
+                String boxed = boxedType(info.type);
+                sb.append("        static android.util.Property<").append(ownerName).append(", ").append(boxed)
+                        .append("> ").append(createMethodName(info.name)).append("() {\n")
+                        .append("            return new android.util.").append(primitive).append("<")
+                        .append(ownerName).append(">(\"").append(info.name).append("\") {\n\n");
+                writeGetter(sb, info, ownerName, boxed, "                ");
+                sb.append("\n                @Override\n")
+                        .append("                public void setValue(").append(ownerName).append(" object, ")
+                        .append(info.type.toString()).append(" value) {\n");
+                writeSetter(sb, info, "                    ");
+                sb.append("                }\n")
+                        .append("            };\n")
+                        .append("        }\n\n");
+            }
+            sb.setLength(sb.length() - 1);
+            sb.append("    }\n\n");
+        }
+
+        sb.append("    static {\n")
+                .append("        register();\n")
+                .append("    }\n\n");
+
+        sb.append("    private ").append(simpleName).append("() {\n")
+                .append("    }\n\n");
+
+        sb.append("    public static void register() {\n");
+        for (PropertyInfo info : properties) {
+            sb.append("        ").append(REGISTRY);
+            if (info.field != null) {
+                sb.append(".registerField(").append(ownerName).append(".class, ")
+                        .append(constantName(info.name)).append(", \"")
+                        .append(info.field).append("\");\n");
+            } else {
+                sb.append(".registerSetter(").append(ownerName).append(".class, ")
+                        .append(constantName(info.name)).append(", \"")
+                        .append(info.setter).append("\", ")
+                        .append(info.getter != null).append(");\n");
+            }
+        }
+        sb.append("    }\n");
+        sb.append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, owner);
+        Writer writer = file.openWriter();
+        try {
+            writer.write(sb.toString());
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Writes an anonymous {@code android.util.Property} which boxes the value.
+     */
+    private static void writeProperty(StringBuilder sb, PropertyInfo info, String ownerName, String boxed, String indent) {
+        sb.append("new android.util.Property<").append(ownerName).append(", ")
+                .append(boxed).append(">(").append(boxed).append(".class, \"")
+                .append(info.name).append("\") {\n\n");
+
+        writeGetter(sb, info, ownerName, boxed, indent + "    ");
+        sb.append("\n").append(indent).append("    @Override\n")
+                .append(indent).append("    public void set(").append(ownerName).append(" object, ")
+                .append(boxed).append(" value) {\n");
+        writeSetter(sb, info, indent + "        ");
+        sb.append(indent).append("    }\n")
+                .append(indent).append("}");
+    }
+
+    private static void writeGetter(StringBuilder sb, PropertyInfo info, String ownerName, String boxed, String indent) {
+        sb.append(indent).append("@Override\n")
+                .append(indent).append("public ").append(boxed).append(" get(").append(ownerName).append(" object) {\n");
+        if (info.field != null) {
+            sb.append(indent).append("    return object.").append(info.field).append(";\n");
+        } else if (info.getter != null) {
+            sb.append(indent).append("    return object.").append(info.getter).append("();\n");
+        } else {
+            sb.append(indent).append("    // Registered without getter\n")
+                    .append(indent).append("    return null;\n");
+        }
+        sb.append(indent).append("}\n");
+    }
+
+    private static void writeSetter(StringBuilder sb, PropertyInfo info, String indent) {
+        if (info.field != null) {
+            sb.append(indent).append("object.").append(info.field).append(" = value;\n");
+        } else {
+            sb.append(indent).append("object.").append(info.setter).append("(value);\n");
+        }
+    }
+
+    /**
+     * @return FloatProperty or IntProperty for the primitive float and int members, null otherwise.
+     */
+    private static String getPrimitiveProperty(TypeMirror type) {
+        if (type.getKind() == TypeKind.FLOAT)
+            return "FloatProperty";
+        if (type.getKind() == TypeKind.INT)
+            return "IntProperty";
+        return null;
+    }
+
+    private static String createMethodName(String name) {
+        StringBuilder sb = new StringBuilder("create");
+        boolean upper = true;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!Character.isJavaIdentifierPart(c)) {
+                upper = true;
+                continue;
+            }
+            sb.append(upper ? Character.toUpperCase(c) : c);
+            upper = false;
+        }
+        return sb.toString();
+    }
+
+    private String boxedType(TypeMirror type) {
+        if (type.getKind().isPrimitive())
+            return processingEnv.getTypeUtils().boxedClass(
+                    processingEnv.getTypeUtils().getPrimitiveType(type.getKind())).getQualifiedName().toString();
+        if (type.getKind() == TypeKind.DECLARED || type.getKind() == TypeKind.ARRAY)
+            return processingEnv.getTypeUtils().erasure(type).toString();
+        return "java.lang.Object";
+    }
+
+    private static String constantName(String name) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c) && i > 0)
+                sb.append('_');
+            sb.append(Character.isJavaIdentifierPart(c) ? Character.toUpperCase(c) : '_');
+        }
+        return sb.toString();
+    }
+
+    private static String decapitalize(String name) {
+        if (name.isEmpty())
+            return name;
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private void error(Element element, String message) {
+        Messager messager = processingEnv.getMessager();
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static class PropertyInfo {
+        String name;
+        TypeMirror type;
+        String field;
+        String setter;
+        String getter;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation.processor;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+
+/**
+ * Compiles annotated classes against small stubs of android.util.Property, FloatProperty,
+ * IntProperty and AXPropertyRegistry, So the generated code is compiled too.
+ *
+ * @author AmirHossein Aghajari
+ */
+public class AXAnimatableProcessorTest {
+
+    private static final JavaFileObject PROPERTY = JavaFileObjects.forSourceLines(
+            "android.util.Property",
+            "package android.util;",
+            "public abstract class Property<T, V> {",
+            "    public Property(Class<V> type, String name) {}",
+            "    public abstract V get(T object);",
+            "    public void set(T object, V value) {}",
+            "}");
+
+    private static final JavaFileObject FLOAT_PROPERTY = JavaFileObjects.forSourceLines(
+            "android.util.FloatProperty",
+            "package android.util;",
+            "public abstract class FloatProperty<T> extends Property<T, Float> {",
+            "    public FloatProperty(String name) { super(Float.class, name); }",
+            "    public abstract void setValue(T object, float value);",
+            "}");
+
+    private static final JavaFileObject INT_PROPERTY = JavaFileObjects.forSourceLines(
+            "android.util.IntProperty",
+            "package android.util;",
+            "public abstract class IntProperty<T> extends Property<T, Integer> {",
+            "    public IntProperty(String name) { super(Integer.class, name); }",
+            "    public abstract void setValue(T object, int value);",
+            "}");
+
+    private static final JavaFileObject BUILD = JavaFileObjects.forSourceLines(
+            "android.os.Build",
+            "package android.os;",
+            "public class Build {",
+            "    public static class VERSION {",
+            "        public static final int SDK_INT = 0;",
+            "    }",
+            "}");
+
+    private static final JavaFileObject TARGET_API = JavaFileObjects.forSourceLines(
+            "android.annotation.TargetApi",
+            "package android.annotation;",
+            "public @interface TargetApi {",
+            "    int value();",
+            "}");
+
+    private static final JavaFileObject REGISTRY = JavaFileObjects.forSourceLines(
+            "com.aghajari.axanimation.AXPropertyRegistry",
+            "package com.aghajari.axanimation;",
+            "import android.util.Property;",
+            "public final class AXPropertyRegistry {",
+            "    public static void registerField(Class<?> cls, Property<?, ?> property, String fieldName) {}",
+            "    public static void registerSetter(Class<?> cls, Property<?, ?> property,",
+            "                                      String setterName, boolean hasGetter) {}",
+            "}");
+
+    private static final JavaFileObject ANNOTATION = JavaFileObjects.forSourceLines(
+            AXAnimatableProcessor.ANNOTATION,
+            "package com.aghajari.axanimation.annotation;",
+            "public @interface AXAnimatable {",
+            "    String value() default \"\";",
+            "}");
+
+    private static Compilation compile(JavaFileObject source) {
+        return javac()
+                .withProcessors(new AXAnimatableProcessor())
+                .compile(PROPERTY, FLOAT_PROPERTY, INT_PROPERTY, BUILD, TARGET_API, REGISTRY, ANNOTATION, source);
+    }
+
+    @Test
+    public void generatesFieldAndSetterProperties() {
+        Compilation compilation = compile(JavaFileObjects.forSourceLines(
+                "demo.ChartView",
+                "package demo;",
+                "import com.aghajari.axanimation.annotation.AXAnimatable;",
+                "public class ChartView {",
+                "    @AXAnimatable public float progress;",
+                "    private float level;",
+                "    @AXAnimatable public void setLevel(float level) { this.level = level; }",
+                "    public float getLevel() { return level; }",
+                "    @AXAnimatable(\"tint\") void setTintColor(int color) {}",
+                "}"));
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile("demo.ChartView_AXProperties")
+                .contentsAsUtf8String()
+                .contains("registerField(demo.ChartView.class, PROGRESS, \"progress\");");
+        assertThat(compilation).generatedSourceFile("demo.ChartView_AXProperties")
+                .contentsAsUtf8String()
+                .contains("registerSetter(demo.ChartView.class, LEVEL, \"setLevel\", true);");
+        assertThat(compilation).generatedSourceFile("demo.ChartView_AXProperties")
+                .contentsAsUtf8String()
+                .contains("registerSetter(demo.ChartView.class, TINT, \"setTintColor\", false);");
+        assertThat(compilation).generatedSourceFile("demo.ChartView_AXProperties")
+                .contentsAsUtf8String()
+                .doesNotContain("UnsupportedOperationException");
+    }
+
+    @Test
+    public void generatesUnboxedPrimitiveProperties() {
+        Compilation compilation = compile(JavaFileObjects.forSourceLines(
+                "demo.GaugeView",
+                "package demo;",
+                "import com.aghajari.axanimation.annotation.AXAnimatable;",
+                "public class GaugeView {",
+                "    @AXAnimatable public float progress;",
+                "    @AXAnimatable public void setTint(int color) {}",
+                "    @AXAnimatable public double ratio;",
+                "}"));
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile("demo.GaugeView_AXProperties")
+                .contentsAsUtf8String()
+                .contains("new android.util.FloatProperty<demo.GaugeView>(\"progress\")");
+        assertThat(compilation).generatedSourceFile("demo.GaugeView_AXProperties")
+                .contentsAsUtf8String()
+                .contains("public void setValue(demo.GaugeView object, int value) {");
+        assertThat(compilation).generatedSourceFile("demo.GaugeView_AXProperties")
+                .contentsAsUtf8String()
+                .contains("if (android.os.Build.VERSION.SDK_INT >= 24)");
+        // double has no primitive Property
+        assertThat(compilation).generatedSourceFile("demo.GaugeView_AXProperties")
+                .contentsAsUtf8String()
+                .contains("new android.util.Property<demo.GaugeView, java.lang.Double>(java.lang.Double.class, \"ratio\")");
+    }
+
+    @Test
+    public void generatesNestedClassProperties() {
+        Compilation compilation = compile(JavaFileObjects.forSourceLines(
+                "demo.Outer",
+                "package demo;",
+                "import com.aghajari.axanimation.annotation.AXAnimatable;",
+                "public class Outer {",
+                "    public static class Inner {",
+                "        @AXAnimatable int count;",
+                "    }",
+                "}"));
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile("demo.Outer$Inner_AXProperties")
+                .contentsAsUtf8String()
+                .contains("registerField(demo.Outer.Inner.class, COUNT, \"count\");");
+    }
+
+    @Test
+    public void rejectsPrivateMembers() {
+        Compilation compilation = compile(JavaFileObjects.forSourceLines(
+                "demo.PrivateView",
+                "package demo;",
+                "import com.aghajari.axanimation.annotation.AXAnimatable;",
+                "public class PrivateView {",
+                "    @AXAnimatable private float progress;",
+                "}"));
+
+        assertThat(compilation).hadErrorContaining("must be non-private and non-static");
+    }
+
+    @Test
+    public void rejectsFinalFields() {
+        Compilation compilation = compile(JavaFileObjects.forSourceLines(
+                "demo.FinalView",
+                "package demo;",
+                "import com.aghajari.axanimation.annotation.AXAnimatable;",
+                "public class FinalView {",
+                "    @AXAnimatable final float progress = 0;",
+                "}"));
+
+        assertThat(compilation).hadErrorContaining("must not be final");
+    }
+
+    @Test
+    public void rejectsSettersWithoutOneParameter() {
+        Compilation compilation = compile(JavaFileObjects.forSourceLines(
+                "demo.SetterView",
+                "package demo;",
+                "import com.aghajari.axanimation.annotation.AXAnimatable;",
+                "public class SetterView {",
+                "    @AXAnimatable void setRange(float from, float to) {}",
+                "}"));
+
+        assertThat(compilation).hadErrorContaining("exactly one parameter");
+    }
+}
@@ -0,0 +1,5 @@
+# Generated by AXAnimation-processor, AXPropertyRegistry loads them by name.
+-keep class **_AXProperties { *; }
+# The generated class is found by the name of it's annotated class, So R8 must not rename that one.
+-if class **_AXProperties
+-keepnames class <1>
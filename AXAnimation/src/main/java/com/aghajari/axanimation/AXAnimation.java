@@ -56,6 +56,7 @@ import androidx.annotation.Nullable;
 import androidx.core.view.ViewCompat;
 
 import com.aghajari.axanimation.annotation.LineGravity;
+import com.aghajari.axanimation.clock.AnimationClock;
 import com.aghajari.axanimation.draw.*;
 import com.aghajari.axanimation.draw.rules.*;
 import com.aghajari.axanimation.layouts.*;
@@ -70,10 +71,12 @@ import com.aghajari.axanimation.rules.reflect.*;
 import com.aghajari.axanimation.rules.transformation.*;
 import com.aghajari.axanimation.inspect.InspectLayout;
 import com.aghajari.axanimation.utils.SizeUtils;
+import com.aghajari.axanimation.utils.TraceUtils;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -147,6 +150,14 @@ public class AXAnimation implements BaseAnimation, Cloneable {
     private boolean measureUnitEnabled = false;
     private boolean applyNewAnimatorForReverseRules = false;
     private boolean shouldReverseRulesKeepOldData = true;
+    private boolean propertyTracksEnabled = false;
+    private boolean skipNoOpRules = false;
+    private boolean playbackPlanEnabled = false;
+    private boolean retargetEnabled = false;
+    private boolean ownPropertiesEnabled = false;
+    private boolean pauseWhenHidden = false;
+    private SectionInfo sectionInfo = null;
+    private AXAnimatorData.OnChangedListener sectionsListener = null;
     private int nextRuleRequiresApi = -1;
     private Class<? extends RuleWrapper> wrapper = null;
     private Class<? extends RuleSectionWrapper> wrapperSection = null;
@@ -155,13 +166,31 @@ public class AXAnimation implements BaseAnimation, Cloneable {
     private AXAnimatorStartListener sectionStartListener = null;
     private AXAnimatorEndListener sectionEndListener = null;
 
+    /* True while the async trace section of waiting for the layout size is open */
+    private boolean layoutSizeTrace = false;
+
     private final OnLayoutSizeReadyListener sizeReadyListener = new OnLayoutSizeReadyListener() {
         @Override
         public void onReady(View view, LayoutSize size) {
+            endLayoutSizeTrace();
             start(view, size, reverseMode, endMode);
         }
     };
 
+    private void beginLayoutSizeTrace() {
+        if (!layoutSizeTrace && TraceUtils.isEnabled()) {
+            layoutSizeTrace = true;
+            TraceUtils.beginAsyncSection("AXAnimation.layoutSize", System.identityHashCode(this));
+        }
+    }
+
+    private void endLayoutSizeTrace() {
+        if (layoutSizeTrace) {
+            layoutSizeTrace = false;
+            TraceUtils.endAsyncSection("AXAnimation.layoutSize", System.identityHashCode(this));
+        }
+    }
+
     // *************** AXAnimation ***************
 
     private AXAnimation() {
@@ -345,6 +374,117 @@ public class AXAnimation implements BaseAnimation, Cloneable {
         return this;
     }
 
+    /**
+     * Keeps the animators of the first run and plays them again on the next repeats
+     * (reversed for {@link #REVERSE} mode) instead of creating every rule again,
+     * So repeats won't read start values from the view again and {@link #RESTART}
+     * will start from the same values as the first run.
+     * The animators will be created again whenever a {@link com.aghajari.axanimation.livevar.LiveVar}
+     * or the parent's layout changed.
+     * <p>
+     * Note: Animations with LiveVarUpdaters, WaitNotifyRules, ReverseWaitRules or
+     * rules which wait for something can't reuse their animators.
+     * default: false
+     *
+     * @see #animationRepeatCount(int)
+     */
+    public AXAnimation reusePlaybackPlan(boolean enabled) {
+        playbackPlanEnabled = enabled;
+        return this;
+    }
+
+    /**
+     * @see #reusePlaybackPlan(boolean)
+     */
+    public boolean isPlaybackPlanEnabled() {
+        return playbackPlanEnabled;
+    }
+
+    /**
+     * Starting this animation on a view which another retargeting animation is running on,
+     * Will take over the float properties that both of them animate.
+     * The property continues from it's current value and velocity to the new values,
+     * And the running animator stops updating it without being canceled.
+     * (So the other properties and the timing of the running animation don't change)
+     * <p>
+     * Note: Both animations must enable retarget mode, Rules which start as reverse
+     * keep their values. Playback plan won't be used in this mode.
+     * Retarget mode enables {@link #ownProperties(boolean)} too.
+     * default: false
+     *
+     * @see #reusePlaybackPlan(boolean)
+     */
+    public AXAnimation retarget(boolean enabled) {
+        retargetEnabled = enabled;
+        return this;
+    }
+
+    /**
+     * @see #retarget(boolean)
+     */
+    public boolean isRetargetEnabled() {
+        return retargetEnabled;
+    }
+
+    /**
+     * Registers the animators of this animation on {@link AXPropertyOwners},
+     * So when another owning animation of the same target starts writing a property (or the layout)
+     * which this one is writing, This one stops writing it without being canceled.
+     * An animator takes it's properties over on it's first update (after it's start delay),
+     * So the delayed rules of a section don't take the properties of the earlier ones.
+     * <p>
+     * Note: Animations which don't own their properties are not registered and
+     * can't be stopped by the other ones.
+     * default: false
+     *
+     * @see #retarget(boolean)
+     */
+    public AXAnimation ownProperties(boolean enabled) {
+        ownPropertiesEnabled = enabled;
+        return this;
+    }
+
+    /**
+     * @see #ownProperties(boolean)
+     */
+    public boolean isPropertyOwnershipEnabled() {
+        return ownPropertiesEnabled || retargetEnabled;
+    }
+
+    /**
+     * Pauses the animation while the target view can't be seen,
+     * (It's detached, it or one of it's parents isn't visible, it's out of the visible area
+     * of it's parent or it's window has lost focus)
+     * So an infinite animation won't update views that nobody sees.
+     * When the view can be seen again, The animation continues from the play time which
+     * it would have had if it had kept running.
+     * <p>
+     * Note: Listeners won't be notified of these pauses, If the skipped time passes the end of
+     * the running section, The next section starts from it's beginning.
+     * default: false
+     *
+     * @see #isPausedWhileHidden()
+     */
+    public AXAnimation pauseWhenHidden(boolean enabled) {
+        pauseWhenHidden = enabled;
+        return this;
+    }
+
+    /**
+     * @see #pauseWhenHidden(boolean)
+     */
+    public boolean isPauseWhenHiddenEnabled() {
+        return pauseWhenHidden;
+    }
+
+    /**
+     * @return True if the animation has been paused because the target view is hidden.
+     * @see #pauseWhenHidden(boolean)
+     */
+    public boolean isPausedWhileHidden() {
+        return animator.culled;
+    }
+
     /**
      * sets the interpolator of next rules.
      * <p>
@@ -2714,6 +2854,51 @@ public class AXAnimation implements BaseAnimation, Cloneable {
         return reverseOtherAnimation(AXAnimation.getAnimation(animationName), viewID);
     }
 
+    // *************** Property Tracks ***************
+
+    /**
+     * Merges the {@link PropertyRule}s which animate the same property in several sections
+     * into one keyframed animator, So a long multi-section animation creates one animator
+     * per property instead of one per property per section.
+     * Tracks need a predictable timeline, they are used only if the animation plays forward
+     * and every section is a wait or only contains property rules without repeats.
+     * default: false
+     *
+     * @see PropertyTrackRule
+     */
+    public AXAnimation mergePropertyTracks(boolean enabled) {
+        this.propertyTracksEnabled = enabled;
+        return this;
+    }
+
+    /**
+     * @return True if {@link PropertyRule}s may merge into {@link PropertyTrackRule}s.
+     * @see #mergePropertyTracks(boolean)
+     */
+    public boolean isPropertyTracksEnabled() {
+        return propertyTracksEnabled;
+    }
+
+    /**
+     * Rules whose resolved start and end values are equal (such as alpha(1f) on an opaque view)
+     * will be replaced by a timing-only animator, So the section keeps it's duration
+     * without updating the view on each frame.
+     * default: false
+     *
+     * @see Rule#isNoOp()
+     */
+    public AXAnimation skipNoOpRules(boolean enabled) {
+        this.skipNoOpRules = enabled;
+        return this;
+    }
+
+    /**
+     * @see #skipNoOpRules(boolean)
+     */
+    public boolean shouldSkipNoOpRules() {
+        return skipNoOpRules;
+    }
+
     // *************** ReverseRule ***************
 
     /**
@@ -3034,13 +3219,34 @@ public class AXAnimation implements BaseAnimation, Cloneable {
      * Add a new delay rule section (before opened section).
      * Animator will start next section whenever {@link com.aghajari.axanimation.rules.WaitNotifyRule.Listener#isDone(View)} return true!
      *
-     * @param delay Delays between each notify
+     * @param delay Delays between each notify, at least {@link WaitNotifyRule#MIN_POLL_INTERVAL}
      */
     public AXAnimation waitNotifyBefore(long delay, WaitNotifyRule.Listener listener) {
         addSection(new WaitNotifyRule(delay, listener));
         return this;
     }
 
+    /**
+     * Add a new delay rule section (before opened section).
+     * Animator will start next section whenever {@link WaitNotifyRule.Notifier#notifyDone()} called!
+     * Unlike {@link WaitNotifyRule.Listener}, the animator won't poll anything while it's waiting.
+     */
+    public AXAnimation waitForNotifierBefore(WaitNotifyRule.Notifier notifier) {
+        addSection(WaitNotifyRule.ofNotifier(notifier));
+        return this;
+    }
+
+    /**
+     * Add a new delay rule section (before opened section).
+     * Animator will start next section whenever {@link WaitNotifyRule.Notifier#notifyDone()} called!
+     *
+     * @param delay Delays before waiting for the notifier
+     */
+    public AXAnimation waitForNotifierBefore(long delay, WaitNotifyRule.Notifier notifier) {
+        addSection(WaitNotifyRule.ofNotifier(delay, notifier));
+        return this;
+    }
+
     /**
      * Gets all rule sections of this animation except the opened section.
      *
@@ -3193,15 +3399,53 @@ public class AXAnimation implements BaseAnimation, Cloneable {
     }
 
     int getRealRuleSectionCount() {
-        int m = -1;
-        for (int i = 0; i < rules.size(); i++) {
-            if (!(getRuleSection(i) instanceof WaitRule))
-                m++;
+        return getSectionInfo().realSectionCount;
+    }
+
+    /**
+     * @return the values of this animation which depend on the whole section list,
+     * Computed once until the sections or PreRules change.
+     */
+    SectionInfo getSectionInfo() {
+        if (sectionInfo == null || sectionInfo.isOutdated(this)) {
+            sectionInfo = new SectionInfo(this, animator);
+            watchSections();
         }
-        return Math.max(m, 0);
+        return sectionInfo;
+    }
+
+    /**
+     * Invalidates the SectionInfo whenever an {@link AXAnimatorData} of our sections changes.
+     */
+    private void watchSections() {
+        if (sectionsListener == null) {
+            sectionsListener = new AXAnimatorData.OnChangedListener() {
+                @Override
+                public void onAnimatorDataChanged() {
+                    invalidateSectionInfo();
+                }
+            };
+        }
+        for (int i = 0; i < rules.size(); i++)
+            getRuleSection(i).addOnAnimatorDataChangedListener(sectionsListener);
+    }
+
+    private void invalidateSectionInfo() {
+        sectionInfo = null;
+    }
+
+    /**
+     * AXAnimation caches the total duration and some flags of it's sections,
+     * Call this whenever you changed a section or a rule in place (e.g. through {@link #getAllRuleSections()}).
+     * Adding sections or PreRules through AXAnimation or changing an {@link AXAnimatorData} will invalidate the cache automatically.
+     */
+    public AXAnimation notifySectionsChanged() {
+        invalidateSectionInfo();
+        return this;
     }
 
     private void addSection(RuleSection section) {
+        invalidateSectionInfo();
         if (section instanceof WaitRule && !wrapDelays) {
             this.rules.add(section);
             return;
@@ -3271,6 +3515,7 @@ public class AXAnimation implements BaseAnimation, Cloneable {
      * @see PreRule
      */
     public AXAnimation addPreRule(PreRule preRule) {
+        invalidateSectionInfo();
         preRules.add(preRule);
         return this;
     }
@@ -3279,6 +3524,7 @@ public class AXAnimation implements BaseAnimation, Cloneable {
      * @param preRule the preRule to be removed from the current set of preRules for this animation.
      */
     public AXAnimation removePreRule(PreRule preRule) {
+        invalidateSectionInfo();
         preRules.remove(preRule);
         return this;
     }
@@ -3287,6 +3533,7 @@ public class AXAnimation implements BaseAnimation, Cloneable {
      * @param cls Class of the PreRules to be removed from the current set of PreRules for this animation.
      */
     public AXAnimation removePreRule(Class<? extends PreRule> cls) {
+        invalidateSectionInfo();
         for (Iterator<PreRule> it = preRules.iterator(); it.hasNext(); ) {
             PreRule preRule = it.next();
             if (preRule.getClass().isAssignableFrom(cls))
@@ -3299,6 +3546,7 @@ public class AXAnimation implements BaseAnimation, Cloneable {
      * Removes all preRules from the set of this animation.
      */
     public AXAnimation clearPreRules() {
+        invalidateSectionInfo();
         preRules.clear();
         return this;
     }
@@ -4058,12 +4306,24 @@ public class AXAnimation implements BaseAnimation, Cloneable {
     }
 
     public void start(@NonNull View view, @Nullable LayoutSize originalLayout, boolean reverseMode, boolean endMode) {
+        TraceUtils.beginSection("AXAnimation.start");
+        try {
+            startInternal(view, originalLayout, reverseMode, endMode);
+        } finally {
+            TraceUtils.endSection();
+        }
+    }
+
+    private void startInternal(@NonNull View view, @Nullable LayoutSize originalLayout, boolean reverseMode, boolean endMode) {
         doneRule();
+        // A reused instance must not stay in the running animations of its last view
+        if (animator.targetView != null && animator.targetView != view)
+            AXAnimationSaver.clear(animator.targetView, this);
         animator.targetView = view;
         this.reverseMode = reverseMode;
         this.endMode = endMode;
 
-        boolean hasLayoutRule = AXAnimator.hasLayoutRule(this);
+        boolean hasLayoutRule = getSectionInfo().hasLayoutRule;
 
         if (view.getParent() == null && hasLayoutRule)
             throw new NullPointerException("View's parent can not be null!");
@@ -4083,15 +4343,17 @@ public class AXAnimation implements BaseAnimation, Cloneable {
                     if (view.getLayoutParams() instanceof AnimatedLayoutParams) {
                         start(view, new LayoutSize((AnimatedLayoutParams) view.getLayoutParams()), reverseMode, endMode);
                     } else {
+                        beginLayoutSizeTrace();
                         layout.getLayoutSize(view, sizeReadyListener);
                     }
                 } else {
+                    beginLayoutSizeTrace();
                     layout.getLayoutSize(view, originalLayoutParams, sizeReadyListener);
                 }
                 return;
             } else {
                 if (layout instanceof InspectLayout) {
-                    ((InspectLayout) layout).getReadyForInspect(AXAnimator.hasInspect(this));
+                    ((InspectLayout) layout).getReadyForInspect(getSectionInfo().hasInspect);
                 }
 
                 parentSize = layout.getLayoutSize();
@@ -4099,9 +4361,14 @@ public class AXAnimation implements BaseAnimation, Cloneable {
         }
 
         if (preRules.size() > 0) {
+            TraceUtils.beginSection("AXAnimation.preRules");
             Pair<View, LayoutSize> pair = Pair.create(view, originalLayout);
-            for (PreRule preRule : preRules)
-                pair = preRule.apply(this, pair);
+            try {
+                for (PreRule preRule : preRules)
+                    pair = preRule.apply(this, pair);
+            } finally {
+                TraceUtils.endSection();
+            }
 
             animator.start(pair.first, parentSize, pair.second, this, reverseMode, endMode);
         } else {
@@ -4109,6 +4376,26 @@ public class AXAnimation implements BaseAnimation, Cloneable {
         }
     }
 
+    /**
+     * Sets the {@link AnimationClock} which drives the timing of this animation.
+     * Use {@link com.aghajari.axanimation.clock.VirtualAnimationClock} to step
+     * the animation frame by frame.
+     *
+     * @param clock the clock, or null to use the default clock.
+     */
+    public AXAnimation setClock(@Nullable AnimationClock clock) {
+        animator.clock = clock == null ? AnimationClock.getDefault() : clock;
+        return this;
+    }
+
+    /**
+     * @return the {@link AnimationClock} which drives the timing of this animation.
+     */
+    @NonNull
+    public AnimationClock getClock() {
+        return animator.clock;
+    }
+
     public ViewGroup.LayoutParams getOriginalLayoutParams() {
         if (originalLayoutParams != null) {
             return originalLayoutParams;
@@ -4128,6 +4415,8 @@ public class AXAnimation implements BaseAnimation, Cloneable {
     }
 
     public void cancel() {
+        // The layout size might never be ready for a canceled animation
+        endLayoutSizeTrace();
         animator.cancel();
     }
 
@@ -4161,7 +4450,7 @@ public class AXAnimation implements BaseAnimation, Cloneable {
      * @return The length of the animation, in milliseconds.
      */
     public long getRuleSectionTotalDuration(int index) {
-        return animator.getTotalDuration(getRuleSection(index));
+        return getSectionInfo().sectionDurations[index];
     }
 
     /**
@@ -4293,7 +4582,7 @@ public class AXAnimation implements BaseAnimation, Cloneable {
      * @return True if the animation has some rules which depends on layout.
      */
     public boolean hasLayoutRule() {
-        return AXAnimator.hasLayoutRule(this);
+        return getSectionInfo().hasLayoutRule;
     }
 
     /**
@@ -4495,12 +4784,19 @@ public class AXAnimation implements BaseAnimation, Cloneable {
      */
     public void resetAnimation() {
         resetAnimatorValues();
+        invalidateSectionInfo();
         rules.clear();
         tmpRules.clear();
         originalLayoutParams = null;
         targetLayoutParams = null;
         applyNewAnimatorForReverseRules = false;
         shouldReverseRulesKeepOldData = true;
+        propertyTracksEnabled = false;
+        skipNoOpRules = false;
+        playbackPlanEnabled = false;
+        retargetEnabled = false;
+        ownPropertiesEnabled = false;
+        pauseWhenHidden = false;
         lockX().lockY();
     }
 
@@ -4513,13 +4809,18 @@ public class AXAnimation implements BaseAnimation, Cloneable {
 
     /**
      * Import another animation
+     *
+     * @param clone True to copy the sections and rules, So this animation can run at the same time
+     *              as the other one (e.g. on another view) without sharing the state of rules.
      */
     public AXAnimation importAnimation(AXAnimation animation, boolean clone) {
+        invalidateSectionInfo();
         if (clone) {
+            Map<Object, Object> copies = new IdentityHashMap<>();
             for (RuleSection section : animation.rules)
-                rules.add((RuleSection) section.clone());
+                rules.add(section.copy(copies));
             for (Rule<?> rule : animation.tmpRules)
-                tmpRules.add((Rule<?>) rule.clone());
+                tmpRules.add(rule.copy(copies));
         } else {
             rules.addAll(animation.rules);
             tmpRules.addAll(animation.tmpRules);
@@ -4529,6 +4830,12 @@ public class AXAnimation implements BaseAnimation, Cloneable {
         repeatCount = animation.repeatCount;
         repeatMode = animation.repeatMode;
         applyNewAnimatorForReverseRules = animation.applyNewAnimatorForReverseRules;
+        propertyTracksEnabled = animation.propertyTracksEnabled;
+        skipNoOpRules = animation.skipNoOpRules;
+        playbackPlanEnabled = animation.playbackPlanEnabled;
+        retargetEnabled = animation.retargetEnabled;
+        ownPropertiesEnabled = animation.ownPropertiesEnabled;
+        pauseWhenHidden = animation.pauseWhenHidden;
         shouldReverseRulesKeepOldData = animation.shouldReverseRulesKeepOldData;
         widthLocked = animation.widthLocked;
         heightLocked = animation.heightLocked;
@@ -4539,6 +4846,7 @@ public class AXAnimation implements BaseAnimation, Cloneable {
         nextRuleRequiresApi = animation.nextRuleRequiresApi;
         data.importAnimatorData(animation.data);
         animator.listeners.addAll(animation.animator.listeners);
+        animator.clock = animation.animator.clock;
         if (animation.wrapper != null)
             wrapper = animation.wrapper;
         if (animation.wrapperSection != null) {
@@ -4600,7 +4908,8 @@ public class AXAnimation implements BaseAnimation, Cloneable {
 
     /**
      * @param name animation's name
-     * @return saved animation.
+     * @return saved animation, Or the animation of a registered {@link AXAnimationDefinition}
+     * which will be created on the first call.
      */
     public static AXAnimation getAnimation(String name) {
         return AXAnimationSaver.get(name);
@@ -4626,7 +4935,8 @@ public class AXAnimation implements BaseAnimation, Cloneable {
     public static void clear(View view) {
         List<AXAnimation> list = getAnimationsOfView(view);
         if (list != null) {
-            for (AXAnimation a : list)
+            // cancel() removes the animation from the list
+            for (AXAnimation a : list.toArray(new AXAnimation[0]))
                 a.cancel();
         }
         AXAnimationSaver.clear(view);
@@ -0,0 +1,1093 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.view.Gravity;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.aghajari.axanimation.livevar.LiveSize;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A declarative definition of {@link AXAnimation},
+ * A JSON which describes the sections, rules, timing and live sizes of an animation.
+ * Keys are the names of AXAnimation's builder methods and they are applied in the same order,
+ * So a definition creates the same {@link RuleSection}s and rules as the builder chain.
+ * <pre>
+ * {
+ *   "unit": "dp",
+ *   "duration": 300,
+ *   "interpolator": "overshoot",
+ *   "animationRepeatCount": 1,
+ *   "animationRepeatMode": "reverse",
+ *   "sections": [
+ *     {
+ *       "rules": [
+ *         {"rule": "alpha", "values": [0, 1]},
+ *         {"rule": "toRight", "value": ["parent|right", {"minus": 16}]},
+ *         {"rule": "resize", "gravity": "center", "width": 200, "height": ["target|width"]}
+ *       ]
+ *     },
+ *     {
+ *       "wait": 100,
+ *       "duration": 200,
+ *       "rules": [{"rule": "toLeft", "value": [0, {"plus": "@id/view2", "gravity": "right"}]}]
+ *     }
+ *   ]
+ * }
+ * </pre>
+ * Timing keys (unit, duration, delay, interpolator, repeatCount, repeatMode) are allowed
+ * on the animation, the sections and the rules, And just like the builder they apply to all the next rules.
+ * <p>
+ * A size is a number, or a live size: an array which starts with a number or a reference
+ * (parent, target, original with a gravity such as "parent|right", contentWidth, contentHeight,
+ * parentWidth, parentHeight) followed by plus, minus, multiple, divide or then operations.
+ * <p>
+ * A definition is validated when it's parsed, Except the @id/ names of related views which
+ * need a context, {@link #validate(Context)} checks them (registering a parsed definition does it),
+ * So a validated definition always creates an animation.
+ * Register definitions by name and {@link AXAnimation#getAnimation(String)} parses, validates and creates
+ * them lazily on the first use:
+ * <pre>
+ * AXAnimationDefinition.registerAsset(context, "splash", "animations/splash.json");
+ * ...
+ * AXAnimation.getAnimation("splash").start(view);
+ * </pre>
+ *
+ * @author AmirHossein Aghajari
+ */
+public final class AXAnimationDefinition {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final HashMap<String, Entry> definitions = new HashMap<>();
+
+    private static final String[] TIMING = {"unit", "duration", "delay", "interpolator", "repeatCount", "repeatMode"};
+    private static final List<String> FLOAT_RULES = Arrays.asList("alpha", "translationX", "translationY",
+            "translationZ", "x", "y", "z", "pivotX", "pivotY", "scale", "scaleX", "scaleY",
+            "rotation", "rotationX", "rotationY", "cameraDistance", "textSize");
+    private static final List<String> POSITION_RULES = Arrays.asList("toLeft", "toTop", "toRight",
+            "toBottom", "toCenterHorizontal", "toCenterVertical");
+    private static final List<String> INTERPOLATORS = Arrays.asList("linear", "accelerate", "decelerate",
+            "accelerateDecelerate", "anticipate", "overshoot", "anticipateOvershoot", "bounce");
+
+    /**
+     * A compiled call of the builder
+     */
+    private static abstract class Step {
+        /* Sizes of the call, Their related views are checked by validate */
+        final Size[] sizes;
+
+        Step(Size... sizes) {
+            this.sizes = sizes;
+        }
+
+        abstract void apply(AXAnimation animation, Context context);
+    }
+
+    private final List<Step> steps;
+
+    private AXAnimationDefinition(List<Step> steps) {
+        this.steps = steps;
+    }
+
+    /**
+     * Parses and validates the definition.
+     *
+     * @throws IllegalArgumentException if the definition is invalid, the message contains the path of the invalid value.
+     */
+    @NonNull
+    public static AXAnimationDefinition parse(@NonNull String json) {
+        try {
+            return compile(new JSONObject(json));
+        } catch (JSONException e) {
+            throw new IllegalArgumentException("Invalid animation definition: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the stream once and parses the definition, The stream won't be closed.
+     */
+    @NonNull
+    public static AXAnimationDefinition parse(@NonNull InputStream in) throws IOException {
+        ByteBuffer buffer = BakedAnimationFormat.readFully(in);
+        return parse(new String(buffer.array(), 0, buffer.limit(), UTF_8));
+    }
+
+    /**
+     * Checks the @id/ names of related views by the resources of context.
+     *
+     * @throws IllegalArgumentException if there is no view id with one of the names.
+     */
+    public void validate(@NonNull Context context) {
+        for (int i = 0; i < steps.size(); i++) {
+            for (Size size : steps.get(i).sizes)
+                size.validate(context);
+        }
+    }
+
+    /**
+     * Creates a new animation by the definition.
+     *
+     * @param context to find the related views of live sizes and the density of dp unit.
+     */
+    @NonNull
+    public AXAnimation create(@NonNull Context context) {
+        AXAnimation animation = AXAnimation.create();
+        for (int i = 0; i < steps.size(); i++)
+            steps.get(i).apply(animation, context);
+        return animation;
+    }
+
+    // *************** Registry ***************
+
+    /* A registered definition, Parsed on the first use */
+    private static final class Entry {
+        final Context context;
+        @Nullable
+        String json, asset;
+        @Nullable
+        AXAnimationDefinition definition;
+
+        Entry(Context context) {
+            this.context = context.getApplicationContext() != null ? context.getApplicationContext() : context;
+        }
+
+        AXAnimationDefinition get() throws IOException {
+            if (definition == null) {
+                AXAnimationDefinition parsed;
+                if (asset != null) {
+                    InputStream in = context.getAssets().open(asset);
+                    try {
+                        parsed = parse(in);
+                    } finally {
+                        in.close();
+                    }
+                } else {
+                    parsed = parse(json);
+                }
+                parsed.validate(context);
+                definition = parsed;
+                json = asset = null;
+            }
+            return definition;
+        }
+    }
+
+    /**
+     * Registers a parsed definition, The @id/ names of it's related views will be checked now.
+     * The animation will be created on the first {@link AXAnimation#getAnimation(String)}.
+     *
+     * @throws IllegalArgumentException if there is no view id with one of the names.
+     */
+    public static void register(@NonNull Context context, @NonNull String name, @NonNull AXAnimationDefinition definition) {
+        Entry entry = new Entry(context);
+        definition.validate(entry.context);
+        entry.definition = definition;
+        put(name, entry);
+    }
+
+    /**
+     * Registers a definition, It will be parsed on the first {@link AXAnimation#getAnimation(String)}.
+     */
+    public static void register(@NonNull Context context, @NonNull String name, @NonNull String json) {
+        Entry entry = new Entry(context);
+        entry.json = json;
+        put(name, entry);
+    }
+
+    /**
+     * Registers a definition of assets, It will be read and parsed on the first {@link AXAnimation#getAnimation(String)}.
+     */
+    public static void registerAsset(@NonNull Context context, @NonNull String name, @NonNull String assetName) {
+        Entry entry = new Entry(context);
+        entry.asset = assetName;
+        put(name, entry);
+    }
+
+    private static void put(String name, Entry entry) {
+        definitions.put(name, entry);
+        // The animation of the old definition
+        removeAnimation(name);
+    }
+
+    /**
+     * Removes the definition and the animation which has been created by it.
+     */
+    public static void unregister(@NonNull String name) {
+        if (definitions.remove(name) != null)
+            removeAnimation(name);
+    }
+
+    private static void removeAnimation(String name) {
+        if (AXAnimationSaver.animations != null)
+            AXAnimationSaver.animations.remove(name);
+    }
+
+    public static boolean isRegistered(@NonNull String name) {
+        return definitions.containsKey(name);
+    }
+
+    /**
+     * @return the registered definition, Parses it if it hasn't been parsed yet.
+     * null if there is no definition with this name.
+     * @throws IllegalArgumentException if the definition is invalid or can't be read.
+     */
+    @Nullable
+    public static AXAnimationDefinition get(@NonNull String name) {
+        Entry entry = definitions.get(name);
+        if (entry == null)
+            return null;
+
+        try {
+            return entry.get();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Can't read animation definition (" + name + ")", e);
+        }
+    }
+
+    /**
+     * @return a new animation of the registered definition, null if there is no definition with this name.
+     */
+    @Nullable
+    static AXAnimation createAnimation(String name) {
+        AXAnimationDefinition definition = get(name);
+        return definition == null ? null : definition.create(definitions.get(name).context);
+    }
+
+    // *************** Compiler ***************
+
+    private static AXAnimationDefinition compile(JSONObject json) throws JSONException {
+        List<Step> steps = new ArrayList<>();
+        checkKeys(json, "animation", "sections", "rules", "animationRepeatCount", "animationRepeatMode");
+        compileTiming(json, "animation", steps);
+
+        if (json.has("animationRepeatCount")) {
+            final int count = getRepeatCount(get(json, "animation", "animationRepeatCount"), "animation.animationRepeatCount");
+            steps.add(new Step() {
+                @Override
+                void apply(AXAnimation animation, Context context) {
+                    animation.animationRepeatCount(count);
+                }
+            });
+        }
+        if (json.has("animationRepeatMode")) {
+            final int mode = getRepeatMode(getString(json, "animation", "animationRepeatMode"), "animation.animationRepeatMode");
+            steps.add(new Step() {
+                @Override
+                void apply(AXAnimation animation, Context context) {
+                    animation.animationRepeatMode(mode);
+                }
+            });
+        }
+
+        if (json.has("sections")) {
+            if (json.has("rules"))
+                throw new IllegalArgumentException("animation: Use either sections or rules");
+
+            JSONArray sections = getArray(json, "animation", "sections");
+            for (int i = 0; i < sections.length(); i++)
+                compileSection(getObject(sections, i, "sections[" + i + "]"), "sections[" + i + "]", i, steps);
+        } else {
+            compileRules(json, "animation", steps);
+        }
+        return new AXAnimationDefinition(steps);
+    }
+
+    private static void compileSection(JSONObject json, String path, int index, List<Step> steps) throws JSONException {
+        checkKeys(json, path, "rules", "wait");
+        if (index > 0) {
+            final long wait = json.has("wait") ? getLong(json, path, "wait") : -1;
+            if (json.has("wait") && wait < 0)
+                throw new IllegalArgumentException(path + ".wait: Wait can't be negative");
+            steps.add(new Step() {
+                @Override
+                void apply(AXAnimation animation, Context context) {
+                    if (wait >= 0) {
+                        animation.nextSectionWithDelay(wait);
+                    } else {
+                        animation.nextSection();
+                    }
+                }
+            });
+        } else if (json.has("wait")) {
+            throw new IllegalArgumentException(path + ": The first section can't wait");
+        }
+
+        compileTiming(json, path, steps);
+        compileRules(json, path, steps);
+    }
+
+    private static void compileRules(JSONObject json, String path, List<Step> steps) throws JSONException {
+        if (!json.has("rules"))
+            return;
+
+        JSONArray rules = getArray(json, path, "rules");
+        for (int i = 0; i < rules.length(); i++) {
+            String rulePath = path + ".rules[" + i + "]";
+            JSONObject rule = getObject(rules, i, rulePath);
+            compileTiming(rule, rulePath, steps);
+            steps.add(compileRule(rule, rulePath));
+        }
+    }
+
+    private static void compileTiming(JSONObject json, String path, List<Step> steps) throws JSONException {
+        if (json.has("unit")) {
+            final String unit = getString(json, path, "unit");
+            if (!unit.equals("dp") && !unit.equals("px"))
+                throw new IllegalArgumentException(path + ".unit: Unknown unit (" + unit + ")");
+            steps.add(new Step() {
+                @Override
+                void apply(AXAnimation animation, Context context) {
+                    if (unit.equals("dp")) {
+                        animation.dp(context);
+                    } else {
+                        animation.px();
+                    }
+                }
+            });
+        }
+        if (json.has("duration")) {
+            final long duration = getLong(json, path, "duration");
+            if (duration < 1)
+                throw new IllegalArgumentException(path + ".duration: Duration must be positive");
+            steps.add(new Step() {
+                @Override
+                void apply(AXAnimation animation, Context context) {
+                    animation.duration(duration);
+                }
+            });
+        }
+        if (json.has("delay")) {
+            final long delay = getLong(json, path, "delay");
+            if (delay < 0)
+                throw new IllegalArgumentException(path + ".delay: Delay can't be negative");
+            steps.add(new Step() {
+                @Override
+                void apply(AXAnimation animation, Context context) {
+                    animation.delay(delay);
+                }
+            });
+        }
+        if (json.has("interpolator")) {
+            final String interpolator = getString(json, path, "interpolator");
+            if (!INTERPOLATORS.contains(interpolator))
+                throw new IllegalArgumentException(path + ".interpolator: Unknown interpolator (" + interpolator + ")");
+            steps.add(new Step() {
+                @Override
+                void apply(AXAnimation animation, Context context) {
+                    setInterpolator(animation, interpolator);
+                }
+            });
+        }
+        if (json.has("repeatCount")) {
+            final int count = getRepeatCount(get(json, path, "repeatCount"), path + ".repeatCount");
+            steps.add(new Step() {
+                @Override
+                void apply(AXAnimation animation, Context context) {
+                    animation.repeatCount(count);
+                }
+            });
+        }
+        if (json.has("repeatMode")) {
+            final int mode = getRepeatMode(getString(json, path, "repeatMode"), path + ".repeatMode");
+            steps.add(new Step() {
+                @Override
+                void apply(AXAnimation animation, Context context) {
+                    animation.repeatMode(mode);
+                }
+            });
+        }
+    }
+
+    private static void setInterpolator(AXAnimation animation, String name) {
+        switch (name) {
+            case "linear":
+                animation.linearInterpolator();
+                break;
+            case "accelerate":
+                animation.accelerateInterpolator();
+                break;
+            case "decelerate":
+                animation.decelerateInterpolator();
+                break;
+            case "accelerateDecelerate":
+                animation.accelerateDecelerateInterpolator();
+                break;
+            case "anticipate":
+                animation.anticipateInterpolator();
+                break;
+            case "overshoot":
+                animation.overshootInterpolator();
+                break;
+            case "anticipateOvershoot":
+                animation.anticipateOvershootInterpolator();
+                break;
+            case "bounce":
+                animation.bounceInterpolator();
+                break;
+        }
+    }
+
+    private static Step compileRule(JSONObject json, final String path) throws JSONException {
+        final String rule = getString(json, path, "rule");
+
+        if (FLOAT_RULES.contains(rule)) {
+            checkKeys(json, path, "rule", "value", "values");
+            final Float[] values = getFloatValues(json, path);
+            return new Step() {
+                @Override
+                void apply(AXAnimation animation, Context context) {
+                    applyFloatRule(animation, rule, values);
+                }
+            };
+        }
+
+        if (POSITION_RULES.contains(rule)) {
+            checkKeys(json, path, "rule", "value");
+            final Size value = getSize(get(json, path, "value"), path + ".value");
+            return new Step(value) {
+                @Override
+                void apply(AXAnimation animation, Context context) {
+                    applyPositionRule(animation, rule, value, context);
+                }
+            };
+        }
+
+        switch (rule) {
+            case "fadeIn":
+            case "fadeOut": {
+                checkKeys(json, path, "rule");
+                return new Step() {
+                    @Override
+                    void apply(AXAnimation animation, Context context) {
+                        if (rule.equals("fadeIn")) {
+                            animation.fadeIn();
+                        } else {
+                            animation.fadeOut();
+                        }
+                    }
+                };
+            }
+            case "visibility": {
+                checkKeys(json, path, "rule", "value");
+                final int visibility = getVisibility(getString(json, path, "value"), path + ".value");
+                return new Step() {
+                    @Override
+                    void apply(AXAnimation animation, Context context) {
+                        animation.visibility(visibility);
+                    }
+                };
+            }
+            case "backgroundColor": {
+                checkKeys(json, path, "rule", "value", "values");
+                final Integer[] colors = getColors(json, path);
+                return new Step() {
+                    @Override
+                    void apply(AXAnimation animation, Context context) {
+                        animation.backgroundColor(colors);
+                    }
+                };
+            }
+            case "property": {
+                checkKeys(json, path, "rule", "name", "value", "values");
+                final String name = getString(json, path, "name");
+                Float[] boxed = getFloatValues(json, path);
+                final float[] values = new float[boxed.length];
+                for (int i = 0; i < values.length; i++)
+                    values[i] = boxed[i];
+                return new Step() {
+                    @Override
+                    void apply(AXAnimation animation, Context context) {
+                        animation.property(name, values);
+                    }
+                };
+            }
+            case "resize": {
+                if (json.has("width") || json.has("height")) {
+                    checkKeys(json, path, "rule", "gravity", "width", "height");
+                    final int gravity = getGravity(getString(json, path, "gravity"), path + ".gravity");
+                    final Size width = getSize(get(json, path, "width"), path + ".width");
+                    final Size height = getSize(get(json, path, "height"), path + ".height");
+                    return new Step(width, height) {
+                        @Override
+                        void apply(AXAnimation animation, Context context) {
+                            if (width.isConstant() && height.isConstant()) {
+                                animation.resize(gravity, width.value, height.value);
+                            } else {
+                                animation.resize(gravity, width.create(context), height.create(context));
+                            }
+                        }
+                    };
+                } else {
+                    checkKeys(json, path, "rule", "left", "top", "right", "bottom");
+                    final Size left = getSize(get(json, path, "left"), path + ".left");
+                    final Size top = getSize(get(json, path, "top"), path + ".top");
+                    final Size right = getSize(get(json, path, "right"), path + ".right");
+                    final Size bottom = getSize(get(json, path, "bottom"), path + ".bottom");
+                    return new Step(left, top, right, bottom) {
+                        @Override
+                        void apply(AXAnimation animation, Context context) {
+                            if (left.isConstant() && top.isConstant() && right.isConstant() && bottom.isConstant()) {
+                                animation.resize(left.value, top.value, right.value, bottom.value);
+                            } else {
+                                animation.resize(left.create(context), top.create(context),
+                                        right.create(context), bottom.create(context));
+                            }
+                        }
+                    };
+                }
+            }
+            case "resizeWidth":
+            case "resizeHeight": {
+                checkKeys(json, path, "rule", "gravity", "value");
+                final int gravity = getGravity(getString(json, path, "gravity"), path + ".gravity");
+                final Size value = getSize(get(json, path, "value"), path + ".value");
+                return new Step(value) {
+                    @Override
+                    void apply(AXAnimation animation, Context context) {
+                        boolean width = rule.equals("resizeWidth");
+                        if (value.isConstant()) {
+                            if (width) {
+                                animation.resizeWidth(gravity, value.value);
+                            } else {
+                                animation.resizeHeight(gravity, value.value);
+                            }
+                        } else if (width) {
+                            animation.resizeWidth(gravity, value.create(context));
+                        } else {
+                            animation.resizeHeight(gravity, value.create(context));
+                        }
+                    }
+                };
+            }
+            case "move": {
+                checkKeys(json, path, "rule", "gravity", "x", "y");
+                final int gravity = getGravity(getString(json, path, "gravity"), path + ".gravity");
+                final Size x = getSize(get(json, path, "x"), path + ".x");
+                final Size y = getSize(get(json, path, "y"), path + ".y");
+                return new Step(x, y) {
+                    @Override
+                    void apply(AXAnimation animation, Context context) {
+                        if (x.isConstant() && y.isConstant()) {
+                            animation.move(gravity, x.value, y.value);
+                        } else {
+                            animation.move(gravity, x.create(context), y.create(context));
+                        }
+                    }
+                };
+            }
+        }
+        throw new IllegalArgumentException(path + ".rule: Unknown rule (" + rule + ")");
+    }
+
+    private static void applyFloatRule(AXAnimation animation, String rule, Float[] values) {
+        switch (rule) {
+            case "alpha":
+                animation.alpha(values);
+                break;
+            case "translationX":
+                animation.translationX(values);
+                break;
+            case "translationY":
+                animation.translationY(values);
+                break;
+            case "translationZ":
+                animation.translationZ(values);
+                break;
+            case "x":
+                animation.x(values);
+                break;
+            case "y":
+                animation.y(values);
+                break;
+            case "z":
+                animation.z(values);
+                break;
+            case "pivotX":
+                animation.pivotX(values);
+                break;
+            case "pivotY":
+                animation.pivotY(values);
+                break;
+            case "scale":
+                animation.scale(values);
+                break;
+            case "scaleX":
+                animation.scaleX(values);
+                break;
+            case "scaleY":
+                animation.scaleY(values);
+                break;
+            case "rotation":
+                animation.rotation(values);
+                break;
+            case "rotationX":
+                animation.rotationX(values);
+                break;
+            case "rotationY":
+                animation.rotationY(values);
+                break;
+            case "cameraDistance":
+                animation.cameraDistance(values);
+                break;
+            case "textSize":
+                animation.textSize(values);
+                break;
+        }
+    }
+
+    private static void applyPositionRule(AXAnimation animation, String rule, Size size, Context context) {
+        LiveSize live = size.isConstant() ? null : size.create(context);
+        switch (rule) {
+            case "toLeft":
+                if (live == null) {
+                    animation.toLeft(size.value);
+                } else {
+                    animation.toLeft(live);
+                }
+                break;
+            case "toTop":
+                if (live == null) {
+                    animation.toTop(size.value);
+                } else {
+                    animation.toTop(live);
+                }
+                break;
+            case "toRight":
+                if (live == null) {
+                    animation.toRight(size.value);
+                } else {
+                    animation.toRight(live);
+                }
+                break;
+            case "toBottom":
+                if (live == null) {
+                    animation.toBottom(size.value);
+                } else {
+                    animation.toBottom(live);
+                }
+                break;
+            case "toCenterHorizontal":
+                if (live == null) {
+                    animation.toCenterHorizontal(size.value);
+                } else {
+                    animation.toCenterHorizontal(live);
+                }
+                break;
+            case "toCenterVertical":
+                if (live == null) {
+                    animation.toCenterVertical(size.value);
+                } else {
+                    animation.toCenterVertical(live);
+                }
+                break;
+        }
+    }
+
+    // *************** Values ***************
+
+    private static void checkKeys(JSONObject json, String path, String... allowed) {
+        List<String> keys = Arrays.asList(allowed);
+        List<String> timing = Arrays.asList(TIMING);
+        Iterator<String> iterator = json.keys();
+        while (iterator.hasNext()) {
+            String key = iterator.next();
+            if (!keys.contains(key) && !timing.contains(key))
+                throw new IllegalArgumentException(path + ": Unknown key (" + key + ")");
+        }
+    }
+
+    /**
+     * @return the value of key, Throws an exception with the path if it's missing.
+     */
+    private static Object get(JSONObject json, String path, String key) {
+        Object value = json.opt(key);
+        if (value == null || value == JSONObject.NULL)
+            throw new IllegalArgumentException(path + "." + key + ": Value is missing");
+        return value;
+    }
+
+    private static String getString(JSONObject json, String path, String key) {
+        Object value = get(json, path, key);
+        if (!(value instanceof String))
+            throw new IllegalArgumentException(path + "." + key + ": Must be a string (" + value + ")");
+        return (String) value;
+    }
+
+    private static long getLong(JSONObject json, String path, String key) {
+        Object value = get(json, path, key);
+        if (!(value instanceof Number) || ((Number) value).doubleValue() != ((Number) value).longValue())
+            throw new IllegalArgumentException(path + "." + key + ": Must be an integer (" + value + ")");
+        return ((Number) value).longValue();
+    }
+
+    private static JSONArray getArray(JSONObject json, String path, String key) {
+        Object value = get(json, path, key);
+        if (!(value instanceof JSONArray))
+            throw new IllegalArgumentException(path + "." + key + ": Must be an array (" + value + ")");
+        return (JSONArray) value;
+    }
+
+    /**
+     * @param path the path of item
+     */
+    private static JSONObject getObject(JSONArray array, int index, String path) {
+        Object value = array.opt(index);
+        if (!(value instanceof JSONObject))
+            throw new IllegalArgumentException(path + ": Must be an object (" + value + ")");
+        return (JSONObject) value;
+    }
+
+    private static JSONArray getValues(JSONObject json, String path) {
+        if (json.has("values")) {
+            JSONArray values = getArray(json, path, "values");
+            if (values.length() == 0)
+                throw new IllegalArgumentException(path + ".values: Values can't be empty");
+            return values;
+        } else if (json.has("value")) {
+            return new JSONArray().put(get(json, path, "value"));
+        }
+        throw new IllegalArgumentException(path + ": Value is missing");
+    }
+
+    private static Float[] getFloatValues(JSONObject json, String path) {
+        JSONArray array = getValues(json, path);
+        Float[] values = new Float[array.length()];
+        for (int i = 0; i < values.length; i++) {
+            Object value = array.opt(i);
+            if (!(value instanceof Number))
+                throw new IllegalArgumentException(path + ".values[" + i + "]: Must be a number (" + value + ")");
+            values[i] = ((Number) value).floatValue();
+        }
+        return values;
+    }
+
+    private static Integer[] getColors(JSONObject json, String path) throws JSONException {
+        JSONArray array = getValues(json, path);
+        Integer[] colors = new Integer[array.length()];
+        for (int i = 0; i < colors.length; i++) {
+            Object value = array.get(i);
+            if (value instanceof Number) {
+                colors[i] = ((Number) value).intValue();
+            } else {
+                try {
+                    colors[i] = Color.parseColor(value.toString());
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(path + ".values[" + i + "]: Unknown color (" + value + ")");
+                }
+            }
+        }
+        return colors;
+    }
+
+    private static int getRepeatCount(Object value, String path) {
+        if ("infinite".equals(value))
+            return AXAnimation.INFINITE;
+        if (value instanceof Number && ((Number) value).intValue() >= 0)
+            return ((Number) value).intValue();
+        throw new IllegalArgumentException(path + ": Invalid repeat count (" + value + ")");
+    }
+
+    private static int getRepeatMode(String value, String path) {
+        if (value.equals("restart"))
+            return AXAnimation.RESTART;
+        if (value.equals("reverse"))
+            return AXAnimation.REVERSE;
+        throw new IllegalArgumentException(path + ": Unknown repeat mode (" + value + ")");
+    }
+
+    private static int getVisibility(String value, String path) {
+        switch (value) {
+            case "visible":
+                return View.VISIBLE;
+            case "invisible":
+                return View.INVISIBLE;
+            case "gone":
+                return View.GONE;
+        }
+        throw new IllegalArgumentException(path + ": Unknown visibility (" + value + ")");
+    }
+
+    /**
+     * @return the gravity of names such as "left|top"
+     */
+    private static int getGravity(String value, String path) {
+        int gravity = 0;
+        for (String name : value.split("\\|")) {
+            int g = getGravityFlag(name.trim());
+            if (g == -1)
+                throw new IllegalArgumentException(path + ": Unknown gravity (" + name + ")");
+            gravity |= g;
+        }
+        return gravity;
+    }
+
+    private static int getGravityFlag(String name) {
+        switch (name) {
+            case "left":
+                return Gravity.LEFT;
+            case "top":
+                return Gravity.TOP;
+            case "right":
+                return Gravity.RIGHT;
+            case "bottom":
+                return Gravity.BOTTOM;
+            case "center":
+                return Gravity.CENTER;
+            case "center_horizontal":
+                return Gravity.CENTER_HORIZONTAL;
+            case "center_vertical":
+                return Gravity.CENTER_VERTICAL;
+            case "width":
+            case "fill_horizontal":
+                return Gravity.FILL_HORIZONTAL;
+            case "height":
+            case "fill_vertical":
+                return Gravity.FILL_VERTICAL;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the value of a reference such as "parent|right"
+     */
+    private static int getReference(String value, String path) {
+        switch (value) {
+            case "contentWidth":
+                return AXAnimation.CONTENT_WIDTH;
+            case "contentHeight":
+                return AXAnimation.CONTENT_HEIGHT;
+            case "parentWidth":
+                return AXAnimation.PARENT_WIDTH;
+            case "parentHeight":
+                return AXAnimation.PARENT_HEIGHT;
+        }
+
+        String[] names = value.split("\\|", 2);
+        int layout;
+        switch (names[0].trim()) {
+            case "parent":
+                layout = AXAnimation.PARENT;
+                break;
+            case "target":
+                layout = AXAnimation.TARGET;
+                break;
+            case "original":
+                layout = AXAnimation.ORIGINAL;
+                break;
+            default:
+                throw new IllegalArgumentException(path + ": Unknown reference (" + value + ")");
+        }
+        if (names.length < 2)
+            throw new IllegalArgumentException(path + ": Reference needs a gravity (" + value + ")");
+        return layout | getGravity(names[1], path);
+    }
+
+    private static final int PLUS = 0, MINUS = 1, MULTIPLE = 2, DIVIDE = 3, THEN = 4;
+    private static final List<String> OPERATIONS = Arrays.asList("plus", "minus", "multiple", "divide", "then");
+
+    /**
+     * A constant size or a {@link LiveSize},
+     * A new LiveSize is created for each animation since it's a LiveVar.
+     */
+    private static final class Size {
+        final int value;
+        final float start;
+        @Nullable
+        final int[] operations, gravities;
+        @Nullable
+        final float[] values;
+        /* id names of the related views, null for the numbers */
+        @Nullable
+        final String[] views;
+
+        Size(int value) {
+            this.value = value;
+            this.start = value;
+            operations = gravities = null;
+            values = null;
+            views = null;
+        }
+
+        Size(float start, int[] operations, float[] values, String[] views, int[] gravities) {
+            this.value = 0;
+            this.start = start;
+            this.operations = operations;
+            this.values = values;
+            this.views = views;
+            this.gravities = gravities;
+        }
+
+        boolean isConstant() {
+            return operations == null;
+        }
+
+        LiveSize create(Context context) {
+            LiveSize size = LiveSize.create(start);
+            if (operations == null)
+                return size;
+
+            for (int i = 0; i < operations.length; i++) {
+                if (operations[i] == THEN) {
+                    switch ((int) values[i]) {
+                        case PLUS:
+                            size.thenPlus();
+                            break;
+                        case MINUS:
+                            size.thenMinus();
+                            break;
+                        case MULTIPLE:
+                            size.thenMultiple();
+                            break;
+                        case DIVIDE:
+                            size.thenDivide();
+                            break;
+                    }
+                } else if (views[i] != null) {
+                    int id = getId(context, views[i]);
+                    switch (operations[i]) {
+                        case PLUS:
+                            size.plus(id, gravities[i]);
+                            break;
+                        case MINUS:
+                            size.minus(id, gravities[i]);
+                            break;
+                        case MULTIPLE:
+                            size.multiple(id, gravities[i]);
+                            break;
+                        case DIVIDE:
+                            size.divide(id, gravities[i]);
+                            break;
+                    }
+                } else {
+                    switch (operations[i]) {
+                        case PLUS:
+                            size.plus(values[i]);
+                            break;
+                        case MINUS:
+                            size.minus(values[i]);
+                            break;
+                        case MULTIPLE:
+                            size.multiple(values[i]);
+                            break;
+                        case DIVIDE:
+                            size.divide(values[i]);
+                            break;
+                    }
+                }
+            }
+            return size;
+        }
+
+        void validate(Context context) {
+            if (views == null)
+                return;
+
+            for (String view : views) {
+                if (view != null)
+                    getId(context, view);
+            }
+        }
+
+        private static int getId(Context context, String name) {
+            int id = context.getResources().getIdentifier(name, "id", context.getPackageName());
+            if (id == 0)
+                throw new IllegalArgumentException("Unknown view id (" + name + ")");
+            return id;
+        }
+    }
+
+    private static Size getSize(Object value, String path) throws JSONException {
+        if (value instanceof Number) {
+            Number number = (Number) value;
+            if (number.doubleValue() != number.intValue())
+                throw new IllegalArgumentException(path + ": Size must be an integer (" + value + ")");
+            return new Size(number.intValue());
+        }
+        if (value instanceof String)
+            return new Size(getReference((String) value, path), new int[0], new float[0], new String[0], new int[0]);
+        if (!(value instanceof JSONArray) || ((JSONArray) value).length() == 0)
+            throw new IllegalArgumentException(path + ": Invalid size (" + value + ")");
+
+        JSONArray array = (JSONArray) value;
+        Object first = array.get(0);
+        float start;
+        if (first instanceof Number) {
+            start = ((Number) first).floatValue();
+        } else {
+            start = getReference(first.toString(), path + "[0]");
+        }
+
+        int count = array.length() - 1;
+        int[] operations = new int[count], gravities = new int[count];
+        float[] values = new float[count];
+        String[] views = new String[count];
+
+        for (int i = 0; i < count; i++) {
+            String opPath = path + "[" + (i + 1) + "]";
+            JSONObject op = getObject(array, i + 1, opPath);
+            String name = null;
+            for (String operation : OPERATIONS) {
+                if (op.has(operation)) {
+                    if (name != null)
+                        throw new IllegalArgumentException(opPath + ": One operation per item");
+                    name = operation;
+                }
+            }
+            if (name == null)
+                throw new IllegalArgumentException(opPath + ": Unknown operation");
+
+            operations[i] = OPERATIONS.indexOf(name);
+            Object operand = op.get(name);
+            if (operations[i] == THEN) {
+                int type = OPERATIONS.indexOf(operand.toString());
+                if (type < 0 || type == THEN)
+                    throw new IllegalArgumentException(opPath + ": Unknown operation (" + operand + ")");
+                values[i] = type;
+            } else if (operand instanceof Number) {
+                if (op.length() != 1)
+                    throw new IllegalArgumentException(opPath + ": Unknown key");
+                values[i] = ((Number) operand).floatValue();
+            } else {
+                String view = operand.toString();
+                if (!view.startsWith("@id/") || !op.has("gravity") || op.length() != 2)
+                    throw new IllegalArgumentException(opPath + ": A related view needs an @id/name and a gravity");
+                views[i] = view.substring(4);
+                gravities[i] = getGravity(getString(op, opPath, "gravity"), opPath + ".gravity");
+            }
+        }
+        return new Size(start, operations, values, views, gravities);
+    }
+}
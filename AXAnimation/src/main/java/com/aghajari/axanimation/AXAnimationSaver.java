@@ -39,8 +39,14 @@ class AXAnimationSaver {
     }
 
     public static AXAnimation get(String name) {
-        if (animations == null || !animations.containsKey(name))
-            throw new RuntimeException("Animation (" + name + ") doesn't exist!");
+        if (animations == null || !animations.containsKey(name)) {
+            // Registered definitions are created on the first use
+            AXAnimation animation = AXAnimationDefinition.createAnimation(name);
+            if (animation == null)
+                throw new RuntimeException("Animation (" + name + ") doesn't exist!");
+            save(animation, name);
+            return animation;
+        }
         return animations.get(name);
     }
 
@@ -19,8 +19,10 @@ package com.aghajari.axanimation;
 import android.util.Pair;
 import android.view.View;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.aghajari.axanimation.clock.AnimationClock;
 import com.aghajari.axanimation.listener.AXAnimatorSetListener;
 import com.aghajari.axanimation.listener.AXAnimatorSetListenerAdapter;
 
@@ -118,6 +120,26 @@ public class AXAnimationSet implements BaseAnimation {
         return animatorSet.getTotalDuration(this);
     }
 
+    /**
+     * Sets the {@link AnimationClock} which drives the timing of this set.
+     * The clock will be applied to the animations of this set when they start,
+     * Their own clock comes back once they end or get canceled.
+     *
+     * @param clock the clock, or null to use the default clock.
+     */
+    public AXAnimationSet setClock(@Nullable AnimationClock clock) {
+        animatorSet.clock = clock == null ? AnimationClock.getDefault() : clock;
+        return this;
+    }
+
+    /**
+     * @return the {@link AnimationClock} which drives the timing of this set.
+     */
+    @NonNull
+    public AnimationClock getClock() {
+        return animatorSet.clock;
+    }
+
     public void pause() {
         animatorSet.pause();
     }
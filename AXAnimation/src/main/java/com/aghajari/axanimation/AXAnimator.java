@@ -18,15 +18,19 @@ package com.aghajari.axanimation;
 
 import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
+import android.animation.ObjectAnimator;
 import android.animation.ValueAnimator;
 import android.view.View;
 
+import com.aghajari.axanimation.clock.AnimationClock;
 import com.aghajari.axanimation.layouts.AnimatedLayout;
 import com.aghajari.axanimation.layouts.AnimatedLayoutParams;
 import com.aghajari.axanimation.livevar.LayoutSize;
 import com.aghajari.axanimation.listener.AXAnimatorListener;
 import com.aghajari.axanimation.livevar.LiveVarUpdater;
 import com.aghajari.axanimation.prerule.PreRule;
+import com.aghajari.axanimation.rules.FusedPropertyRule;
+import com.aghajari.axanimation.rules.PropertyTrackRule;
 import com.aghajari.axanimation.rules.ReverseWaitRule;
 import com.aghajari.axanimation.rules.Rule;
 import com.aghajari.axanimation.rules.RuleSection;
@@ -35,6 +39,7 @@ import com.aghajari.axanimation.rules.SkippedRule;
 import com.aghajari.axanimation.rules.WaitNotifyRule;
 import com.aghajari.axanimation.rules.WaitRule;
 import com.aghajari.axanimation.utils.InspectUtils;
+import com.aghajari.axanimation.utils.TraceUtils;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -47,18 +52,30 @@ import java.util.List;
 class AXAnimator {
     final ArrayList<AXAnimatorListener> listeners = new ArrayList<>();
     final List<Animator> animators = new ArrayList<>();
+    /* Animators of the running section that it waits for, See findLongerAnimator */
+    private final List<Animator> sectionAnimators = new ArrayList<>();
     final List<LayoutSize> layouts = new ArrayList<>();
     final int[] indexes = new int[2];
     final int[] targetIndexes = new int[2];
     LayoutSize[] layoutSizes = new LayoutSize[2];
     View targetView;
+    AnimationClock clock = AnimationClock.getDefault();
 
     boolean end;
     boolean paused, running;
     boolean reverse = false;
     boolean needsEndFirst = false;
+    /* Paused by VisibilityObserver while the target view is hidden */
+    boolean culled = false;
+    private long culledAt;
+    private VisibilityObserver visibilityObserver;
     LayoutSize targetSize;
     AXAnimation animation;
+    Rule<?>[][] tracks;
+    /* Tracks of the SectionInfo, Repeats and starts reuse them until the sections change */
+    private Rule<?>[][] cachedTracks;
+    private SectionInfo tracksInfo;
+    final List<Animator> trackAnimators = new ArrayList<>();
     long playTime;
     long customPlayTime = 0;
     long reverseDelay;
@@ -68,44 +85,97 @@ class AXAnimator {
     public void pause() {
         running = false;
         paused = true;
-        for (Animator animator : animators) {
-            animator.pause();
+        for (int i = 0; i < animators.size(); i++) {
+            clock.pause(animators.get(i));
         }
 
-        for (AXAnimatorListener listener : listeners)
-            listener.onAnimationPause(animation);
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onAnimationPause(animation);
     }
 
     public void resume() {
         running = true;
         paused = false;
-        for (Animator animator : animators) {
-            animator.resume();
+        // Stays paused until the target view can be seen again
+        if (!culled) {
+            for (int i = 0; i < animators.size(); i++) {
+                clock.resume(animators.get(i));
+            }
         }
 
-        for (AXAnimatorListener listener : listeners)
-            listener.onAnimationResume(animation);
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onAnimationResume(animation);
     }
 
     public void cancel() {
         running = false;
         paused = false;
         try {
-            for (Animator animator : animators) {
-                animator.cancel();
+            // Canceled animators remove themselves from the list, See animatorEndListener
+            for (int i = animators.size() - 1; i >= 0; i--) {
+                if (i < animators.size())
+                    clock.cancel(animators.get(i));
             }
         } catch (Exception ignore) {
         }
         animators.clear();
+        sectionAnimators.clear();
+        removeCallbacks();
+        discardPlan();
 
-        for (AXAnimatorListener listener : listeners)
+        // Listeners might remove themselves
+        for (AXAnimatorListener listener : listeners.toArray(new AXAnimatorListener[0]))
             listener.onAnimationCancel(animation);
 
         AXAnimationSaver.clear(targetView, animation);
+        if (targetView != null)
+            AXPropertyOwners.releaseLayout(targetView, targetSize);
+        stopObserving();
+    }
+
+    /**
+     * Pauses the animators without notifying the listeners,
+     * Called when the target view can't be seen anymore.
+     */
+    void cull() {
+        if (culled || !running)
+            return;
+
+        culled = true;
+        culledAt = clock.uptimeMillis();
+        for (int i = 0; i < animators.size(); i++) {
+            clock.pause(animators.get(i));
+        }
+    }
+
+    /**
+     * Resumes the animators from the play time which they would have had
+     * if they had kept running while the target view was hidden.
+     */
+    void uncull() {
+        if (!culled)
+            return;
+
+        culled = false;
+        if (paused)
+            return;
+
+        long skip = clock.uptimeMillis() - culledAt;
+        for (int i = 0; i < animators.size(); i++) {
+            clock.resume(animators.get(i), skip);
+        }
+    }
+
+    private void stopObserving() {
+        culled = false;
+        if (visibilityObserver != null)
+            visibilityObserver.stop();
     }
 
     public void end() {
         pause();
+        endTracks();
+        discardPlan();
         running = false;
         paused = false;
         end = true;
@@ -154,23 +224,95 @@ class AXAnimator {
         if (repeat) {
             repeatCount = animation.repeatCount;
             repeatMode = animation.repeatMode;
+            plan = null;
+        }
+
+        replaying = !endMode && plan != null && plan.canReplay(animation, parentSize);
+
+        trackAnimators.clear();
+        tracks = !replaying && !reverse && !endMode && animation.isPropertyTracksEnabled()
+                ? getTracks() : null;
+
+        if (!replaying) {
+            plan = repeatCount != 0 && !endMode && tracks == null
+                    && animation.isPlaybackPlanEnabled() && !animation.isRetargetEnabled()
+                    && animation.getALlLiveVarUpdaters().isEmpty()
+                    ? new PlaybackPlan(animation, parentSize, reverse) : null;
         }
 
         AXAnimationSaver.run(view, animation);
 
-        LayoutSize targetSize = new LayoutSize(originalSize);
+        // originalSize might be one of the pooled sizes of the last run
+        layoutPoolIndex = 0;
+        if (layoutPool.contains(originalSize)) {
+            startSize.set(originalSize);
+            originalSize = startSize;
+        }
+
+        // Repeats reuse the targetSize and LayoutParams of the first run
+        final boolean reuse = !repeat && targetSize != null;
+        if (reuse) {
+            targetSize.set(originalSize);
+        } else {
+            targetSize = new LayoutSize(originalSize);
+        }
+
         if (view.getParent() != null && view.getParent() instanceof AnimatedLayout) {
-            AnimatedLayoutParams lp = new AnimatedLayoutParams(view.getLayoutParams(), targetSize);
-            lp.originalLayout = originalSize.clone();
-            view.setLayoutParams(lp);
+            if (reuse && view.getLayoutParams() == layoutParams && layoutParams != null) {
+                layoutParams.left = targetSize.left;
+                layoutParams.top = targetSize.top;
+                layoutParams.right = targetSize.right;
+                layoutParams.bottom = targetSize.bottom;
+                layoutParams.originalLayout.set(originalSize);
+                view.setLayoutParams(layoutParams);
+            } else {
+                AnimatedLayoutParams lp = new AnimatedLayoutParams(view.getLayoutParams(), targetSize);
+                lp.originalLayout = originalSize.clone();
+                view.setLayoutParams(lp);
+                layoutParams = lp;
+            }
+        }
+
+        if (repeat) {
+            culled = false;
+            if (!endMode && animation.isPauseWhenHiddenEnabled()) {
+                if (visibilityObserver == null)
+                    visibilityObserver = new VisibilityObserver(this);
+                visibilityObserver.observe(view);
+            } else {
+                stopObserving();
+            }
         }
-        this.targetSize = targetSize;
 
-        for (AXAnimatorListener listener : listeners)
-            listener.onAnimationStart(animation);
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onAnimationStart(animation);
         start(view, parentSize, originalSize, animation, 0);
     }
 
+    /* Sections are started by a loop instead of recursion, See #start(View, LayoutSize, LayoutSize, AXAnimation, int) */
+    private boolean scheduling = false;
+    private boolean pendingSection = false;
+
+    /* Section changes copy targetSize into these, So repeats don't allocate new LayoutSizes */
+    private final List<LayoutSize> layoutPool = new ArrayList<>();
+    private final LayoutSize startSize = new LayoutSize();
+    private int layoutPoolIndex = 0;
+    private AnimatedLayoutParams layoutParams;
+
+    /* Animators of the first run, See PlaybackPlan */
+    private PlaybackPlan plan;
+    private boolean replaying = false;
+
+    /* The running section */
+    private RuleSection section, info;
+
+    /* Rules of the running section, RuleSets push their rules as a new frame */
+    private Rule<?>[][] frameRules = new Rule<?>[2][];
+    private AXAnimatorData[] frameValues = new AXAnimatorData[2];
+    private int[] frameIndexes = new int[2];
+    private int depth = -1;
+    private boolean skipReady = false;
+
     private void start(final View view, final LayoutSize parentSize, final LayoutSize originalSize, final AXAnimation a, final int index) {
         if (indexes[0] != index)
             indexes[1] = 0;
@@ -178,252 +320,586 @@ class AXAnimator {
         indexes[0] = index;
         layoutSizes[0] = parentSize;
         layoutSizes[1] = originalSize;
-        if (!running)
-            return;
+        this.targetView = view;
+        this.animation = a;
 
-        if (index == a.rules.size()) {
-            done(view, a);
+        // A section ended synchronously (e.g. end mode), The running loop will start the next one.
+        if (scheduling) {
+            pendingSection = true;
             return;
         }
 
-        int ri = reverse ? a.rules.size() - index - 1 : index;
+        scheduling = true;
+        try {
+            do {
+                pendingSection = false;
+                if (!running)
+                    return;
+
+                if (indexes[0] == a.rules.size()) {
+                    done(targetView, a);
+                } else {
+                    startSection(indexes[0]);
+                }
+            } while (pendingSection);
+        } finally {
+            scheduling = false;
+        }
+    }
+
+    private void startSection(final int index) {
+        final AXAnimation a = animation;
+        final int ri = reverse ? a.rules.size() - index - 1 : index;
         final RuleSection section = a.rules.get(ri);
+
+        final boolean trace = TraceUtils.isEnabled();
+        if (trace)
+            TraceUtils.beginSection("AXAnimator.section:", section.getSectionName());
+        try {
+            startSection(targetView, layoutSizes[0], layoutSizes[1], a, index, ri, section);
+        } finally {
+            if (trace)
+                TraceUtils.endSection();
+        }
+    }
+
+    private void startSection(final View view, final LayoutSize parentSize, final LayoutSize originalSize, final AXAnimation a, final int index, final int ri, final RuleSection section) {
         section.debug(view, targetSize, originalSize, parentSize, a);
         section.onStart(a);
 
         final RuleSection info = section instanceof RuleSectionWrapper ?
                 ((RuleSectionWrapper) section).getRuleSection() : section;
+        this.section = section;
+        this.info = info;
+        sectionAnimators.clear();
 
-        for (AXAnimatorListener listener : listeners)
-            listener.onRuleSectionChanged(a, section);
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onRuleSectionChanged(a, section);
 
         List<LiveVarUpdater> updaters = a.getALlLiveVarUpdaters();
         if (updaters.size() > 0) {
-            int realSectionIndex = -1;
-            for (int s = 0; s <= index; s++) {
-                if (!(a.getRuleSection(s) instanceof WaitRule))
-                    realSectionIndex++;
-            }
+            SectionInfo sectionInfo = a.getSectionInfo();
+            int realSectionIndex = sectionInfo.realSectionIndexes[index];
             if (reverse)
-                realSectionIndex = a.getRealRuleSectionCount() - realSectionIndex;
+                realSectionIndex = sectionInfo.realSectionCount - realSectionIndex;
             realSectionIndex = Math.max(realSectionIndex, 0);
 
-            for (LiveVarUpdater updater : updaters) {
-                updater.update(a, ri, realSectionIndex, section);
+            for (int i = 0; i < updaters.size(); i++) {
+                updaters.get(i).update(a, ri, realSectionIndex, section);
             }
         }
 
+        // A LiveVar might be changed by a listener
+        if (replaying && !plan.canReplay(a, parentSize))
+            discardPlan();
+
+        if (replaying) {
+            replaySection(ri);
+            return;
+        }
+
         boolean hasCustomPlayTime = targetIndexes[0] == index && customPlayTime > 0;
+        if (plan != null && (hasCustomPlayTime || validateEnd()
+                || info instanceof WaitNotifyRule || info instanceof ReverseWaitRule))
+            plan = null;
 
         if (info instanceof WaitNotifyRule) {
             resetLastAnimator();
             long d = ((WaitNotifyRule) info).duration;
-            view.postDelayed(new Runnable() {
-                @Override
-                public void run() {
-                    if (((WaitNotifyRule) info).isDone(view)) {
-                        playTime += ((WaitNotifyRule) info).duration;
-                        section.onEnd(a);
-                        start(view, parentSize, targetSize.clone(), a, index + 1);
-                    } else {
-                        view.postDelayed(this, ((WaitNotifyRule) info).duration);
-                    }
-                }
-            }, hasCustomPlayTime ? d - customPlayTime : d);
+            clock.removeCallbacks(view, waitNotifyRunnable);
+            clock.postDelayed(view, waitNotifyRunnable, hasCustomPlayTime ? d - customPlayTime : d);
             return;
         } else if (info instanceof ReverseWaitRule) {
             resetLastAnimator();
-            start(view, parentSize, targetSize.clone(), a, index + 1);
+            start(view, parentSize, obtainLayoutSize(), a, index + 1);
             return;
         } else if (info instanceof WaitRule) {
             resetLastAnimator();
             lastAnimator = ((WaitRule) info).createAnimator();
-            lastAnimator.addListener(new AnimatorListenerAdapter() {
-                @Override
-                public void onAnimationEnd(Animator a1) {
-                    super.onAnimationEnd(a1);
-                    playTime += a1.getDuration() + a1.getStartDelay();
-                    resetLastAnimator();
-                    section.onEnd(a);
-                    start(view, parentSize, targetSize.clone(), a, index + 1);
-                }
-            });
+            // Tracked like the animators of rules, So a replay of the plan handles it the same way
+            // and re-adding sectionEndListener doesn't create a new listener list
+            lastAnimator.addListener(animatorEndListener);
+            lastAnimator.addListener(sectionEndListener);
+            if (plan != null) {
+                plan.add(ri, (ValueAnimator) lastAnimator, null, false);
+                plan.setLast(ri, lastAnimator, null);
+            }
             if (hasCustomPlayTime)
                 ((ValueAnimator) lastAnimator).setCurrentPlayTime(customPlayTime);
 
-            if (validateEnd())
+            TraceUtils.onAnimatorStarted();
+            if (validateEnd()) {
                 lastAnimator.end();
-            else
-                lastAnimator.start();
+            } else {
+                clock.start(lastAnimator, false);
+                if (culled)
+                    clock.pause(lastAnimator);
+            }
+            animators.add(lastAnimator);
             return;
         }
 
         if (info.getRules() == null)
             throw new NullPointerException("Rules can't be null!");
 
+        // The section might be restarted while a rule was waiting
+        clock.removeCallbacks(view, ruleWaitRunnable);
+
         if (originalSize != null && !layouts.contains(originalSize))
             layouts.add(originalSize);
 
         if (info.getAnimatorValues() != null && info.getAnimatorValues().isClearOldInspectEnabled())
             InspectUtils.clearInspect(view);
 
-        int rulesCount = info.getRules().length;
-        startRule(view, parentSize, originalSize, a, info, section, rulesCount, indexes[1], index);
+        depth = -1;
+        pushRules(getRules(info, ri), info.getAnimatorValues(), indexes[1]);
+        skipReady = false;
+        startRules();
     }
 
     private Rule<?> lastRule;
     private Animator lastAnimator;
     private long durationOfLastAnimator = 0;
 
-    private void startRule(final View view, final LayoutSize parentSize, final LayoutSize originalSize, final AXAnimation a, final RuleSection info, final RuleSection main, final int max, final int index, final int index2) {
-        startRule(view, parentSize, originalSize, a, info, main, max, index, index2, true);
+    private void pushRules(Rule<?>[] rules, AXAnimatorData values, int index) {
+        depth++;
+        if (depth == frameRules.length) {
+            int size = depth * 2;
+            Rule<?>[][] r = new Rule<?>[size][];
+            AXAnimatorData[] v = new AXAnimatorData[size];
+            int[] i = new int[size];
+            System.arraycopy(frameRules, 0, r, 0, depth);
+            System.arraycopy(frameValues, 0, v, 0, depth);
+            System.arraycopy(frameIndexes, 0, i, 0, depth);
+            frameRules = r;
+            frameValues = v;
+            frameIndexes = i;
+        }
+        frameRules[depth] = rules;
+        frameValues[depth] = values;
+        frameIndexes[depth] = index;
+    }
+
+    /**
+     * Starts the rules of the running section one after another,
+     * The rules of a {@link Rule#isRuleSet()} will start right after the RuleSet itself.
+     */
+    private void startRules() {
+        final View view = targetView;
+        final LayoutSize parentSize = layoutSizes[0];
+        final LayoutSize originalSize = layoutSizes[1];
+
+        while (running && depth >= 0) {
+            final Rule<?>[] rules = frameRules[depth];
+            final int index = frameIndexes[depth];
+            if (depth == 0)
+                indexes[1] = index;
+
+            if (index == rules.length) {
+                frameRules[depth] = null;
+                frameValues[depth] = null;
+                if (depth-- == 0) {
+                    onRulesStarted();
+                    return;
+                }
+                continue;
+            }
+
+            Rule<?> rule = rules[reverse ? rules.length - 1 - index : index];
+            if (rule instanceof SkippedRule) {
+                frameIndexes[depth]++;
+                continue;
+            }
+
+            rule.getFromLiveData();
+            boolean r = rule.shouldReverseAnimator(reverse);
+            rule.setStartedAsReverse(r);
+            if (!skipReady) {
+                rule.getReady(view);
+                rule.getReady(layouts);
+            }
+            skipReady = false;
+
+            if (rule.shouldWait() >= 0) {
+                plan = null;
+                skipReady = true;
+                clock.removeCallbacks(view, ruleWaitRunnable);
+                clock.postDelayed(view, ruleWaitRunnable, rule.shouldWait());
+                return;
+            }
+
+            startRule(view, parentSize, originalSize, rule, r, frameValues[depth]);
+            frameIndexes[depth]++;
+
+            if (rule.isRuleSet()) {
+                Rule<?>[] ruleSet = rule.createRules();
+                if (ruleSet != null && ruleSet.length > 0)
+                    pushRules(FusedPropertyRule.fuse(ruleSet, rule.getAnimatorValues()), rule.getAnimatorValues(), 0);
+            }
+        }
     }
 
-    private void startRule(final View view, final LayoutSize parentSize, final LayoutSize originalSize, final AXAnimation a, final RuleSection info, final RuleSection main, final int max, final int index, final int index2, final boolean ready) {
-        indexes[1] = index;
-        if (!running)
+    private void startRule(final View view, final LayoutSize parentSize, final LayoutSize originalSize, final Rule<?> rule, final boolean r, final AXAnimatorData sectionValues) {
+        final boolean trace = TraceUtils.isEnabled();
+        if (trace)
+            TraceUtils.beginSection("AXRule.onCreateAnimator:", rule.getRuleName());
+        Animator animator;
+        try {
+            animator = rule.onCreateAnimator(view, targetSize, originalSize, parentSize);
+        } finally {
+            if (trace)
+                TraceUtils.endSection();
+        }
+
+        // Keep the timing of a rule with no effect but skip it's updates
+        final boolean noOp = animator != null && animation.shouldSkipNoOpRules() && rule.isNoOp();
+        if (noOp)
+            animator = ValueAnimator.ofInt(0, 1);
+        rule.debug(view, targetSize, originalSize, parentSize);
+        if (animator == null) {
+            rule.debug(null);
             return;
+        }
 
-        if (max == index) {
-            if (lastAnimator != null) {
-                if (!validateEnd() && a.rules.size() > index2 + 1 && a.getRuleSection(index2 + 1) instanceof ReverseWaitRule) {
-                    long rd = ((ReverseWaitRule) a.getRuleSection(index2 + 1)).duration;
-                    reverseDelay += rd;
-
-                    view.postDelayed(new Runnable() {
-                        @Override
-                        public void run() {
-                            resetLastAnimator();
-                            main.onEnd(a);
-                            start(view, parentSize, targetSize.clone(), a, index2 + 1);
-                        }
-                    }, durationOfLastAnimator - rd);
-
-                    lastAnimator.addListener(new AnimatorListenerAdapter() {
-                        @Override
-                        public void onAnimationEnd(Animator a1) {
-                            super.onAnimationEnd(a1);
-                            playTime += a1.getDuration() + a1.getStartDelay();
-                        }
-                    });
-                } else {
-                    if (validateEnd()) {
-                        playTime += lastAnimator.getDuration() + lastAnimator.getStartDelay();
-                        main.onEnd(a);
-                        resetLastAnimator();
-                        start(view, parentSize, targetSize.clone(), a, index2 + 1);
-                    } else {
-                        lastAnimator.addListener(new AnimatorListenerAdapter() {
-                            @Override
-                            public void onAnimationEnd(Animator a1) {
-                                super.onAnimationEnd(a1);
-                                playTime += a1.getDuration() + a1.getStartDelay();
-                                resetLastAnimator();
-                                main.onEnd(a);
-                                start(view, parentSize, targetSize.clone(), a, index2 + 1);
-                            }
-                        });
-                    }
-                }
+        animator.addListener(animatorEndListener);
+
+        AXAnimatorData animatorValues = rule.getAnimatorValues();
+        if (animatorValues == null)
+            animatorValues = sectionValues;
+
+        if (animatorValues != null) {
+            animatorValues.apply(animator);
+        } else {
+            animator.setDuration(300);
+        }
+
+        final long ownDuration = noOp ? -1 : rule.getOwnDuration();
+        if (ownDuration >= 0) {
+            // The own duration is the whole play of the rule, So the repeat count of values doesn't apply
+            animator.setDuration(ownDuration);
+            if (animator instanceof ValueAnimator)
+                ((ValueAnimator) animator).setRepeatCount(0);
+        }
+
+        if (rule.spansSections()) {
+            trackAnimators.add(animator);
+        } else {
+            sectionAnimators.add(animator);
+            if (lastAnimator == null || getTotalDuration(animator) >= durationOfLastAnimator) {
+                durationOfLastAnimator = getTotalDuration(animator);
+                lastAnimator = animator;
+                lastRule = rule;
+            }
+        }
+
+        if (!noOp) {
+            if (trace)
+                TraceUtils.beginSection("AXRule.onBindAnimator:", rule.getRuleName());
+            try {
+                rule.onBindAnimator(view, animator);
+            } finally {
+                if (trace)
+                    TraceUtils.endSection();
+            }
+        }
+        rule.debug(animator);
+
+        if (plan != null) {
+            if (animator instanceof ValueAnimator) {
+                plan.add(getSectionIndex(), (ValueAnimator) animator, noOp ? null : rule, r);
             } else {
-                /* Couldn't get the animator which has the max duration */
-                main.onEnd(a);
-                start(view, parentSize, targetSize.clone(), a, index2 + 1);
+                plan = null;
             }
-            return;
         }
 
-        Rule<?> rule = info.getRules()[reverse ? info.getRules().length - 1 - index : index];
+        if (targetIndexes[0] == indexes[0] && customPlayTime > 0) {
+            rule.setCurrentPlayTime(animator, customPlayTime);
+        }
 
-        if (rule instanceof SkippedRule) {
-            startRule(view, parentSize, originalSize, a, info, main, max, index + 1, index2);
-            return;
+        TraceUtils.onAnimatorStarted();
+        if (validateEnd()) {
+            animator.end();
+        } else {
+            if (!noOp)
+                claim(view, rule, animator, !r);
+            clock.start(animator, r);
+            if (culled)
+                clock.pause(animator);
         }
+        animators.add(animator);
+    }
+
+    /**
+     * Registers the animator as the newest writer of it's properties on {@link AXPropertyOwners}.
+     */
+    private void claim(View view, Rule<?> rule, Animator animator, boolean forward) {
+        if (!animation.isPropertyOwnershipEnabled())
+            return;
 
-        rule.getFromLiveData();
-        boolean r = rule.shouldReverseAnimator(reverse);
-        rule.setStartedAsReverse(r);
-        if (ready) {
-            rule.getReady(view);
-            rule.getReady(layouts);
+        if (animator instanceof ObjectAnimator) {
+            boolean retarget = animation.isRetargetEnabled();
+            PropertyMotion.start(view, rule, (ObjectAnimator) animator, clock, retarget, retarget && forward);
+        } else if (rule != null && targetSize != null && rule.isLayoutSizeNecessary()) {
+            AXPropertyOwners.claimLayout(view, targetSize, rule);
         }
+    }
 
-        if (rule.shouldWait() >= 0) {
-            view.postDelayed(new Runnable() {
-                @Override
-                public void run() {
-                    if (running)
-                        startRule(view, parentSize, originalSize, a, info, main, max, index, index2, false);
-                }
-            }, rule.shouldWait());
+    /**
+     * Called when all rules of the running section have been started,
+     * Starts the next section whenever the longest animator ends.
+     */
+    private void onRulesStarted() {
+        final AXAnimation a = animation;
+        final int index = indexes[0];
+
+        if (plan != null)
+            plan.setLast(getSectionIndex(), lastAnimator, lastRule);
+
+        if (lastAnimator != null) {
+            if (!validateEnd() && a.rules.size() > index + 1 && a.getRuleSection(index + 1) instanceof ReverseWaitRule) {
+                plan = null;
+                long rd = ((ReverseWaitRule) a.getRuleSection(index + 1)).duration;
+                reverseDelay += rd;
+
+                clock.removeCallbacks(targetView, reverseWaitRunnable);
+                clock.postDelayed(targetView, reverseWaitRunnable, durationOfLastAnimator - rd);
+                lastAnimator.addListener(playTimeListener);
+            } else if (validateEnd()) {
+                playTime += getTotalDuration(lastAnimator);
+                endSection();
+            } else {
+                lastAnimator.addListener(sectionEndListener);
+            }
         } else {
-            final Animator animator = rule.onCreateAnimator(view, targetSize, originalSize, parentSize);
-            rule.debug(view, targetSize, originalSize, parentSize);
-            if (animator == null)
-                rule.debug(null);
-
-            if (animator != null) {
-                animator.addListener(new AnimatorListenerAdapter() {
-                    @Override
-                    public void onAnimationEnd(Animator animation) {
-                        super.onAnimationEnd(animation);
-                        animators.remove(animator);
-                    }
-                });
-
-                AXAnimatorData animatorValues = rule.getAnimatorValues();
-                if (animatorValues == null)
-                    animatorValues = info.getAnimatorValues();
-
-                if (animatorValues != null) {
-                    animatorValues.apply(animator);
-                } else {
-                    animator.setDuration(300);
-                }
+            /* Couldn't get the animator which has the max duration */
+            endSection();
+        }
+    }
 
-                if (index2 >= 0) {
-                    if (lastAnimator == null || getTotalDuration(animator) >= durationOfLastAnimator) {
-                        durationOfLastAnimator = getTotalDuration(animator);
-                        lastAnimator = animator;
-                        lastRule = rule;
-                    }
-                }
+    /**
+     * Ends the running section and starts the next one.
+     */
+    private void endSection() {
+        resetLastAnimator();
+        section.onEnd(animation);
+        start(targetView, layoutSizes[0], obtainLayoutSize(), animation, indexes[0] + 1);
+    }
 
-                rule.onBindAnimator(view, animator);
-                rule.debug(animator);
+    /**
+     * @return index of the running section in {@link AXAnimation#rules}
+     */
+    private int getSectionIndex() {
+        return reverse ? animation.rules.size() - indexes[0] - 1 : indexes[0];
+    }
 
-                if (targetIndexes[0] == index2 && customPlayTime > 0) {
-                    rule.setCurrentPlayTime(animator, customPlayTime);
-                }
+    /**
+     * Plays the animators which have been recorded for the section on the first run,
+     * Reverses them if the direction of the animation has been changed since then.
+     */
+    private void replaySection(int ri) {
+        final PlaybackPlan.Section s = plan.sections[ri];
+        final boolean flip = reverse != plan.reverse;
+
+        resetLastAnimator();
+        lastAnimator = s.last;
+        lastRule = s.lastRule;
+        if (lastAnimator != null)
+            lastAnimator.addListener(sectionEndListener);
+
+        for (int i = 0; i < s.animators.size(); i++) {
+            ValueAnimator animator = s.animators.get(i);
+            boolean r = s.reversed.get(i) != flip;
+            TraceUtils.onAnimatorStarted();
+            if (s.rules.get(i) != null)
+                claim(targetView, s.rules.get(i), animator, !r);
+            clock.start(animator, r);
+            if (culled)
+                clock.pause(animator);
+            animators.add(animator);
+            sectionAnimators.add(animator);
+        }
 
-                if (validateEnd()) {
-                    animator.end();
-                } else {
-                    if (r) {
-                        if (animator instanceof ValueAnimator)
-                            ((ValueAnimator) animator).reverse();
-                        else
-                            animator.start();
-                    } else {
-                        animator.start();
-                    }
-                }
-                animators.add(animator);
+        if (lastAnimator == null)
+            endSection();
+    }
+
+    private void discardPlan() {
+        plan = null;
+        replaying = false;
+    }
+
+    private void removeCallbacks() {
+        if (info instanceof WaitNotifyRule && ((WaitNotifyRule) info).getNotifier() != null)
+            ((WaitNotifyRule) info).getNotifier().park(null);
+
+        clock.removeCallbacks(targetView, waitNotifyRunnable);
+        clock.removeCallbacks(targetView, reverseWaitRunnable);
+        clock.removeCallbacks(targetView, ruleWaitRunnable);
+    }
+
+    /**
+     * @return a pooled copy of targetSize for the next section.
+     */
+    private LayoutSize obtainLayoutSize() {
+        LayoutSize size;
+        if (layoutPoolIndex < layoutPool.size()) {
+            size = layoutPool.get(layoutPoolIndex);
+            size.set(targetSize);
+        } else {
+            size = targetSize.clone();
+            layoutPool.add(size);
+        }
+        layoutPoolIndex++;
+        return size;
+    }
+
+    private final AnimatorListenerAdapter animatorEndListener = new AnimatorListenerAdapter() {
+        @Override
+        public void onAnimationEnd(Animator animator) {
+            animators.remove(animator);
+            trackAnimators.remove(animator);
+            TraceUtils.onAnimatorEnded();
+        }
+    };
+
+    private final AnimatorListenerAdapter sectionEndListener = new AnimatorListenerAdapter() {
+        @Override
+        public void onAnimationEnd(Animator animator) {
+            animator.removeListener(this);
+            if (animator != lastAnimator)
+                return;
+
+            // The duration of a running animator might have been changed (such as a retargeted PhysicsRule)
+            Animator longer = findLongerAnimator(animator);
+            if (longer != null) {
+                lastAnimator = longer;
+                longer.addListener(this);
+                return;
             }
-            if (rule.isRuleSet()) {
-                RuleSection info2 = new RuleSection(rule.createRules(), rule.getAnimatorValues());
-                if (info2.getRules() != null && info2.getRules().length > 0)
-                    startRule(view, parentSize, originalSize, a, info2, main, info2.getRules().length, 0, index2);
+
+            playTime += getTotalDuration(animator);
+            endSection();
+        }
+    };
+
+    /**
+     * @return a running animator of the section which is longer than the ended one,
+     * null if the section can end.
+     */
+    private Animator findLongerAnimator(Animator ended) {
+        long max = getTotalDuration(ended);
+        Animator longer = null;
+        for (int i = 0; i < sectionAnimators.size(); i++) {
+            Animator animator = sectionAnimators.get(i);
+            if (animator == ended || !animators.contains(animator))
+                continue;
+
+            long duration = getTotalDuration(animator);
+            if (duration > max) {
+                max = duration;
+                longer = animator;
+            }
+        }
+        return longer;
+    }
+
+    private final AnimatorListenerAdapter playTimeListener = new AnimatorListenerAdapter() {
+        @Override
+        public void onAnimationEnd(Animator animator) {
+            animator.removeListener(this);
+            playTime += getTotalDuration(animator);
+        }
+    };
+
+    private final Runnable waitNotifyRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (!(info instanceof WaitNotifyRule))
+                return;
+
+            WaitNotifyRule rule = (WaitNotifyRule) info;
+            if (rule.isDone(targetView)) {
+                playTime += rule.duration;
+                endSection();
+            } else if (rule.getNotifier() != null) {
+                // Park until the notifier is done
+                rule.getNotifier().park(notifyCallback);
+            } else {
+                clock.postDelayed(targetView, this, rule.getPollInterval());
             }
-            startRule(view, parentSize, originalSize, a, info, main, max, index + 1, index2);
         }
+    };
+
+    /* Runs on the thread which called Notifier#notifyDone() (or right away on this thread if it was done already),
+     * So it only posts waitNotifyRunnable and the next section starts on the clock's thread */
+    private final Runnable notifyCallback = new Runnable() {
+        @Override
+        public void run() {
+            clock.postDelayed(targetView, waitNotifyRunnable, 0);
+        }
+    };
+
+    private final Runnable reverseWaitRunnable = new Runnable() {
+        @Override
+        public void run() {
+            endSection();
+        }
+    };
+
+    private final Runnable ruleWaitRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (running && depth >= 0)
+                startRules();
+        }
+    };
+
+    /**
+     * @return The rules to play for the section, See {@link PropertyTrackRule#createTracks(List)}
+     */
+    private Rule<?>[] getRules(RuleSection info, int sectionIndex) {
+        if (tracks != null && sectionIndex >= 0 && sectionIndex < tracks.length
+                && tracks[sectionIndex] != null && animation.rules.get(sectionIndex) == info)
+            return tracks[sectionIndex];
+        return info.getFusedRules();
+    }
+
+    /**
+     * @return The tracks of animation, Created once per {@link SectionInfo}.
+     * @see PropertyTrackRule#createTracks(List)
+     */
+    private Rule<?>[][] getTracks() {
+        SectionInfo info = animation.getSectionInfo();
+        if (tracksInfo != info) {
+            tracksInfo = info;
+            cachedTracks = PropertyTrackRule.createTracks(animation.rules);
+        }
+        return cachedTracks;
+    }
+
+    /**
+     * Tracks can't continue after seeking or ending the animation,
+     * The rest of sections will play their own rules.
+     */
+    private void endTracks() {
+        tracks = null;
+        for (Animator animator : new ArrayList<>(trackAnimators)) {
+            animator.end();
+        }
+        trackAnimators.clear();
     }
 
     private void done(View view, AXAnimation a) {
+        if (plan != null)
+            plan.complete();
+
         if (repeat()) {
+            discardPlan();
             running = false;
             paused = false;
             AXAnimationSaver.clear(view, a);
+            AXPropertyOwners.releaseLayout(view, targetSize);
+            stopObserving();
 
             if (a.getTargetLayoutParams() != null) {
                 view.setLayoutParams(a.getTargetLayoutParams());
@@ -433,11 +909,12 @@ class AXAnimator {
                     view.setLayoutParams(lp.original);
             }
 
-            for (AXAnimatorListener listener : listeners)
+            // Listeners might remove themselves
+            for (AXAnimatorListener listener : listeners.toArray(new AXAnimatorListener[0]))
                 listener.onAnimationEnd(a);
         } else {
-            for (AXAnimatorListener listener : listeners)
-                listener.onAnimationRepeat(a);
+            for (int i = 0; i < listeners.size(); i++)
+                listeners.get(i).onAnimationRepeat(a);
         }
     }
 
@@ -446,15 +923,7 @@ class AXAnimator {
     }
 
     public long getTotalDuration(AXAnimation animation) {
-        long max = 0;
-        for (RuleSection section : animation.rules) {
-            if (section instanceof RuleSectionWrapper) {
-                max += getTotalDuration(((RuleSectionWrapper) section).getRuleSection());
-            } else {
-                max += getTotalDuration(section);
-            }
-        }
-        return max;
+        return animation.getSectionInfo().totalDuration;
     }
 
     public long getTotalDuration(RuleSection section) {
@@ -466,11 +935,15 @@ class AXAnimator {
         if (section == null || section.getRules() == null) return 0;
         long max = 0;
         for (Rule<?> rule : section.getRules()) {
+            AXAnimatorData values = rule.getAnimatorValues() != null
+                    ? rule.getAnimatorValues() : section.getAnimatorValues();
+            long own = rule.getOwnDuration();
+
             long d = 100;
-            if (rule.getAnimatorValues() != null) {
-                d = rule.getAnimatorValues().getTotalDuration();
-            } else if (section.getAnimatorValues() != null) {
-                d = section.getAnimatorValues().getTotalDuration();
+            if (own >= 0) {
+                d = own + (values != null ? values.getDelay() : 0);
+            } else if (values != null) {
+                d = values.getTotalDuration();
             }
             max = Math.max(max, d);
         }
@@ -490,6 +963,9 @@ class AXAnimator {
 
     public void setCurrentPlayTime(long time) {
         boolean run = isRunning();
+        discardPlan();
+        tracks = null;
+        trackAnimators.clear();
 
         if (isRunning()) {
             cancel();
@@ -498,10 +974,9 @@ class AXAnimator {
 
         boolean ok = false;
         long max = 0;
-        for (int i = 0; i < animation.rules.size(); i++) {
-            RuleSection section = animation.getRuleSection(i);
-
-            max += getTotalDuration(section);
+        long[] durations = animation.getSectionInfo().sectionDurations;
+        for (int i = 0; i < durations.length; i++) {
+            max += durations[i];
             if (max >= time) {
                 ok = true;
                 targetIndexes[0] = i;
@@ -22,6 +22,8 @@ import android.animation.ValueAnimator;
 
 import androidx.annotation.NonNull;
 
+import java.util.ArrayList;
+
 /**
  * A helper class to store Animator values such as duration, delay and interpolator.
  *
@@ -37,6 +39,17 @@ public class AXAnimatorData implements Cloneable {
     @AXAnimation.RepeatMode
     private int repeatMode;
 
+    /**
+     * Gets notified whenever an AXAnimatorData has been changed in place or replaced,
+     * So the values which depend on it (e.g. durations of an {@link AXAnimation}) can be computed again.
+     */
+    public interface OnChangedListener {
+        void onAnimatorDataChanged();
+    }
+
+    /* Only the owners of this instance, So editing an AXAnimatorData doesn't touch other animations */
+    private ArrayList<OnChangedListener> listeners;
+
     public AXAnimatorData() {
         reset();
     }
@@ -52,6 +65,7 @@ public class AXAnimatorData implements Cloneable {
 
     public void setDuration(long duration) {
         this.duration = duration;
+        notifyChanged();
     }
 
     public long getDuration() {
@@ -60,6 +74,7 @@ public class AXAnimatorData implements Cloneable {
 
     public void setDelay(long delay) {
         this.delay = delay;
+        notifyChanged();
     }
 
     public long getDelay() {
@@ -68,6 +83,7 @@ public class AXAnimatorData implements Cloneable {
 
     public void setInterpolator(TimeInterpolator interpolator) {
         this.interpolator = interpolator;
+        notifyChanged();
     }
 
     public TimeInterpolator getInterpolator() {
@@ -80,6 +96,7 @@ public class AXAnimatorData implements Cloneable {
 
     public void setFirstValueFromView(boolean firstValueFromView) {
         this.firstValueFromView = firstValueFromView;
+        notifyChanged();
     }
 
     public boolean isInspectEnabled() {
@@ -88,6 +105,7 @@ public class AXAnimatorData implements Cloneable {
 
     public void setInspectEnabled(boolean enabled) {
         this.inspect = enabled;
+        notifyChanged();
     }
 
     public boolean isClearOldInspectEnabled() {
@@ -96,10 +114,12 @@ public class AXAnimatorData implements Cloneable {
 
     public void setClearOldInspectEnabled(boolean clearOldInspect) {
         this.clearOldInspect = clearOldInspect;
+        notifyChanged();
     }
 
     public void setRepeatCount(int repeatCount) {
         this.repeatCount = repeatCount;
+        notifyChanged();
     }
 
     public int getRepeatCount() {
@@ -108,6 +128,7 @@ public class AXAnimatorData implements Cloneable {
 
     public void setRepeatMode(@AXAnimation.RepeatMode int repeatMode) {
         this.repeatMode = repeatMode;
+        notifyChanged();
     }
 
     @AXAnimation.RepeatMode
@@ -124,6 +145,7 @@ public class AXAnimatorData implements Cloneable {
         clearOldInspect = false;
         repeatCount = 0;
         repeatMode = AXAnimation.RESTART;
+        notifyChanged();
     }
 
     public void importAnimatorData(AXAnimatorData data) {
@@ -135,6 +157,31 @@ public class AXAnimatorData implements Cloneable {
         clearOldInspect = data.clearOldInspect;
         repeatMode = data.repeatMode;
         repeatCount = data.repeatCount;
+        notifyChanged();
+    }
+
+    /**
+     * Adds a listener which gets notified whenever a value of this instance changes,
+     * A listener will be added once.
+     */
+    public void addOnChangedListener(@NonNull OnChangedListener listener) {
+        if (listeners == null)
+            listeners = new ArrayList<>(1);
+        if (!listeners.contains(listener))
+            listeners.add(listener);
+    }
+
+    public void removeOnChangedListener(@NonNull OnChangedListener listener) {
+        if (listeners != null)
+            listeners.remove(listener);
+    }
+
+    private void notifyChanged() {
+        if (listeners == null)
+            return;
+
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onAnimatorDataChanged();
     }
 
     public void apply(Animator animator) {
@@ -152,11 +199,42 @@ public class AXAnimatorData implements Cloneable {
         return getDelay() + (getDuration() * (getRepeatCount() + 1));
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AXAnimatorData)) return false;
+        AXAnimatorData that = (AXAnimatorData) o;
+        return duration == that.duration &&
+                delay == that.delay &&
+                firstValueFromView == that.firstValueFromView &&
+                inspect == that.inspect &&
+                clearOldInspect == that.clearOldInspect &&
+                repeatCount == that.repeatCount &&
+                repeatMode == that.repeatMode &&
+                (interpolator == null ? that.interpolator == null : interpolator.equals(that.interpolator));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (duration ^ (duration >>> 32));
+        result = 31 * result + (int) (delay ^ (delay >>> 32));
+        result = 31 * result + (interpolator != null ? interpolator.hashCode() : 0);
+        result = 31 * result + (firstValueFromView ? 1 : 0);
+        result = 31 * result + (inspect ? 1 : 0);
+        result = 31 * result + (clearOldInspect ? 1 : 0);
+        result = 31 * result + repeatCount;
+        result = 31 * result + repeatMode;
+        return result;
+    }
+
     @NonNull
     @Override
     public AXAnimatorData clone() {
         try {
-            return (AXAnimatorData) super.clone();
+            AXAnimatorData data = (AXAnimatorData) super.clone();
+            // Listeners belong to the owners of this instance
+            data.listeners = null;
+            return data;
         } catch (CloneNotSupportedException e) {
             return new AXAnimatorData(this);
         }
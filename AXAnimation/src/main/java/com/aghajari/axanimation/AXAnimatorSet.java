@@ -16,14 +16,15 @@
  */
 package com.aghajari.axanimation;
 
-import android.os.Handler;
 import android.util.Pair;
 import android.view.View;
 
+import com.aghajari.axanimation.clock.AnimationClock;
 import com.aghajari.axanimation.listener.AXAnimatorListenerAdapter;
 import com.aghajari.axanimation.listener.AXAnimatorSetListener;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 
 /**
@@ -37,39 +38,51 @@ class AXAnimatorSet {
     boolean paused, running;
     boolean reverse = false;
     AXAnimationSet set;
+    AnimationClock clock = AnimationClock.getDefault();
 
     public void pause() {
         running = false;
         paused = true;
-        for (AXAnimation animation : animations) {
-            animation.pause();
+        pauseDelay();
+        for (int i = 0; i < animations.size(); i++) {
+            animations.get(i).pause();
         }
 
-        for (AXAnimatorSetListener listener : listeners)
-            listener.onAnimationPause(set);
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onAnimationPause(set);
     }
 
     public void resume() {
         running = true;
         paused = false;
-        for (AXAnimation animation : animations) {
-            animation.resume();
+        for (int i = 0; i < animations.size(); i++) {
+            animations.get(i).resume();
         }
 
-        for (AXAnimatorSetListener listener : listeners)
-            listener.onAnimationResume(set);
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onAnimationResume(set);
+
+        if (delayRemaining >= 0) {
+            postDelay(delayRemaining);
+            delayRemaining = -1;
+        }
+
+        // The barrier might be released while the set was paused
+        checkBarrier();
     }
 
     public void cancel() {
         running = false;
         paused = false;
-        for (AXAnimation animation : animations) {
+        removeDelay();
+        pending.clear();
+        for (AXAnimation animation : new ArrayList<>(animations)) {
             animation.cancel();
         }
         animations.clear();
 
-        for (AXAnimatorSetListener listener : listeners)
-            listener.onAnimationCancel(set);
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onAnimationCancel(set);
     }
 
     public boolean isPaused() {
@@ -85,82 +98,147 @@ class AXAnimatorSet {
         running = true;
         animations.clear();
         this.reverse = reverse;
+        removeDelay();
 
-        for (AXAnimatorSetListener listener : listeners)
-            listener.onAnimationStart(set);
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onAnimationStart(set);
 
         start(0);
     }
 
+    /* The running entry of AXAnimationSet#list */
+    private ArrayList<Pair<View, BaseAnimation>> entry;
+    private int entryIndex, pairIndex;
+    private boolean entryStarted;
+
+    /**
+     * Join barrier of the running entry,
+     * The next entry starts once every animation of this list ended.
+     */
+    final List<AXAnimation> pending = new ArrayList<>();
+
+    /* Clocks of the animations before the set replaced them, Restored once they finished */
+    private final HashMap<AXAnimation, AnimationClock> previousClocks = new HashMap<>();
+
     public void start(final int index) {
         if (set.list.size() <= index) {
             done();
             return;
         }
 
-        ArrayList<Pair<View, BaseAnimation>> anims = set.list.get(reverse ? set.list.size() - index - 1 : index);
-        lastAnim = null;
-        lastDuration = 0;
-        startPair(anims, 0, index);
+        entry = set.list.get(reverse ? set.list.size() - index - 1 : index);
+        entryIndex = index;
+        pairIndex = 0;
+        entryStarted = false;
+        pending.clear();
+        startPairs();
     }
 
-    AXAnimation lastAnim;
-    long lastDuration;
-
-    public void startPair(final ArrayList<Pair<View, BaseAnimation>> anims, final int index, final int mainIndex) {
-        if (anims.size() <= index) {
-            if (lastAnim != null) {
-                AXAnimatorListenerAdapter listenerAdapter = new AXAnimatorListenerAdapter() {
-                    @Override
-                    public void onAnimationEnd(AXAnimation animation) {
-                        super.onAnimationEnd(animation);
-                        animation.removeAnimatorListener(this);
-                        start(mainIndex + 1);
-                    }
-                };
-                lastAnim.addAnimatorListener(listenerAdapter);
-            } else {
-                start(mainIndex + 1);
-            }
-            return;
-        }
+    /**
+     * Starts the animations of the running entry one after another,
+     * A {@link Delay} holds the rest of the entry for it's duration.
+     */
+    private void startPairs() {
+        while (pairIndex < entry.size()) {
+            Pair<View, BaseAnimation> anim = entry.get(reverse ? entry.size() - pairIndex - 1 : pairIndex);
+            pairIndex++;
 
-        Pair<View, BaseAnimation> anim = anims.get(reverse ? anims.size() - index - 1 : index);
-        if (anim.second instanceof Delay) {
-            new Handler().postDelayed(new Runnable() {
-                @Override
-                public void run() {
-                    startPair(anims, index + 1, mainIndex);
+            if (anim.second instanceof Delay) {
+                postDelay(((Delay) anim.second).duration);
+                return;
+            } else if (anim.first != null && anim.second != null) {
+                AXAnimation animation = (AXAnimation) anim.second;
+                // An animation might be started for several views, It ends once.
+                if (!pending.contains(animation))
+                    pending.add(animation);
+                if (!animations.contains(animation))
+                    animations.add(animation);
+                if (!animation.getAnimatorListeners().contains(barrierListener))
+                    animation.addAnimatorListener(barrierListener);
+
+                if (clock != AnimationClock.getDefault() && !previousClocks.containsKey(animation)) {
+                    previousClocks.put(animation, animation.getClock());
+                    animation.setClock(clock);
                 }
-            }, ((Delay) anim.second).duration);
-            return;
-        } else if (anim.first != null && anim.second != null) {
-            long d = ((AXAnimation) anim.second).getTotalDuration();
-            if (lastAnim == null || d >= lastDuration) {
-                lastAnim = (AXAnimation) anim.second;
-                lastDuration = d;
+                animation.start(anim.first, null, reverse, false);
             }
-            AXAnimatorListenerAdapter listenerAdapter = new AXAnimatorListenerAdapter() {
-                @Override
-                public void onAnimationEnd(AXAnimation animation) {
-                    super.onAnimationEnd(animation);
-                    animations.remove(animation);
-                }
-            };
-            AXAnimation animation = ((AXAnimation) anim.second);
-            animation.addAnimatorListener(listenerAdapter);
-            animations.add(animation);
-            animation.start(anim.first, null, reverse, false);
         }
-        startPair(anims, index + 1, mainIndex);
+
+        entryStarted = true;
+        checkBarrier();
+    }
+
+    private void checkBarrier() {
+        if (running && entryStarted && pending.isEmpty()) {
+            entryStarted = false;
+            start(entryIndex + 1);
+        }
     }
 
+    private void onAnimationFinished(AXAnimation animation) {
+        animation.removeAnimatorListener(barrierListener);
+        if (previousClocks.containsKey(animation))
+            animation.setClock(previousClocks.remove(animation));
+        animations.remove(animation);
+        if (pending.remove(animation))
+            checkBarrier();
+    }
+
+    private final AXAnimatorListenerAdapter barrierListener = new AXAnimatorListenerAdapter() {
+        @Override
+        public void onAnimationEnd(AXAnimation animation) {
+            onAnimationFinished(animation);
+        }
+
+        @Override
+        public void onAnimationCancel(AXAnimation animation) {
+            onAnimationFinished(animation);
+        }
+    };
+
+    /* When the posted Delay ends, -1 if there is no posted Delay */
+    private long delayEndTime = -1;
+    /* What was left of the Delay when the set paused, -1 if nothing was left */
+    private long delayRemaining = -1;
+
+    private void postDelay(long duration) {
+        delayEndTime = clock.uptimeMillis() + duration;
+        clock.postDelayed(null, delayRunnable, duration);
+    }
+
+    /**
+     * A paused set holds it's Delay too, So the rest of the entry waits for resume.
+     */
+    private void pauseDelay() {
+        if (delayEndTime < 0)
+            return;
+
+        clock.removeCallbacks(null, delayRunnable);
+        delayRemaining = Math.max(delayEndTime - clock.uptimeMillis(), 0);
+        delayEndTime = -1;
+    }
+
+    private void removeDelay() {
+        clock.removeCallbacks(null, delayRunnable);
+        delayEndTime = -1;
+        delayRemaining = -1;
+    }
+
+    private final Runnable delayRunnable = new Runnable() {
+        @Override
+        public void run() {
+            delayEndTime = -1;
+            if (running && !paused)
+                startPairs();
+        }
+    };
+
     private void done() {
         running = false;
         paused = false;
 
-        for (AXAnimatorSetListener listener : listeners)
-            listener.onAnimationEnd(set);
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onAnimationEnd(set);
     }
 
     public long getTotalDuration(AXAnimationSet set) {
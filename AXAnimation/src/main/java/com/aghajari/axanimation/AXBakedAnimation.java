@@ -0,0 +1,749 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.os.Build;
+import android.util.FloatProperty;
+import android.util.Property;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.view.animation.LinearInterpolator;
+import android.widget.FrameLayout;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.aghajari.axanimation.clock.AnimationClock;
+import com.aghajari.axanimation.clock.VirtualAnimationClock;
+import com.aghajari.axanimation.draw.DrawHandler;
+import com.aghajari.axanimation.draw.DrawableLayout;
+import com.aghajari.axanimation.layouts.AnimatedLayout;
+import com.aghajari.axanimation.layouts.AnimatedLayoutParams;
+import com.aghajari.axanimation.layouts.OnLayoutSizeReadyListener;
+import com.aghajari.axanimation.livevar.LayoutSize;
+import com.aghajari.axanimation.livevar.LiveVar;
+import com.aghajari.axanimation.utils.TraceUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.WeakHashMap;
+
+/**
+ * The per-frame values of an {@link AXAnimation}, Recorded once by running the animation
+ * against a {@link VirtualAnimationClock} at a fixed frame rate.
+ * A baked animation replays the recorded values directly onto the view,
+ * So no rule, evaluator or LiveSize runs while it's playing.
+ * <p>
+ * Recorded values:
+ * <ul>
+ * <li>alpha, translationX, translationY, translationZ, scaleX, scaleY, rotation, rotationX, rotationY</li>
+ * <li>the view's layout (left, top, right, bottom) in it's {@link AnimatedLayout}</li>
+ * </ul>
+ * Only the values which change are kept, Other rules (such as backgrounds, texts and draw rules)
+ * are not recorded, So bake the animations which move, fade or resize the views.
+ * <p>
+ * The recorded layout is relative to the parent and the values start from the view's values,
+ * So a baked animation is only valid for the target size, parent size and initial values
+ * it has been baked with, {@link #get(AXAnimation, View)} caches one per
+ * (animation, target size, parent size, initial values).
+ * <pre>
+ * AXBakedAnimation.get(animation, view).start(view);
+ * </pre>
+ * Baked animations can be saved by {@link #save(File)} and shipped as assets,
+ * So the app loads them by {@link #loadAsset(Context, String)} instead of baking on the first run.
+ *
+ * @author AmirHossein Aghajari
+ */
+public final class AXBakedAnimation {
+
+    public static final long DEFAULT_FRAME_INTERVAL = VirtualAnimationClock.DEFAULT_FRAME_INTERVAL;
+
+    /**
+     * An animation which doesn't end in this duration can't be baked, in milliseconds.
+     */
+    public static final long MAX_DURATION = 60000;
+
+    private static final int MAX_CACHED = 4;
+    private static final WeakHashMap<AXAnimation, ArrayList<AXBakedAnimation>> cache = new WeakHashMap<>();
+
+    /* The recordable properties */
+    private static final Property<View, Float>[] PROPERTIES = createProperties();
+
+    final long frameInterval;
+    final int frameCount;
+    final Property<View, Float>[] properties;
+    /* Values of each frame, properties.length values per frame */
+    final float[] values;
+    /* left, top, right, bottom of each frame, null if the layout doesn't change */
+    @Nullable
+    final int[] layout;
+
+    /* The key of cache */
+    private SectionInfo sectionInfo;
+    private int liveVarVersion;
+    private int[] key;
+
+    AXBakedAnimation(long frameInterval, int frameCount, @NonNull Property<View, Float>[] properties,
+                     @NonNull float[] values, @Nullable int[] layout) {
+        this.frameInterval = frameInterval;
+        this.frameCount = frameCount;
+        this.properties = properties;
+        this.values = values;
+        this.layout = layout;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Property<View, Float>[] createProperties() {
+        ArrayList<Property<View, Float>> list = new ArrayList<>();
+        list.add(View.ALPHA);
+        list.add(View.TRANSLATION_X);
+        list.add(View.TRANSLATION_Y);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP)
+            list.add(View.TRANSLATION_Z);
+        list.add(View.SCALE_X);
+        list.add(View.SCALE_Y);
+        list.add(View.ROTATION);
+        list.add(View.ROTATION_X);
+        list.add(View.ROTATION_Y);
+        return list.toArray(new Property[0]);
+    }
+
+    /**
+     * @return the recordable property with this name, null if there is no such property.
+     */
+    @Nullable
+    static Property<View, Float> findProperty(@NonNull String name) {
+        for (Property<View, Float> property : PROPERTIES) {
+            if (name.equals(property.getName()))
+                return property;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the baked animation of the view's current size and parent size,
+     * Bakes it on the first call. The cached one will be baked again whenever
+     * the sections or LiveVars of animation change.
+     *
+     * @see #bake(AXAnimation, View, long)
+     */
+    @NonNull
+    public static AXBakedAnimation get(@NonNull AXAnimation animation, @NonNull View view) {
+        SectionInfo info = animation.getSectionInfo();
+        int version = LiveVar.getVersion();
+        int[] key = getKey(view);
+
+        ArrayList<AXBakedAnimation> list = cache.get(animation);
+        if (list != null) {
+            for (int i = 0; i < list.size(); i++) {
+                AXBakedAnimation baked = list.get(i);
+                if (baked.sectionInfo == info && baked.liveVarVersion == version
+                        && Arrays.equals(baked.key, key))
+                    return baked;
+            }
+        } else {
+            list = new ArrayList<>();
+            cache.put(animation, list);
+        }
+
+        AXBakedAnimation baked = bake(animation, view, DEFAULT_FRAME_INTERVAL);
+        baked.sectionInfo = info;
+        baked.liveVarVersion = version;
+        baked.key = key;
+
+        // The outdated ones never match again
+        for (int i = list.size() - 1; i >= 0; i--) {
+            if (list.get(i).sectionInfo != info || list.get(i).liveVarVersion != version)
+                list.remove(i);
+        }
+        if (list.size() >= MAX_CACHED)
+            list.remove(0);
+        list.add(baked);
+        return baked;
+    }
+
+    /**
+     * Removes the baked animations of the animation from cache.
+     */
+    public static void invalidate(@NonNull AXAnimation animation) {
+        cache.remove(animation);
+    }
+
+    public static void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * Bakes the animation by running a copy of it against a {@link VirtualAnimationClock}.
+     * The copy runs on a detached proxy of the view (and it's parent) from the view's current state,
+     * So the view, the rules and the listeners of animation won't be touched while baking.
+     * <p>
+     * Note: The proxy is a new instance of the view's class (a plain View if it doesn't have
+     * a (Context) constructor) and it's siblings are only placeholders with their ids,
+     * Layouts of the view and it's siblings are measured by the real parent.
+     *
+     * @param frameInterval the duration of each frame, in milliseconds.
+     * @throws IllegalArgumentException if the animation repeats infinitely.
+     * @throws IllegalStateException    if the view isn't laid out
+     *                                  or the animation doesn't end in {@link #MAX_DURATION}.
+     */
+    @NonNull
+    public static AXBakedAnimation bake(@NonNull AXAnimation animation, @NonNull View view, long frameInterval) {
+        if (animation.getTotalDuration() == AXAnimation.INFINITE)
+            throw new IllegalArgumentException("An infinite animation can't be baked!");
+        if (animation.getSectionInfo().hasLayoutRule && !view.isLaidOut())
+            throw new IllegalStateException("View must be laid out before baking!");
+
+        TraceUtils.beginSection("AXBakedAnimation.bake");
+        try {
+            // The proxy is never visible
+            AXAnimation copy = AXAnimation.create()
+                    .importAnimation(animation, true)
+                    .clearAnimatorListeners()
+                    .pauseWhenHidden(false);
+            VirtualAnimationClock virtual = new VirtualAnimationClock(frameInterval);
+            copy.setClock(virtual);
+
+            View proxy = createProxy(view);
+            Recorder recorder = new Recorder(proxy, getLayoutSize(view), frameInterval);
+            virtual.addFrameListener(recorder);
+
+            copy.start(proxy, recorder.getOriginalLayout(), false, false);
+            recorder.record();
+
+            if (!virtual.advanceUntilIdle(MAX_DURATION)) {
+                copy.cancel();
+                throw new IllegalStateException("Animation didn't end in " + MAX_DURATION + "ms!");
+            }
+            return recorder.create();
+        } finally {
+            TraceUtils.endSection();
+        }
+    }
+
+    /**
+     * @return a detached copy of the view with the same values and layout,
+     * In a {@link ProxyLayout} if the view's parent is an {@link AnimatedLayout}.
+     */
+    private static View createProxy(View view) {
+        View proxy;
+        try {
+            proxy = view.getClass().getConstructor(Context.class).newInstance(view.getContext());
+        } catch (Exception ignore) {
+            proxy = new View(view.getContext());
+        }
+
+        proxy.setId(view.getId());
+        proxy.setVisibility(view.getVisibility());
+        for (Property<View, Float> property : PROPERTIES)
+            property.set(proxy, property.get(view));
+
+        // Adds the proxy to a copy of the parent
+        if (view.getParent() instanceof AnimatedLayout)
+            new ProxyLayout(view, proxy);
+
+        proxy.measure(View.MeasureSpec.makeMeasureSpec(view.getMeasuredWidth(), View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(view.getMeasuredHeight(), View.MeasureSpec.EXACTLY));
+        proxy.layout(view.getLeft(), view.getTop(), view.getRight(), view.getBottom());
+        return proxy;
+    }
+
+    /**
+     * Writes the baked animation in the binary format.
+     * The stream won't be closed.
+     */
+    public void write(@NonNull OutputStream out) throws IOException {
+        BakedAnimationFormat.write(this, out);
+    }
+
+    public void save(@NonNull File file) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            write(out);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Reads a baked animation from the remaining bytes of buffer,
+     * The position of buffer won't be changed.
+     *
+     * @throws IOException if the buffer doesn't contain a valid baked animation of a supported version.
+     */
+    @NonNull
+    public static AXBakedAnimation read(@NonNull ByteBuffer buffer) throws IOException {
+        return BakedAnimationFormat.read(buffer);
+    }
+
+    /**
+     * Reads the stream once into a buffer and loads the baked animation.
+     * The stream won't be closed.
+     */
+    @NonNull
+    public static AXBakedAnimation load(@NonNull InputStream in) throws IOException {
+        return read(BakedAnimationFormat.readFully(in));
+    }
+
+    /**
+     * Loads the baked animation by memory-mapping the file.
+     */
+    @NonNull
+    public static AXBakedAnimation load(@NonNull File file) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            FileChannel channel = in.getChannel();
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Loads a baked animation from assets,
+     * The asset will be memory-mapped if it's stored uncompressed (noCompress in gradle),
+     * Otherwise it will be read once.
+     */
+    @NonNull
+    public static AXBakedAnimation loadAsset(@NonNull Context context, @NonNull String name) throws IOException {
+        AssetFileDescriptor fd;
+        try {
+            fd = context.getAssets().openFd(name);
+        } catch (FileNotFoundException e) {
+            // Compressed assets can't be mapped
+            InputStream in = context.getAssets().open(name);
+            try {
+                return load(in);
+            } finally {
+                in.close();
+            }
+        }
+
+        try {
+            FileInputStream in = fd.createInputStream();
+            try {
+                FileChannel channel = in.getChannel();
+                return read(channel.map(FileChannel.MapMode.READ_ONLY, fd.getStartOffset(), fd.getLength()));
+            } finally {
+                in.close();
+            }
+        } finally {
+            fd.close();
+        }
+    }
+
+    /* left, top, right, bottom of the view and it's parent, And the initial values of view */
+    private static int[] getKey(View view) {
+        int[] sizes = new int[8 + PROPERTIES.length];
+        Arrays.fill(sizes, Integer.MIN_VALUE);
+        LayoutSize size = getLayoutSize(view);
+        if (size != null) {
+            sizes[0] = size.left;
+            sizes[1] = size.top;
+            sizes[2] = size.right;
+            sizes[3] = size.bottom;
+
+            LayoutSize parentSize = ((AnimatedLayout) view.getParent()).getLayoutSize();
+            if (parentSize != null) {
+                sizes[4] = parentSize.left;
+                sizes[5] = parentSize.top;
+                sizes[6] = parentSize.right;
+                sizes[7] = parentSize.bottom;
+            }
+        }
+        for (int i = 0; i < PROPERTIES.length; i++)
+            sizes[8 + i] = Float.floatToIntBits(PROPERTIES[i].get(view));
+        return sizes;
+    }
+
+    /**
+     * @return the current layout of view, null if it's parent isn't an AnimatedLayout.
+     */
+    @Nullable
+    private static LayoutSize getLayoutSize(View view) {
+        if (!(view.getParent() instanceof AnimatedLayout))
+            return null;
+
+        if (view.getLayoutParams() instanceof AnimatedLayoutParams)
+            return new LayoutSize((AnimatedLayoutParams) view.getLayoutParams());
+        return new LayoutSize(view.getLeft(), view.getTop(), view.getRight(), view.getBottom());
+    }
+
+    /**
+     * @return the duration of each frame, in milliseconds.
+     */
+    public long getFrameInterval() {
+        return frameInterval;
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * @return the duration of the baked animation, in milliseconds.
+     */
+    public long getDuration() {
+        return (frameCount - 1) * frameInterval;
+    }
+
+    /**
+     * @return number of the recorded properties (the layout is not included)
+     */
+    public int getPropertyCount() {
+        return properties.length;
+    }
+
+    @NonNull
+    public String getPropertyName(int index) {
+        return properties[index].getName();
+    }
+
+    /**
+     * @return the recorded value of property on the frame.
+     */
+    public float getValue(int frame, int index) {
+        return values[frame * properties.length + index];
+    }
+
+    /**
+     * @return True if the layout of view has been recorded.
+     */
+    public boolean hasLayout() {
+        return layout != null;
+    }
+
+    /**
+     * Applies the frame of the play time on the view.
+     *
+     * @param playTime in milliseconds.
+     */
+    public void apply(@NonNull View view, long playTime) {
+        if (layout != null)
+            prepareLayout(view);
+        applyFrame(view, (int) Math.min(frameCount - 1, Math.max(0, Math.round((double) playTime / frameInterval))));
+    }
+
+    /**
+     * Creates an animator which replays the baked animation on the view,
+     * It can be reversed, repeated or started by any {@link AnimationClock}.
+     */
+    @NonNull
+    public ValueAnimator createAnimator(@NonNull View view) {
+        ValueAnimator animator = ValueAnimator.ofFloat(0f, 1f);
+        animator.setDuration(getDuration());
+        animator.setInterpolator(new LinearInterpolator());
+        Player player = new Player(view);
+        animator.addUpdateListener(player);
+        animator.addListener(player);
+        return animator;
+    }
+
+    /**
+     * Replays the baked animation on the view by the default clock.
+     *
+     * @return the started animator
+     * @see #createAnimator(View)
+     */
+    @NonNull
+    public ValueAnimator start(@NonNull View view) {
+        return start(view, AnimationClock.getDefault());
+    }
+
+    @NonNull
+    public ValueAnimator start(@NonNull View view, @NonNull AnimationClock clock) {
+        ValueAnimator animator = createAnimator(view);
+        clock.start(animator, false);
+        return animator;
+    }
+
+    /**
+     * Wraps the LayoutParams of view by an AnimatedLayoutParams, So the recorded layout can be applied.
+     *
+     * @return True if a new AnimatedLayoutParams has been created.
+     */
+    private static boolean prepareLayout(View view) {
+        if (!(view.getParent() instanceof AnimatedLayout) || view.getLayoutParams() instanceof AnimatedLayoutParams)
+            return false;
+
+        LayoutSize size = new LayoutSize(view.getLeft(), view.getTop(), view.getRight(), view.getBottom());
+        AnimatedLayoutParams lp = new AnimatedLayoutParams(view.getLayoutParams(), size);
+        lp.originalLayout = size;
+        view.setLayoutParams(lp);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void applyFrame(View view, int frame) {
+        int offset = frame * properties.length;
+        for (int i = 0; i < properties.length; i++) {
+            Property<View, Float> property = properties[i];
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N && property instanceof FloatProperty) {
+                ((FloatProperty<View>) (Property<?, ?>) property).setValue(view, values[offset + i]);
+            } else {
+                property.set(view, values[offset + i]);
+            }
+        }
+
+        if (layout != null && view.getLayoutParams() instanceof AnimatedLayoutParams) {
+            AnimatedLayoutParams lp = (AnimatedLayoutParams) view.getLayoutParams();
+            offset = frame * 4;
+            if (lp.left != layout[offset] || lp.top != layout[offset + 1]
+                    || lp.right != layout[offset + 2] || lp.bottom != layout[offset + 3]) {
+                lp.left = layout[offset];
+                lp.top = layout[offset + 1];
+                lp.right = layout[offset + 2];
+                lp.bottom = layout[offset + 3];
+                view.requestLayout();
+                TraceUtils.onLayoutRequested();
+            }
+        }
+    }
+
+    /**
+     * Applies the frame of each update on the view.
+     */
+    private final class Player extends AnimatorListenerAdapter implements ValueAnimator.AnimatorUpdateListener {
+        private final View view;
+        private boolean createdLayoutParams = false;
+
+        Player(View view) {
+            this.view = view;
+        }
+
+        @Override
+        public void onAnimationStart(Animator animation) {
+            if (layout != null)
+                createdLayoutParams = prepareLayout(view);
+        }
+
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            applyFrame(view, Math.round(animation.getAnimatedFraction() * (frameCount - 1)));
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            if (createdLayoutParams && view.getLayoutParams() instanceof AnimatedLayoutParams) {
+                AnimatedLayoutParams lp = (AnimatedLayoutParams) view.getLayoutParams();
+                if (lp.originalLayout != null && lp.originalLayout.equals(lp))
+                    view.setLayoutParams(lp.original);
+            }
+            createdLayoutParams = false;
+        }
+    }
+
+    /**
+     * Records the values of view on each frame of the virtual clock.
+     */
+    private static final class Recorder implements VirtualAnimationClock.FrameListener {
+        private final View view;
+        private final long frameInterval;
+
+        /* The state of view before baking */
+        private final float[] initial = new float[PROPERTIES.length];
+        @Nullable
+        private final LayoutSize originalLayout;
+
+        private float[] values = new float[PROPERTIES.length * 64];
+        private int[] layout = new int[4 * 64];
+        private int frameCount = 0;
+
+        Recorder(View view, @Nullable LayoutSize originalLayout, long frameInterval) {
+            this.view = view;
+            this.originalLayout = originalLayout;
+            this.frameInterval = frameInterval;
+            for (int i = 0; i < PROPERTIES.length; i++)
+                initial[i] = PROPERTIES[i].get(view);
+        }
+
+        @Nullable
+        LayoutSize getOriginalLayout() {
+            return originalLayout;
+        }
+
+        @Override
+        public void onFrame(VirtualAnimationClock clock, long frameTime) {
+            record();
+        }
+
+        void record() {
+            if ((frameCount + 1) * PROPERTIES.length > values.length)
+                values = Arrays.copyOf(values, values.length * 2);
+            if ((frameCount + 1) * 4 > layout.length)
+                layout = Arrays.copyOf(layout, layout.length * 2);
+
+            int offset = frameCount * PROPERTIES.length;
+            for (int i = 0; i < PROPERTIES.length; i++)
+                values[offset + i] = PROPERTIES[i].get(view);
+
+            offset = frameCount * 4;
+            if (view.getLayoutParams() instanceof AnimatedLayoutParams) {
+                AnimatedLayoutParams lp = (AnimatedLayoutParams) view.getLayoutParams();
+                layout[offset] = lp.left;
+                layout[offset + 1] = lp.top;
+                layout[offset + 2] = lp.right;
+                layout[offset + 3] = lp.bottom;
+            } else if (frameCount > 0) {
+                // The animation has restored the original LayoutParams
+                System.arraycopy(layout, offset - 4, layout, offset, 4);
+            } else if (originalLayout != null) {
+                layout[offset] = originalLayout.left;
+                layout[offset + 1] = originalLayout.top;
+                layout[offset + 2] = originalLayout.right;
+                layout[offset + 3] = originalLayout.bottom;
+            }
+            frameCount++;
+        }
+
+        /**
+         * @return the baked animation which contains only the changed values
+         */
+        @SuppressWarnings("unchecked")
+        AXBakedAnimation create() {
+            ArrayList<Integer> changed = new ArrayList<>();
+            for (int i = 0; i < PROPERTIES.length; i++) {
+                for (int frame = 0; frame < frameCount; frame++) {
+                    if (values[frame * PROPERTIES.length + i] != initial[i]) {
+                        changed.add(i);
+                        break;
+                    }
+                }
+            }
+
+            Property<View, Float>[] properties = new Property[changed.size()];
+            float[] bakedValues = new float[frameCount * properties.length];
+            for (int i = 0; i < properties.length; i++) {
+                int index = changed.get(i);
+                properties[i] = PROPERTIES[index];
+                for (int frame = 0; frame < frameCount; frame++)
+                    bakedValues[frame * properties.length + i] = values[frame * PROPERTIES.length + index];
+            }
+
+            int[] bakedLayout = null;
+            if (originalLayout != null) {
+                for (int frame = 0; frame < frameCount; frame++) {
+                    int offset = frame * 4;
+                    if (!originalLayout.equals(layout[offset], layout[offset + 1], layout[offset + 2], layout[offset + 3])) {
+                        bakedLayout = Arrays.copyOf(layout, frameCount * 4);
+                        break;
+                    }
+                }
+            }
+            return new AXBakedAnimation(frameInterval, frameCount, properties, bakedValues, bakedLayout);
+        }
+    }
+
+    /**
+     * A detached copy of the view's parent which contains the proxy of view and a placeholder
+     * for each sibling which has an id (So relative rules can find them),
+     * Layouts are measured by the real parent.
+     */
+    private static final class ProxyLayout extends FrameLayout implements AnimatedLayout, DrawableLayout {
+        private final View view, proxy;
+        private final AnimatedLayout parent;
+        private final ArrayList<View> siblings = new ArrayList<>();
+        private final ArrayList<View> placeholders = new ArrayList<>();
+        private final DrawHandler drawHandler = new DrawHandler();
+
+        ProxyLayout(View view, View proxy) {
+            super(view.getContext());
+            this.view = view;
+            this.proxy = proxy;
+            this.parent = (AnimatedLayout) view.getParent();
+
+            ViewGroup group = (ViewGroup) parent;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                View child = group.getChildAt(i);
+                if (child == view) {
+                    addView(proxy, generateLayoutParams(view.getLayoutParams()));
+                } else if (child.getId() != View.NO_ID) {
+                    View placeholder = new View(getContext());
+                    placeholder.setId(child.getId());
+                    addView(placeholder);
+                    placeholder.layout(child.getLeft(), child.getTop(), child.getRight(), child.getBottom());
+                    siblings.add(child);
+                    placeholders.add(placeholder);
+                }
+            }
+            layout(group.getLeft(), group.getTop(), group.getRight(), group.getBottom());
+        }
+
+        private View getRealView(View child) {
+            if (child == proxy)
+                return view;
+
+            int index = placeholders.indexOf(child);
+            return index >= 0 ? siblings.get(index) : child;
+        }
+
+        @Override
+        public void getLayoutSize(final View child, final OnLayoutSizeReadyListener listener) {
+            parent.getLayoutSize(getRealView(child), new OnLayoutSizeReadyListener() {
+                @Override
+                public void onReady(View view, LayoutSize layoutSize) {
+                    listener.onReady(child, layoutSize);
+                }
+            });
+        }
+
+        @Override
+        public void getLayoutSize(final View child, ViewGroup.LayoutParams layoutParams, final OnLayoutSizeReadyListener listener) {
+            parent.getLayoutSize(getRealView(child), layoutParams, new OnLayoutSizeReadyListener() {
+                @Override
+                public void onReady(View view, LayoutSize layoutSize) {
+                    listener.onReady(child, layoutSize);
+                }
+            });
+        }
+
+        @Override
+        public LayoutSize getLayoutSize() {
+            return parent.getLayoutSize();
+        }
+
+        @Override
+        public DrawHandler getDrawHandler() {
+            return drawHandler;
+        }
+
+        @Override
+        public boolean canDraw(String key) {
+            // Draws wherever the real one would
+            for (ViewParent p = (ViewParent) parent; p != null; p = p.getParent()) {
+                if (p instanceof DrawableLayout && ((DrawableLayout) p).canDraw(key))
+                    return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A global frame budget governor for expensive per-frame work of animations.
+ * It measures the frame time by {@link Choreographer} while expensive animations are running,
+ * And whenever the frames take longer than the budget, It throttles the expensive rules
+ * to every Nth frame and drops optional work, So the screen degrades gracefully instead of janking.
+ * <p>
+ * Expensive work:
+ * <ul>
+ * <li>{@link com.aghajari.axanimation.evaluator.DrawableEvaluator} (background animations)</li>
+ * <li>{@link com.aghajari.axanimation.draw.DrawRule} invalidation</li>
+ * <li>Text size animations</li>
+ * <li>Rules marked by {@link com.aghajari.axanimation.rules.Rule#setExpensive(boolean)}</li>
+ * </ul>
+ * Optional work: Inspect overlays and the shader re-creation of gradient animations,
+ * It's throttled the same way but it doesn't count as expensive work.
+ * <p>
+ * The first and the last frame of an animation are never skipped.
+ * Governor is disabled by default, Use {@link #setEnabled(boolean)} to enable it.
+ *
+ * @author AmirHossein Aghajari
+ */
+public final class AXFrameGovernor {
+
+    private AXFrameGovernor() {
+    }
+
+    /**
+     * Called whenever the governor changes the throttle.
+     */
+    public interface Listener {
+        /**
+         * @param throttle        expensive work runs once every throttle frames, 1 means full rate.
+         * @param frameTimeMillis the average frame time which caused the change.
+         */
+        void onThrottleChanged(int throttle, float frameTimeMillis);
+    }
+
+    public static final float DEFAULT_FRAME_BUDGET = 1000f / 60f;
+    public static final int DEFAULT_MAX_THROTTLE = 4;
+
+    /* The throttle goes up when frames take 25% longer than the budget and goes down under 105% */
+    private static final float PRESSURE = 1.25f;
+    private static final float RELAXED = 1.05f;
+    /* Frames to wait after a change before the next one */
+    private static final int FRAMES_TO_RAISE = 10;
+    private static final int FRAMES_TO_LOWER = 30;
+    /* Stops observing the frames when no expensive work has asked for this many frames */
+    private static final int IDLE_FRAMES = 120;
+    /* A longer frame is an idle gap, not a slow frame */
+    private static final long MAX_FRAME_NANOS = 250000000L;
+    private static final float SMOOTHING = 0.1f;
+
+    private static boolean enabled = false;
+    private static float frameBudget = DEFAULT_FRAME_BUDGET;
+    private static int maxThrottle = DEFAULT_MAX_THROTTLE;
+
+    private static int throttle = 1;
+    private static float averageFrameTime = 0f;
+    private static long lastFrameNanos = 0;
+    private static long frame = 0;
+    private static long lastRequestFrame = 0;
+    private static long lastChangeFrame = 0;
+    private static boolean observing = false;
+
+    private static long skippedUpdates = 0;
+    private static long droppedOptionalWork = 0;
+    private static int interventions = 0;
+
+    private static final List<Listener> listeners = new ArrayList<>();
+
+    private static final Choreographer.FrameCallback frameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            onFrame(frameTimeNanos);
+            if (observing)
+                Choreographer.getInstance().postFrameCallback(this);
+        }
+    };
+
+    /**
+     * Enables or disables the governor,
+     * Disabled governor never throttles anything.
+     */
+    public static void setEnabled(boolean enabled) {
+        AXFrameGovernor.enabled = enabled;
+        if (!enabled) {
+            stopObserving();
+            reset();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param millis the time each frame can take, default: 16.67ms (60fps)
+     */
+    public static void setFrameBudget(float millis) {
+        if (millis <= 0)
+            throw new IllegalArgumentException("frame budget must be positive!");
+        frameBudget = millis;
+    }
+
+    public static float getFrameBudget() {
+        return frameBudget;
+    }
+
+    /**
+     * @param maxThrottle expensive work runs at least once every maxThrottle frames, default: 4
+     */
+    public static void setMaxThrottle(int maxThrottle) {
+        if (maxThrottle < 1)
+            throw new IllegalArgumentException("maxThrottle must be at least 1!");
+        AXFrameGovernor.maxThrottle = maxThrottle;
+        if (throttle > maxThrottle)
+            setThrottle(maxThrottle);
+    }
+
+    public static int getMaxThrottle() {
+        return maxThrottle;
+    }
+
+    /**
+     * @return expensive work runs once every throttle frames, 1 means full rate.
+     */
+    public static int getThrottle() {
+        return throttle;
+    }
+
+    /**
+     * @return the measured average frame time, in milliseconds.
+     */
+    public static float getAverageFrameTime() {
+        return averageFrameTime;
+    }
+
+    /**
+     * Expensive per-frame work asks the governor before doing anything,
+     * Skipping it keeps the last frame's result on the screen.
+     *
+     * @param key      the owner of work, Each owner gets it's own frames,
+     *                 So the throttled work spreads over the frames.
+     * @param fraction the animated fraction, The work always runs on the first and the last one.
+     * @return True if the work should run on this frame, False to skip it.
+     */
+    public static boolean shouldUpdate(@NonNull Object key, float fraction) {
+        if (!enabled)
+            return true;
+
+        request();
+        if (throttle <= 1 || fraction <= 0f || fraction >= 1f || isSlot(key))
+            return true;
+
+        skippedUpdates++;
+        return false;
+    }
+
+    /**
+     * Optional work (such as inspect overlays) runs on the frames of it's key just like
+     * {@link #shouldUpdate(Object, float)}, But asking doesn't keep the governor observing the frames.
+     * So an overlay which draws on each frame won't keep the governor alive by itself.
+     *
+     * @param key the owner of work, Each owner gets it's own frames.
+     * @return False if the optional work should be dropped on this frame.
+     */
+    public static boolean isOptionalWorkAllowed(@NonNull Object key) {
+        if (!enabled || throttle <= 1 || isSlot(key))
+            return true;
+
+        droppedOptionalWork++;
+        return false;
+    }
+
+    private static boolean isSlot(Object key) {
+        int slot = (System.identityHashCode(key) & Integer.MAX_VALUE) % throttle;
+        return frame % throttle == slot;
+    }
+
+    public static void addListener(@NonNull Listener listener) {
+        if (!listeners.contains(listener))
+            listeners.add(listener);
+    }
+
+    public static void removeListener(@NonNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return number of the expensive updates which have been skipped
+     */
+    public static long getSkippedUpdates() {
+        return skippedUpdates;
+    }
+
+    /**
+     * @return number of the optional works which have been dropped
+     */
+    public static long getDroppedOptionalWork() {
+        return droppedOptionalWork;
+    }
+
+    /**
+     * @return number of times the governor has raised the throttle
+     */
+    public static int getInterventions() {
+        return interventions;
+    }
+
+    @NonNull
+    public static String getReport() {
+        return "throttle: " + throttle + "/" + maxThrottle
+                + ", frame: " + averageFrameTime + "ms/" + frameBudget + "ms"
+                + ", interventions: " + interventions
+                + ", skipped updates: " + skippedUpdates
+                + ", dropped optional work: " + droppedOptionalWork;
+    }
+
+    /**
+     * Resets the throttle, the measured frame time and the counters.
+     */
+    public static void reset() {
+        boolean changed = throttle != 1;
+        throttle = 1;
+        averageFrameTime = 0f;
+        lastFrameNanos = 0;
+        lastChangeFrame = frame;
+        skippedUpdates = 0;
+        droppedOptionalWork = 0;
+        interventions = 0;
+        if (changed)
+            dispatch();
+    }
+
+    private static void request() {
+        lastRequestFrame = frame;
+        if (!observing) {
+            observing = true;
+            lastFrameNanos = 0;
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+        }
+    }
+
+    private static void stopObserving() {
+        if (observing) {
+            observing = false;
+            Choreographer.getInstance().removeFrameCallback(frameCallback);
+        }
+    }
+
+    /**
+     * Measures the frame, Called on each frame while observing.
+     */
+    static void onFrame(long frameTimeNanos) {
+        if (!enabled)
+            return;
+
+        frame++;
+        long delta = frameTimeNanos - lastFrameNanos;
+        boolean measured = lastFrameNanos > 0 && delta > 0 && delta < MAX_FRAME_NANOS;
+        lastFrameNanos = frameTimeNanos;
+
+        if (frame - lastRequestFrame > IDLE_FRAMES) {
+            // Nothing expensive is running, The next request measures from scratch
+            observing = false;
+            averageFrameTime = 0f;
+            if (throttle != 1)
+                setThrottle(1);
+            return;
+        }
+        if (!measured)
+            return;
+
+        float millis = delta / 1000000f;
+        averageFrameTime = averageFrameTime == 0f ? millis
+                : averageFrameTime + (millis - averageFrameTime) * SMOOTHING;
+
+        long sinceChange = frame - lastChangeFrame;
+        if (averageFrameTime > frameBudget * PRESSURE) {
+            if (throttle < maxThrottle && sinceChange >= FRAMES_TO_RAISE) {
+                interventions++;
+                setThrottle(throttle + 1);
+            }
+        } else if (averageFrameTime < frameBudget * RELAXED) {
+            if (throttle > 1 && sinceChange >= FRAMES_TO_LOWER)
+                setThrottle(throttle - 1);
+        }
+    }
+
+    private static void setThrottle(int value) {
+        throttle = value;
+        lastChangeFrame = frame;
+        dispatch();
+    }
+
+    private static void dispatch() {
+        for (Listener listener : listeners.toArray(new Listener[0]))
+            listener.onThrottleChanged(throttle, averageFrameTime);
+    }
+}
@@ -0,0 +1,415 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DefaultItemAnimator;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.aghajari.axanimation.clock.AnimationClock;
+import com.aghajari.axanimation.listener.AXAnimatorListenerAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link RecyclerView.ItemAnimator} which plays {@link AXAnimation}s on add, remove and change of items.
+ * The animations are played by a bounded pool of AXAnimation instances which own a copy of the template's rules,
+ * So binding and scrolling doesn't create new animations and running items don't share the state of rules.
+ * Moves and the templates which are not set will be played by {@link DefaultItemAnimator}.
+ * <p>
+ * Pending animations start together once per layout pass,
+ * And adds wait until the running removes have been finished (like {@link DefaultItemAnimator}).
+ * {@link #endAnimation(RecyclerView.ViewHolder)} fast-forwards the animation of a holder,
+ * Set this as the RecyclerListener of RecyclerView to cancel the animation of recycled holders.
+ * <p>
+ * Only the rules which don't need an {@link com.aghajari.axanimation.layouts.AnimatedLayout}
+ * can be used in the templates, RecyclerView isn't one.
+ *
+ * @author AmirHossein Aghajari
+ */
+public class AXItemAnimator extends DefaultItemAnimator implements RecyclerView.RecyclerListener {
+
+    public static final int DEFAULT_MAX_POOL_SIZE = 8;
+
+    private static final int ADD = 0;
+    private static final int REMOVE = 1;
+    private static final int CHANGE = 2;
+
+    private final AXAnimation[] templates = new AXAnimation[3];
+    private final List<List<Entry>> pools = new ArrayList<>(3);
+    private int maxPoolSize = DEFAULT_MAX_POOL_SIZE;
+    private AnimationClock clock = AnimationClock.getDefault();
+
+    private final List<Entry> pending = new ArrayList<>();
+    private final List<Entry> pendingAdds = new ArrayList<>();
+    private final List<Entry> waitingAdds = new ArrayList<>();
+    private final List<Entry> running = new ArrayList<>();
+
+    public AXItemAnimator() {
+        for (int i = 0; i < templates.length; i++)
+            pools.add(new ArrayList<Entry>());
+    }
+
+    /**
+     * @param animation the animation of added items, or null to use the default one.
+     */
+    public AXItemAnimator setAddAnimation(@Nullable AXAnimation animation) {
+        setTemplate(ADD, animation);
+        return this;
+    }
+
+    /**
+     * The removed view will be reset by {@link #onResetView(View)} after its animation.
+     *
+     * @param animation the animation of removed items, or null to use the default one.
+     */
+    public AXItemAnimator setRemoveAnimation(@Nullable AXAnimation animation) {
+        setTemplate(REMOVE, animation);
+        return this;
+    }
+
+    /**
+     * The animation will be played on the new holder of the changed item,
+     * The old holder (if it's a different one) will be finished immediately.
+     *
+     * @param animation the animation of changed items, or null to use the default one.
+     */
+    public AXItemAnimator setChangeAnimation(@Nullable AXAnimation animation) {
+        setTemplate(CHANGE, animation);
+        return this;
+    }
+
+    @Nullable
+    public AXAnimation getAddAnimation() {
+        return templates[ADD];
+    }
+
+    @Nullable
+    public AXAnimation getRemoveAnimation() {
+        return templates[REMOVE];
+    }
+
+    @Nullable
+    public AXAnimation getChangeAnimation() {
+        return templates[CHANGE];
+    }
+
+    private void setTemplate(int type, @Nullable AXAnimation animation) {
+        // Closes the opened section on a copy, So the given animation won't change
+        if (animation != null) {
+            animation = AXAnimation.create().importAnimation(animation, false);
+            animation.nextSection();
+        }
+        templates[type] = animation;
+        pools.get(type).clear();
+    }
+
+    /**
+     * Sets the maximum number of idle AXAnimation instances which are kept for each template.
+     */
+    public AXItemAnimator setMaxPoolSize(int maxPoolSize) {
+        if (maxPoolSize < 0)
+            throw new IllegalArgumentException("maxPoolSize can not be negative!");
+        this.maxPoolSize = maxPoolSize;
+        for (List<Entry> pool : pools) {
+            while (pool.size() > maxPoolSize)
+                pool.remove(pool.size() - 1);
+        }
+        return this;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    /**
+     * Sets the {@link AnimationClock} which drives the AXAnimations of this ItemAnimator.
+     *
+     * @param clock the clock, or null to use the default clock.
+     */
+    public AXItemAnimator setClock(@Nullable AnimationClock clock) {
+        this.clock = clock == null ? AnimationClock.getDefault() : clock;
+        return this;
+    }
+
+    @NonNull
+    public AnimationClock getClock() {
+        return clock;
+    }
+
+    // *************** ItemAnimator ***************
+
+    @Override
+    public boolean animateAdd(RecyclerView.ViewHolder holder) {
+        if (templates[ADD] == null)
+            return super.animateAdd(holder);
+
+        endOwnAnimation(holder, true);
+        pendingAdds.add(obtain(ADD, holder));
+        return true;
+    }
+
+    @Override
+    public boolean animateRemove(RecyclerView.ViewHolder holder) {
+        if (templates[REMOVE] == null)
+            return super.animateRemove(holder);
+
+        endOwnAnimation(holder, true);
+        pending.add(obtain(REMOVE, holder));
+        return true;
+    }
+
+    @Override
+    public boolean animateChange(RecyclerView.ViewHolder oldHolder, RecyclerView.ViewHolder newHolder,
+                                 int fromX, int fromY, int toX, int toY) {
+        if (templates[CHANGE] == null)
+            return super.animateChange(oldHolder, newHolder, fromX, fromY, toX, toY);
+
+        endOwnAnimation(oldHolder, true);
+        if (newHolder != null && newHolder != oldHolder) {
+            endOwnAnimation(newHolder, true);
+            onResetView(oldHolder.itemView);
+            dispatchChangeFinished(oldHolder, true);
+            pending.add(obtain(CHANGE, newHolder));
+        } else {
+            pending.add(obtain(CHANGE, oldHolder));
+        }
+        return true;
+    }
+
+    @Override
+    public void runPendingAnimations() {
+        super.runPendingAnimations();
+
+        for (int i = 0; i < pending.size(); i++)
+            start(pending.get(i));
+        pending.clear();
+
+        if (pendingAdds.isEmpty())
+            return;
+
+        waitingAdds.addAll(pendingAdds);
+        pendingAdds.clear();
+        // Otherwise the last finished remove starts them, See finish(Entry, boolean)
+        if (!hasRunningRemoves())
+            startWaitingAdds();
+    }
+
+    private boolean hasRunningRemoves() {
+        for (int i = 0; i < running.size(); i++) {
+            if (running.get(i).type == REMOVE)
+                return true;
+        }
+        return false;
+    }
+
+    private void startWaitingAdds() {
+        // An add might end synchronously and finish() the others, So take them first
+        while (!waitingAdds.isEmpty())
+            start(waitingAdds.remove(0));
+    }
+
+    @Override
+    public void endAnimation(@NonNull RecyclerView.ViewHolder item) {
+        endOwnAnimation(item, true);
+        super.endAnimation(item);
+    }
+
+    @Override
+    public void endAnimations() {
+        while (!pending.isEmpty())
+            finish(pending.remove(pending.size() - 1), false);
+        while (!pendingAdds.isEmpty())
+            finish(pendingAdds.remove(pendingAdds.size() - 1), false);
+        while (!waitingAdds.isEmpty())
+            finish(waitingAdds.remove(waitingAdds.size() - 1), false);
+        while (!running.isEmpty())
+            stop(running.remove(running.size() - 1), true);
+        super.endAnimations();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return !pending.isEmpty() || !pendingAdds.isEmpty() || !waitingAdds.isEmpty()
+                || !running.isEmpty() || super.isRunning();
+    }
+
+    /**
+     * Cancels the AXAnimation of the recycled holder, So the recycled view doesn't keep it.
+     */
+    @Override
+    public void onViewRecycled(@NonNull RecyclerView.ViewHolder holder) {
+        endOwnAnimation(holder, false);
+    }
+
+    /**
+     * Resets the properties of a view which its animation has been finished
+     * and it may be recycled. (removed items and old holders of changed items)
+     */
+    protected void onResetView(@NonNull View view) {
+        view.setAlpha(1f);
+        view.setTranslationX(0f);
+        view.setTranslationY(0f);
+        view.setScaleX(1f);
+        view.setScaleY(1f);
+        view.setRotation(0f);
+        view.setRotationX(0f);
+        view.setRotationY(0f);
+    }
+
+    // *************** Pool ***************
+
+    private Entry obtain(int type, RecyclerView.ViewHolder holder) {
+        AXAnimation template = templates[type];
+        List<Entry> pool = pools.get(type);
+        Entry entry = null;
+        while (entry == null && !pool.isEmpty()) {
+            entry = pool.remove(pool.size() - 1);
+            // The template has been changed since this instance was created
+            if (entry.sectionInfo != template.getSectionInfo())
+                entry = null;
+        }
+        if (entry == null)
+            entry = new Entry(type, template);
+
+        entry.holder = holder;
+        return entry;
+    }
+
+    private void recycle(Entry entry) {
+        List<Entry> pool = pools.get(entry.type);
+        if (pool.size() < maxPoolSize && entry.template == templates[entry.type])
+            pool.add(entry);
+    }
+
+    private void start(Entry entry) {
+        running.add(entry);
+        switch (entry.type) {
+            case ADD:
+                dispatchAddStarting(entry.holder);
+                break;
+            case REMOVE:
+                dispatchRemoveStarting(entry.holder);
+                break;
+            default:
+                dispatchChangeStarting(entry.holder, false);
+        }
+
+        entry.animation.setClock(clock);
+        entry.animation.start(entry.holder.itemView);
+    }
+
+    /**
+     * Ends or cancels the animation of the holder (started or not),
+     * And dispatches the finish event.
+     */
+    private void endOwnAnimation(RecyclerView.ViewHolder holder, boolean fastForward) {
+        if (removeHolder(pending, holder) || removeHolder(pendingAdds, holder)
+                || removeHolder(waitingAdds, holder))
+            return;
+
+        for (int i = running.size() - 1; i >= 0; i--) {
+            if (running.get(i).holder == holder) {
+                stop(running.remove(i), fastForward);
+                return;
+            }
+        }
+    }
+
+    private boolean removeHolder(List<Entry> list, RecyclerView.ViewHolder holder) {
+        for (int i = list.size() - 1; i >= 0; i--) {
+            if (list.get(i).holder == holder) {
+                finish(list.remove(i), false);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void stop(Entry entry, boolean fastForward) {
+        RecyclerView.ViewHolder holder = entry.holder;
+        // So the listener ignores the events of end() and cancel()
+        entry.holder = null;
+
+        AXAnimation animation = entry.animation;
+        if (fastForward && animation.isRunning())
+            animation.end();
+        if (animation.isRunning())
+            animation.cancel();
+
+        entry.holder = holder;
+        finish(entry, false);
+    }
+
+    private void finish(Entry entry, boolean remove) {
+        RecyclerView.ViewHolder holder = entry.holder;
+        entry.holder = null;
+        if (remove)
+            running.remove(entry);
+
+        switch (entry.type) {
+            case ADD:
+                dispatchAddFinished(holder);
+                break;
+            case REMOVE:
+                onResetView(holder.itemView);
+                dispatchRemoveFinished(holder);
+                break;
+            default:
+                dispatchChangeFinished(holder, false);
+        }
+
+        recycle(entry);
+        if (entry.type == REMOVE && !waitingAdds.isEmpty() && !hasRunningRemoves())
+            startWaitingAdds();
+        if (!isRunning())
+            dispatchAnimationsFinished();
+    }
+
+    private final class Entry extends AXAnimatorListenerAdapter {
+        final int type;
+        final AXAnimation template;
+        final AXAnimation animation;
+        final SectionInfo sectionInfo;
+        RecyclerView.ViewHolder holder;
+
+        Entry(int type, AXAnimation template) {
+            this.type = type;
+            this.template = template;
+            this.sectionInfo = template.getSectionInfo();
+            animation = AXAnimation.create().importAnimation(template, true);
+            animation.addAnimatorListener(this);
+        }
+
+        @Override
+        public void onAnimationEnd(AXAnimation animation) {
+            if (holder != null)
+                finish(this, true);
+        }
+
+        @Override
+        public void onAnimationCancel(AXAnimation animation) {
+            // Canceled from outside, e.g. AXAnimation.clear(View)
+            if (holder != null)
+                finish(this, true);
+        }
+    }
+}
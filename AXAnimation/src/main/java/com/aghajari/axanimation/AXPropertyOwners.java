@@ -0,0 +1,314 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.content.res.Resources;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.aghajari.axanimation.livevar.LayoutSize;
+import com.aghajari.axanimation.rules.Rule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.WeakHashMap;
+
+/**
+ * The ownership table of running animations,
+ * Each property of a target (the view, or the object which an animator writes such as a drawable)
+ * and the view's layout has only one writer at a time.
+ * The newest animation which writes a property takes it over and the older ones
+ * stop writing that property, So two animations never set the same property or
+ * request a layout for the same view in one frame.
+ * The older animations are not canceled, They keep their other properties and their timing.
+ * <p>
+ * Only the animations which enable {@link AXAnimation#ownProperties(boolean)}
+ * (or {@link AXAnimation#retarget(boolean)}) are registered here.
+ * <p>
+ * Enable the report while debugging to find the overlapping animations of your screens:
+ * <pre>
+ * AXPropertyOwners.setReportEnabled(true);
+ * ...
+ * Log.d("AXAnimation", AXPropertyOwners.getReport());
+ * </pre>
+ *
+ * @author AmirHossein Aghajari
+ */
+public final class AXPropertyOwners {
+
+    private AXPropertyOwners() {
+    }
+
+    /**
+     * The name of layout in conflicts, (left, top, right, bottom of the view)
+     */
+    public static final String LAYOUT = "layout";
+
+    private static final int MAX_SUPERSEDED = 8;
+    /* Keyed by the target of animators, Views are the keys of layouts */
+    private static final WeakHashMap<Object, Owners> owners = new WeakHashMap<>();
+
+    private static boolean reportEnabled = false;
+    private static final List<Conflict> conflicts = new ArrayList<>();
+
+    static class Owners {
+        final ArrayList<PropertyMotion> motions = new ArrayList<>();
+        @Nullable
+        LayoutSize layout;
+        @Nullable
+        Rule<?> layoutWriter;
+        /* Layouts of the older animations which are still running */
+        final ArrayList<LayoutSize> superseded = new ArrayList<>();
+
+        boolean isEmpty() {
+            return motions.isEmpty() && layout == null && superseded.isEmpty();
+        }
+    }
+
+    /**
+     * A property which has been written by two animations of a view at the same time.
+     */
+    public static class Conflict {
+        private final String view, property, older, newer;
+        private int count = 1;
+
+        Conflict(String view, String property, String older, String newer) {
+            this.view = view;
+            this.property = property;
+            this.older = older;
+            this.newer = newer;
+        }
+
+        boolean matches(String view, String property, String older, String newer) {
+            return this.view.equals(view) && this.property.equals(property)
+                    && this.older.equals(older) && this.newer.equals(newer);
+        }
+
+        /**
+         * @return name of the view or the target object
+         */
+        @NonNull
+        public String getView() {
+            return view;
+        }
+
+        /**
+         * @return name of the property or {@link #LAYOUT}
+         */
+        @NonNull
+        public String getProperty() {
+            return property;
+        }
+
+        /**
+         * @return name of the rule which has lost the property
+         */
+        @NonNull
+        public String getOlderWriter() {
+            return older;
+        }
+
+        /**
+         * @return name of the rule which has taken the property over
+         */
+        @NonNull
+        public String getNewerWriter() {
+            return newer;
+        }
+
+        /**
+         * @return how many times this conflict has happened
+         */
+        public int getCount() {
+            return count;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return view + "." + property + ": " + older + " -> " + newer + " (x" + count + ")";
+        }
+    }
+
+    @NonNull
+    static Owners get(@NonNull Object target) {
+        Owners o = owners.get(target);
+        if (o == null) {
+            o = new Owners();
+            owners.put(target, o);
+        }
+        return o;
+    }
+
+    @Nullable
+    static Owners find(@NonNull Object target) {
+        return owners.get(target);
+    }
+
+    static void removeIfEmpty(@NonNull Object target, @NonNull Owners o) {
+        if (o.isEmpty() && owners.get(target) == o)
+            owners.remove(target);
+    }
+
+    /**
+     * Makes the target the owner of the view's layout,
+     * The previous owner won't request layout anymore.
+     */
+    static void claimLayout(@NonNull View view, @NonNull LayoutSize target, @NonNull Rule<?> rule) {
+        Owners o = get(view);
+        if (o.layout == target) {
+            o.layoutWriter = rule;
+            return;
+        }
+
+        if (o.layout != null) {
+            // An animation which has been restarted while running never releases it's old layout
+            if (o.superseded.size() >= MAX_SUPERSEDED)
+                o.superseded.remove(0);
+            o.superseded.add(o.layout);
+            onConflict(view, LAYOUT, o.layoutWriter, rule);
+        }
+        removeSuperseded(o, target);
+        o.layout = target;
+        o.layoutWriter = rule;
+    }
+
+    /**
+     * Called when the animation which was writing with target has been ended or canceled.
+     */
+    static void releaseLayout(@NonNull View view, @Nullable LayoutSize target) {
+        Owners o = find(view);
+        if (o == null || target == null)
+            return;
+
+        if (o.layout == target) {
+            o.layout = null;
+            o.layoutWriter = null;
+        } else {
+            removeSuperseded(o, target);
+        }
+        removeIfEmpty(view, o);
+    }
+
+    private static int indexOfSuperseded(Owners o, LayoutSize target) {
+        // Identity check, LayoutSize#equals compares the values
+        for (int i = 0; i < o.superseded.size(); i++) {
+            if (o.superseded.get(i) == target)
+                return i;
+        }
+        return -1;
+    }
+
+    private static void removeSuperseded(Owners o, LayoutSize target) {
+        int index = indexOfSuperseded(o, target);
+        if (index >= 0)
+            o.superseded.remove(index);
+    }
+
+    /**
+     * @return False if a newer animation has taken the layout of view from the target,
+     * So the target must not update the view.
+     */
+    public static boolean isLayoutOwner(@NonNull View view, @Nullable LayoutSize target) {
+        if (target == null)
+            return true;
+
+        Owners o = owners.get(view);
+        return o == null || o.layout == target || indexOfSuperseded(o, target) < 0;
+    }
+
+    static void onConflict(@NonNull Object target, @NonNull String property,
+                           @Nullable Rule<?> older, @Nullable Rule<?> newer) {
+        if (!reportEnabled)
+            return;
+
+        String viewName = getTargetName(target);
+        String olderName = getRuleName(older);
+        String newerName = getRuleName(newer);
+
+        for (Conflict conflict : conflicts) {
+            if (conflict.matches(viewName, property, olderName, newerName)) {
+                conflict.count++;
+                return;
+            }
+        }
+        conflicts.add(new Conflict(viewName, property, olderName, newerName));
+    }
+
+    private static String getTargetName(Object target) {
+        String name = target.getClass().getSimpleName();
+        if (!(target instanceof View))
+            return name + "@" + Integer.toHexString(System.identityHashCode(target));
+
+        View view = (View) target;
+        if (view.getId() != View.NO_ID) {
+            try {
+                return name + "#" + view.getResources().getResourceEntryName(view.getId());
+            } catch (Resources.NotFoundException ignore) {
+            }
+        }
+        return name + "@" + Integer.toHexString(System.identityHashCode(view));
+    }
+
+    private static String getRuleName(Rule<?> rule) {
+        return rule == null ? "unknown" : rule.getRuleName();
+    }
+
+    /**
+     * Records the conflicts for {@link #getReport()},
+     * Naming the views and rules has a cost, So it's disabled by default.
+     */
+    public static void setReportEnabled(boolean enabled) {
+        reportEnabled = enabled;
+    }
+
+    public static boolean isReportEnabled() {
+        return reportEnabled;
+    }
+
+    /**
+     * @return the recorded conflicts since the last {@link #clearReport()}
+     */
+    @NonNull
+    public static List<Conflict> getConflicts() {
+        return Collections.unmodifiableList(new ArrayList<>(conflicts));
+    }
+
+    /**
+     * @return the recorded conflicts, One conflict per line.
+     */
+    @NonNull
+    public static String getReport() {
+        if (conflicts.isEmpty())
+            return "No conflicts";
+
+        StringBuilder sb = new StringBuilder();
+        for (Conflict conflict : conflicts) {
+            if (sb.length() > 0)
+                sb.append('\n');
+            sb.append(conflict);
+        }
+        return sb.toString();
+    }
+
+    public static void clearReport() {
+        conflicts.clear();
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.util.Property;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A registry of typed {@link Property}s of custom views.
+ * Rules which work with a property name, field name or setter name
+ * look up here before falling back to reflection.
+ * <p>
+ * Properties are usually generated by AXAnimation-processor from
+ * {@link com.aghajari.axanimation.annotation.AXAnimatable}, The generated class
+ * (<code>ClassName_AXProperties</code>) registers itself the first time
+ * its view class is looked up, Or you can call <code>ClassName_AXProperties.register()</code>.
+ * You can also {@link #register(Class, Property, String)} properties manually.
+ * <p>
+ * Field and setter lookups are keyed by the member which the property writes to,
+ * So a field rule never goes through a setter (or the other way around) just because
+ * they share a property name.
+ * A property registered without a getter returns null from {@link Property#get(Object)}
+ * and {@link #findGetter(Class, String)} won't return it.
+ *
+ * @author AmirHossein Aghajari
+ */
+public final class AXPropertyRegistry {
+
+    private AXPropertyRegistry() {
+    }
+
+    public static final String GENERATED_CLASS_SUFFIX = "_AXProperties";
+
+    private static final Map<Class<?>, Entry> registry = new HashMap<>();
+
+    private static final int PROPERTIES = 0;
+    private static final int GETTERS = 1;
+    private static final int SETTERS = 2;
+    private static final int FIELDS = 3;
+
+    private static class Entry {
+        final Map<String, Property<?, ?>> properties = new HashMap<>();
+        final Map<String, Property<?, ?>> getters = new HashMap<>();
+        final Map<String, Property<?, ?>> setters = new HashMap<>();
+        final Map<String, Property<?, ?>> fields = new HashMap<>();
+        boolean generatedLoaded = false;
+
+        Map<String, Property<?, ?>> get(int map) {
+            switch (map) {
+                case GETTERS:
+                    return getters;
+                case SETTERS:
+                    return setters;
+                case FIELDS:
+                    return fields;
+                default:
+                    return properties;
+            }
+        }
+    }
+
+    /**
+     * Registers a readable property for the class.
+     *
+     * @param cls        The class that owns the property
+     * @param property   The property, {@link Property#getName()} is the key
+     * @param setterName The name of setter method which the property calls, or null
+     */
+    public static synchronized void register(@NonNull Class<?> cls, @NonNull Property<?, ?> property,
+                                             @Nullable String setterName) {
+        Entry entry = getEntry(cls);
+        entry.properties.put(property.getName(), property);
+        entry.getters.put(property.getName(), property);
+        if (setterName != null)
+            entry.setters.put(setterName, property);
+    }
+
+    /**
+     * Registers a property which calls a setter of the class.
+     *
+     * @param cls        The class that owns the property
+     * @param property   The property, {@link Property#getName()} is the key
+     * @param setterName The name of setter method which the property calls
+     * @param hasGetter  False if {@link Property#get(Object)} has no getter to call and returns null
+     */
+    public static synchronized void registerSetter(@NonNull Class<?> cls, @NonNull Property<?, ?> property,
+                                                   @NonNull String setterName, boolean hasGetter) {
+        Entry entry = getEntry(cls);
+        entry.properties.put(property.getName(), property);
+        if (hasGetter)
+            entry.getters.put(property.getName(), property);
+        entry.setters.put(setterName, property);
+    }
+
+    /**
+     * Registers a property which reads and writes a field of the class.
+     *
+     * @param cls       The class that owns the property
+     * @param property  The property, {@link Property#getName()} is the key
+     * @param fieldName The name of field which the property reads and writes
+     */
+    public static synchronized void registerField(@NonNull Class<?> cls, @NonNull Property<?, ?> property,
+                                                  @NonNull String fieldName) {
+        Entry entry = getEntry(cls);
+        entry.properties.put(property.getName(), property);
+        entry.getters.put(property.getName(), property);
+        entry.fields.put(fieldName, property);
+    }
+
+    /**
+     * @return The registered property with this name of cls or it's superclasses, null otherwise.
+     */
+    @Nullable
+    public static synchronized Property<Object, Object> findProperty(@NonNull Class<?> cls, @NonNull String name) {
+        return find(cls, name, PROPERTIES);
+    }
+
+    /**
+     * @return The registered property with this name of cls or it's superclasses
+     * which has a getter, null otherwise.
+     */
+    @Nullable
+    public static synchronized Property<Object, Object> findGetter(@NonNull Class<?> cls, @NonNull String name) {
+        return find(cls, name, GETTERS);
+    }
+
+    /**
+     * @return The registered property which calls the setter of cls or it's superclasses, null otherwise.
+     */
+    @Nullable
+    public static synchronized Property<Object, Object> findSetter(@NonNull Class<?> cls, @NonNull String setterName) {
+        return find(cls, setterName, SETTERS);
+    }
+
+    /**
+     * @return The registered property which writes the field of cls or it's superclasses, null otherwise.
+     */
+    @Nullable
+    public static synchronized Property<Object, Object> findField(@NonNull Class<?> cls, @NonNull String fieldName) {
+        return find(cls, fieldName, FIELDS);
+    }
+
+    private static Property<Object, Object> find(Class<?> cls, String key, int map) {
+        while (cls != null && cls != Object.class) {
+            Entry entry = getEntry(cls);
+            if (!entry.generatedLoaded) {
+                entry.generatedLoaded = true;
+                loadGenerated(cls);
+            }
+            Property<?, ?> property = entry.get(map).get(key);
+            if (property != null) {
+                //noinspection unchecked
+                return (Property<Object, Object>) property;
+            }
+            cls = cls.getSuperclass();
+        }
+        return null;
+    }
+
+    private static Entry getEntry(Class<?> cls) {
+        Entry entry = registry.get(cls);
+        if (entry == null) {
+            entry = new Entry();
+            registry.put(cls, entry);
+        }
+        return entry;
+    }
+
+    private static void loadGenerated(Class<?> cls) {
+        ClassLoader loader = cls.getClassLoader();
+        if (loader == null || cls.getName().startsWith("android."))
+            return;
+
+        try {
+            // The static initializer of generated class registers the properties
+            Class.forName(cls.getName() + GENERATED_CLASS_SUFFIX, true, loader);
+        } catch (ClassNotFoundException ignore) {
+        }
+    }
+}
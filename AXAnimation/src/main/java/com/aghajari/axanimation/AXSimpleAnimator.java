@@ -395,15 +395,15 @@ public class AXSimpleAnimator extends Animator {
         animator.setStartDelay(animatorValues.getDelay());
         animator.setInterpolator(animatorValues.getInterpolator());
 
-        for (AnimatorListener listener : listeners)
-            animator.addListener(listener);
+        for (int i = 0; i < listeners.size(); i++)
+            animator.addListener(listeners.get(i));
 
-        for (AnimatorPauseListener pauseListener : pauseListeners)
-            animator.addPauseListener(pauseListener);
+        for (int i = 0; i < pauseListeners.size(); i++)
+            animator.addPauseListener(pauseListeners.get(i));
 
         if (animator instanceof ValueAnimator) {
-            for (ValueAnimator.AnimatorUpdateListener updateListener : updateListeners)
-                ((ValueAnimator) animator).addUpdateListener(updateListener);
+            for (int i = 0; i < updateListeners.size(); i++)
+                ((ValueAnimator) animator).addUpdateListener(updateListeners.get(i));
 
             ((ValueAnimator) animator).setRepeatCount(animatorValues.getRepeatCount());
             ((ValueAnimator) animator).setRepeatMode(animatorValues.getRepeatMode());
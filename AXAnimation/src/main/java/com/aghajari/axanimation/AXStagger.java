@@ -0,0 +1,428 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.aghajari.axanimation.clock.AnimationClock;
+import com.aghajari.axanimation.listener.AXAnimatorListenerAdapter;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Plays one {@link AXAnimation} on a collection of views with a start offset for each view (cascade).
+ * All of the offsets are computed on one timeline by a {@link Function},
+ * So there is no need to chain delays of an {@link AXAnimationSet}.
+ * <p>
+ * Each view gets it's own copy of the template's sections and rules,
+ * So the start values of a view (e.g. for {@link #reverse()}) aren't shared with the others.
+ * Copies are made once and reused until the sections of the template change.
+ *
+ * <pre>
+ * AXStagger.of(animation)
+ *         .views(tiles)
+ *         .interval(30)
+ *         .function(AXStagger.grid(10))
+ *         .start();
+ * </pre>
+ *
+ * @author AmirHossein Aghajari
+ */
+public class AXStagger {
+
+    /**
+     * Gives the views of a stagger, The view of each position will be requested right before it starts.
+     */
+    public interface Adapter {
+        int getCount();
+
+        @NonNull
+        View getView(int position);
+    }
+
+    /**
+     * Gives the order of each position,
+     * The start offset of the position is order * interval.
+     */
+    public interface Function {
+        float getOrder(int position, int count);
+    }
+
+    private final AXAnimation template;
+    private Adapter adapter;
+    private Function function = linear();
+    private long interval = 50;
+    private AnimationClock clock = AnimationClock.getDefault();
+    private Runnable endAction;
+
+    /* Per-view states, Valid while the sections of template are unchanged */
+    private AXAnimation[] animations = new AXAnimation[0];
+    private SectionInfo sectionInfo;
+
+    private long[] offsets = new long[0];
+    private int[] positions = new int[0];
+    private int count, next, remaining;
+    private long startTime, pausedTime;
+    private boolean running, paused, reverse;
+
+    private AXStagger(AXAnimation template) {
+        this.template = template;
+    }
+
+    /**
+     * Creates a stagger of the given animation.
+     * Opened section of the animation will be closed on the stagger's copy, The given animation won't change.
+     */
+    public static AXStagger of(@NonNull AXAnimation template) {
+        AXAnimation copy = AXAnimation.create().importAnimation(template, false);
+        copy.nextSection();
+        return new AXStagger(copy);
+    }
+
+    public static AXStagger of(@NonNull String animationName) {
+        return of(AXAnimation.getAnimation(animationName));
+    }
+
+    public AXStagger views(@NonNull final View... views) {
+        return adapter(new Adapter() {
+            @Override
+            public int getCount() {
+                return views.length;
+            }
+
+            @NonNull
+            @Override
+            public View getView(int position) {
+                return views[position];
+            }
+        });
+    }
+
+    public AXStagger views(@NonNull final List<View> views) {
+        return adapter(new Adapter() {
+            @Override
+            public int getCount() {
+                return views.size();
+            }
+
+            @NonNull
+            @Override
+            public View getView(int position) {
+                return views.get(position);
+            }
+        });
+    }
+
+    public AXStagger adapter(@NonNull Adapter adapter) {
+        this.adapter = adapter;
+        return this;
+    }
+
+    /**
+     * @param interval the offset between two neighbour orders, in milliseconds.
+     */
+    public AXStagger interval(long interval) {
+        if (interval < 0)
+            throw new IllegalArgumentException("interval can not be negative!");
+        this.interval = interval;
+        return this;
+    }
+
+    public AXStagger function(@NonNull Function function) {
+        this.function = function;
+        return this;
+    }
+
+    /**
+     * Sets the {@link AnimationClock} which drives the offsets and the animations of this stagger.
+     *
+     * @param clock the clock, or null to use the default clock.
+     */
+    public AXStagger setClock(@Nullable AnimationClock clock) {
+        this.clock = clock == null ? AnimationClock.getDefault() : clock;
+        return this;
+    }
+
+    @NonNull
+    public AnimationClock getClock() {
+        return clock;
+    }
+
+    /**
+     * @param endAction runs when the animations of all views have been ended.
+     */
+    public AXStagger withEndAction(@Nullable Runnable endAction) {
+        this.endAction = endAction;
+        return this;
+    }
+
+    /**
+     * @return the start offset of the position, in milliseconds.
+     */
+    public long getStartOffset(int position) {
+        return Math.round(Math.max(0f, function.getOrder(position, getCount())) * interval);
+    }
+
+    /**
+     * Gets the length of the stagger, (the last offset + duration of the animation)
+     */
+    public long getTotalDuration() {
+        long max = 0;
+        int count = getCount();
+        for (int i = 0; i < count; i++)
+            max = Math.max(max, getStartOffset(i));
+        return max + template.getTotalDuration();
+    }
+
+    private int getCount() {
+        return adapter == null ? 0 : adapter.getCount();
+    }
+
+    public void start() {
+        start(false);
+    }
+
+    /**
+     * Plays the animations in reverse,
+     * The last offset will start first.
+     */
+    public void reverse() {
+        start(true);
+    }
+
+    private void start(boolean reverse) {
+        if (running)
+            cancel();
+
+        this.reverse = reverse;
+        prepare();
+        running = true;
+        paused = false;
+        next = 0;
+        remaining = count;
+        startTime = clock.uptimeMillis();
+
+        if (count == 0) {
+            finish();
+        } else {
+            startDue();
+        }
+    }
+
+    private void prepare() {
+        count = getCount();
+
+        if (sectionInfo != template.getSectionInfo()) {
+            sectionInfo = template.getSectionInfo();
+            animations = new AXAnimation[0];
+        }
+        if (animations.length < count)
+            animations = Arrays.copyOf(animations, count);
+        if (offsets.length < count) {
+            offsets = new long[count];
+            positions = new int[count];
+        }
+
+        long max = 0;
+        for (int i = 0; i < count; i++) {
+            offsets[i] = getStartOffset(i);
+            max = Math.max(max, offsets[i]);
+        }
+        if (reverse) {
+            for (int i = 0; i < count; i++)
+                offsets[i] = max - offsets[i];
+        }
+
+        // Insertion sort, Offsets of the common functions are almost sorted already
+        for (int i = 0; i < count; i++) {
+            int j = i;
+            while (j > 0 && offsets[positions[j - 1]] > offsets[i]) {
+                positions[j] = positions[j - 1];
+                j--;
+            }
+            positions[j] = i;
+        }
+    }
+
+    private AXAnimation obtainAnimation(int position) {
+        AXAnimation animation = animations[position];
+        if (animation == null) {
+            animation = AXAnimation.create().importAnimation(template, true);
+            animation.addAnimatorListener(endListener);
+            animations[position] = animation;
+        }
+        animation.setClock(clock);
+        return animation;
+    }
+
+    private void startDue() {
+        long time = clock.uptimeMillis() - startTime;
+        while (running && next < count && offsets[positions[next]] <= time) {
+            int position = positions[next++];
+            AXAnimation animation = obtainAnimation(position);
+            if (reverse) {
+                animation.reverse(adapter.getView(position));
+            } else {
+                animation.start(adapter.getView(position));
+            }
+        }
+
+        if (running && next < count)
+            clock.postDelayed(null, startRunnable, offsets[positions[next]] - time);
+    }
+
+    private final Runnable startRunnable = new Runnable() {
+        @Override
+        public void run() {
+            startDue();
+        }
+    };
+
+    private final AXAnimatorListenerAdapter endListener = new AXAnimatorListenerAdapter() {
+        @Override
+        public void onAnimationEnd(AXAnimation animation) {
+            if (running && --remaining == 0)
+                finish();
+        }
+
+        @Override
+        public void onAnimationCancel(AXAnimation animation) {
+            // Canceled from outside (e.g. AXAnimation.clear(View)), The stagger shouldn't wait for it
+            onAnimationEnd(animation);
+        }
+    };
+
+    private void finish() {
+        running = false;
+        paused = false;
+        if (endAction != null)
+            endAction.run();
+    }
+
+    public void pause() {
+        if (!running || paused)
+            return;
+        paused = true;
+        pausedTime = clock.uptimeMillis();
+        clock.removeCallbacks(null, startRunnable);
+        for (int i = 0; i < next; i++)
+            animations[positions[i]].pause();
+    }
+
+    public void resume() {
+        if (!paused)
+            return;
+        paused = false;
+        startTime += clock.uptimeMillis() - pausedTime;
+        for (int i = 0; i < next; i++)
+            animations[positions[i]].resume();
+        startDue();
+    }
+
+    public void cancel() {
+        if (!running)
+            return;
+        running = false;
+        paused = false;
+        clock.removeCallbacks(null, startRunnable);
+        for (int i = 0; i < next; i++) {
+            AXAnimation animation = animations[positions[i]];
+            if (animation.isRunning())
+                animation.cancel();
+        }
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // *************** Functions ***************
+
+    /**
+     * Position i starts at i * interval
+     */
+    public static Function linear() {
+        return new Function() {
+            @Override
+            public float getOrder(int position, int count) {
+                return position;
+            }
+        };
+    }
+
+    /**
+     * The last position starts first
+     */
+    public static Function reversed() {
+        return new Function() {
+            @Override
+            public float getOrder(int position, int count) {
+                return count - 1 - position;
+            }
+        };
+    }
+
+    /**
+     * The middle position starts first and the edges start last
+     */
+    public static Function fromCenter() {
+        return new Function() {
+            @Override
+            public float getOrder(int position, int count) {
+                return Math.abs(position - (count - 1) / 2f);
+            }
+        };
+    }
+
+    /**
+     * Orders the positions of a grid by their distance from the first cell.
+     *
+     * @param columns column count of the grid
+     */
+    public static Function grid(int columns) {
+        return grid(columns, 0, 0);
+    }
+
+    /**
+     * Orders the positions of a grid by their distance from the origin cell.
+     *
+     * @param columns      column count of the grid
+     * @param originColumn column of the cell which starts first
+     * @param originRow    row of the cell which starts first
+     */
+    public static Function grid(final int columns, final int originColumn, final int originRow) {
+        if (columns <= 0)
+            throw new IllegalArgumentException("columns must be positive!");
+
+        return new Function() {
+            @Override
+            public float getOrder(int position, int count) {
+                int dx = position % columns - originColumn;
+                int dy = position / columns - originRow;
+                return (float) Math.sqrt(dx * dx + dy * dy);
+            }
+        };
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.util.Property;
+import android.view.View;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+
+/**
+ * The binary format of {@link AXBakedAnimation}, All values are little-endian.
+ * <pre>
+ * int    magic ("AXBA")
+ * short  version
+ * short  flags (1: has layout)
+ * int    frameInterval (ms)
+ * int    frameCount
+ * int    propertyCount
+ * property table: (short length, UTF-8 name) * propertyCount
+ * padding to 4 bytes
+ * float  values[frameCount * propertyCount] (frame by frame)
+ * int    layout[frameCount * 4] (left, top, right, bottom, only if it has layout)
+ * </pre>
+ * The frames are read in bulk into the arrays of baked animation,
+ * So nothing is created per frame while loading or playing.
+ *
+ * @author AmirHossein Aghajari
+ */
+final class BakedAnimationFormat {
+
+    private BakedAnimationFormat() {
+    }
+
+    static final int MAGIC = 'A' | 'X' << 8 | 'B' << 16 | 'A' << 24;
+    static final int VERSION = 1;
+
+    private static final int FLAG_LAYOUT = 1;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    static void write(AXBakedAnimation baked, OutputStream out) throws IOException {
+        int count = baked.properties.length;
+        byte[][] names = new byte[count][];
+        int tableSize = 0;
+        for (int i = 0; i < count; i++) {
+            names[i] = baked.properties[i].getName().getBytes(UTF_8);
+            tableSize += 2 + names[i].length;
+        }
+
+        int header = align(20 + tableSize);
+        int size = header + baked.values.length * 4 + (baked.layout != null ? baked.layout.length * 4 : 0);
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(MAGIC);
+        buffer.putShort((short) VERSION);
+        buffer.putShort((short) (baked.layout != null ? FLAG_LAYOUT : 0));
+        buffer.putInt((int) baked.frameInterval);
+        buffer.putInt(baked.frameCount);
+        buffer.putInt(count);
+        for (byte[] name : names) {
+            buffer.putShort((short) name.length);
+            buffer.put(name);
+        }
+
+        buffer.position(header);
+        buffer.asFloatBuffer().put(baked.values);
+        buffer.position(header + baked.values.length * 4);
+        if (baked.layout != null)
+            buffer.asIntBuffer().put(baked.layout);
+
+        out.write(buffer.array(), 0, size);
+        out.flush();
+    }
+
+    @SuppressWarnings("unchecked")
+    static AXBakedAnimation read(ByteBuffer source) throws IOException {
+        ByteBuffer buffer = source.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int start = buffer.position();
+
+        try {
+            if (buffer.getInt() != MAGIC)
+                throw new IOException("Not a baked animation!");
+            int version = buffer.getShort();
+            if (version < 1 || version > VERSION)
+                throw new IOException("Unsupported baked animation version: " + version);
+
+            int flags = buffer.getShort();
+            long frameInterval = buffer.getInt();
+            int frameCount = buffer.getInt();
+            int count = buffer.getInt();
+            if (frameInterval <= 0 || frameCount <= 0 || count < 0)
+                throw new IOException("Invalid baked animation header!");
+            // Each name has a 2 bytes length at least
+            require(buffer, count * 2L);
+
+            // Unknown properties (of a newer writer) are skipped
+            ArrayList<Property<View, Float>> properties = new ArrayList<>(count);
+            int[] columns = new int[count];
+            for (int i = 0; i < count; i++) {
+                byte[] name = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(name);
+                Property<View, Float> property = AXBakedAnimation.findProperty(new String(name, UTF_8));
+                columns[i] = property == null ? -1 : properties.size();
+                if (property != null)
+                    properties.add(property);
+            }
+
+            buffer.position(start + align(buffer.position() - start));
+            require(buffer, frameCount * (long) count * 4L);
+            float[] values = new float[frameCount * properties.size()];
+            if (properties.size() == count) {
+                buffer.asFloatBuffer().get(values);
+            } else {
+                int offset = buffer.position();
+                for (int frame = 0, index = 0; frame < frameCount; frame++) {
+                    for (int i = 0; i < count; i++, offset += 4) {
+                        if (columns[i] >= 0)
+                            values[index++] = buffer.getFloat(offset);
+                    }
+                }
+            }
+            buffer.position(buffer.position() + frameCount * count * 4);
+
+            int[] layout = null;
+            if ((flags & FLAG_LAYOUT) != 0) {
+                require(buffer, frameCount * 16L);
+                layout = new int[frameCount * 4];
+                buffer.asIntBuffer().get(layout);
+            }
+
+            return new AXBakedAnimation(frameInterval, frameCount,
+                    properties.toArray(new Property[0]), values, layout);
+        } catch (RuntimeException e) {
+            // BufferUnderflowException or IllegalArgumentException of a truncated file
+            throw new IOException("Invalid baked animation!", e);
+        }
+    }
+
+    /**
+     * Checks the sizes of header before allocating the arrays,
+     * So a corrupted header can't allocate more than the size of file.
+     */
+    private static void require(ByteBuffer buffer, long bytes) throws IOException {
+        if (bytes > buffer.remaining())
+            throw new IOException("Invalid baked animation, " + bytes + " bytes are needed but "
+                    + buffer.remaining() + " are remaining!");
+    }
+
+    static ByteBuffer readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(in.available(), 4096));
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = in.read(chunk)) != -1)
+            out.write(chunk, 0, read);
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    private static int align(int size) {
+        return (size + 3) & ~3;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.animation.Animator;
+import android.animation.ValueAnimator;
+
+import androidx.annotation.Nullable;
+
+import com.aghajari.axanimation.livevar.LayoutSize;
+import com.aghajari.axanimation.livevar.LiveVar;
+import com.aghajari.axanimation.rules.Rule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the animators which {@link AXAnimator} created on the first run of an animation,
+ * So the next repeats can play them again (or reverse them) instead of creating new ones.
+ * A plan is only valid while the sections, the LiveVars and the parent's layout are unchanged.
+ *
+ * @author AmirHossein Aghajari
+ * @see AXAnimation#reusePlaybackPlan(boolean)
+ */
+final class PlaybackPlan {
+
+    static final class Section {
+        final List<ValueAnimator> animators = new ArrayList<>();
+        /* True if the animator has been started as reverse */
+        final List<Boolean> reversed = new ArrayList<>();
+        /* The rule of each animator, null if it doesn't write any property */
+        final List<Rule<?>> rules = new ArrayList<>();
+        Animator last;
+        Rule<?> lastRule;
+    }
+
+    final boolean reverse;
+    final Section[] sections;
+    private final SectionInfo sectionInfo;
+    private final int liveVarVersion;
+    @Nullable
+    private final LayoutSize parentSize;
+    private boolean complete = false;
+
+    PlaybackPlan(AXAnimation animation, @Nullable LayoutSize parentSize, boolean reverse) {
+        this.reverse = reverse;
+        this.sectionInfo = animation.getSectionInfo();
+        this.liveVarVersion = LiveVar.getVersion();
+        this.parentSize = parentSize == null ? null : new LayoutSize(
+                parentSize.left, parentSize.top, parentSize.right, parentSize.bottom);
+
+        sections = new Section[animation.rules.size()];
+        for (int i = 0; i < sections.length; i++)
+            sections[i] = new Section();
+    }
+
+    void add(int section, ValueAnimator animator, @Nullable Rule<?> rule, boolean reverse) {
+        sections[section].animators.add(animator);
+        sections[section].rules.add(rule);
+        sections[section].reversed.add(reverse);
+    }
+
+    void setLast(int section, @Nullable Animator animator, @Nullable Rule<?> rule) {
+        sections[section].last = animator;
+        sections[section].lastRule = rule;
+    }
+
+    void complete() {
+        complete = true;
+    }
+
+    /**
+     * @return True if every section has been recorded and nothing that the animators
+     * depend on has been changed since then, False otherwise.
+     */
+    boolean canReplay(AXAnimation animation, @Nullable LayoutSize parentSize) {
+        if (!complete || animation.getSectionInfo() != sectionInfo || LiveVar.getVersion() != liveVarVersion)
+            return false;
+
+        if (this.parentSize == null || parentSize == null)
+            return this.parentSize == parentSize;
+        return this.parentSize.equals(parentSize.left, parentSize.top, parentSize.right, parentSize.bottom);
+    }
+}
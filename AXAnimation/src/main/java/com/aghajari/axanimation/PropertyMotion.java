@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ObjectAnimator;
+import android.animation.PropertyValuesHolder;
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
+import android.util.Property;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+
+import com.aghajari.axanimation.clock.AnimationClock;
+import com.aghajari.axanimation.rules.FusedPropertyRule;
+import com.aghajari.axanimation.rules.PropertyRule;
+import com.aghajari.axanimation.rules.Rule;
+
+import java.util.ArrayList;
+
+/**
+ * Tracks the properties of an {@link ObjectAnimator} which has been started by {@link AXAnimator}
+ * for {@link AXPropertyOwners}, The newest animator of a target takes a property over
+ * and the older one stops writing it.
+ * The animator takes it's properties over on it's first update (after it's start delay),
+ * So a delayed animator doesn't stop the ones which are writing before it.
+ * <p>
+ * The running animator is not canceled, Only the taken property will be muted in place,
+ * So the old animation keeps it's other properties and it's timing.
+ * Muted properties are restored when the animator ends, So it can be played again.
+ * <p>
+ * Animators of an animation with {@link AXAnimation#retarget(boolean)} also sample their
+ * float values, So the next retargeting animation of the target can take over a property
+ * from it's current value and velocity.
+ *
+ * @author AmirHossein Aghajari
+ */
+final class PropertyMotion extends AnimatorListenerAdapter implements ValueAnimator.AnimatorUpdateListener {
+
+    /* Limits the initial slope, A tiny distance to the new target would make it huge */
+    private static final float MAX_SLOPE = 4f;
+
+    /* Replaces the taken properties of an animator */
+    private static final Property<Object, Float> MUTED = new Property<Object, Float>(Float.class, "muted") {
+        @Override
+        public Float get(Object object) {
+            return 0f;
+        }
+
+        @Override
+        public void set(Object object, Float value) {
+        }
+    };
+
+    private final Object target;
+    private final Rule<?> rule;
+    private final ObjectAnimator animator;
+    private final AnimationClock clock;
+    private final boolean retarget;
+    private final String[] properties;
+    @Nullable
+    private final float[] values, lastValues;
+    @Nullable
+    private PropertyValuesHolder[] original;
+    private long time = -1, lastTime = -1;
+    /* True when the animator has taken it's properties over */
+    private boolean claimed = false;
+
+    private PropertyMotion(Object target, Rule<?> rule, ObjectAnimator animator,
+                           AnimationClock clock, boolean track, boolean retarget) {
+        this.target = target;
+        this.rule = rule;
+        this.animator = animator;
+        this.clock = clock;
+        this.retarget = retarget;
+
+        PropertyValuesHolder[] holders = animator.getValues();
+        properties = new String[holders.length];
+        for (int i = 0; i < holders.length; i++)
+            properties[i] = holders[i].getPropertyName();
+
+        if (track) {
+            values = new float[holders.length];
+            lastValues = new float[holders.length];
+        } else {
+            values = lastValues = null;
+        }
+    }
+
+    /**
+     * Registers the animator on the owners of it's target (the view if it doesn't have one),
+     * It takes over the properties which are running on the target on it's first update.
+     *
+     * @param track    True to sample the values of animator for the next retargeting animations.
+     * @param retarget True to start from the current value and velocity of the taken properties,
+     *                 False if the animator is going to start as reverse, So it's values won't be changed.
+     */
+    static void start(View view, @Nullable Rule<?> rule, ObjectAnimator animator,
+                      AnimationClock clock, boolean track, boolean retarget) {
+        if (animator.getValues() == null)
+            return;
+
+        Object target = animator.getTarget();
+        if (target == null)
+            target = view;
+
+        PropertyMotion motion = new PropertyMotion(target, rule, animator, clock, track, retarget);
+        animator.addListener(motion);
+        animator.addUpdateListener(motion);
+        AXPropertyOwners.get(target).motions.add(motion);
+    }
+
+    /**
+     * Takes over the properties of animator from the older owners of target.
+     */
+    private void claim() {
+        claimed = true;
+        AXPropertyOwners.Owners owners = AXPropertyOwners.find(target);
+        if (owners != null && takeOver(owners.motions)) {
+            // The values of this frame have been calculated by the old values
+            animator.setCurrentPlayTime(animator.getCurrentPlayTime());
+        }
+    }
+
+    /**
+     * @return True if the values or the interpolator of animator have been changed.
+     */
+    private boolean takeOver(ArrayList<PropertyMotion> list) {
+        PropertyValuesHolder[] holders = animator.getValues();
+        float slope = Float.NaN;
+        boolean changed = false;
+
+        for (PropertyValuesHolder holder : holders) {
+            String name = holder.getPropertyName();
+            PropertyMotion old = find(list, name, this);
+            if (old == null)
+                continue;
+
+            int index = old.indexOf(name);
+            if (retarget && old.time >= 0 && old.values != null) {
+                float[] values = findValues(rule, name);
+                if (values != null && values.length >= 2) {
+                    float current = old.values[index];
+                    float velocity = old.getVelocity(index);
+
+                    values = values.clone();
+                    values[0] = current;
+                    holder.setFloatValues(values);
+                    changed = true;
+
+                    // Fused properties share one interpolator, So the first one keeps it's velocity
+                    float distance = (values[1] - current) * (values.length - 1);
+                    if (Float.isNaN(slope) && Math.abs(distance) > 0.0001f && velocity != 0f) {
+                        slope = velocity * animator.getDuration() / distance;
+                        slope = Math.max(-MAX_SLOPE, Math.min(MAX_SLOPE, slope));
+                    }
+                }
+            }
+
+            old.mute(index);
+            AXPropertyOwners.onConflict(target, name, old.rule, rule);
+        }
+
+        if (!Float.isNaN(slope))
+            animator.setInterpolator(new VelocityInterpolator(animator.getInterpolator(), slope));
+        return changed;
+    }
+
+    @Nullable
+    private static float[] findValues(Rule<?> rule, String name) {
+        if (rule instanceof PropertyRule) {
+            PropertyRule<?> propertyRule = (PropertyRule<?>) rule;
+            return name.equals(propertyRule.getPropertyName()) ? propertyRule.getFloatValues() : null;
+        } else if (rule instanceof FusedPropertyRule) {
+            for (PropertyRule<?> propertyRule : (PropertyRule<?>[]) rule.getData()) {
+                if (name.equals(propertyRule.getPropertyName()))
+                    return propertyRule.getFloatValues();
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static PropertyMotion find(ArrayList<PropertyMotion> list, String name, PropertyMotion except) {
+        // The last one is the latest owner of the property, The delayed ones haven't written it yet
+        for (int i = list.size() - 1; i >= 0; i--) {
+            PropertyMotion motion = list.get(i);
+            if (motion != except && motion.claimed && motion.indexOf(name) >= 0)
+                return motion;
+        }
+        return null;
+    }
+
+    private int indexOf(String name) {
+        for (int i = 0; i < properties.length; i++) {
+            if (name.equals(properties[i]))
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @return velocity of the property, in units per millisecond.
+     */
+    private float getVelocity(int index) {
+        if (values == null || lastTime < 0 || time <= lastTime)
+            return 0f;
+        return (values[index] - lastValues[index]) / (time - lastTime);
+    }
+
+    private void mute(int index) {
+        String name = properties[index];
+        properties[index] = null;
+
+        PropertyValuesHolder[] holders = animator.getValues();
+        if (original == null)
+            original = holders.clone();
+
+        for (int i = 0; i < holders.length; i++) {
+            if (name.equals(holders[i].getPropertyName())) {
+                holders[i] = PropertyValuesHolder.ofFloat(MUTED, 0f, 1f);
+                break;
+            }
+        }
+        animator.setValues(holders);
+    }
+
+    private void remove() {
+        animator.removeListener(this);
+        animator.removeUpdateListener(this);
+        if (original != null) {
+            animator.setValues(original);
+            original = null;
+        }
+
+        AXPropertyOwners.Owners owners = AXPropertyOwners.find(target);
+        if (owners != null) {
+            owners.motions.remove(this);
+            AXPropertyOwners.removeIfEmpty(target, owners);
+        }
+    }
+
+    @Override
+    public void onAnimationUpdate(ValueAnimator animation) {
+        if (!claimed)
+            claim();
+
+        long now = clock.uptimeMillis();
+        if (now == time || values == null)
+            return;
+
+        lastTime = time;
+        time = now;
+        for (int i = 0; i < properties.length; i++) {
+            if (properties[i] == null)
+                continue;
+
+            Object value = animation.getAnimatedValue(properties[i]);
+            if (value instanceof Float) {
+                lastValues[i] = values[i];
+                values[i] = (Float) value;
+            }
+        }
+    }
+
+    @Override
+    public void onAnimationCancel(Animator animation) {
+        remove();
+    }
+
+    @Override
+    public void onAnimationEnd(Animator animation) {
+        remove();
+    }
+
+    /**
+     * Starts with the given slope and continues with the shape of base interpolator.
+     * (Adds a hermite basis with zero value on both ends)
+     */
+    static final class VelocityInterpolator implements TimeInterpolator {
+        private final TimeInterpolator base;
+        private final float slope;
+
+        VelocityInterpolator(@Nullable TimeInterpolator base, float slope) {
+            this.base = base;
+            this.slope = slope - getInterpolation(base, 0.001f) / 0.001f;
+        }
+
+        private static float getInterpolation(@Nullable TimeInterpolator base, float input) {
+            return base == null ? input : base.getInterpolation(input);
+        }
+
+        @Override
+        public float getInterpolation(float input) {
+            float u = 1f - input;
+            return getInterpolation(base, input) + slope * input * u * u;
+        }
+    }
+}
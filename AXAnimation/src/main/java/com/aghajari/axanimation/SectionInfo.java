@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import com.aghajari.axanimation.rules.RuleSection;
+import com.aghajari.axanimation.rules.WaitRule;
+
+/**
+ * Holds the values of {@link AXAnimation} which depend on the whole section list,
+ * So {@link AXAnimator} doesn't have to walk every section and rule on each start or section change.
+ * AXAnimation computes it once and invalidates it whenever the sections, PreRules or an {@link AXAnimatorData} of it's sections change.
+ *
+ * @author AmirHossein Aghajari
+ */
+final class SectionInfo {
+
+    final int sectionCount;
+    final int preRuleCount;
+
+    final boolean hasLayoutRule;
+    final boolean hasInspect;
+    final long totalDuration;
+
+    /* Duration of each section, Same as AXAnimator#getTotalDuration(RuleSection) */
+    final long[] sectionDurations;
+
+    /* Index of each section when WaitRules are not counted (not clamped) */
+    final int[] realSectionIndexes;
+
+    /* Same as AXAnimation#getRealRuleSectionCount() */
+    final int realSectionCount;
+
+    SectionInfo(AXAnimation animation, AXAnimator animator) {
+        sectionCount = animation.rules.size();
+        preRuleCount = animation.preRules.size();
+        hasLayoutRule = AXAnimator.hasLayoutRule(animation);
+        hasInspect = AXAnimator.hasInspect(animation);
+
+        sectionDurations = new long[sectionCount];
+        realSectionIndexes = new int[sectionCount];
+
+        long duration = 0;
+        int real = -1;
+        for (int i = 0; i < sectionCount; i++) {
+            RuleSection section = animation.getRuleSection(i);
+            sectionDurations[i] = animator.getTotalDuration(section);
+            duration += sectionDurations[i];
+
+            if (!(section instanceof WaitRule))
+                real++;
+            realSectionIndexes[i] = real;
+        }
+        totalDuration = duration;
+        realSectionCount = Math.max(real, 0);
+    }
+
+    /**
+     * @return True if the section list has been changed without invalidating this info
+     * (e.g. through {@link AXAnimation#getAllRuleSections()}), False otherwise.
+     * Changes of AXAnimatorData invalidate it through {@link AXAnimatorData.OnChangedListener}.
+     */
+    boolean isOutdated(AXAnimation animation) {
+        return sectionCount != animation.rules.size() || preRuleCount != animation.preRules.size();
+    }
+}
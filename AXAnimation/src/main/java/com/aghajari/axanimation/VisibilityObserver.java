@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.graphics.Rect;
+import android.view.View;
+import android.view.ViewParent;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Watches the target view of an {@link AXAnimator} and pauses it while the view can't be seen,
+ * (detached, not shown, out of it's parent's visible area or it's window has lost focus)
+ * And resumes it as soon as the view can be seen again.
+ *
+ * @author AmirHossein Aghajari
+ * @see AXAnimation#pauseWhenHidden(boolean)
+ */
+final class VisibilityObserver implements View.OnAttachStateChangeListener,
+        ViewTreeObserver.OnPreDrawListener, ViewTreeObserver.OnWindowFocusChangeListener {
+
+    private final AXAnimator animator;
+    private final Rect visibleRect = new Rect();
+    private final int[] location = new int[2];
+    @Nullable
+    private View view;
+    @Nullable
+    private ViewTreeObserver observer;
+
+    VisibilityObserver(AXAnimator animator) {
+        this.animator = animator;
+    }
+
+    void observe(View view) {
+        if (this.view != view) {
+            stop();
+            this.view = view;
+            view.addOnAttachStateChangeListener(this);
+            if (view.getWindowToken() != null)
+                register();
+        }
+        update();
+    }
+
+    void stop() {
+        if (view == null)
+            return;
+        unregister();
+        view.removeOnAttachStateChangeListener(this);
+        view = null;
+    }
+
+    private void register() {
+        unregister();
+        observer = view.getViewTreeObserver();
+        observer.addOnPreDrawListener(this);
+        observer.addOnWindowFocusChangeListener(this);
+    }
+
+    private void unregister() {
+        if (observer != null && observer.isAlive()) {
+            observer.removeOnPreDrawListener(this);
+            observer.removeOnWindowFocusChangeListener(this);
+        }
+        observer = null;
+    }
+
+    private void update() {
+        if (view == null)
+            return;
+
+        if (isHidden(view)) {
+            animator.cull();
+        } else {
+            animator.uncull();
+        }
+    }
+
+    private boolean isHidden(View view) {
+        if (view.getWindowToken() == null || !view.isShown() || !view.hasWindowFocus())
+            return true;
+
+        ViewParent parent = view.getParent();
+        if (!(parent instanceof View) || view.getWidth() == 0 || view.getHeight() == 0)
+            return false;
+
+        if (!((View) parent).getGlobalVisibleRect(visibleRect))
+            return true;
+
+        // Checks the layout bounds, An animation which translates the view out of screen keeps running
+        view.getLocationInWindow(location);
+        int left = location[0] - Math.round(view.getTranslationX());
+        int top = location[1] - Math.round(view.getTranslationY());
+        return !visibleRect.intersects(left, top, left + view.getWidth(), top + view.getHeight());
+    }
+
+    @Override
+    public void onViewAttachedToWindow(View v) {
+        register();
+        update();
+    }
+
+    @Override
+    public void onViewDetachedFromWindow(View v) {
+        unregister();
+        animator.cull();
+    }
+
+    @Override
+    public boolean onPreDraw() {
+        update();
+        return true;
+    }
+
+    @Override
+    public void onWindowFocusChanged(boolean hasFocus) {
+        update();
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a setter method or a field of a custom view as an animatable property.
+ * The optional AXAnimation-processor generates an {@link android.util.Property} for it
+ * And registers it on {@link com.aghajari.axanimation.AXPropertyRegistry},
+ * So {@link com.aghajari.axanimation.rules.PropertyRule},
+ * {@link com.aghajari.axanimation.rules.reflect.UpdateFieldAnimatorRule} and
+ * {@link com.aghajari.axanimation.rules.reflect.InvokeRule} can skip reflection.
+ * <p>
+ * A setter must have exactly one parameter, the getter (getX or isX) will be used if exists.
+ * Annotated members must not be private.
+ *
+ * @author AmirHossein Aghajari
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.METHOD, ElementType.FIELD})
+public @interface AXAnimatable {
+
+    /**
+     * @return The property name, The default is the field name or the setter name without "set"
+     */
+    String value() default "";
+}
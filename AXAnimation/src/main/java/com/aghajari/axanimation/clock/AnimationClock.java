@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation.clock;
+
+import android.animation.Animator;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * AnimationClock drives the timing of {@link com.aghajari.axanimation.AXAnimation}
+ * and {@link com.aghajari.axanimation.AXAnimationSet}.
+ * Every delayed callback (WaitRule, WaitNotifyRule, ReverseWaitRule, Delay) and every
+ * created Animator will be scheduled through the clock.
+ * <p>
+ * {@link SystemAnimationClock} is the default clock which uses the main looper and
+ * the real {@link android.animation.ValueAnimator} timing.
+ * {@link VirtualAnimationClock} can be used to step an animation frame by frame
+ * (for example in a JVM test).
+ *
+ * @author AmirHossein Aghajari
+ */
+public abstract class AnimationClock {
+
+    /**
+     * @return the default clock
+     */
+    public static AnimationClock getDefault() {
+        return SystemAnimationClock.getInstance();
+    }
+
+    /**
+     * @return current time of the clock, in milliseconds.
+     */
+    public abstract long uptimeMillis();
+
+    /**
+     * Causes the Runnable to be run after the specified amount of time elapses.
+     *
+     * @param view  the target view of animation, can be null.
+     * @param delay the delay (in milliseconds) until the Runnable will be executed.
+     */
+    public abstract void postDelayed(@Nullable View view, @NonNull Runnable runnable, long delay);
+
+    /**
+     * Removes the specified Runnable from the queue.
+     */
+    public abstract void removeCallbacks(@Nullable View view, @NonNull Runnable runnable);
+
+    /**
+     * Starts the animator.
+     *
+     * @param reverse True if the animator must be played in reverse.
+     */
+    public abstract void start(@NonNull Animator animator, boolean reverse);
+
+    public abstract void pause(@NonNull Animator animator);
+
+    public abstract void resume(@NonNull Animator animator);
+
+    /**
+     * Resumes the animator and moves it forward by the skipped time,
+     * So it continues from where it would be if it had kept running while it was paused.
+     * Default implementation only resumes the animator.
+     *
+     * @param skip the time to move forward, in milliseconds.
+     */
+    public void resume(@NonNull Animator animator, long skip) {
+        resume(animator);
+    }
+
+    public abstract void cancel(@NonNull Animator animator);
+
+}
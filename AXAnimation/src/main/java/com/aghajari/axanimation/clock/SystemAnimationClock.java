@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation.clock;
+
+import android.animation.Animator;
+import android.animation.ValueAnimator;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * The default {@link AnimationClock},
+ * Uses the main looper and the real {@link ValueAnimator} timing.
+ *
+ * @author AmirHossein Aghajari
+ */
+public class SystemAnimationClock extends AnimationClock {
+
+    private static SystemAnimationClock instance;
+    private Handler handler;
+
+    static SystemAnimationClock getInstance() {
+        if (instance == null)
+            instance = new SystemAnimationClock();
+        return instance;
+    }
+
+    protected SystemAnimationClock() {
+    }
+
+    private Handler getHandler() {
+        if (handler == null)
+            handler = new Handler(Looper.getMainLooper());
+        return handler;
+    }
+
+    @Override
+    public long uptimeMillis() {
+        return SystemClock.uptimeMillis();
+    }
+
+    @Override
+    public void postDelayed(@Nullable View view, @NonNull Runnable runnable, long delay) {
+        if (view != null)
+            view.postDelayed(runnable, delay);
+        else
+            getHandler().postDelayed(runnable, delay);
+    }
+
+    @Override
+    public void removeCallbacks(@Nullable View view, @NonNull Runnable runnable) {
+        if (view != null)
+            view.removeCallbacks(runnable);
+        getHandler().removeCallbacks(runnable);
+    }
+
+    @Override
+    public void start(@NonNull Animator animator, boolean reverse) {
+        if (reverse && animator instanceof ValueAnimator)
+            ((ValueAnimator) animator).reverse();
+        else
+            animator.start();
+    }
+
+    @Override
+    public void pause(@NonNull Animator animator) {
+        animator.pause();
+    }
+
+    @Override
+    public void resume(@NonNull Animator animator) {
+        animator.resume();
+    }
+
+    @Override
+    public void resume(@NonNull Animator animator, long skip) {
+        animator.resume();
+        if (skip > 0 && animator instanceof ValueAnimator)
+            ((ValueAnimator) animator).addUpdateListener(new CatchUp(skip));
+    }
+
+    @Override
+    public void cancel(@NonNull Animator animator) {
+        animator.cancel();
+    }
+
+    /**
+     * ValueAnimator shifts it's start time by the paused duration on the first frame after resume,
+     * So the skipped time is applied on that frame.
+     */
+    private class CatchUp implements ValueAnimator.AnimatorUpdateListener, Runnable {
+        private final long skip;
+        private ValueAnimator animator;
+
+        CatchUp(long skip) {
+            this.skip = skip;
+        }
+
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            if (animator != null)
+                return;
+            animator = animation;
+
+            long playTime = animation.getCurrentPlayTime() + skip;
+            if (animation.getRepeatCount() != ValueAnimator.INFINITE)
+                playTime = Math.min(playTime, animation.getDuration() * (animation.getRepeatCount() + 1));
+            animation.setCurrentPlayTime(playTime);
+
+            // Update listeners can't be removed while they are being called
+            getHandler().post(this);
+        }
+
+        @Override
+        public void run() {
+            animator.removeUpdateListener(this);
+        }
+    }
+}
@@ -0,0 +1,429 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation.clock;
+
+import android.animation.Animator;
+import android.animation.AnimatorSet;
+import android.animation.ValueAnimator;
+import android.os.Build;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A deterministic {@link AnimationClock} which only moves when it is asked to.
+ * Animators started through this clock won't be started on the main looper,
+ * Clock will set their play time on each frame instead.
+ * <p>
+ * So a full {@link com.aghajari.axanimation.AXAnimation} can be stepped frame by frame
+ * with {@link #advanceFrame()} or {@link #advance(long)} and every property and
+ * {@link com.aghajari.axanimation.livevar.LayoutSize} can be observed on each frame by
+ * {@link FrameListener}.
+ * <p>
+ * An {@link AnimatorSet} can only be stepped on API 26+ (AnimatorSet#setCurrentPlayTime),
+ * Starting one on older APIs throws an {@link UnsupportedOperationException}.
+ *
+ * @author AmirHossein Aghajari
+ */
+public class VirtualAnimationClock extends AnimationClock {
+
+    public static final long DEFAULT_FRAME_INTERVAL = 16;
+
+    public interface FrameListener {
+        void onFrame(VirtualAnimationClock clock, long frameTime);
+    }
+
+    private final long frameInterval;
+    private final ArrayList<Callback> callbacks = new ArrayList<>();
+    private final ArrayList<Track> tracks = new ArrayList<>();
+    private final ArrayList<FrameListener> frameListeners = new ArrayList<>();
+    private Track[] running = new Track[0];
+    private long time = 0;
+
+    /* Finished tracks and callbacks are reused, So repeating animations don't allocate */
+    private final ArrayList<Track> trackPool = new ArrayList<>();
+    private final ArrayList<Track> releasedTracks = new ArrayList<>();
+    private final ArrayList<Callback> callbackPool = new ArrayList<>();
+    private boolean inFrame = false;
+
+    /* Listener snapshots, One for each nested notification */
+    private final ArrayList<ArrayList<Animator.AnimatorListener>> snapshots = new ArrayList<>();
+    private int snapshotDepth = 0;
+
+    public VirtualAnimationClock() {
+        this(DEFAULT_FRAME_INTERVAL);
+    }
+
+    /**
+     * @param frameInterval the duration of each frame, in milliseconds.
+     */
+    public VirtualAnimationClock(long frameInterval) {
+        if (frameInterval <= 0)
+            throw new IllegalArgumentException("frameInterval must be positive!");
+        this.frameInterval = frameInterval;
+    }
+
+    public long getFrameInterval() {
+        return frameInterval;
+    }
+
+    @Override
+    public long uptimeMillis() {
+        return time;
+    }
+
+    @Override
+    public void postDelayed(@Nullable View view, @NonNull Runnable runnable, long delay) {
+        Callback callback = obtainCallback(time + Math.max(delay, 0), runnable);
+        int index = callbacks.size();
+        while (index > 0 && callbacks.get(index - 1).when > callback.when)
+            index--;
+        callbacks.add(index, callback);
+    }
+
+    @Override
+    public void removeCallbacks(@Nullable View view, @NonNull Runnable runnable) {
+        for (int i = callbacks.size() - 1; i >= 0; i--) {
+            if (callbacks.get(i).runnable == runnable)
+                releaseCallback(callbacks.remove(i));
+        }
+    }
+
+    @Override
+    public void start(@NonNull Animator animator, boolean reverse) {
+        if (animator instanceof AnimatorSet && Build.VERSION.SDK_INT < Build.VERSION_CODES.O)
+            throw new UnsupportedOperationException("VirtualAnimationClock can't step an AnimatorSet below API 26");
+
+        Track track = obtainTrack(animator, time, reverse);
+        tracks.add(track);
+
+        List<Animator.AnimatorListener> listeners = obtainListeners(animator);
+        try {
+            for (int i = 0; i < listeners.size(); i++)
+                listeners.get(i).onAnimationStart(animator);
+        } finally {
+            releaseListeners(listeners);
+        }
+
+        if (animator.getStartDelay() <= 0)
+            track.setPlayTime(track.getPlayTime(time));
+    }
+
+    @Override
+    public void pause(@NonNull Animator animator) {
+        Track track = findTrack(animator);
+        if (track != null) {
+            if (track.pausedAt < 0)
+                track.pausedAt = time;
+        } else {
+            animator.pause();
+        }
+    }
+
+    @Override
+    public void resume(@NonNull Animator animator) {
+        resume(animator, 0);
+    }
+
+    @Override
+    public void resume(@NonNull Animator animator, long skip) {
+        Track track = findTrack(animator);
+        if (track != null) {
+            if (track.pausedAt >= 0) {
+                track.pausedDuration += Math.max(0, time - track.pausedAt - skip);
+                track.pausedAt = -1;
+            }
+        } else {
+            animator.resume();
+        }
+    }
+
+    @Override
+    public void cancel(@NonNull Animator animator) {
+        Track track = findTrack(animator);
+        if (track != null) {
+            tracks.remove(track);
+            releaseTrack(track);
+            List<Animator.AnimatorListener> listeners = obtainListeners(animator);
+            try {
+                for (int i = 0; i < listeners.size(); i++)
+                    listeners.get(i).onAnimationCancel(animator);
+                for (int i = 0; i < listeners.size(); i++)
+                    listeners.get(i).onAnimationEnd(animator);
+            } finally {
+                releaseListeners(listeners);
+            }
+        } else {
+            animator.cancel();
+        }
+    }
+
+    /**
+     * Moves the clock forward by one frame.
+     */
+    public void advanceFrame() {
+        doFrame(time + frameInterval);
+    }
+
+    /**
+     * Moves the clock forward by the given number of frames.
+     */
+    public void advanceFrames(int count) {
+        for (int i = 0; i < count; i++)
+            advanceFrame();
+    }
+
+    /**
+     * Moves the clock forward frame by frame until the duration elapses.
+     *
+     * @param duration in milliseconds
+     */
+    public void advance(long duration) {
+        long target = time + duration;
+        while (time < target)
+            doFrame(Math.min(time + frameInterval, target));
+    }
+
+    /**
+     * Moves the clock forward until there is no more pending callback or running animator.
+     *
+     * @param maxDuration stops after this duration (in milliseconds) anyway,
+     *                    useful for INFINITE animations.
+     * @return True if the clock is idle, False otherwise.
+     */
+    public boolean advanceUntilIdle(long maxDuration) {
+        long target = time + maxDuration;
+        while (!isIdle() && time < target)
+            doFrame(Math.min(time + frameInterval, target));
+        return isIdle();
+    }
+
+    /**
+     * @return True if there is no pending callback or running animator.
+     */
+    public boolean isIdle() {
+        return callbacks.isEmpty() && tracks.isEmpty();
+    }
+
+    public int getPendingCallbackCount() {
+        return callbacks.size();
+    }
+
+    public int getRunningAnimatorCount() {
+        return tracks.size();
+    }
+
+    public void addFrameListener(@NonNull FrameListener listener) {
+        frameListeners.add(listener);
+    }
+
+    public void removeFrameListener(@NonNull FrameListener listener) {
+        frameListeners.remove(listener);
+    }
+
+    private void doFrame(long frameTime) {
+        time = frameTime;
+        inFrame = true;
+        try {
+            doFrame();
+        } finally {
+            inFrame = false;
+            // Released tracks might still be in the snapshot of this frame until now
+            for (int i = 0; i < releasedTracks.size(); i++)
+                trackPool.add(releasedTracks.get(i));
+            releasedTracks.clear();
+        }
+
+        for (int i = 0; i < frameListeners.size(); i++)
+            frameListeners.get(i).onFrame(this, time);
+    }
+
+    private void doFrame() {
+        runCallbacks();
+
+        if (!tracks.isEmpty()) {
+            // Reuse the snapshot array, so stepping a frame doesn't allocate
+            int count = tracks.size();
+            running = tracks.toArray(running);
+            for (int i = 0; i < count; i++) {
+                Track track = running[i];
+                running[i] = null;
+                if (!tracks.contains(track))
+                    continue;
+
+                if (track.update(time)) {
+                    Animator animator = track.animator;
+                    tracks.remove(track);
+                    releaseTrack(track);
+
+                    List<Animator.AnimatorListener> listeners = obtainListeners(animator);
+                    try {
+                        for (int j = 0; j < listeners.size(); j++)
+                            listeners.get(j).onAnimationEnd(animator);
+                    } finally {
+                        releaseListeners(listeners);
+                    }
+                }
+            }
+            // Ended animators may post new callbacks for the current frame
+            runCallbacks();
+        }
+    }
+
+    private void runCallbacks() {
+        while (!callbacks.isEmpty() && callbacks.get(0).when <= time) {
+            Callback callback = callbacks.remove(0);
+            Runnable runnable = callback.runnable;
+            releaseCallback(callback);
+            runnable.run();
+        }
+    }
+
+    @Nullable
+    private Track findTrack(Animator animator) {
+        for (int i = 0; i < tracks.size(); i++) {
+            if (tracks.get(i).animator == animator)
+                return tracks.get(i);
+        }
+        return null;
+    }
+
+    /**
+     * @return a copy of the listeners of animator, Listeners may remove themselves while being notified.
+     * Must be released by {@link #releaseListeners(List)}.
+     */
+    private List<Animator.AnimatorListener> obtainListeners(Animator animator) {
+        if (snapshotDepth == snapshots.size())
+            snapshots.add(new ArrayList<Animator.AnimatorListener>());
+        ArrayList<Animator.AnimatorListener> snapshot = snapshots.get(snapshotDepth++);
+
+        ArrayList<Animator.AnimatorListener> listeners = animator.getListeners();
+        if (listeners != null) {
+            for (int i = 0; i < listeners.size(); i++)
+                snapshot.add(listeners.get(i));
+        }
+        return snapshot;
+    }
+
+    private void releaseListeners(List<Animator.AnimatorListener> snapshot) {
+        snapshot.clear();
+        snapshotDepth--;
+    }
+
+    private Track obtainTrack(Animator animator, long startTime, boolean reverse) {
+        Track track = trackPool.isEmpty() ? new Track() : trackPool.remove(trackPool.size() - 1);
+        track.animator = animator;
+        track.startTime = startTime;
+        track.reverse = reverse;
+        track.pausedAt = -1;
+        track.pausedDuration = 0;
+        return track;
+    }
+
+    private void releaseTrack(Track track) {
+        track.animator = null;
+        if (inFrame) {
+            releasedTracks.add(track);
+        } else {
+            trackPool.add(track);
+        }
+    }
+
+    private Callback obtainCallback(long when, Runnable runnable) {
+        Callback callback = callbackPool.isEmpty() ? new Callback() : callbackPool.remove(callbackPool.size() - 1);
+        callback.when = when;
+        callback.runnable = runnable;
+        return callback;
+    }
+
+    private void releaseCallback(Callback callback) {
+        callback.runnable = null;
+        callbackPool.add(callback);
+    }
+
+    private static class Callback {
+        long when;
+        Runnable runnable;
+    }
+
+    private static class Track {
+        Animator animator;
+        long startTime;
+        boolean reverse;
+        long pausedAt = -1;
+        long pausedDuration = 0;
+
+        long getPlayTime(long time) {
+            return time - startTime - pausedDuration - animator.getStartDelay();
+        }
+
+        /**
+         * @return the play duration (without start delay) or -1 if it's infinite
+         */
+        long getPlayDuration() {
+            if (animator instanceof ValueAnimator) {
+                ValueAnimator va = (ValueAnimator) animator;
+                if (va.getRepeatCount() == ValueAnimator.INFINITE)
+                    return -1;
+                return va.getDuration() * (va.getRepeatCount() + 1);
+            } else if (animator instanceof AnimatorSet && Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+                // Duration of a set is -1 unless it's been set, Total duration counts the children
+                long total = animator.getTotalDuration();
+                if (total == Animator.DURATION_INFINITE)
+                    return -1;
+                return total - animator.getStartDelay();
+            }
+            return Math.max(animator.getDuration(), 0);
+        }
+
+        /**
+         * @return True if the animator has ended
+         */
+        boolean update(long time) {
+            if (pausedAt >= 0)
+                return false;
+
+            long playTime = getPlayTime(time);
+            if (playTime < 0)
+                return false;
+
+            long total = getPlayDuration();
+            boolean ended = total >= 0 && playTime >= total;
+            if (ended)
+                playTime = total;
+
+            setPlayTime(playTime);
+            return ended;
+        }
+
+        void setPlayTime(long playTime) {
+            long total = getPlayDuration();
+            if (reverse && total >= 0)
+                playTime = total - playTime;
+
+            if (animator instanceof ValueAnimator) {
+                ((ValueAnimator) animator).setCurrentPlayTime(playTime);
+            } else if (animator instanceof AnimatorSet && Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+                ((AnimatorSet) animator).setCurrentPlayTime(playTime);
+            }
+        }
+    }
+}
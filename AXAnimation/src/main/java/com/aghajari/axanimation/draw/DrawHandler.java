@@ -22,6 +22,7 @@ import android.view.View;
 import androidx.annotation.NonNull;
 
 import com.aghajari.axanimation.draw.rules.MatrixRule;
+import com.aghajari.axanimation.utils.TraceUtils;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -63,12 +64,17 @@ public class DrawHandler {
      */
     @SuppressWarnings("JavadocReference")
     public void draw(DrawableLayout drawableLayout, Canvas canvas, boolean front) {
-        applyMatrix(drawableLayout, canvas, front);
-
-        for (OnDraw onDraw : onDraws.values()) {
-            if (!(onDraw instanceof MatrixRule) && onDraw.isDrawingOnFront() == front) {
-                onDraw.onDraw(drawableLayout, canvas);
+        TraceUtils.beginSection(front ? "DrawHandler.draw:front" : "DrawHandler.draw:back");
+        try {
+            applyMatrix(drawableLayout, canvas, front);
+
+            for (OnDraw onDraw : onDraws.values()) {
+                if (!(onDraw instanceof MatrixRule) && onDraw.isDrawingOnFront() == front) {
+                    onDraw.onDraw(drawableLayout, canvas);
+                }
             }
+        } finally {
+            TraceUtils.endSection();
         }
     }
 
@@ -25,6 +25,7 @@ import android.view.View;
 
 import androidx.annotation.NonNull;
 
+import com.aghajari.axanimation.AXFrameGovernor;
 import com.aghajari.axanimation.livevar.LiveVar;
 import com.aghajari.axanimation.rules.RuleWithTmpData;
 
@@ -62,6 +63,7 @@ public abstract class DrawRule<T, V, A> extends RuleWithTmpData<T, V> implements
         this.paint = paint;
         this.key = key;
         this.drawOnFront = drawOnFront;
+        this.expensive = true;
     }
 
     public DrawRule(Paint paint, String key, boolean drawOnFront, LiveVar<T> data) {
@@ -69,6 +71,7 @@ public abstract class DrawRule<T, V, A> extends RuleWithTmpData<T, V> implements
         this.paint = paint;
         this.key = key;
         this.drawOnFront = drawOnFront;
+        this.expensive = true;
     }
 
     /**
@@ -141,6 +144,9 @@ public abstract class DrawRule<T, V, A> extends RuleWithTmpData<T, V> implements
             ((ValueAnimator) animator).addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
                 @Override
                 public void onAnimationUpdate(ValueAnimator animation) {
+                    if (expensive && !AXFrameGovernor.shouldUpdate(this, animation.getAnimatedFraction()))
+                        return;
+
                     View drawableView = DrawHandler.getDrawableView(view, getKey());
                     //noinspection unchecked
                     updateValue(animation.getAnimatedFraction(), drawableView, (A) animation.getAnimatedValue());
@@ -120,6 +120,6 @@ public class LineRule extends DrawRule<PointF[][], Object[], PointF[]> {
             tmpData[0] = new PointF[]{start, start};
         }
 
-        return ValueAnimator.ofObject(createEvaluator(), tmpData);
+        return ValueAnimator.ofObject(createEvaluator(tmpData), tmpData);
     }
 }
\ No newline at end of file
@@ -123,7 +123,7 @@ public class LiveLineRule extends DrawRule<LiveSizePoint[][], Object[], PointF[]
             tmpData[0] = new PointF[]{start, start};
         }
 
-        return ValueAnimator.ofObject(createEvaluator(), tmpData);
+        return ValueAnimator.ofObject(createEvaluator(tmpData), tmpData);
     }
 
     @Override
@@ -1,5 +1,7 @@
 package com.aghajari.axanimation.evaluator;
 
+import android.os.Build;
+
 public class ArgbEvaluator extends android.animation.ArgbEvaluator {
 
     private static final ArgbEvaluator sInstance = new ArgbEvaluator();
@@ -7,4 +9,58 @@ public class ArgbEvaluator extends android.animation.ArgbEvaluator {
     public static ArgbEvaluator getInstance() {
         return sInstance;
     }
+
+    /**
+     * Same as {@link #evaluate(float, Object, Object)} but works with primitive colors,
+     * So it won't box the start, end and result values on every frame.
+     */
+    public int evaluate(float fraction, int startInt, int endInt) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+            int startA = (startInt >> 24) & 0xff;
+            int startR = (startInt >> 16) & 0xff;
+            int startG = (startInt >> 8) & 0xff;
+            int startB = startInt & 0xff;
+
+            int endA = (endInt >> 24) & 0xff;
+            int endR = (endInt >> 16) & 0xff;
+            int endG = (endInt >> 8) & 0xff;
+            int endB = endInt & 0xff;
+
+            return (startA + (int) (fraction * (endA - startA))) << 24 |
+                    (startR + (int) (fraction * (endR - startR))) << 16 |
+                    (startG + (int) (fraction * (endG - startG))) << 8 |
+                    (startB + (int) (fraction * (endB - startB)));
+        }
+
+        // Same as the platform evaluator (O+), Blends the colors in linear space
+        float startA = ((startInt >> 24) & 0xff) / 255.0f;
+        float startR = ((startInt >> 16) & 0xff) / 255.0f;
+        float startG = ((startInt >> 8) & 0xff) / 255.0f;
+        float startB = (startInt & 0xff) / 255.0f;
+
+        float endA = ((endInt >> 24) & 0xff) / 255.0f;
+        float endR = ((endInt >> 16) & 0xff) / 255.0f;
+        float endG = ((endInt >> 8) & 0xff) / 255.0f;
+        float endB = (endInt & 0xff) / 255.0f;
+
+        startR = (float) Math.pow(startR, 2.2);
+        startG = (float) Math.pow(startG, 2.2);
+        startB = (float) Math.pow(startB, 2.2);
+
+        endR = (float) Math.pow(endR, 2.2);
+        endG = (float) Math.pow(endG, 2.2);
+        endB = (float) Math.pow(endB, 2.2);
+
+        float a = startA + fraction * (endA - startA);
+        float r = startR + fraction * (endR - startR);
+        float g = startG + fraction * (endG - startG);
+        float b = startB + fraction * (endB - startB);
+
+        a = a * 255.0f;
+        r = (float) Math.pow(r, 1.0 / 2.2) * 255.0f;
+        g = (float) Math.pow(g, 1.0 / 2.2) * 255.0f;
+        b = (float) Math.pow(b, 1.0 / 2.2) * 255.0f;
+
+        return Math.round(a) << 24 | Math.round(r) << 16 | Math.round(g) << 8 | Math.round(b);
+    }
 }
@@ -35,6 +35,7 @@ public class ColorStateListEvaluator implements TypeEvaluator<ColorStateList> {
     private int[] startColors;
     private int[] endColors;
     private int[] realEndColors;
+    private int[] targetColors;
     private ColorStateList end_csl = null;
     private Field mColorsField;
     private Method onColorsChangedMethod;
@@ -114,6 +115,8 @@ public class ColorStateListEvaluator implements TypeEvaluator<ColorStateList> {
                 }
                 endColors = tmpColors;
             }
+
+            targetColors = new int[startColors.length];
         }
 
         if (fraction == 1) {
@@ -122,9 +125,10 @@ public class ColorStateListEvaluator implements TypeEvaluator<ColorStateList> {
             return endValue;
         }
 
-        int[] targetColors = new int[startColors.length];
+        // ColorStateList only keeps the reference and recalculates its default color,
+        // So the same array can be filled on every frame.
         for (int i = 0; i < targetColors.length; i++) {
-            targetColors[i] = (Integer) argbEvaluator.evaluate(fraction, startColors[i], endColors[i]);
+            targetColors[i] = argbEvaluator.evaluate(fraction, startColors[i], endColors[i]);
         }
 
         ReflectionUtils.setPrivateFieldValue(mColorsField, end_csl, targetColors);
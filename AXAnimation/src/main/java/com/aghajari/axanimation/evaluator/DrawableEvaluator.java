@@ -35,6 +35,7 @@ import android.graphics.drawable.GradientDrawable;
 
 import androidx.annotation.NonNull;
 
+import com.aghajari.axanimation.AXFrameGovernor;
 import com.aghajari.axanimation.utils.GradientDrawableWrapper;
 
 
@@ -63,6 +64,12 @@ public class DrawableEvaluator implements TypeEvaluator<Drawable> {
      */
     private final Canvas tmpCanvas = new Canvas();
 
+    // GradientDrawable keeps the reference of colors,
+    // So this array will be filled and passed on every frame.
+    private int[] targetColors;
+    // Colors of the GradientDrawable on this frame, null if they weren't set
+    private int[] frameColors;
+
     // Saved values to animate
     private Object[] savedValues;
     private static final int START_COLOR_CD = 0;
@@ -143,6 +150,7 @@ public class DrawableEvaluator implements TypeEvaluator<Drawable> {
         Drawable newDrawable;
         if (shouldCopy) {
             savedValues = new Object[VALUES_LENGTH];
+            targetColors = null;
             drawables[0] = startValue;
             drawables[1] = endValue;
 
@@ -169,6 +177,9 @@ public class DrawableEvaluator implements TypeEvaluator<Drawable> {
             drawables[2] = newDrawable;
         } else {
             newDrawable = drawables[2];
+            // Throttled by AXFrameGovernor, Keeps the last frame's drawable
+            if (!AXFrameGovernor.shouldUpdate(this, fraction))
+                return newDrawable;
         }
 
 
@@ -514,6 +525,7 @@ public class DrawableEvaluator implements TypeEvaluator<Drawable> {
 
             ColorStateList startCSL = (ColorStateList) savedValues[START_COLOR_STATE_LIST_GD];
             ColorStateList endCSL = (ColorStateList) savedValues[END_COLOR_STATE_LIST_GD];
+            frameColors = null;
 
             if (startCSL == null || endCSL == null) {
                 // Animate all possible colors
@@ -525,11 +537,13 @@ public class DrawableEvaluator implements TypeEvaluator<Drawable> {
                     if (length == 1) {
                         gd.setColor(evaluateColor(ID_COLORS_GD, fraction, startColors[0], endColors[0]));
                     } else {
-                        int[] targetColors = new int[length];
+                        if (targetColors == null || targetColors.length != length)
+                            targetColors = new int[length];
                         for (int i = 0; i < targetColors.length; i++) {
                             targetColors[i] = evaluateColor(ID_COLORS_GD, fraction, startColors[i], endColors[i]);
                         }
                         gd.setColors(targetColors);
+                        frameColors = targetColors;
                     }
                 }
             } else if (canEvaluate(ID_COLOR_STATE_LIST_GD, fraction)) {
@@ -628,7 +642,9 @@ public class DrawableEvaluator implements TypeEvaluator<Drawable> {
                 newDrawable.setAlpha(evaluate(ID_ALPHA_GD, fraction, (int) savedValues[START_ALPHA], (int) savedValues[END_ALPHA]));
             }
 
-            if (shaderEvaluator != null && canEvaluate(ID_SHADER_GD, fraction)) {
+            // Re-creating the shader is optional until the last frame
+            if (shaderEvaluator != null && canEvaluate(ID_SHADER_GD, fraction)
+                    && (fraction <= 0f || fraction >= 1f || AXFrameGovernor.isOptionalWorkAllowed(this))) {
                 // Apply old settings
                 // So the GradientDrawable won't change the new Shader.
                 // ensureValidRect & setShader must be the final step
@@ -648,7 +664,9 @@ public class DrawableEvaluator implements TypeEvaluator<Drawable> {
 
     protected Shader evaluateShader(float fraction, GradientDrawable gd, Paint fillPaint) {
         if (canEvaluate(ID_SHADER_GD, fraction))
-            return shaderEvaluator.evaluate(fraction, GradientDrawableWrapper.getColors(gd), gd);
+            // getColors() returns a copy, the colors of this frame are already here.
+            return shaderEvaluator.evaluate(fraction,
+                    frameColors != null ? frameColors : GradientDrawableWrapper.getColors(gd), gd);
         else
             return fillPaint.getShader();
     }
@@ -676,7 +694,7 @@ public class DrawableEvaluator implements TypeEvaluator<Drawable> {
 
     protected int evaluateColor(int id, float fraction, int startValue, int endValue) {
         if (canEvaluate(id, fraction))
-            return (int) argbEvaluator.evaluate(fraction, startValue, endValue);
+            return argbEvaluator.evaluate(fraction, startValue, endValue);
         else
             return endValue;
     }
@@ -887,10 +905,13 @@ public class DrawableEvaluator implements TypeEvaluator<Drawable> {
 
     private class ShaderEvaluator {
         private final RectFEvaluator rectEvaluator = new RectFEvaluator();
+        private final RectF radialEnd = new RectF();
         final RectF start;
         final RectF end;
         float[] startPositions;
         float[] endPositions;
+        private FloatArrayEvaluator positionsEvaluator;
+        private int[] shaderColors;
         private final int endType;
 
         private final int[] startColors, endColors;
@@ -954,6 +975,9 @@ public class DrawableEvaluator implements TypeEvaluator<Drawable> {
                     }
                     this.endPositions = tmpPositions;
                 }
+
+                // Shaders copy the positions, So the same array can be reused.
+                positionsEvaluator = new FloatArrayEvaluator(new float[pLength]);
             }
 
             int length = Math.max(startColors.length, endColors.length);
@@ -996,9 +1020,11 @@ public class DrawableEvaluator implements TypeEvaluator<Drawable> {
 
             int[] targetColors = colors;
             if (targetColors == null) {
-                targetColors = new int[startColors.length];
+                if (shaderColors == null)
+                    shaderColors = new int[startColors.length];
+                targetColors = shaderColors;
                 for (int i = 0; i < targetColors.length; i++) {
-                    targetColors[i] = (Integer) argbEvaluator.evaluate(fraction, startColors[i], endColors[i]);
+                    targetColors[i] = argbEvaluator.evaluate(fraction, startColors[i], endColors[i]);
                 }
             }
 
@@ -1020,7 +1046,7 @@ public class DrawableEvaluator implements TypeEvaluator<Drawable> {
 
                 float[] targetPosition = endPositions;
                 if (startPositions != null && endPositions != null)
-                    targetPosition = floatArrayEvaluator.evaluate(fraction, startPositions, endPositions);
+                    targetPosition = positionsEvaluator.evaluate(fraction, startPositions, endPositions);
 
                 return new LinearGradient(targetRect.left, targetRect.top, targetRect.right, targetRect.bottom,
                         targetColors, targetPosition, Shader.TileMode.CLAMP);
@@ -1033,13 +1059,13 @@ public class DrawableEvaluator implements TypeEvaluator<Drawable> {
                     radius = 0.001f;
                 }
 
-                RectF end = new RectF(this.end);
-                end.left -= radius;
-                end.top -= radius;
-                end.right += radius;
-                end.bottom += radius;
+                radialEnd.set(end);
+                radialEnd.left -= radius;
+                radialEnd.top -= radius;
+                radialEnd.right += radius;
+                radialEnd.bottom += radius;
 
-                RectF targetRect = rectEvaluator.evaluate(fraction, start, end);
+                RectF targetRect = rectEvaluator.evaluate(fraction, start, radialEnd);
                 return new RadialGradient(targetRect.centerX(), targetRect.centerY(), radius,
                         targetColors, null, Shader.TileMode.CLAMP);
             } else {
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation.evaluator;
+
+import android.animation.TypeEvaluator;
+import android.graphics.PointF;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Creates the evaluators of rules without reflection.
+ * Array evaluators get a reuse buffer sized from the keyframes,
+ * So an animator won't allocate a new array on each frame.
+ * <p>
+ * Note: The created evaluator belongs to one animator,
+ * Don't share it between animators.
+ *
+ * @author AmirHossein Aghajari
+ */
+public final class EvaluatorFactory {
+
+    private EvaluatorFactory() {
+    }
+
+    /**
+     * @see #create(Class, Object[])
+     */
+    @Nullable
+    public static TypeEvaluator<?> create(@Nullable Class<?> cls) {
+        return create(cls, null);
+    }
+
+    /**
+     * Creates an evaluator of the given class.
+     *
+     * @param cls       The evaluator class, usually {@link com.aghajari.axanimation.rules.Rule#getEvaluatorClass()}
+     * @param keyframes The animator values, used to size the reuse buffer of array evaluators.
+     * @return the created evaluator, or null if cls was null or couldn't be instantiated.
+     */
+    @Nullable
+    public static TypeEvaluator<?> create(@Nullable Class<?> cls, @Nullable Object[] keyframes) {
+        if (cls == null)
+            return null;
+
+        if (cls == FloatArrayEvaluator.class) {
+            float[] first = firstKeyframe(keyframes, float[].class);
+            return first == null ? new FloatArrayEvaluator() : new FloatArrayEvaluator(new float[first.length]);
+
+        } else if (cls == IntArrayEvaluator.class) {
+            int[] first = firstKeyframe(keyframes, int[].class);
+            return first == null ? new IntArrayEvaluator() : new IntArrayEvaluator(new int[first.length]);
+
+        } else if (cls == PointFArrayEvaluator.class) {
+            PointF[] first = firstKeyframe(keyframes, PointF[].class);
+            if (first == null)
+                return new PointFArrayEvaluator();
+
+            PointF[] reuse = new PointF[first.length];
+            for (int i = 0; i < reuse.length; i++)
+                reuse[i] = new PointF();
+            return new PointFArrayEvaluator(reuse);
+
+        } else if (cls == ArgbEvaluator.class) {
+            return ArgbEvaluator.getInstance();
+        } else if (cls == LayoutSizeEvaluator.class) {
+            return new LayoutSizeEvaluator();
+        } else if (cls == PointEvaluator.class) {
+            return new PointEvaluator();
+        } else if (cls == RectEvaluator.class) {
+            return new RectEvaluator();
+        } else if (cls == RectFEvaluator.class) {
+            return new RectFEvaluator();
+        } else if (cls == MatrixEvaluator.class) {
+            return new MatrixEvaluator();
+        } else if (cls == DrawableEvaluator.class) {
+            return new DrawableEvaluator();
+        } else if (cls == FadeDrawableEvaluator.class) {
+            return new FadeDrawableEvaluator();
+        } else if (cls == ColorStateListEvaluator.class) {
+            return new ColorStateListEvaluator();
+        }
+
+        // Custom evaluators
+        try {
+            return (TypeEvaluator<?>) cls.newInstance();
+        } catch (Exception ignore) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static <T> T firstKeyframe(@Nullable Object[] keyframes, Class<T> type) {
+        if (keyframes == null)
+            return null;
+
+        for (Object keyframe : keyframes) {
+            if (type.isInstance(keyframe))
+                return type.cast(keyframe);
+        }
+        return null;
+    }
+}
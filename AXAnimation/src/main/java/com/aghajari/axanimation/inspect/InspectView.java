@@ -39,6 +39,7 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.core.view.ViewCompat;
 
+import com.aghajari.axanimation.AXFrameGovernor;
 import com.aghajari.axanimation.evaluator.DrawableEvaluator;
 import com.aghajari.axanimation.livevar.LayoutSize;
 
@@ -126,9 +127,36 @@ public class InspectView extends View {
         }
     }
 
+    /* Draws the overlay again when AXFrameGovernor has stopped dropping it */
+    private final AXFrameGovernor.Listener governorListener = new AXFrameGovernor.Listener() {
+        @Override
+        public void onThrottleChanged(int throttle, float frameTimeMillis) {
+            if (throttle <= 1)
+                invalidate();
+        }
+    };
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        AXFrameGovernor.addListener(governorListener);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        AXFrameGovernor.removeListener(governorListener);
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
+        // The overlay is optional work, It's only drawn on it's own frames while the frames are over budget
+        if (!AXFrameGovernor.isOptionalWorkAllowed(this)) {
+            // Nothing else may invalidate the overlay, So it asks for the next frame itself
+            postInvalidateOnAnimation();
+            return;
+        }
 
         int w = getRight();
         int h = getBottom();
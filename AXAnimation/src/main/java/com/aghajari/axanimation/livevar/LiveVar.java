@@ -32,20 +32,33 @@ public class LiveVar<T> implements Cloneable, Comparable<Object> {
 
     protected T value;
 
+    /* Counts the changes of all LiveVars, See #getVersion() */
+    private static int version = 0;
+
     public LiveVar(T value) {
         this.value = value;
     }
 
+    /**
+     * @return a number which changes whenever a LiveVar has been set or updated,
+     * So the caches which depend on LiveVars can tell if they are still valid.
+     */
+    public static int getVersion() {
+        return version;
+    }
+
     public T get() {
         return value;
     }
 
     public void set(T value) {
         this.value = value;
+        version++;
     }
 
     @SuppressWarnings("unchecked")
     public void update(Object var) {
+        version++;
         if (var == null) {
             value = null;
             return;
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation.rules;
+
+import android.animation.Animator;
+import android.animation.ObjectAnimator;
+import android.animation.PropertyValuesHolder;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.aghajari.axanimation.AXAnimatorData;
+import com.aghajari.axanimation.livevar.LayoutSize;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link Rule} which plays several {@link PropertyRule}s with identical
+ * {@link AXAnimatorData} on a single {@link ObjectAnimator},
+ * So the view gets one frame callback and one update for all of the properties.
+ * <p>
+ * {@link com.aghajari.axanimation.AXAnimator} fuses the rules of each {@link RuleSection}
+ * by {@link #fuse(Rule[], AXAnimatorData)} before starting it.
+ *
+ * @author AmirHossein Aghajari
+ */
+public class FusedPropertyRule extends Rule<PropertyRule<?>[]> {
+
+    /* Reused by onCreateAnimator */
+    private final List<PropertyValuesHolder> holders = new ArrayList<>();
+
+    public FusedPropertyRule(PropertyRule<?>[] rules, @Nullable AXAnimatorData animatorValues) {
+        super(rules);
+        this.animatorValues = animatorValues;
+    }
+
+    @Override
+    public void getFromLiveData() {
+        for (PropertyRule<?> rule : data)
+            rule.getFromLiveData();
+    }
+
+    @Override
+    public boolean shouldReverseAnimator(boolean reverseMode) {
+        return data[0].shouldReverseAnimator(reverseMode);
+    }
+
+    @Override
+    public void setStartedAsReverse(boolean isStartedAsReverse) {
+        super.setStartedAsReverse(isStartedAsReverse);
+        for (PropertyRule<?> rule : data)
+            rule.setStartedAsReverse(isStartedAsReverse);
+    }
+
+    @Override
+    public void getReady(@NonNull View view) {
+        super.getReady(view);
+        for (PropertyRule<?> rule : data)
+            rule.getReady(view);
+    }
+
+    @Override
+    public void getReadyForReverse(@NonNull View view) {
+        super.getReadyForReverse(view);
+        for (PropertyRule<?> rule : data)
+            rule.getReadyForReverse(view);
+    }
+
+    @Override
+    public void getReady(@NonNull List<LayoutSize> layouts) {
+        for (PropertyRule<?> rule : data)
+            rule.getReady(layouts);
+    }
+
+    @Nullable
+    @Override
+    public Animator onCreateAnimator(@NonNull View view, @Nullable LayoutSize target, @Nullable LayoutSize original, @Nullable LayoutSize parentSize) {
+        holders.clear();
+        for (PropertyRule<?> rule : data) {
+            Object values = rule.getValuesWithTmpCheck(view);
+            if (values != null)
+                holders.add(rule.createValuesHolder(view, values));
+        }
+
+        if (holders.isEmpty())
+            return null;
+
+        ObjectAnimator animator = ObjectAnimator.ofPropertyValuesHolder(view,
+                holders.toArray(new PropertyValuesHolder[0]));
+        holders.clear();
+        return animator;
+    }
+
+    @Override
+    public boolean isNoOp() {
+        for (PropertyRule<?> rule : data) {
+            if (!rule.isNoOp())
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void debug(@NonNull View view, @Nullable LayoutSize target, @Nullable LayoutSize original, @Nullable LayoutSize parentSize) {
+        for (PropertyRule<?> rule : data)
+            rule.debug(view, target, original, parentSize);
+    }
+
+    @Override
+    public void debug(@Nullable Animator animator) {
+        for (PropertyRule<?> rule : data)
+            rule.debug(animator);
+    }
+
+    @Override
+    public String getRuleName() {
+        StringBuilder sb = new StringBuilder(getClass().getSimpleName()).append('[');
+        for (int i = 0; i < data.length; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(data[i].getProperty());
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Fuses the adjacent {@link PropertyRule}s which {@link PropertyRule#canFuse()}
+     * and have identical {@link AXAnimatorData} into {@link FusedPropertyRule}s.
+     * Only neighbours are fused, So every rule still updates the view in the same order
+     * as before (it matters when two rules of a section animate the same property),
+     * And a non-fusible rule which may delay the next rules ({@link Rule#shouldWait()})
+     * is never skipped.
+     *
+     * @param rules         Rules of a {@link RuleSection}
+     * @param sectionValues {@link RuleSection#getAnimatorValues()}, used if a rule doesn't have animator values
+     * @return The fused rules, or the same array if nothing could be fused.
+     */
+    public static Rule<?>[] fuse(@Nullable Rule<?>[] rules, @Nullable AXAnimatorData sectionValues) {
+        if (rules == null || rules.length < 2)
+            return rules;
+
+        Rule<?>[] result = new Rule<?>[rules.length];
+        int count = 0;
+        boolean fused = false;
+
+        for (int i = 0; i < rules.length; i++) {
+            if (isFusible(rules[i])) {
+                AXAnimatorData values = getAnimatorValues(rules[i], sectionValues);
+                int end = i + 1;
+                while (end < rules.length && isFusible(rules[end])
+                        && equals(values, getAnimatorValues(rules[end], sectionValues)))
+                    end++;
+
+                if (end - i > 1) {
+                    PropertyRule<?>[] group = new PropertyRule<?>[end - i];
+                    for (int j = i; j < end; j++)
+                        group[j - i] = (PropertyRule<?>) rules[j];
+
+                    result[count++] = new FusedPropertyRule(group, values);
+                    fused = true;
+                    i = end - 1;
+                    continue;
+                }
+            }
+            result[count++] = rules[i];
+        }
+
+        return fused ? Arrays.copyOf(result, count) : rules;
+    }
+
+    private static boolean equals(@Nullable AXAnimatorData a, @Nullable AXAnimatorData b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static boolean isFusible(Rule<?> rule) {
+        return rule instanceof PropertyRule && ((PropertyRule<?>) rule).canFuse();
+    }
+
+    @Nullable
+    private static AXAnimatorData getAnimatorValues(Rule<?> rule, @Nullable AXAnimatorData sectionValues) {
+        return rule.getAnimatorValues() != null ? rule.getAnimatorValues() : sectionValues;
+    }
+}
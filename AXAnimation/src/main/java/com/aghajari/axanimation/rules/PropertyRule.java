@@ -19,13 +19,18 @@ package com.aghajari.axanimation.rules;
 import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
 import android.animation.ObjectAnimator;
+import android.animation.PropertyValuesHolder;
 import android.animation.TypeEvaluator;
 import android.util.Log;
+import android.util.Property;
 import android.view.View;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.aghajari.axanimation.AXFrameGovernor;
+import com.aghajari.axanimation.AXPropertyRegistry;
+import com.aghajari.axanimation.evaluator.EvaluatorFactory;
 import com.aghajari.axanimation.evaluator.FloatArrayEvaluator;
 import com.aghajari.axanimation.evaluator.IntArrayEvaluator;
 import com.aghajari.axanimation.livevar.LayoutSize;
@@ -48,6 +53,10 @@ public class PropertyRule<T> extends RuleWithTmpData<T[], Object> {
     protected Class<?> type;
     private final TypeEvaluator<?> evaluator;
     private Method getter = null;
+    private Class<?> registeredPropertyClass = null;
+    private Property<Object, Object> registeredProperty = null;
+    private Class<?> registeredGetterClass = null;
+    private Property<Object, Object> registeredGetter = null;
 
     @SafeVarargs
     public PropertyRule(final String property, @Nullable T... data) {
@@ -63,6 +72,7 @@ public class PropertyRule<T> extends RuleWithTmpData<T[], Object> {
         super(data);
         this.property = property;
         this.evaluator = evaluator;
+        this.expensive = "textSize".equals(property);
         if (data != null)
             this.type = data.getClass().getComponentType();
     }
@@ -71,11 +81,16 @@ public class PropertyRule<T> extends RuleWithTmpData<T[], Object> {
         super(data);
         this.property = property;
         this.evaluator = evaluator;
+        this.expensive = "textSize".equals(property);
         if (this.data != null)
             this.type = this.data.getClass().getComponentType();
     }
 
     public Object getStartValue(View view) {
+        Property<Object, Object> property = getRegisteredGetter(view);
+        if (property != null)
+            return property.get(getTarget(view));
+
         if (getter == null) {
             try {
                 getter = view.getClass().getMethod(getMethodName("get", getProperty()));
@@ -95,6 +110,22 @@ public class PropertyRule<T> extends RuleWithTmpData<T[], Object> {
         return property;
     }
 
+    /**
+     * @return the name of the animating property
+     */
+    public String getPropertyName() {
+        return getProperty();
+    }
+
+    /**
+     * @return the values which the last animator of this rule has been created with,
+     * null if it's not a float property or no animator has been created yet.
+     */
+    @Nullable
+    public float[] getFloatValues() {
+        return tmpData instanceof float[] ? (float[]) tmpData : null;
+    }
+
     protected Object getValuesWithTmpCheck(View view) {
         if (!isReverse() || tmpData == null)
             tmpData = getValues(view);
@@ -213,6 +244,13 @@ public class PropertyRule<T> extends RuleWithTmpData<T[], Object> {
         return evaluator;
     }
 
+    @Override
+    public TypeEvaluator<?> createEvaluator(Object[] keyframes) {
+        if (evaluator != null)
+            return evaluator;
+        return EvaluatorFactory.create(getEvaluatorClass(), keyframes);
+    }
+
     @Nullable
     @Override
     public Animator onCreateAnimator(@NonNull View view, @Nullable LayoutSize target, @Nullable LayoutSize original, @Nullable LayoutSize parentSize) {
@@ -220,21 +258,11 @@ public class PropertyRule<T> extends RuleWithTmpData<T[], Object> {
         if (values == null)
             return null;
 
-        TypeEvaluator<?> evaluator = createEvaluator();
-
-        final ObjectAnimator animator;
-        if (Float.class.equals(type)) {
-            animator = ObjectAnimator.ofFloat(getTarget(view), getProperty(), (float[]) values);
-
-            if (evaluator != null)
-                animator.setEvaluator(evaluator);
-        } else if (Integer.class.equals(type)) {
-            animator = ObjectAnimator.ofInt(getTarget(view), getProperty(), (int[]) values);
-
-            if (evaluator != null)
-                animator.setEvaluator(evaluator);
-        } else {
-            animator = ObjectAnimator.ofObject(getTarget(view), getProperty(), evaluator, (Object[]) values);
+        final ObjectAnimator animator = ObjectAnimator.ofPropertyValuesHolder(getTarget(view),
+                createValuesHolder(view, values));
+        if (governedProperty != null) {
+            governedProperty.animator = animator;
+            governedProperty = null;
         }
 
         if (shouldResetWhenDone()) {
@@ -249,10 +277,151 @@ public class PropertyRule<T> extends RuleWithTmpData<T[], Object> {
         return animator;
     }
 
+    /**
+     * The rule has no effect if the values (starting from view's value) are all equal.
+     */
+    @Override
+    public boolean isNoOp() {
+        return animatorValues != null && animatorValues.isFirstValueFromView() && isConstant(tmpData);
+    }
+
+    /**
+     * Creates the {@link PropertyValuesHolder} of this property.
+     *
+     * @param values the values from {@link #getValuesWithTmpCheck(View)}
+     */
+    @SuppressWarnings("unchecked")
+    protected PropertyValuesHolder createValuesHolder(@NonNull View view, @NonNull Object values) {
+        Property<Object, Object> property = getRegisteredProperty(view);
+        if (expensive)
+            property = createGovernedProperty(view, property);
+        TypeEvaluator<?> evaluator = createEvaluator();
+
+        final PropertyValuesHolder holder;
+        if (Float.class.equals(type)) {
+            if (property != null) {
+                holder = PropertyValuesHolder.ofFloat((Property<?, Float>) (Property<?, ?>) property, (float[]) values);
+            } else {
+                holder = PropertyValuesHolder.ofFloat(getProperty(), (float[]) values);
+            }
+
+            if (evaluator != null)
+                holder.setEvaluator(evaluator);
+        } else if (Integer.class.equals(type)) {
+            if (property != null) {
+                holder = PropertyValuesHolder.ofInt((Property<?, Integer>) (Property<?, ?>) property, (int[]) values);
+            } else {
+                holder = PropertyValuesHolder.ofInt(getProperty(), (int[]) values);
+            }
+
+            if (evaluator != null)
+                holder.setEvaluator(evaluator);
+        } else {
+            evaluator = createEvaluator((Object[]) values);
+            if (property != null) {
+                holder = PropertyValuesHolder.ofObject(property, (TypeEvaluator<Object>) evaluator, (Object[]) values);
+            } else {
+                holder = PropertyValuesHolder.ofObject(getProperty(), evaluator, (Object[]) values);
+            }
+        }
+        return holder;
+    }
+
+    /**
+     * @return True if this rule can share an animator with other rules,
+     * See {@link FusedPropertyRule}
+     */
+    public boolean canFuse() {
+        // Expensive rules need their own animator, See GovernedProperty
+        return getClass() == PropertyRule.class && !expensive;
+    }
+
+    /* Created by createValuesHolder for the next animator of onCreateAnimator */
+    private GovernedProperty governedProperty = null;
+
+    @SuppressWarnings("unchecked")
+    private Property<Object, Object> createGovernedProperty(@NonNull View view, @Nullable Property<Object, Object> property) {
+        governedProperty = null;
+        if (property == null) {
+            Class<?> valueType = Float.class.equals(type) ? float.class
+                    : Integer.class.equals(type) ? int.class : type;
+            if (valueType == null)
+                return null;
+
+            try {
+                property = (Property<Object, Object>) (Property<?, ?>) Property.of(getTarget(view).getClass(), valueType, getProperty());
+            } catch (Exception ignore) {
+                // No getter, The setter will be found by reflection of PropertyValuesHolder
+                return null;
+            }
+        }
+        governedProperty = new GovernedProperty(property);
+        return governedProperty;
+    }
+
+    /**
+     * Skips the updates which {@link AXFrameGovernor} has throttled
+     */
+    private static class GovernedProperty extends Property<Object, Object> {
+        private final Property<Object, Object> base;
+        ObjectAnimator animator;
+
+        GovernedProperty(Property<Object, Object> base) {
+            super(base.getType(), base.getName());
+            this.base = base;
+        }
+
+        @Override
+        public Object get(Object object) {
+            return base.get(object);
+        }
+
+        @Override
+        public void set(Object object, Object value) {
+            if (animator == null || AXFrameGovernor.shouldUpdate(this, animator.getAnimatedFraction()))
+                base.set(object, value);
+        }
+    }
+
     protected Object getTarget(@NonNull View view) {
         return view;
     }
 
+    /**
+     * @return The typed property of target registered on {@link AXPropertyRegistry}, null otherwise.
+     */
+    @Nullable
+    protected Property<Object, Object> getRegisteredProperty(@NonNull View view) {
+        Object target = getTarget(view);
+        if (target == null)
+            return null;
+
+        Class<?> cls = target.getClass();
+        if (registeredPropertyClass != cls) {
+            registeredPropertyClass = cls;
+            registeredProperty = AXPropertyRegistry.findProperty(cls, getProperty());
+        }
+        return registeredProperty;
+    }
+
+    /**
+     * @return The typed property of target registered on {@link AXPropertyRegistry}
+     * which has a getter, null otherwise (So the getter will be found by reflection).
+     */
+    @Nullable
+    protected Property<Object, Object> getRegisteredGetter(@NonNull View view) {
+        Object target = getTarget(view);
+        if (target == null)
+            return null;
+
+        Class<?> cls = target.getClass();
+        if (registeredGetterClass != cls) {
+            registeredGetterClass = cls;
+            registeredGetter = AXPropertyRegistry.findGetter(cls, getProperty());
+        }
+        return registeredGetter;
+    }
+
     protected boolean shouldResetWhenDone() {
         return false;
     }
@@ -0,0 +1,340 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation.rules;
+
+import android.animation.Animator;
+import android.animation.Keyframe;
+import android.animation.ObjectAnimator;
+import android.animation.PropertyValuesHolder;
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
+import android.util.Property;
+import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.LinearInterpolator;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.aghajari.axanimation.AXAnimatorData;
+import com.aghajari.axanimation.livevar.LayoutSize;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link Rule} which plays the {@link PropertyRule}s of one property in several sections
+ * as a single keyframed animator, Each section becomes a segment of the track
+ * with it's own timing and interpolator.
+ * <p>
+ * The track starts with the section of it's first segment and spans the next sections,
+ * See {@link #spansSections()} and {@link #createTracks(List)}.
+ *
+ * @author AmirHossein Aghajari
+ */
+public class PropertyTrackRule extends Rule<PropertyTrackRule.Segment[]> {
+
+    /**
+     * A {@link PropertyRule} and it's time on the track
+     */
+    public static class Segment {
+        final PropertyRule<?> rule;
+        final long start;
+        final long duration;
+        final TimeInterpolator interpolator;
+
+        Segment(PropertyRule<?> rule, long start, long duration, TimeInterpolator interpolator) {
+            this.rule = rule;
+            this.start = start;
+            this.duration = duration;
+            this.interpolator = interpolator;
+        }
+    }
+
+    /**
+     * Keeps the duration of a section whose longest rule moved to a track.
+     */
+    static class TimingRule extends Rule<Long> {
+
+        TimingRule(AXAnimatorData animatorValues) {
+            super(animatorValues.getTotalDuration());
+            this.animatorValues = animatorValues;
+        }
+
+        @Nullable
+        @Override
+        public Animator onCreateAnimator(@NonNull View view, @Nullable LayoutSize target, @Nullable LayoutSize original, @Nullable LayoutSize parentSize) {
+            return ValueAnimator.ofInt(0, 1);
+        }
+    }
+
+    private static final long DEFAULT_DURATION = 300;
+
+    public PropertyTrackRule(Segment[] segments, long totalDuration) {
+        super(segments);
+        animatorValues = new AXAnimatorData(totalDuration);
+        animatorValues.setInterpolator(new LinearInterpolator());
+    }
+
+    @Override
+    public boolean spansSections() {
+        return true;
+    }
+
+    @Override
+    public void getReady(@NonNull View view) {
+        super.getReady(view);
+        for (Segment segment : data)
+            segment.rule.getReady(view);
+    }
+
+    @Nullable
+    @Override
+    public Animator onCreateAnimator(@NonNull View view, @Nullable LayoutSize target, @Nullable LayoutSize original, @Nullable LayoutSize parentSize) {
+        PropertyRule<?> first = data[0].rule;
+        Object values = first.getValues(view);
+        if (values == null || Array.getLength(values) < 2)
+            return null;
+
+        boolean isFloat = values instanceof float[];
+        float total = animatorValues.getDuration();
+        List<Keyframe> keyframes = new ArrayList<>();
+        keyframes.add(keyframe(isFloat, 0f, Array.get(values, 0)));
+
+        Object last = Array.get(values, 0);
+        float lastFraction = 0f;
+        for (int i = 0; i < data.length; i++) {
+            Segment segment = data[i];
+            Object end = i == 0 ? Array.get(values, 1) : Array.get(segment.rule.data, 0);
+
+            // Hold the last value until this segment starts
+            float startFraction = segment.start / total;
+            if (startFraction > lastFraction)
+                keyframes.add(keyframe(isFloat, startFraction, last));
+
+            lastFraction = Math.min((segment.start + segment.duration) / total, 1f);
+            Keyframe keyframe = keyframe(isFloat, lastFraction, end);
+            keyframe.setInterpolator(segment.interpolator);
+            keyframes.add(keyframe);
+            last = end;
+        }
+
+        Keyframe[] array = keyframes.toArray(new Keyframe[0]);
+        Property<Object, Object> property = first.getRegisteredProperty(view);
+        PropertyValuesHolder holder = property != null
+                ? PropertyValuesHolder.ofKeyframe(property, array)
+                : PropertyValuesHolder.ofKeyframe(first.getProperty(), array);
+        return ObjectAnimator.ofPropertyValuesHolder(view, holder);
+    }
+
+    private static Keyframe keyframe(boolean isFloat, float fraction, Object value) {
+        if (isFloat)
+            return Keyframe.ofFloat(fraction, ((Number) value).floatValue());
+        return Keyframe.ofInt(fraction, ((Number) value).intValue());
+    }
+
+    @Override
+    public String getRuleName() {
+        return getClass().getSimpleName() + "[" + data[0].rule.getProperty() + "]";
+    }
+
+    /**
+     * Merges the {@link PropertyRule}s which animate the same property in more than one section.
+     * Tracks need a predictable timeline, So this only works if every section is a {@link WaitRule}
+     * or only contains {@link PropertyRule}s and {@link NotAnimatedRule}s without repeats.
+     *
+     * @param sections The sections of animation (not reversed)
+     * @return The rules to play for each section, or null if nothing was merged.
+     */
+    @Nullable
+    public static Rule<?>[][] createTracks(List<RuleSection> sections) {
+        long[] starts = new long[sections.size()];
+        long time = 0;
+        for (int i = 0; i < sections.size(); i++) {
+            starts[i] = time;
+            long duration = getSectionDuration(sections.get(i));
+            if (duration < 0)
+                return null;
+            time += duration;
+        }
+
+        // property name -> indexes of sections
+        Map<String, List<int[]>> candidates = new LinkedHashMap<>();
+        for (int s = 0; s < sections.size(); s++) {
+            Rule<?>[] rules = sections.get(s).getRules();
+            if (rules == null)
+                continue;
+
+            for (int r = 0; r < rules.length; r++) {
+                if (!canMerge(rules[r]))
+                    continue;
+
+                String property = ((PropertyRule<?>) rules[r]).getProperty();
+                List<int[]> list = candidates.get(property);
+                if (list == null) {
+                    list = new ArrayList<>();
+                    candidates.put(property, list);
+                } else if (list.contains(null) || list.get(list.size() - 1)[0] == s) {
+                    // animates the property twice in a section, don't touch it
+                    list.add(null);
+                    continue;
+                }
+                list.add(new int[]{s, r});
+            }
+        }
+
+        Rule<?>[][] result = null;
+        for (List<int[]> list : candidates.values()) {
+            if (list.size() < 2 || list.contains(null) || !canFollow(sections, list))
+                continue;
+
+            if (result == null) {
+                result = new Rule<?>[sections.size()][];
+                for (int s = 0; s < sections.size(); s++) {
+                    Rule<?>[] rules = sections.get(s).getRules();
+                    result[s] = rules == null ? null : rules.clone();
+                }
+            }
+
+            int firstSection = list.get(0)[0];
+            Segment[] segments = new Segment[list.size()];
+            for (int i = 0; i < segments.length; i++) {
+                int[] index = list.get(i);
+                RuleSection section = sections.get(index[0]);
+                PropertyRule<?> rule = (PropertyRule<?>) section.getRules()[index[1]];
+                AXAnimatorData values = getAnimatorValues(rule, section);
+
+                long duration = values != null ? values.getDuration() : DEFAULT_DURATION;
+                long delay = values != null ? values.getDelay() : 0;
+                TimeInterpolator interpolator = values != null ? values.getInterpolator() : null;
+                segments[i] = new Segment(rule, starts[index[0]] - starts[firstSection] + delay, duration,
+                        interpolator != null ? interpolator : new AccelerateDecelerateInterpolator());
+                result[index[0]][index[1]] = new SkippedRule(rule, "Merged into PropertyTrackRule");
+            }
+
+            Segment last = segments[segments.length - 1];
+            Rule<?>[] firstRules = result[firstSection];
+            Rule<?>[] rules = new Rule<?>[firstRules.length + 1];
+            rules[0] = new PropertyTrackRule(segments, last.start + last.duration);
+            System.arraycopy(firstRules, 0, rules, 1, firstRules.length);
+            result[firstSection] = rules;
+        }
+
+        if (result == null)
+            return null;
+
+        for (int s = 0; s < sections.size(); s++) {
+            if (result[s] != null)
+                result[s] = FusedPropertyRule.fuse(addTimingRule(sections.get(s), result[s]),
+                        sections.get(s).getAnimatorValues());
+        }
+        return result;
+    }
+
+    /**
+     * Adds a {@link TimingRule} if the longest rule of section was merged.
+     */
+    private static Rule<?>[] addTimingRule(RuleSection section, Rule<?>[] rules) {
+        long sectionDuration = getSectionDuration(section);
+        long max = 0;
+        for (Rule<?> rule : rules) {
+            if (rule instanceof PropertyRule)
+                max = Math.max(max, getTotalDuration(rule, section));
+        }
+        if (max >= sectionDuration)
+            return rules;
+
+        Rule<?>[] out = new Rule<?>[rules.length + 1];
+        System.arraycopy(rules, 0, out, 0, rules.length);
+        out[rules.length] = new TimingRule(new AXAnimatorData(sectionDuration));
+        return out;
+    }
+
+    /**
+     * A segment after the first one starts from the end value of previous segment,
+     * So it's rule must take the first value from view.
+     */
+    private static boolean canFollow(List<RuleSection> sections, List<int[]> list) {
+        for (int i = 1; i < list.size(); i++) {
+            int[] index = list.get(i);
+            Rule<?> rule = sections.get(index[0]).getRules()[index[1]];
+            if (rule.getAnimatorValues() == null || !rule.getAnimatorValues().isFirstValueFromView())
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean canMerge(Rule<?> rule) {
+        if (!(rule instanceof PropertyRule) || !((PropertyRule<?>) rule).canFuse())
+            return false;
+
+        PropertyRule<?> propertyRule = (PropertyRule<?>) rule;
+        if (propertyRule.liveData != null || propertyRule.data == null || propertyRule.createEvaluator() != null)
+            return false;
+        if (!Float.class.equals(propertyRule.type) && !Integer.class.equals(propertyRule.type))
+            return false;
+
+        AXAnimatorData values = propertyRule.getAnimatorValues();
+        int length = Array.getLength(propertyRule.data);
+        if (values == null || !values.isFirstValueFromView())
+            // Only the first segment may have it's own start value
+            return length == 2;
+        return length == 1;
+    }
+
+    /**
+     * @return The duration of section, or -1 if it's not predictable.
+     */
+    private static long getSectionDuration(RuleSection section) {
+        if (section instanceof RuleSectionWrapper || section instanceof WaitNotifyRule
+                || section instanceof ReverseWaitRule)
+            return -1;
+        if (section instanceof WaitRule)
+            return ((WaitRule) section).duration;
+
+        Rule<?>[] rules = section.getRules();
+        if (rules == null)
+            return -1;
+
+        long max = 0;
+        for (Rule<?> rule : rules) {
+            if (rule instanceof NotAnimatedRule || rule instanceof SkippedRule)
+                continue;
+            if (!(rule instanceof PropertyRule))
+                return -1;
+
+            AXAnimatorData values = getAnimatorValues(rule, section);
+            if (values != null && values.getRepeatCount() != 0)
+                return -1;
+            max = Math.max(max, getTotalDuration(rule, section));
+        }
+        return max;
+    }
+
+    private static long getTotalDuration(Rule<?> rule, RuleSection section) {
+        AXAnimatorData values = getAnimatorValues(rule, section);
+        return values != null ? values.getDelay() + values.getDuration() : DEFAULT_DURATION;
+    }
+
+    @Nullable
+    private static AXAnimatorData getAnimatorValues(Rule<?> rule, RuleSection section) {
+        return rule.getAnimatorValues() != null ? rule.getAnimatorValues() : section.getAnimatorValues();
+    }
+}
@@ -24,6 +24,7 @@ import android.view.View;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.aghajari.axanimation.AXFrameGovernor;
 import com.aghajari.axanimation.livevar.LayoutSize;
 import com.aghajari.axanimation.listener.AXAnimatorUpdateListener;
 import com.aghajari.axanimation.livevar.LiveVar;
@@ -60,6 +61,12 @@ public class PropertyValueRule<T> extends PropertyRule<T> {
         this.listener = listener;
     }
 
+    @Override
+    public boolean isNoOp() {
+        // The listener may need the updates anyway
+        return listener == null && super.isNoOp();
+    }
+
     public void onAnimationUpdate(View view, ValueAnimator animator, T value) {
         if (listener != null)
             listener.onAnimationUpdate(view, animator, value);
@@ -85,12 +92,15 @@ public class PropertyValueRule<T> extends PropertyRule<T> {
             if (evaluator != null)
                 animator.setEvaluator(evaluator);
         } else {
-            animator = ValueAnimator.ofObject(evaluator, (Object[]) values);
+            animator = ValueAnimator.ofObject(createEvaluator((Object[]) values), (Object[]) values);
         }
 
         animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
             @Override
             public void onAnimationUpdate(ValueAnimator animation) {
+                if (expensive && !AXFrameGovernor.shouldUpdate(this, animation.getAnimatedFraction()))
+                    return;
+
                 //noinspection unchecked
                 PropertyValueRule.this.onAnimationUpdate(view, animator, (T) animation.getAnimatedValue());
             }
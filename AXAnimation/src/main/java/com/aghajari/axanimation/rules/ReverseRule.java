@@ -51,6 +51,7 @@ public class ReverseRule extends RuleWrapper {
     @Override
     public void setAnimatorValues(@Nullable AXAnimatorData animatorValues) {
         this.animatorValues = animatorValues;
+        notifyAnimatorValuesChanged();
     }
 
     @Nullable
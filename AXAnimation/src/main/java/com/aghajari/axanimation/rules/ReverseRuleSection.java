@@ -16,11 +16,13 @@
  */
 package com.aghajari.axanimation.rules;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.aghajari.axanimation.AXAnimatorData;
 
 import java.lang.ref.WeakReference;
+import java.util.Map;
 
 /**
  * ReverseRuleSection will reverse a {@link RuleSection}
@@ -66,6 +68,7 @@ public class ReverseRuleSection extends RuleSectionWrapper {
     @Override
     public void setAnimatorValues(@Nullable AXAnimatorData animatorValues) {
         this.animatorValues = animatorValues;
+        notifyAnimatorValuesChanged();
     }
 
     @Nullable
@@ -79,6 +82,13 @@ public class ReverseRuleSection extends RuleSectionWrapper {
         return true;
     }
 
+    @Override
+    protected void copyRules(@NonNull Map<Object, Object> copies) {
+        super.copyRules(copies);
+        // Reverse of the copied rules
+        rules = null;
+    }
+
     @Override
     public String getSectionName() {
         return "ReverseSection_" + super.getSectionName();
@@ -26,11 +26,17 @@ import androidx.annotation.Nullable;
 
 import com.aghajari.axanimation.AXAnimation;
 import com.aghajari.axanimation.AXAnimatorData;
+import com.aghajari.axanimation.AXFrameGovernor;
+import com.aghajari.axanimation.AXPropertyOwners;
+import com.aghajari.axanimation.evaluator.EvaluatorFactory;
 import com.aghajari.axanimation.layouts.AnimatedLayoutParams;
 import com.aghajari.axanimation.livevar.LayoutSize;
 import com.aghajari.axanimation.livevar.LiveVar;
+import com.aghajari.axanimation.utils.TraceUtils;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Animator Rule will create an special animator {@link #onCreateAnimator(View, LayoutSize, LayoutSize, LayoutSize)}
@@ -77,6 +83,15 @@ public abstract class Rule<T> implements Cloneable {
     @Nullable
     protected AXAnimatorData animatorValues;
 
+    /**
+     * See {@link #setExpensive(boolean)}
+     */
+    protected boolean expensive = false;
+
+    /* Listeners of the sections which cache values of animatorValues */
+    @Nullable
+    private ArrayList<AXAnimatorData.OnChangedListener> dataListeners;
+
     public Rule(T data) {
         this.data = data;
     }
@@ -119,16 +134,22 @@ public abstract class Rule<T> implements Cloneable {
      * Creates an Evaluator base on {@link #getEvaluatorClass()}
      *
      * @return the created Evaluator.
+     * @see EvaluatorFactory
      */
     public TypeEvaluator<?> createEvaluator() {
-        Class<?> cls = getEvaluatorClass();
-        if (cls != null) {
-            try {
-                return (TypeEvaluator<?>) cls.newInstance();
-            } catch (Exception ignore) {
-            }
-        }
-        return null;
+        return EvaluatorFactory.create(getEvaluatorClass());
+    }
+
+    /**
+     * Creates an Evaluator base on {@link #getEvaluatorClass()}
+     * Array evaluators will reuse a buffer sized from the keyframes.
+     *
+     * @param keyframes The values of the animator.
+     * @return the created Evaluator.
+     * @see EvaluatorFactory
+     */
+    public TypeEvaluator<?> createEvaluator(@Nullable Object[] keyframes) {
+        return EvaluatorFactory.create(getEvaluatorClass(), keyframes);
     }
 
     /**
@@ -174,6 +195,10 @@ public abstract class Rule<T> implements Cloneable {
      * Use this on the created Animator for updating view's layout.
      */
     public void update(@NonNull View view, final LayoutSize target) {
+        // A newer animation has taken the layout of this view
+        if (!AXPropertyOwners.isLayoutOwner(view, target))
+            return;
+
         if (target != null && view.getLayoutParams() instanceof AnimatedLayoutParams) {
             AnimatedLayoutParams lp = (AnimatedLayoutParams) view.getLayoutParams();
             lp.left = target.left;
@@ -182,10 +207,12 @@ public abstract class Rule<T> implements Cloneable {
             lp.top = target.top;
         }
         view.requestLayout();
+        TraceUtils.onLayoutRequested();
     }
 
     public void setAnimatorValues(@Nullable AXAnimatorData animatorValues) {
         this.animatorValues = animatorValues;
+        notifyAnimatorValuesChanged();
     }
 
     @Nullable
@@ -193,6 +220,37 @@ public abstract class Rule<T> implements Cloneable {
         return animatorValues;
     }
 
+    /**
+     * Adds a listener which gets notified whenever {@link #getAnimatorValues()} changes in place or gets replaced.
+     * A {@link RuleSection} listens to it's rules to know when it's fused rules and durations are outdated.
+     */
+    public void addOnAnimatorDataChangedListener(@NonNull AXAnimatorData.OnChangedListener listener) {
+        if (dataListeners == null)
+            dataListeners = new ArrayList<>(1);
+        if (!dataListeners.contains(listener))
+            dataListeners.add(listener);
+
+        AXAnimatorData values = getAnimatorValues();
+        if (values != null)
+            values.addOnChangedListener(listener);
+    }
+
+    /**
+     * Moves the listeners to the new {@link #getAnimatorValues()} and notifies them,
+     * Call this if you override {@link #setAnimatorValues(AXAnimatorData)} without calling super.
+     */
+    protected final void notifyAnimatorValuesChanged() {
+        if (dataListeners == null)
+            return;
+
+        AXAnimatorData values = getAnimatorValues();
+        for (int i = 0; i < dataListeners.size(); i++) {
+            if (values != null)
+                values.addOnChangedListener(dataListeners.get(i));
+            dataListeners.get(i).onAnimatorDataChanged();
+        }
+    }
+
     /**
      * @return True if this rule needs real {@link LayoutSize}s on {@link #onCreateAnimator(View, LayoutSize, LayoutSize, LayoutSize)},
      * false otherwise. View's parent must be an instance of {@link com.aghajari.axanimation.layouts.AnimatedLayout}
@@ -249,13 +307,42 @@ public abstract class Rule<T> implements Cloneable {
     @Override
     public Object clone() {
         try {
-            return super.clone();
+            Rule<?> rule = (Rule<?>) super.clone();
+            // Listeners belong to the sections of this instance
+            rule.dataListeners = null;
+            return rule;
         } catch (CloneNotSupportedException e) {
             e.printStackTrace();
         }
         return this;
     }
 
+    /**
+     * Clones this rule and the rules which it holds, Each rule will be cloned once per map.
+     * So a rule which is shared between sections (e.g. the rule of a {@link ReverseRule})
+     * stays shared between the copies.
+     *
+     * @param copies the copied rules and sections, by their original instance.
+     */
+    @NonNull
+    public final Rule<?> copy(@NonNull Map<Object, Object> copies) {
+        Rule<?> copy = (Rule<?>) copies.get(this);
+        if (copy == null) {
+            copy = (Rule<?>) clone();
+            copies.put(this, copy);
+            copy.copyRules(copies);
+        }
+        return copy;
+    }
+
+    /**
+     * Called on a new copy of this rule, Replaces the rules which it holds with their copies.
+     *
+     * @see #copy(Map)
+     */
+    protected void copyRules(@NonNull Map<Object, Object> copies) {
+    }
+
     /**
      * Only a {@link RuleSet} can use this.
      */
@@ -264,6 +351,54 @@ public abstract class Rule<T> implements Cloneable {
         return null;
     }
 
+    /**
+     * AXAnimator calls this after {@link #onCreateAnimator(View, LayoutSize, LayoutSize, LayoutSize)}
+     * if {@link AXAnimation#skipNoOpRules(boolean)} is enabled.
+     *
+     * @return True if the created animator won't change anything (start and end values are equal),
+     * So it can be replaced by a timing-only animator.
+     */
+    public boolean isNoOp() {
+        return false;
+    }
+
+    /**
+     * Marks the per-frame updates of this rule as expensive,
+     * So {@link AXFrameGovernor} can throttle them under frame budget pressure.
+     * {@link PropertyRule}, {@link PropertyValueRule} and {@link com.aghajari.axanimation.draw.DrawRule}
+     * support it, Other rules can ask {@link AXFrameGovernor#shouldUpdate(Object, float)} themselves.
+     * default: false, true for draw rules and text size
+     */
+    public Rule<T> setExpensive(boolean expensive) {
+        this.expensive = expensive;
+        return this;
+    }
+
+    public boolean isExpensive() {
+        return expensive;
+    }
+
+    /**
+     * @return the duration of the created animator if the rule computes it itself
+     * (such as {@link com.aghajari.axanimation.rules.physics.PhysicsRule} which plays until it settles),
+     * -1 to use the duration of {@link #animatorValues}.
+     * AXAnimator calls this after {@link #onCreateAnimator(View, LayoutSize, LayoutSize, LayoutSize)},
+     * So the section waits for the right animator. It's called before that too (for {@link AXAnimation#getTotalDuration()}),
+     * So return an estimate if the duration isn't known yet.
+     * The own duration is the whole play of the animator, Repeat count of {@link #animatorValues} doesn't apply.
+     */
+    public long getOwnDuration() {
+        return -1;
+    }
+
+    /**
+     * @return True if the animator of this rule keeps running after it's section,
+     * So the section won't wait for it. (such as {@link PropertyTrackRule})
+     */
+    public boolean spansSections() {
+        return false;
+    }
+
     /**
      * @return True if this rule is a {@link RuleSet} and wants to use {@link #createRules()},
      * False otherwise.
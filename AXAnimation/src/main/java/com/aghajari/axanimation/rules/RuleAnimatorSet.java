@@ -29,6 +29,7 @@ import com.aghajari.axanimation.livevar.LayoutSize;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A {@link Rule} which uses {@link AnimatorSet}
@@ -38,7 +39,7 @@ import java.util.List;
 public abstract class RuleAnimatorSet extends Rule<Rule<?>[]> {
 
     private final String ruleName;
-    protected final HashMap<Rule<?>, Animator> animators = new HashMap<>();
+    protected HashMap<Rule<?>, Animator> animators = new HashMap<>();
 
     public RuleAnimatorSet(final String ruleName, @Nullable Rule<?>... data) {
         super(data);
@@ -63,6 +64,17 @@ public abstract class RuleAnimatorSet extends Rule<Rule<?>[]> {
         };
     }
 
+    @Override
+    protected void copyRules(@NonNull Map<Object, Object> copies) {
+        animators = new HashMap<>();
+        if (data != null) {
+            Rule<?>[] rules = new Rule<?>[data.length];
+            for (int i = 0; i < data.length; i++)
+                rules[i] = data[i].copy(copies);
+            data = rules;
+        }
+    }
+
     @Override
     public Animator onCreateAnimator(@NonNull View view, LayoutSize target, LayoutSize original, LayoutSize parentSize) {
         AnimatorSet animatorSet = new AnimatorSet();
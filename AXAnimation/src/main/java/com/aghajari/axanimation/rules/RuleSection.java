@@ -27,6 +27,9 @@ import com.aghajari.axanimation.listener.AXAnimatorEndListener;
 import com.aghajari.axanimation.listener.AXAnimatorStartListener;
 import com.aghajari.axanimation.livevar.LayoutSize;
 
+import java.util.ArrayList;
+import java.util.Map;
+
 /**
  * A RuleSection rules will start together but {@link com.aghajari.axanimation.AXAnimation}
  * will play sections one after another.
@@ -35,7 +38,15 @@ import com.aghajari.axanimation.livevar.LayoutSize;
  */
 public class RuleSection implements Cloneable {
 
-    private final Rule<?>[] rules;
+    private Rule<?>[] rules;
+    private Rule<?>[] fusedRules;
+
+    /* Gets notified by the AXAnimatorData of this section and it's rules, See #watch() */
+    @Nullable
+    private AXAnimatorData.OnChangedListener dataListener;
+    /* Listeners of the animations which cache values of this section */
+    @Nullable
+    private ArrayList<AXAnimatorData.OnChangedListener> dataListeners;
     private AXAnimatorStartListener startListener;
     private AXAnimatorEndListener endListener;
 
@@ -59,8 +70,80 @@ public class RuleSection implements Cloneable {
         return rules;
     }
 
+    /**
+     * @return The rules to play, {@link PropertyRule}s with identical animator values
+     * are fused into one {@link FusedPropertyRule}.
+     * @see FusedPropertyRule#fuse(Rule[], AXAnimatorData)
+     */
+    public Rule<?>[] getFusedRules() {
+        if (fusedRules == null) {
+            // Rules are fused by their AXAnimatorData, So an edited one must be fused again
+            watch();
+            fusedRules = FusedPropertyRule.fuse(getRules(), getAnimatorValues());
+        }
+        return fusedRules;
+    }
+
     public void setAnimatorValues(@Nullable AXAnimatorData animatorValues) {
         this.animatorValues = animatorValues;
+        notifyAnimatorValuesChanged();
+    }
+
+    /**
+     * Adds a listener which gets notified whenever the AXAnimatorData of this section
+     * or one of it's rules changes in place or gets replaced.
+     * {@link AXAnimation} listens to it's sections to know when it's durations are outdated.
+     */
+    public void addOnAnimatorDataChangedListener(@NonNull AXAnimatorData.OnChangedListener listener) {
+        watch();
+        if (dataListeners == null)
+            dataListeners = new ArrayList<>(1);
+        if (!dataListeners.contains(listener))
+            dataListeners.add(listener);
+    }
+
+    /**
+     * Listens to the AXAnimatorData of this section and it's rules once.
+     */
+    private void watch() {
+        if (dataListener != null)
+            return;
+
+        dataListener = new AXAnimatorData.OnChangedListener() {
+            @Override
+            public void onAnimatorDataChanged() {
+                fusedRules = null;
+                if (dataListeners != null) {
+                    for (int i = 0; i < dataListeners.size(); i++)
+                        dataListeners.get(i).onAnimatorDataChanged();
+                }
+            }
+        };
+        if (getAnimatorValues() != null)
+            getAnimatorValues().addOnChangedListener(dataListener);
+
+        Rule<?>[] rules = getRules();
+        if (rules != null) {
+            for (Rule<?> rule : rules) {
+                if (rule != null)
+                    rule.addOnAnimatorDataChangedListener(dataListener);
+            }
+        }
+    }
+
+    /**
+     * Listens to the new {@link #getAnimatorValues()} and notifies the listeners,
+     * Call this if you override {@link #setAnimatorValues(AXAnimatorData)} without calling super.
+     */
+    protected final void notifyAnimatorValuesChanged() {
+        if (dataListener == null) {
+            fusedRules = null;
+            return;
+        }
+
+        if (getAnimatorValues() != null)
+            getAnimatorValues().addOnChangedListener(dataListener);
+        dataListener.onAnimatorDataChanged();
     }
 
     @Nullable
@@ -101,10 +184,47 @@ public class RuleSection implements Cloneable {
     @Override
     public Object clone() {
         try {
-            return super.clone();
+            RuleSection section = (RuleSection) super.clone();
+            // Listeners belong to the animations of this instance
+            section.dataListener = null;
+            section.dataListeners = null;
+            return section;
         } catch (CloneNotSupportedException e) {
             e.printStackTrace();
         }
         return this;
     }
+
+    /**
+     * Clones this section and it's rules, Each section and rule will be cloned once per map.
+     * So the rules which are shared between sections stay shared between the copies.
+     *
+     * @param copies the copied rules and sections, by their original instance.
+     * @see Rule#copy(Map)
+     */
+    @NonNull
+    public final RuleSection copy(@NonNull Map<Object, Object> copies) {
+        RuleSection copy = (RuleSection) copies.get(this);
+        if (copy == null) {
+            copy = (RuleSection) clone();
+            copies.put(this, copy);
+            copy.copyRules(copies);
+        }
+        return copy;
+    }
+
+    /**
+     * Called on a new copy of this section, Replaces it's rules with their copies.
+     *
+     * @see #copy(Map)
+     */
+    protected void copyRules(@NonNull Map<Object, Object> copies) {
+        fusedRules = null;
+        if (rules != null) {
+            Rule<?>[] copy = new Rule<?>[rules.length];
+            for (int i = 0; i < rules.length; i++)
+                copy[i] = rules[i] == null ? null : rules[i].copy(copies);
+            rules = copy;
+        }
+    }
 }
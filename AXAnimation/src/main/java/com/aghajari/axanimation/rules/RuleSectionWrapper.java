@@ -9,6 +9,8 @@ import com.aghajari.axanimation.AXAnimation;
 import com.aghajari.axanimation.AXAnimatorData;
 import com.aghajari.axanimation.livevar.LayoutSize;
 
+import java.util.Map;
+
 /**
  * Wrapping a {@link RuleSection} will give you more accessibility to change ruleSection's duty.
  * Use {@link ReverseRuleSection} if you want to reverse a section.
@@ -17,7 +19,7 @@ import com.aghajari.axanimation.livevar.LayoutSize;
  */
 public class RuleSectionWrapper extends RuleSection {
 
-    private final RuleSection section;
+    private RuleSection section;
 
     public RuleSectionWrapper(RuleSection section) {
         super(null);
@@ -34,6 +36,7 @@ public class RuleSectionWrapper extends RuleSection {
     @Override
     public void setAnimatorValues(@Nullable AXAnimatorData animatorValues) {
         section.setAnimatorValues(animatorValues);
+        notifyAnimatorValuesChanged();
     }
 
     @Nullable
@@ -75,4 +78,10 @@ public class RuleSectionWrapper extends RuleSection {
         return false;
     }
 
+    @Override
+    protected void copyRules(@NonNull Map<Object, Object> copies) {
+        super.copyRules(copies);
+        section = section.copy(copies);
+    }
+
 }
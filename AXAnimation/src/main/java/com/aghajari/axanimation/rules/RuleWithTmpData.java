@@ -40,6 +40,41 @@ public abstract class RuleWithTmpData<T, V> extends Rule<T> implements Cloneable
         super(data);
     }
 
+    /**
+     * @return True if values is an array with at least two items which are all equal.
+     */
+    protected static boolean isConstant(@Nullable Object values) {
+        if (values instanceof float[]) {
+            float[] array = (float[]) values;
+            if (array.length < 2)
+                return false;
+            for (float v : array) {
+                if (v != array[0])
+                    return false;
+            }
+            return true;
+        } else if (values instanceof int[]) {
+            int[] array = (int[]) values;
+            if (array.length < 2)
+                return false;
+            for (int v : array) {
+                if (v != array[0])
+                    return false;
+            }
+            return true;
+        } else if (values instanceof Object[]) {
+            Object[] array = (Object[]) values;
+            if (array.length < 2 || array[0] == null)
+                return false;
+            for (Object v : array) {
+                if (!array[0].equals(v))
+                    return false;
+            }
+            return true;
+        }
+        return false;
+    }
+
     @NonNull
     @Override
     public Object clone() {
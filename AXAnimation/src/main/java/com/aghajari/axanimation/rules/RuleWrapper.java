@@ -11,6 +11,7 @@ import com.aghajari.axanimation.AXAnimatorData;
 import com.aghajari.axanimation.livevar.LayoutSize;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Wrapping a {@link Rule} will give you more accessibility to change rule's duty.
@@ -28,9 +29,15 @@ public class RuleWrapper extends Rule<Rule<?>> {
         return data;
     }
 
+    @Override
+    protected void copyRules(@NonNull Map<Object, Object> copies) {
+        data = data.copy(copies);
+    }
+
     @Override
     public void setAnimatorValues(@Nullable AXAnimatorData animatorValues) {
         data.setAnimatorValues(animatorValues);
+        notifyAnimatorValuesChanged();
     }
 
     @Nullable
@@ -74,6 +81,11 @@ public class RuleWrapper extends Rule<Rule<?>> {
         return data.createEvaluator();
     }
 
+    @Override
+    public TypeEvaluator<?> createEvaluator(@Nullable Object[] keyframes) {
+        return data.createEvaluator(keyframes);
+    }
+
     @Override
     protected Animator initEvaluator(@NonNull Animator animator) {
         return data.initEvaluator(animator);
@@ -18,33 +18,125 @@ package com.aghajari.axanimation.rules;
 
 import android.view.View;
 
+import androidx.annotation.Nullable;
+
 /**
  * Will stop Animator a while before starting the next section.
  * Whenever {@link #isDone(View)} returned true next section will start.
+ * <p>
+ * With a {@link Notifier} (See {@link #ofNotifier(long, Notifier)}) the animator parks without any posted callback
+ * and continues as soon as {@link Notifier#notifyDone()} called.
+ * With a {@link Listener} the animator polls {@link Listener#isDone(View)}
+ * every {@link #getPollInterval()} milliseconds.
  *
  * @author AmirHossein Aghajari
  */
 public class WaitNotifyRule extends WaitRule {
 
+    /**
+     * Minimum delay between each poll of a {@link Listener}
+     */
+    public static final long MIN_POLL_INTERVAL = 16;
+
     protected final Listener listener;
+    protected final Notifier notifier;
 
     public WaitNotifyRule(Listener listener) {
-        super(0);
-        this.listener = listener;
+        this(0, listener);
     }
 
     public WaitNotifyRule(long duration, Listener listener) {
+        this(duration, listener, null);
+    }
+
+    protected WaitNotifyRule(long duration, Listener listener, Notifier notifier) {
         super(duration);
         this.listener = listener;
+        this.notifier = notifier;
+    }
+
+    public static WaitNotifyRule ofNotifier(Notifier notifier) {
+        return ofNotifier(0, notifier);
+    }
+
+    /**
+     * @param duration Delays before waiting for the notifier
+     */
+    public static WaitNotifyRule ofNotifier(long duration, Notifier notifier) {
+        return new WaitNotifyRule(duration, null, notifier);
     }
 
     public interface Listener {
         boolean isDone(View view);
     }
 
+    /**
+     * Notifies a {@link WaitNotifyRule} to start the next section,
+     * {@link #notifyDone()} can be called from any thread (e.g. when a task or a future completed).
+     * The parked animator is notified on the calling thread and only posts the next section
+     * to it's {@link com.aghajari.axanimation.clock.AnimationClock}, So the section starts on the clock's thread.
+     * The notifier stays done until {@link #reset()}, So a repeated animation won't wait again
+     * unless you reset it.
+     */
+    public static class Notifier {
+        private boolean done = false;
+        private Runnable callback;
+
+        public void notifyDone() {
+            Runnable callback;
+            synchronized (this) {
+                if (done)
+                    return;
+                done = true;
+                callback = this.callback;
+                this.callback = null;
+            }
+            if (callback != null)
+                callback.run();
+        }
+
+        public synchronized boolean isDone() {
+            return done;
+        }
+
+        public synchronized void reset() {
+            done = false;
+        }
+
+        /**
+         * Sets the callback which will run once the notifier is done,
+         * Runs it right away if the notifier is already done.
+         *
+         * @hide
+         */
+        public void park(Runnable callback) {
+            synchronized (this) {
+                if (!done || callback == null) {
+                    this.callback = callback;
+                    return;
+                }
+            }
+            callback.run();
+        }
+    }
+
     public boolean isDone(View view) {
+        if (notifier != null)
+            return notifier.isDone();
         if (listener == null)
             return true;
         return listener.isDone(view);
     }
+
+    @Nullable
+    public Notifier getNotifier() {
+        return notifier;
+    }
+
+    /**
+     * @return the delay between each poll of the listener
+     */
+    public long getPollInterval() {
+        return Math.max(duration, MIN_POLL_INTERVAL);
+    }
 }
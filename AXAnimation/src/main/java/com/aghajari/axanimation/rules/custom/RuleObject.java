@@ -59,6 +59,11 @@ public class RuleObject<T> extends Rule<Object[]> {
         return evaluator;
     }
 
+    @Override
+    public TypeEvaluator<?> createEvaluator(Object[] keyframes) {
+        return evaluator;
+    }
+
     @Override
     public Animator onCreateAnimator(@NonNull final View view, final LayoutSize target, final LayoutSize original, final LayoutSize parentSize) {
         return ObjectAnimator.ofObject(view, propertyName, evaluator, data);
@@ -61,6 +61,11 @@ public class SimpleRule<T> extends Rule<Object[]> {
         return evaluator;
     }
 
+    @Override
+    public TypeEvaluator<?> createEvaluator(Object[] keyframes) {
+        return evaluator;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public Animator onCreateAnimator(@NonNull final View view, final LayoutSize target, final LayoutSize original, final LayoutSize parentSize) {
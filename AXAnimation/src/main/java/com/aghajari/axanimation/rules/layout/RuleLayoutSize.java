@@ -131,6 +131,23 @@ public class RuleLayoutSize extends RuleWithTmpData<LayoutSize[], Object[]> impl
         return animator;
     }
 
+    @Override
+    public boolean isNoOp() {
+        if (tmpData == null || tmpData.length < 2)
+            return false;
+
+        // Only the animating axes are applied to the target
+        LayoutSize first = (LayoutSize) tmpData[0];
+        for (Object o : tmpData) {
+            LayoutSize size = (LayoutSize) o;
+            if (horizontal && (size.left != first.left || size.right != first.right))
+                return false;
+            if (vertical && (size.top != first.top || size.bottom != first.bottom))
+                return false;
+        }
+        return true;
+    }
+
     @Override
     public boolean isLayoutSizeNecessary() {
         return true;
@@ -39,6 +39,7 @@ import com.aghajari.axanimation.utils.InspectUtils;
 public class RuleMove extends RuleWithTmpData<Point[], Object[]> {
     private final int gravity;
     private final boolean widthLocked, heightLocked;
+    private boolean noOp = false;
 
     public RuleMove(int gravity, boolean widthLocked, boolean heightLocked, Point... point) {
         super(point);
@@ -63,6 +64,7 @@ public class RuleMove extends RuleWithTmpData<Point[], Object[]> {
             System.arraycopy(data, 0, tmpData, 1, data.length);
             tmpData[0] = p;
         }
+        noOp = isConstant(tmpData) && isNoOp(target, (Point) tmpData[0], w, h);
 
         ValueAnimator animator = ValueAnimator.ofObject(createEvaluator(), tmpData);
         animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
@@ -115,6 +117,17 @@ public class RuleMove extends RuleWithTmpData<Point[], Object[]> {
         }
     }
 
+    @Override
+    public boolean isNoOp() {
+        return noOp;
+    }
+
+    private boolean isNoOp(LayoutSize target, Point point, int w, int h) {
+        LayoutSize moved = target.clone();
+        update(moved, gravity, point.x, point.y, w, h, widthLocked, heightLocked);
+        return target.equals(moved.left, moved.top, moved.right, moved.bottom);
+    }
+
     @Override
     public boolean isLayoutSizeNecessary() {
         return true;
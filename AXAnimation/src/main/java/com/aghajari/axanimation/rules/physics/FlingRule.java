@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation.rules.physics;
+
+import android.util.Property;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A {@link PhysicsRule} which moves a property or the view's layout with a start velocity
+ * and slows it down by friction until it stops.
+ * The velocity can be changed while it's running by {@link #setVelocity(float)}.
+ *
+ * @author AmirHossein Aghajari
+ */
+public class FlingRule extends PhysicsRule {
+
+    public static final float DEFAULT_FRICTION = 4.2f;
+
+    private float friction;
+    /* Velocity multiplier of each step, Updated by setFriction */
+    private float decay;
+
+    /**
+     * @param property the property of view, such as {@link View#TRANSLATION_Y}
+     * @param velocity the start velocity, in units per second.
+     */
+    public FlingRule(@NonNull Property<View, Float> property, float velocity) {
+        super(property, new float[]{velocity});
+        setFriction(DEFAULT_FRICTION);
+    }
+
+    /**
+     * Moves the view's layout (without resizing it).
+     * View's parent must be an {@link com.aghajari.axanimation.layouts.AnimatedLayout}.
+     *
+     * @param velocityX the start horizontal velocity, in pixels per second.
+     * @param velocityY the start vertical velocity, in pixels per second.
+     */
+    public FlingRule(float velocityX, float velocityY) {
+        super(null, new float[]{velocityX, velocityY});
+        setFriction(DEFAULT_FRICTION);
+    }
+
+    /**
+     * Velocity will be multiplied by e^(-friction * seconds)
+     * default: {@link #DEFAULT_FRICTION}
+     */
+    public FlingRule setFriction(float friction) {
+        if (friction <= 0)
+            throw new IllegalArgumentException("friction must be positive!");
+        this.friction = friction;
+        decay = (float) Math.exp(-friction * STEP / 1000f);
+        return this;
+    }
+
+    public float getFriction() {
+        return friction;
+    }
+
+    /**
+     * Changes the velocity of property (or horizontal velocity of layout),
+     * The running fling continues from it's current position with the new velocity.
+     */
+    public void setVelocity(float velocity) {
+        ((float[]) data)[0] = velocity;
+        retargetVelocity();
+    }
+
+    /**
+     * Changes the velocity of layout,
+     * The running fling continues from it's current position with the new velocity.
+     */
+    public void setVelocity(float velocityX, float velocityY) {
+        float[] velocity = (float[]) data;
+        if (velocity.length < 2)
+            throw new IllegalStateException("This fling moves a property!");
+        velocity[0] = velocityX;
+        velocity[1] = velocityY;
+        retargetVelocity();
+    }
+
+    private void retargetVelocity() {
+        // The goal of a fling is it's velocity
+        retarget();
+    }
+
+    @Override
+    protected void getGoal(@NonNull Motion motion, @NonNull float[] goal, @NonNull float[] position) {
+        for (int i = 0; i < getDimensions(); i++)
+            goal[i] = Float.NaN;
+
+        // A running fling gets the new velocity here
+        if (isMoving())
+            getVelocity(motion.velocity);
+    }
+
+    @Override
+    protected void getVelocity(@NonNull float[] velocity) {
+        float[] v = (float[]) data;
+        float sign = isBackwards() ? -1f : 1f;
+        if (v.length == 1) {
+            velocity[0] = sign * v[0] / 1000f;
+        } else {
+            velocity[0] = velocity[2] = sign * v[0] / 1000f;
+            velocity[1] = velocity[3] = sign * v[1] / 1000f;
+        }
+    }
+
+    @Override
+    protected void step(@NonNull float[] position, @NonNull float[] velocity, @NonNull float[] goal, int index) {
+        position[index] += velocity[index] * STEP;
+        velocity[index] *= decay;
+    }
+
+    @Override
+    protected boolean isSettled(float position, float velocity, float goal) {
+        return Math.abs(velocity) < getVelocityThreshold();
+    }
+}
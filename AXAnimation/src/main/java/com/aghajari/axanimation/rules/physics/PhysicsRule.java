@@ -0,0 +1,412 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation.rules.physics;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.os.Build;
+import android.util.FloatProperty;
+import android.util.Property;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.aghajari.axanimation.livevar.LayoutSize;
+import com.aghajari.axanimation.rules.Rule;
+
+/**
+ * A {@link Rule} which moves a float property of view or the view's layout (left, top, right, bottom)
+ * by physics instead of a fixed duration.
+ * The motion is integrated on each frame with fixed steps of {@link #STEP} milliseconds (semi-implicit Euler),
+ * So it's stable and gives the same result on any frame rate.
+ * <p>
+ * The rule plays until it settles, The duration is simulated when the animator is created
+ * and {@link #getOwnDuration()} gives it to AXAnimator, So the next section starts right after it settles.
+ * Before that, {@link #estimateDuration()} is used (for example by {@link com.aghajari.axanimation.AXAnimation#getTotalDuration()}).
+ * If the motion gets retargeted while it's running, The section waits for the new duration.
+ * Duration and repeat count of animator values don't apply on physics rules (the animator plays the motion once),
+ * but the delay does. Repeat the section or the animation instead.
+ * <p>
+ * Physics can't be played backwards, In reverse mode the motion goes back to where it has started from.
+ *
+ * @author AmirHossein Aghajari
+ * @see SpringRule
+ * @see FlingRule
+ */
+public abstract class PhysicsRule extends Rule<Object> {
+
+    /**
+     * Fixed integration step, in milliseconds.
+     */
+    public static final float STEP = 4f;
+
+    /**
+     * A motion which doesn't settle in this duration will be ended anyway, in milliseconds.
+     */
+    public static final long MAX_DURATION = 10000;
+
+    /* Android's DynamicAnimation uses 62.5 units per second for each unit of threshold */
+    private static final float VELOCITY_THRESHOLD_MULTIPLIER = 0.0625f;
+
+    @Nullable
+    protected final Property<View, Float> property;
+    private float threshold;
+
+    private final float[] origin = new float[4];
+    private boolean hasOrigin = false;
+    private boolean backwards = false;
+    private long duration = -1;
+    /* Reused by estimateDuration */
+    private float[] estimatePosition, estimateVelocity, estimateGoal;
+
+    @Nullable
+    private Motion motion;
+
+    /**
+     * @param property the property to move, or null to move the view's layout.
+     */
+    protected PhysicsRule(@Nullable Property<View, Float> property, Object data) {
+        super(data);
+        this.property = property;
+        this.threshold = getDefaultThreshold(property);
+    }
+
+    private static float getDefaultThreshold(@Nullable Property<View, Float> property) {
+        if (property == null)
+            return 0.5f;
+
+        String name = property.getName();
+        if ("alpha".equals(name) || "scaleX".equals(name) || "scaleY".equals(name))
+            return 0.002f;
+        if (name != null && name.startsWith("rotation"))
+            return 0.1f;
+        return 0.5f;
+    }
+
+    /**
+     * Sets the minimum visible change of the value,
+     * The motion settles when it's closer than this to it's goal and slower than this.
+     * default: 0.5 pixel, 0.002 for alpha and scale, 0.1 degree for rotation.
+     */
+    public PhysicsRule setThreshold(float threshold) {
+        if (threshold <= 0)
+            throw new IllegalArgumentException("threshold must be positive!");
+        this.threshold = threshold;
+        return this;
+    }
+
+    public float getThreshold() {
+        return threshold;
+    }
+
+    protected float getVelocityThreshold() {
+        return threshold * VELOCITY_THRESHOLD_MULTIPLIER;
+    }
+
+    /**
+     * @return number of moving values, 1 for a property and 4 for layout (left, top, right, bottom)
+     */
+    protected int getDimensions() {
+        return property == null ? 4 : 1;
+    }
+
+    @Override
+    public boolean isLayoutSizeNecessary() {
+        return property == null;
+    }
+
+    /**
+     * @return True if the rule is playing in reverse mode.
+     */
+    protected boolean isBackwards() {
+        return backwards || isReverseRule;
+    }
+
+    /**
+     * @return the values which the last forward motion has started from (left, top, right, bottom for layout),
+     * null if it hasn't started yet.
+     */
+    @Nullable
+    protected float[] getOrigin() {
+        return hasOrigin ? origin : null;
+    }
+
+    /**
+     * Fills the goal of each dimension.
+     *
+     * @param goal     the goals, NaN if the dimension has no goal.
+     * @param position the current position of each dimension.
+     */
+    protected abstract void getGoal(@NonNull Motion motion, @NonNull float[] goal, @NonNull float[] position);
+
+    /**
+     * Fills the start velocity of each dimension, in units per millisecond.
+     */
+    protected abstract void getVelocity(@NonNull float[] velocity);
+
+    /**
+     * Moves the dimension forward by {@link #STEP}.
+     */
+    protected abstract void step(@NonNull float[] position, @NonNull float[] velocity, @NonNull float[] goal, int index);
+
+    /**
+     * @return True if the dimension has settled.
+     */
+    protected abstract boolean isSettled(float position, float velocity, float goal);
+
+    @Override
+    public boolean shouldReverseAnimator(boolean reverseMode) {
+        // The motion goes back to it's origin instead
+        backwards = reverseMode;
+        return false;
+    }
+
+    @Nullable
+    @Override
+    public Animator onCreateAnimator(@NonNull View view, @Nullable LayoutSize target, @Nullable LayoutSize original, @Nullable LayoutSize parentSize) {
+        if (property == null && target == null)
+            return null;
+
+        Motion motion = new Motion(view, target, original, parentSize);
+        if (!isBackwards()) {
+            System.arraycopy(motion.position, 0, origin, 0, origin.length);
+            hasOrigin = true;
+        }
+        getVelocity(motion.velocity);
+        getGoal(motion, motion.goal, motion.position);
+        motion.begin();
+
+        this.motion = motion;
+        duration = motion.duration;
+
+        ValueAnimator animator = ValueAnimator.ofFloat(0f, 1f);
+        animator.addUpdateListener(motion);
+        animator.addListener(motion);
+        motion.animator = animator;
+        return animator;
+    }
+
+    /**
+     * @return the simulated duration of the last motion, {@link #estimateDuration()} if no motion has been created yet.
+     */
+    @Override
+    public long getOwnDuration() {
+        return duration >= 0 ? duration : estimateDuration();
+    }
+
+    /**
+     * @return the simulated duration of a motion from {@link #getEstimatedStart(float[], float[])}
+     * with the start velocity, Used before the view is known.
+     */
+    protected long estimateDuration() {
+        if (estimatePosition == null) {
+            estimatePosition = new float[4];
+            estimateVelocity = new float[4];
+            estimateGoal = new float[4];
+        }
+
+        getVelocity(estimateVelocity);
+        getEstimatedStart(estimatePosition, estimateGoal);
+        return simulate(estimatePosition, estimateVelocity, estimateGoal);
+    }
+
+    /**
+     * Fills the position and goal of each dimension for {@link #estimateDuration()}.
+     * default: starts from 0 with no goal.
+     */
+    protected void getEstimatedStart(@NonNull float[] position, @NonNull float[] goal) {
+        for (int i = 0; i < getDimensions(); i++) {
+            position[i] = 0f;
+            goal[i] = Float.NaN;
+        }
+    }
+
+    /**
+     * Steps the position and velocity until they settle.
+     *
+     * @return the duration of motion, {@link #MAX_DURATION} at most.
+     */
+    private long simulate(float[] position, float[] velocity, float[] goal) {
+        final int dimensions = getDimensions();
+        long t = 0;
+        while (t < MAX_DURATION && !isSettled(position, velocity, goal, dimensions)) {
+            for (int i = 0; i < dimensions; i++)
+                step(position, velocity, goal, i);
+            t += STEP;
+        }
+        return Math.min(t, MAX_DURATION);
+    }
+
+    private boolean isSettled(float[] position, float[] velocity, float[] goal, int dimensions) {
+        for (int i = 0; i < dimensions; i++) {
+            if (!isSettled(position[i], velocity[i], goal[i]))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Applies the new goals or velocities to the running motion (without any allocation)
+     * and updates the duration of it's animator.
+     */
+    protected void retarget() {
+        Motion motion = this.motion;
+        if (isMoving()) {
+            motion.retarget();
+            duration = motion.duration;
+        }
+    }
+
+    /**
+     * @return True if a motion of this rule is running.
+     */
+    public boolean isMoving() {
+        return motion != null && !motion.finished;
+    }
+
+    @NonNull
+    @Override
+    public Object clone() {
+        PhysicsRule rule = (PhysicsRule) super.clone();
+        rule.motion = null;
+        rule.estimatePosition = rule.estimateVelocity = rule.estimateGoal = null;
+        return rule;
+    }
+
+    /**
+     * The state of a running motion, Each created animator has it's own.
+     */
+    public final class Motion extends AnimatorListenerAdapter implements ValueAnimator.AnimatorUpdateListener {
+        public final View view;
+        @Nullable
+        public final LayoutSize target, original, parentSize;
+
+        final int dimensions = getDimensions();
+        final float[] position = new float[4];
+        final float[] velocity = new float[4];
+        final float[] goal = new float[4];
+        private final float[] startPosition = new float[4];
+        private final float[] startVelocity = new float[4];
+        private final float[] simPosition = new float[4];
+        private final float[] simVelocity = new float[4];
+        private float time, startTime;
+        long duration;
+        ValueAnimator animator;
+        boolean finished = false;
+
+        Motion(View view, @Nullable LayoutSize target, @Nullable LayoutSize original, @Nullable LayoutSize parentSize) {
+            this.view = view;
+            this.target = target;
+            this.original = original;
+            this.parentSize = parentSize;
+
+            if (property != null) {
+                position[0] = property.get(view);
+            } else if (target != null) {
+                position[0] = target.left;
+                position[1] = target.top;
+                position[2] = target.right;
+                position[3] = target.bottom;
+            }
+        }
+
+        void begin() {
+            time = startTime = 0;
+            snapshot();
+            duration = simulate();
+        }
+
+        void retarget() {
+            getGoal(this, goal, position);
+            startTime = time;
+            snapshot();
+            duration = (long) Math.ceil(time + simulate());
+            animator.setDuration(duration);
+        }
+
+        private void snapshot() {
+            System.arraycopy(position, 0, startPosition, 0, dimensions);
+            System.arraycopy(velocity, 0, startVelocity, 0, dimensions);
+        }
+
+        /**
+         * @return the duration from current state until it settles
+         */
+        private long simulate() {
+            System.arraycopy(position, 0, simPosition, 0, dimensions);
+            System.arraycopy(velocity, 0, simVelocity, 0, dimensions);
+            return PhysicsRule.this.simulate(simPosition, simVelocity, goal);
+        }
+
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            long playTime = Math.min(animation.getCurrentPlayTime(), animation.getDuration());
+
+            // Played again (repeat or seek), Start from the snapshot
+            if (playTime < time) {
+                System.arraycopy(startPosition, 0, position, 0, dimensions);
+                System.arraycopy(startVelocity, 0, velocity, 0, dimensions);
+                time = startTime;
+            }
+
+            while (time + STEP <= playTime) {
+                for (int i = 0; i < dimensions; i++)
+                    step(position, velocity, goal, i);
+                time += STEP;
+            }
+
+            if (playTime >= animation.getDuration()) {
+                finished = true;
+                for (int i = 0; i < dimensions; i++) {
+                    if (!Float.isNaN(goal[i]))
+                        position[i] = goal[i];
+                    velocity[i] = 0f;
+                }
+            }
+            apply();
+        }
+
+        @Override
+        public void onAnimationCancel(Animator animation) {
+            finished = true;
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            finished = true;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void apply() {
+            if (property != null) {
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N && property instanceof FloatProperty) {
+                    ((FloatProperty<View>) (Property<?, ?>) property).setValue(view, position[0]);
+                } else {
+                    property.set(view, position[0]);
+                }
+            } else if (target != null) {
+                target.left = Math.round(position[0]);
+                target.top = Math.round(position[1]);
+                target.right = Math.round(position[2]);
+                target.bottom = Math.round(position[3]);
+                update(view, target);
+            }
+        }
+    }
+}
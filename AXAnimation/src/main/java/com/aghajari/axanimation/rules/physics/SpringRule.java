@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation.rules.physics;
+
+import android.util.Property;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+import com.aghajari.axanimation.livevar.LayoutSize;
+
+/**
+ * A {@link PhysicsRule} which pulls a property or the view's layout to the target by a damped spring.
+ * The target can be changed while it's running by {@link #setTarget(float)} or {@link #setTarget(LayoutSize)},
+ * The spring keeps it's current velocity and continues to the new target.
+ *
+ * @author AmirHossein Aghajari
+ */
+public class SpringRule extends PhysicsRule {
+
+    public static final float STIFFNESS_HIGH = 10000f;
+    public static final float STIFFNESS_MEDIUM = 1500f;
+    public static final float STIFFNESS_LOW = 200f;
+    public static final float STIFFNESS_VERY_LOW = 50f;
+
+    public static final float DAMPING_RATIO_HIGH_BOUNCY = 0.2f;
+    public static final float DAMPING_RATIO_MEDIUM_BOUNCY = 0.5f;
+    public static final float DAMPING_RATIO_LOW_BOUNCY = 0.75f;
+    public static final float DAMPING_RATIO_NO_BOUNCY = 1f;
+
+    private float stiffness, dampingRatio;
+    /* Per millisecond, Updated by setStiffness and setDampingRatio */
+    private float k, c;
+    private float startVelocity = 0f;
+
+    /* Reused to resolve the target LayoutSize */
+    private LayoutSize resolved;
+
+    /* The distance which is assumed when the start isn't known, in thresholds (100 pixels, 0.4 alpha) */
+    private static final float ESTIMATED_DISTANCE = 200f;
+
+    /**
+     * @param property the property of view, such as {@link View#TRANSLATION_X}
+     * @param target   the final value of property
+     */
+    public SpringRule(@NonNull Property<View, Float> property, float target) {
+        super(property, new float[]{target});
+        setSpring(STIFFNESS_MEDIUM, DAMPING_RATIO_MEDIUM_BOUNCY);
+    }
+
+    /**
+     * Moves and resizes the view's layout to the target.
+     * View's parent must be an {@link com.aghajari.axanimation.layouts.AnimatedLayout}.
+     */
+    public SpringRule(@NonNull LayoutSize target) {
+        super(null, new LayoutSize(target));
+        setSpring(STIFFNESS_MEDIUM, DAMPING_RATIO_MEDIUM_BOUNCY);
+    }
+
+    private void setSpring(float stiffness, float dampingRatio) {
+        if (stiffness <= 0)
+            throw new IllegalArgumentException("stiffness must be positive!");
+        if (dampingRatio < 0)
+            throw new IllegalArgumentException("dampingRatio can not be negative!");
+
+        this.stiffness = stiffness;
+        this.dampingRatio = dampingRatio;
+        k = stiffness / 1000000f;
+        c = 2f * dampingRatio * (float) Math.sqrt(stiffness) / 1000f;
+    }
+
+    /**
+     * default: {@link #STIFFNESS_MEDIUM}
+     */
+    public SpringRule setStiffness(float stiffness) {
+        setSpring(stiffness, dampingRatio);
+        return this;
+    }
+
+    public float getStiffness() {
+        return stiffness;
+    }
+
+    /**
+     * 0 never stops bouncing, 1 (critically damped) doesn't bounce.
+     * default: {@link #DAMPING_RATIO_MEDIUM_BOUNCY}
+     */
+    public SpringRule setDampingRatio(float dampingRatio) {
+        setSpring(stiffness, dampingRatio);
+        return this;
+    }
+
+    public float getDampingRatio() {
+        return dampingRatio;
+    }
+
+    /**
+     * @param velocity the start velocity (such as the velocity of drag release), in units per second.
+     */
+    public SpringRule setStartVelocity(float velocity) {
+        this.startVelocity = velocity;
+        return this;
+    }
+
+    /**
+     * Changes the target of property, The running spring continues to the new target.
+     */
+    public void setTarget(float target) {
+        if (!(data instanceof float[]))
+            throw new IllegalStateException("This spring moves the layout!");
+        ((float[]) data)[0] = target;
+        retarget();
+    }
+
+    /**
+     * Changes the target of layout, The running spring continues to the new target.
+     */
+    public void setTarget(@NonNull LayoutSize target) {
+        if (!(data instanceof LayoutSize))
+            throw new IllegalStateException("This spring moves a property!");
+        ((LayoutSize) data).set(target);
+        retarget();
+    }
+
+    @Override
+    protected void getGoal(@NonNull Motion motion, @NonNull float[] goal, @NonNull float[] position) {
+        float[] origin = getOrigin();
+        if (isBackwards() && origin != null) {
+            System.arraycopy(origin, 0, goal, 0, getDimensions());
+        } else if (data instanceof float[]) {
+            goal[0] = ((float[]) data)[0];
+        } else {
+            if (resolved == null)
+                resolved = new LayoutSize();
+            resolved.set((LayoutSize) data);
+            resolved.prepare(motion.view.getMeasuredWidth(), motion.view.getMeasuredHeight(),
+                    motion.parentSize, motion.target, motion.original);
+            goal[0] = resolved.left;
+            goal[1] = resolved.top;
+            goal[2] = resolved.right;
+            goal[3] = resolved.bottom;
+        }
+    }
+
+    @Override
+    protected void getEstimatedStart(@NonNull float[] position, @NonNull float[] goal) {
+        float distance = ESTIMATED_DISTANCE * getThreshold();
+        if (data instanceof float[]) {
+            float target = ((float[]) data)[0];
+            float[] origin = getOrigin();
+            float start = origin != null ? origin[0] : target - distance;
+            position[0] = isBackwards() ? target : start;
+            goal[0] = isBackwards() ? start : target;
+        } else {
+            // The layout isn't known yet, Only the distance matters
+            for (int i = 0; i < getDimensions(); i++) {
+                position[i] = 0f;
+                goal[i] = distance;
+            }
+        }
+    }
+
+    @Override
+    protected void getVelocity(@NonNull float[] velocity) {
+        for (int i = 0; i < getDimensions(); i++)
+            velocity[i] = startVelocity / 1000f;
+    }
+
+    @Override
+    protected void step(@NonNull float[] position, @NonNull float[] velocity, @NonNull float[] goal, int index) {
+        float acceleration = -k * (position[index] - goal[index]) - c * velocity[index];
+        velocity[index] += acceleration * STEP;
+        position[index] += velocity[index] * STEP;
+    }
+
+    @Override
+    protected boolean isSettled(float position, float velocity, float goal) {
+        return Math.abs(position - goal) < getThreshold() && Math.abs(velocity) < getVelocityThreshold();
+    }
+}
@@ -17,10 +17,13 @@
 package com.aghajari.axanimation.rules.reflect;
 
 import android.util.Log;
+import android.util.Property;
 import android.view.View;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
+import com.aghajari.axanimation.AXPropertyRegistry;
 import com.aghajari.axanimation.rules.Debugger;
 import com.aghajari.axanimation.rules.NotAnimatedRule;
 import com.aghajari.axanimation.utils.ReflectionUtils;
@@ -37,6 +40,10 @@ import java.util.Map;
  */
 public class InvokeRule extends NotAnimatedRule<Object[]> implements Debugger {
     private final String methodName;
+    private Method method = null;
+    private Class<?> methodClass = null;
+    private Property<Object, Object> property = null;
+    private Class<?> propertyClass = null;
 
     public InvokeRule(String methodName, Object... args) {
         super(args);
@@ -70,10 +77,40 @@ public class InvokeRule extends NotAnimatedRule<Object[]> implements Debugger {
     }
 
     protected Object invoke(Object cls, String methodName, Object... params) throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-        Method method = getMethod(cls.getClass(), methodName, params);
-        if (getAccessible())
-            method.setAccessible(true);
-        return method.invoke(cls, params);
+        if (params.length == 1) {
+            Property<Object, Object> property = getRegisteredProperty(cls.getClass(), methodName);
+            if (property != null) {
+                property.set(cls, params[0]);
+                return null;
+            }
+        }
+        return getCachedMethod(cls.getClass(), methodName, params).invoke(cls, params);
+    }
+
+    /**
+     * @return The typed property registered on {@link AXPropertyRegistry} for the setter, null otherwise.
+     */
+    @Nullable
+    protected Property<Object, Object> getRegisteredProperty(Class<?> cls, String methodName) {
+        if (propertyClass != cls) {
+            propertyClass = cls;
+            property = AXPropertyRegistry.findSetter(cls, methodName);
+        }
+        return property;
+    }
+
+    /**
+     * Resolves the method once per target class.
+     */
+    protected Method getCachedMethod(Class<?> cls, String methodName, Object... params) throws NoSuchMethodException {
+        if (method == null || methodClass != cls || !method.getName().equals(methodName)) {
+            Method method = getMethod(cls, methodName, params);
+            if (getAccessible())
+                method.setAccessible(true);
+            this.method = method;
+            this.methodClass = cls;
+        }
+        return method;
     }
 
     protected boolean getAccessible() {
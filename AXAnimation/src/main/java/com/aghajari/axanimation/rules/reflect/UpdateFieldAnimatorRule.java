@@ -17,18 +17,27 @@
 package com.aghajari.axanimation.rules.reflect;
 
 import android.animation.Animator;
+import android.animation.FloatEvaluator;
+import android.animation.IntEvaluator;
 import android.animation.TypeEvaluator;
 import android.animation.ValueAnimator;
+import android.os.Build;
+import android.util.FloatProperty;
+import android.util.IntProperty;
 import android.util.Log;
+import android.util.Property;
 import android.view.View;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
+import com.aghajari.axanimation.AXPropertyRegistry;
 import com.aghajari.axanimation.livevar.LayoutSize;
 import com.aghajari.axanimation.listener.AXAnimatorUpdateListener;
 import com.aghajari.axanimation.rules.Debugger;
 import com.aghajari.axanimation.rules.Rule;
 import com.aghajari.axanimation.rules.RuleWithTmpData;
+import com.aghajari.axanimation.utils.ReflectionUtils;
 
 import java.lang.reflect.Field;
 import java.util.HashMap;
@@ -36,16 +45,28 @@ import java.util.Map;
 
 /**
  * A custom {@link Rule} using {@link ValueAnimator} to update a {@link java.lang.reflect.Field} of View
+ * <p>
+ * float and int fields (or {@link FloatProperty} and {@link IntProperty}) animated by
+ * {@link FloatEvaluator} or {@link IntEvaluator} are updated through the primitive setters,
+ * So the animated value won't be boxed on every frame.
  *
  * @author AmirHossein Aghajari
  */
 public class UpdateFieldAnimatorRule<T> extends RuleWithTmpData<Object[], Object[]> implements Debugger {
 
     private final String fieldName;
+    private Field field = null;
+    private Class<?> fieldClass = null;
+    private Property<Object, Object> property = null;
+    private Class<?> propertyClass = null;
     private final AXAnimatorUpdateListener<T> listener;
     private final TypeEvaluator<T> evaluator;
     private final boolean invalidate;
 
+    private static final int TYPE_OBJECT = 0;
+    private static final int TYPE_FLOAT = 1;
+    private static final int TYPE_INT = 2;
+
     @SafeVarargs
     public UpdateFieldAnimatorRule(String fieldName,
                                    AXAnimatorUpdateListener<T> listener,
@@ -76,6 +97,11 @@ public class UpdateFieldAnimatorRule<T> extends RuleWithTmpData<Object[], Object
         return evaluator;
     }
 
+    @Override
+    public TypeEvaluator<?> createEvaluator(Object[] keyframes) {
+        return evaluator;
+    }
+
     @Override
     public Animator onCreateAnimator(@NonNull final View view, final LayoutSize target, final LayoutSize original, final LayoutSize parentSize) {
         if (!isReverse() || tmpData == null) {
@@ -93,12 +119,19 @@ public class UpdateFieldAnimatorRule<T> extends RuleWithTmpData<Object[], Object
             }
         }
 
+        int type = getPrimitiveType(view);
+        if (type == TYPE_FLOAT)
+            return createFloatAnimator(view, toFloatArray(tmpData));
+        else if (type == TYPE_INT)
+            return createIntAnimator(view, toIntArray(tmpData));
+
         final ValueAnimator animator = ValueAnimator.ofObject(createEvaluator(), tmpData);
         animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
             @Override
             public void onAnimationUpdate(ValueAnimator valueAnimator) {
+                Object value = valueAnimator.getAnimatedValue();
                 try {
-                    setFieldValue(view, fieldName, valueAnimator.getAnimatedValue());
+                    setFieldValue(view, fieldName, value);
                     if (invalidate)
                         view.invalidate();
                 } catch (Exception e) {
@@ -106,27 +139,170 @@ public class UpdateFieldAnimatorRule<T> extends RuleWithTmpData<Object[], Object
                 }
                 if (listener != null) {
                     //noinspection unchecked
-                    listener.onAnimationUpdate(view, valueAnimator, (T) valueAnimator.getAnimatedValue());
+                    listener.onAnimationUpdate(view, valueAnimator, (T) value);
                 }
             }
         });
         return animator;
     }
 
+    private Animator createFloatAnimator(final View view, final float[] values) {
+        final ValueAnimator animator = ValueAnimator.ofFloat(values);
+        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator valueAnimator) {
+                float value = interpolate(values, valueAnimator.getAnimatedFraction());
+                try {
+                    setFloatValue(view, fieldName, value);
+                    if (invalidate)
+                        view.invalidate();
+                } catch (Exception e) {
+                    Log.e("AXAnimation", "UpdateFieldAnimatorRule (" + fieldName + ")", e);
+                }
+                if (listener != null) {
+                    //noinspection unchecked
+                    listener.onAnimationUpdate(view, valueAnimator, (T) Float.valueOf(value));
+                }
+            }
+        });
+        return animator;
+    }
+
+    private Animator createIntAnimator(final View view, final int[] values) {
+        final ValueAnimator animator = ValueAnimator.ofInt(values);
+        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator valueAnimator) {
+                int value = interpolate(values, valueAnimator.getAnimatedFraction());
+                try {
+                    setIntValue(view, fieldName, value);
+                    if (invalidate)
+                        view.invalidate();
+                } catch (Exception e) {
+                    Log.e("AXAnimation", "UpdateFieldAnimatorRule (" + fieldName + ")", e);
+                }
+                if (listener != null) {
+                    //noinspection unchecked
+                    listener.onAnimationUpdate(view, valueAnimator, (T) Integer.valueOf(value));
+                }
+            }
+        });
+        return animator;
+    }
+
+    /**
+     * @return The primitive type which the animated values can be set as, TYPE_OBJECT otherwise.
+     */
+    private int getPrimitiveType(View view) {
+        if (tmpData.length < 2)
+            return TYPE_OBJECT;
+
+        int type;
+        TypeEvaluator<?> evaluator = createEvaluator();
+        Class<?> evaluatorClass = evaluator == null ? null : evaluator.getClass();
+        if (evaluatorClass == FloatEvaluator.class) {
+            type = TYPE_FLOAT;
+        } else if (evaluatorClass == IntEvaluator.class) {
+            type = TYPE_INT;
+        } else {
+            return TYPE_OBJECT;
+        }
+
+        for (Object value : tmpData) {
+            if (type == TYPE_FLOAT ? !(value instanceof Float) : !(value instanceof Integer))
+                return TYPE_OBJECT;
+        }
+
+        Property<Object, Object> property = getRegisteredProperty(view.getClass(), fieldName);
+        if (property != null) {
+            if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N)
+                return TYPE_OBJECT;
+            return (type == TYPE_FLOAT ? property instanceof FloatProperty : property instanceof IntProperty)
+                    ? type : TYPE_OBJECT;
+        }
+
+        try {
+            Class<?> fieldType = getCachedField(view.getClass(), fieldName).getType();
+            return fieldType == (type == TYPE_FLOAT ? float.class : int.class) ? type : TYPE_OBJECT;
+        } catch (NoSuchFieldException e) {
+            return TYPE_OBJECT;
+        }
+    }
+
+    protected void setFloatValue(Object obj, String fieldName, float value)
+            throws NoSuchFieldException, IllegalAccessException {
+        Property<Object, Object> property = getRegisteredProperty(obj.getClass(), fieldName);
+        if (property != null) {
+            // getPrimitiveType() only picks registered properties on N+
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+                //noinspection unchecked
+                ((FloatProperty<Object>) (Property<?, ?>) property).setValue(obj, value);
+            } else {
+                property.set(obj, value);
+            }
+            return;
+        }
+        getCachedField(obj.getClass(), fieldName).setFloat(obj, value);
+    }
+
+    protected void setIntValue(Object obj, String fieldName, int value)
+            throws NoSuchFieldException, IllegalAccessException {
+        Property<Object, Object> property = getRegisteredProperty(obj.getClass(), fieldName);
+        if (property != null) {
+            // getPrimitiveType() only picks registered properties on N+
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+                //noinspection unchecked
+                ((IntProperty<Object>) (Property<?, ?>) property).setValue(obj, value);
+            } else {
+                property.set(obj, value);
+            }
+            return;
+        }
+        getCachedField(obj.getClass(), fieldName).setInt(obj, value);
+    }
+
     protected void setFieldValue(Object obj, String fieldName, Object value)
             throws NoSuchFieldException, IllegalAccessException {
-        Field field = getField(obj.getClass(), fieldName);
-        if (getAccessible())
-            field.setAccessible(true);
-        field.set(obj, value);
+        Property<Object, Object> property = getRegisteredProperty(obj.getClass(), fieldName);
+        if (property != null) {
+            property.set(obj, value);
+            return;
+        }
+        ReflectionUtils.setFieldValue(getCachedField(obj.getClass(), fieldName), obj, value);
     }
 
     protected Object getFieldValue(Object obj, String fieldName)
             throws NoSuchFieldException, IllegalAccessException {
-        Field field = getField(obj.getClass(), fieldName);
-        if (getAccessible())
-            field.setAccessible(true);
-        return field.get(obj);
+        Property<Object, Object> property = getRegisteredProperty(obj.getClass(), fieldName);
+        if (property != null)
+            return property.get(obj);
+        return getCachedField(obj.getClass(), fieldName).get(obj);
+    }
+
+    /**
+     * @return The typed property registered on {@link AXPropertyRegistry} for the field, null otherwise.
+     */
+    @Nullable
+    protected Property<Object, Object> getRegisteredProperty(Class<?> cls, String fieldName) {
+        if (propertyClass != cls) {
+            propertyClass = cls;
+            property = AXPropertyRegistry.findField(cls, fieldName);
+        }
+        return property;
+    }
+
+    /**
+     * Resolves the field once per target class.
+     */
+    protected Field getCachedField(Class<?> cls, String fieldName) throws NoSuchFieldException {
+        if (field == null || fieldClass != cls || !field.getName().equals(fieldName)) {
+            Field field = getField(cls, fieldName);
+            if (getAccessible())
+                field.setAccessible(true);
+            this.field = field;
+            this.fieldClass = cls;
+        }
+        return field;
     }
 
     protected boolean getAccessible() {
@@ -136,4 +312,41 @@ public class UpdateFieldAnimatorRule<T> extends RuleWithTmpData<Object[], Object
     protected Field getField(Class<?> cls, String fieldName) throws NoSuchFieldException {
         return cls.getField(fieldName);
     }
+
+    private static float[] toFloatArray(Object[] values) {
+        float[] array = new float[values.length];
+        for (int i = 0; i < values.length; i++)
+            array[i] = (Float) values[i];
+        return array;
+    }
+
+    private static int[] toIntArray(Object[] values) {
+        int[] array = new int[values.length];
+        for (int i = 0; i < values.length; i++)
+            array[i] = (Integer) values[i];
+        return array;
+    }
+
+    /**
+     * Same as the evenly spaced keyframes of {@link ValueAnimator#ofFloat(float...)},
+     * Fractions out of [0, 1] extrapolate the first or last interval.
+     */
+    static float interpolate(float[] values, float fraction) {
+        int last = values.length - 1;
+        float position = fraction * last;
+        int index = Math.max(0, Math.min(last - 1, (int) Math.floor(position)));
+        float intervalFraction = position - index;
+        return values[index] + intervalFraction * (values[index + 1] - values[index]);
+    }
+
+    /**
+     * Same as the evenly spaced keyframes of {@link ValueAnimator#ofInt(int...)}.
+     */
+    static int interpolate(int[] values, float fraction) {
+        int last = values.length - 1;
+        float position = fraction * last;
+        int index = Math.max(0, Math.min(last - 1, (int) Math.floor(position)));
+        float intervalFraction = position - index;
+        return values[index] + (int) (intervalFraction * (values[index + 1] - values[index]));
+    }
 }
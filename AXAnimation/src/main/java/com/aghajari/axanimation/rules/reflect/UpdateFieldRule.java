@@ -17,12 +17,16 @@
 package com.aghajari.axanimation.rules.reflect;
 
 import android.util.Log;
+import android.util.Property;
 import android.view.View;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
+import com.aghajari.axanimation.AXPropertyRegistry;
 import com.aghajari.axanimation.rules.Debugger;
 import com.aghajari.axanimation.rules.NotAnimatedRule;
+import com.aghajari.axanimation.utils.ReflectionUtils;
 
 import java.lang.reflect.Field;
 import java.util.HashMap;
@@ -35,6 +39,10 @@ import java.util.Map;
  */
 public class UpdateFieldRule extends NotAnimatedRule<Object> implements Debugger {
     private final String fieldName;
+    private Field field = null;
+    private Class<?> fieldClass = null;
+    private Property<Object, Object> property = null;
+    private Class<?> propertyClass = null;
 
     public UpdateFieldRule(Object data, String fieldName) {
         super(data);
@@ -69,18 +77,46 @@ public class UpdateFieldRule extends NotAnimatedRule<Object> implements Debugger
 
     protected void setFieldValue(Object obj, String fieldName, Object value)
             throws NoSuchFieldException, IllegalAccessException {
-        Field field = getField(obj.getClass(), fieldName);
-        if (getAccessible())
-            field.setAccessible(true);
-        field.set(obj, value);
+        Property<Object, Object> property = getRegisteredProperty(obj.getClass(), fieldName);
+        if (property != null) {
+            property.set(obj, value);
+            return;
+        }
+        ReflectionUtils.setFieldValue(getCachedField(obj.getClass(), fieldName), obj, value);
     }
 
     protected Object getFieldValue(Object obj, String fieldName)
             throws NoSuchFieldException, IllegalAccessException {
-        Field field = getField(obj.getClass(), fieldName);
-        if (getAccessible())
-            field.setAccessible(true);
-        return field.get(obj);
+        Property<Object, Object> property = getRegisteredProperty(obj.getClass(), fieldName);
+        if (property != null)
+            return property.get(obj);
+        return getCachedField(obj.getClass(), fieldName).get(obj);
+    }
+
+    /**
+     * @return The typed property registered on {@link AXPropertyRegistry} for the field, null otherwise.
+     */
+    @Nullable
+    protected Property<Object, Object> getRegisteredProperty(Class<?> cls, String fieldName) {
+        if (propertyClass != cls) {
+            propertyClass = cls;
+            property = AXPropertyRegistry.findField(cls, fieldName);
+        }
+        return property;
+    }
+
+    /**
+     * Resolves the field once per target class.
+     */
+    protected Field getCachedField(Class<?> cls, String fieldName) throws NoSuchFieldException {
+        if (field == null || fieldClass != cls || !field.getName().equals(fieldName)) {
+            Field field = getField(cls, fieldName);
+            if (getAccessible())
+                field.setAccessible(true);
+            this.field = field;
+            this.fieldClass = cls;
+        }
+        return field;
     }
 
     protected boolean getAccessible() {
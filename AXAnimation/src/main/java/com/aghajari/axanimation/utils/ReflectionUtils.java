@@ -36,6 +36,7 @@ public class ReflectionUtils {
 
     private static final WeakHashMap<String, AccessibleObject> cachedMap = new WeakHashMap<>();
     private static final boolean DEBUG = true;
+    private static final Object[] NO_ARGS = new Object[0];
 
     public static Method getPrivateMethod(Object object, String methodName) {
         try {
@@ -58,7 +59,7 @@ public class ReflectionUtils {
     public static void invokePrivateMethod(Method m, Object object) {
         try {
             if (m != null)
-                m.invoke(object);
+                m.invoke(object, NO_ARGS);
         } catch (Exception e) {
             if (DEBUG)
                 e.printStackTrace();
@@ -181,6 +182,27 @@ public class ReflectionUtils {
         return null;
     }
 
+    /**
+     * Sets the value of field, primitive fields use the typed setters
+     * (such as {@link Field#setFloat(Object, float)}) instead of {@link Field#set(Object, Object)}.
+     */
+    public static void setFieldValue(Field field, Object object, Object value) throws IllegalAccessException {
+        Class<?> type = field.getType();
+        if (type == float.class && value instanceof Float) {
+            field.setFloat(object, (Float) value);
+        } else if (type == int.class && value instanceof Integer) {
+            field.setInt(object, (Integer) value);
+        } else if (type == double.class && value instanceof Double) {
+            field.setDouble(object, (Double) value);
+        } else if (type == long.class && value instanceof Long) {
+            field.setLong(object, (Long) value);
+        } else if (type == boolean.class && value instanceof Boolean) {
+            field.setBoolean(object, (Boolean) value);
+        } else {
+            field.set(object, value);
+        }
+    }
+
     public static Method getMethod(Class<?> cls, String methodName, Object... params) throws NoSuchMethodException {
         if (params.length == 0)
             return cls.getMethod(methodName);
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation.utils;
+
+import android.os.Build;
+import android.os.Trace;
+import android.view.Choreographer;
+
+/**
+ * A helper class to write {@link Trace} sections and counters of AXAnimation
+ * So the animation pipeline can be profiled with Systrace or Perfetto.
+ * Tracing is disabled by default, Use {@link #setEnabled(boolean)} to enable it.
+ * <p>
+ * Note: Async sections and counters require API 29.
+ *
+ * @author AmirHossein Aghajari
+ */
+public class TraceUtils {
+
+    private TraceUtils() {
+    }
+
+    public static final String COUNTER_ACTIVE_ANIMATORS = "AXAnimation#activeAnimators";
+    public static final String COUNTER_LAYOUT_REQUESTS = "AXAnimation#layoutRequests";
+
+    /* Trace section names can not be longer than 127 characters */
+    private static final int MAX_SECTION_NAME_LENGTH = 127;
+
+    private static boolean enabled = false;
+    private static int activeAnimators = 0;
+    private static int layoutRequests = 0;
+    private static boolean frameCallbackPosted = false;
+
+    private static final Choreographer.FrameCallback resetLayoutRequests = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            frameCallbackPosted = false;
+            layoutRequests = 0;
+            setCounter(COUNTER_LAYOUT_REQUESTS, 0);
+        }
+    };
+
+    /**
+     * Enables or disables trace sections of AXAnimation.
+     */
+    public static void setEnabled(boolean enabled) {
+        TraceUtils.enabled = enabled;
+        // Counters are not updated while disabled, So they start over
+        activeAnimators = 0;
+        layoutRequests = 0;
+    }
+
+    /**
+     * @return True if AXAnimation writes trace sections, False otherwise.
+     */
+    public static boolean isEnabled() {
+        return enabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+    }
+
+    public static void beginSection(String sectionName) {
+        if (isEnabled())
+            Trace.beginSection(trim(sectionName));
+    }
+
+    public static void beginSection(String prefix, String name) {
+        if (isEnabled())
+            Trace.beginSection(trim(prefix + name));
+    }
+
+    public static void endSection() {
+        if (isEnabled())
+            Trace.endSection();
+    }
+
+    public static void beginAsyncSection(String sectionName, int cookie) {
+        if (isEnabled() && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q)
+            Trace.beginAsyncSection(trim(sectionName), cookie);
+    }
+
+    public static void endAsyncSection(String sectionName, int cookie) {
+        if (isEnabled() && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q)
+            Trace.endAsyncSection(trim(sectionName), cookie);
+    }
+
+    public static void setCounter(String counterName, long counterValue) {
+        if (isEnabled() && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q)
+            Trace.setCounter(counterName, counterValue);
+    }
+
+    /**
+     * Updates {@link #COUNTER_ACTIVE_ANIMATORS} whenever an animator started.
+     */
+    public static void onAnimatorStarted() {
+        if (!isEnabled())
+            return;
+
+        activeAnimators++;
+        setCounter(COUNTER_ACTIVE_ANIMATORS, activeAnimators);
+    }
+
+    /**
+     * Updates {@link #COUNTER_ACTIVE_ANIMATORS} whenever an animator ended or canceled.
+     */
+    public static void onAnimatorEnded() {
+        if (!isEnabled())
+            return;
+
+        activeAnimators = Math.max(activeAnimators - 1, 0);
+        setCounter(COUNTER_ACTIVE_ANIMATORS, activeAnimators);
+    }
+
+    /**
+     * Updates {@link #COUNTER_LAYOUT_REQUESTS}, The counter resets on the next frame.
+     */
+    public static void onLayoutRequested() {
+        if (!isEnabled())
+            return;
+
+        layoutRequests++;
+        setCounter(COUNTER_LAYOUT_REQUESTS, layoutRequests);
+        if (!frameCallbackPosted) {
+            frameCallbackPosted = true;
+            Choreographer.getInstance().postFrameCallback(resetLayoutRequests);
+        }
+    }
+
+    private static String trim(String sectionName) {
+        if (sectionName.length() > MAX_SECTION_NAME_LENGTH)
+            return sectionName.substring(0, MAX_SECTION_NAME_LENGTH);
+        return sectionName;
+    }
+}
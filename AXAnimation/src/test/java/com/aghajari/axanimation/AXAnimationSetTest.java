@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.content.Context;
+import android.view.View;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.aghajari.axanimation.clock.AnimationClock;
+import com.aghajari.axanimation.clock.VirtualAnimationClock;
+import com.aghajari.axanimation.listener.AXAnimatorListenerAdapter;
+import com.aghajari.axanimation.rules.WaitNotifyRule;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of {@link AXAnimationSet},
+ * An entry must wait for every animation of the previous entry (the join barrier)
+ * and a delay must hold the rest of the entries.
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class AXAnimationSetTest {
+
+    private VirtualAnimationClock clock;
+    private View first, second, third;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        first = new View(context);
+        second = new View(context);
+        third = new View(context);
+        clock = new VirtualAnimationClock();
+    }
+
+    private static AXAnimation alpha(long duration) {
+        return AXAnimation.create()
+                .duration(duration)
+                .alpha(0.5f);
+    }
+
+    @Test
+    public void waitsForEveryAnimationOfEntry() {
+        WaitNotifyRule.Notifier notifier = new WaitNotifyRule.Notifier();
+        // Shorter than the other one by duration, but it waits for the notifier
+        AXAnimation waiting = AXAnimation.create()
+                .waitForNotifierBefore(notifier)
+                .duration(100)
+                .alpha(0.5f);
+
+        final boolean[] started = {false};
+        AXAnimation next = alpha(100).addAnimatorListener(new AXAnimatorListenerAdapter() {
+            @Override
+            public void onAnimationStart(AXAnimation animation) {
+                started[0] = true;
+            }
+        });
+
+        AXAnimationSet set = AXAnimationSet.animate(waiting, first)
+                .andAnimate(alpha(300), second)
+                .thenAnimate(next, third)
+                .setClock(clock);
+        set.start();
+
+        clock.advance(1000);
+        assertFalse(started[0]);
+        assertTrue(set.isRunning());
+
+        notifier.notifyDone();
+        assertTrue(clock.advanceUntilIdle(1000));
+        assertTrue(started[0]);
+        assertFalse(set.isRunning());
+        assertEquals(0.5f, third.getAlpha(), 0.001f);
+    }
+
+    @Test
+    public void delaysHoldTheRestOfEntry() {
+        AXAnimationSet set = AXAnimationSet.animate(alpha(100), first)
+                .andDelay(500)
+                .andAnimate(alpha(100), second)
+                .setClock(clock);
+        set.start();
+
+        clock.advance(300);
+        assertEquals(1f, second.getAlpha(), 0.001f);
+        assertTrue(set.isRunning());
+
+        assertTrue(clock.advanceUntilIdle(1000));
+        assertFalse(set.isRunning());
+        assertEquals(0.5f, second.getAlpha(), 0.001f);
+    }
+
+    @Test
+    public void pausedSetHoldsItsDelay() {
+        final boolean[] started = {false};
+        AXAnimation next = alpha(100).addAnimatorListener(new AXAnimatorListenerAdapter() {
+            @Override
+            public void onAnimationStart(AXAnimation animation) {
+                started[0] = true;
+            }
+        });
+
+        AXAnimationSet set = AXAnimationSet.animate(alpha(100), first)
+                .andDelay(500)
+                .andAnimate(next, second)
+                .setClock(clock);
+        set.start();
+
+        clock.advance(200);
+        set.pause();
+        clock.advance(1000);
+        assertFalse(started[0]);
+        assertTrue(set.isPaused());
+
+        // 300ms of the delay were left
+        set.resume();
+        clock.advance(250);
+        assertFalse(started[0]);
+        clock.advance(100);
+        assertTrue(started[0]);
+
+        assertTrue(clock.advanceUntilIdle(1000));
+        assertFalse(set.isRunning());
+        assertEquals(0.5f, second.getAlpha(), 0.001f);
+    }
+
+    @Test
+    public void restoresClockOfAnimations() {
+        VirtualAnimationClock own = new VirtualAnimationClock();
+        AXAnimation ended = alpha(100);
+        AXAnimation withOwnClock = alpha(100).setClock(own);
+        AXAnimation canceled = alpha(100);
+
+        AXAnimationSet set = AXAnimationSet.animate(ended, first)
+                .andAnimate(withOwnClock, second)
+                .setClock(clock);
+        set.start();
+        assertSame(clock, ended.getClock());
+        assertSame(clock, withOwnClock.getClock());
+
+        assertTrue(clock.advanceUntilIdle(1000));
+        assertSame(AnimationClock.getDefault(), ended.getClock());
+        assertSame(own, withOwnClock.getClock());
+
+        set = AXAnimationSet.animate(canceled, third)
+                .setClock(clock);
+        set.start();
+        assertSame(clock, canceled.getClock());
+        set.cancel();
+        assertSame(AnimationClock.getDefault(), canceled.getClock());
+    }
+}
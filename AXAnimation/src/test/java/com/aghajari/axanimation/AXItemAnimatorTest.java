@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.content.Context;
+import android.view.View;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.aghajari.axanimation.clock.VirtualAnimationClock;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of {@link AXItemAnimator}
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class AXItemAnimatorTest {
+
+    private VirtualAnimationClock clock;
+    private AXItemAnimator itemAnimator;
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        clock = new VirtualAnimationClock();
+        itemAnimator = new AXItemAnimator()
+                .setAddAnimation(AXAnimation.create().duration(100).alpha(0f, 1f))
+                .setRemoveAnimation(AXAnimation.create().duration(100).alpha(0f))
+                .setClock(clock);
+    }
+
+    private RecyclerView.ViewHolder createHolder() {
+        return new RecyclerView.ViewHolder(new View(context)) {
+        };
+    }
+
+    private static boolean isAnimating(View view) {
+        List<AXAnimation> list = AXAnimation.getAnimationsOfView(view);
+        return list != null && !list.isEmpty();
+    }
+
+    @Test
+    public void addsWaitForRemoves() {
+        RecyclerView.ViewHolder removed = createHolder(), added = createHolder();
+        assertTrue(itemAnimator.animateRemove(removed));
+        assertTrue(itemAnimator.animateAdd(added));
+        itemAnimator.runPendingAnimations();
+
+        clock.advance(50);
+        assertTrue(isAnimating(removed.itemView));
+        assertFalse(isAnimating(added.itemView));
+
+        assertTrue(clock.advanceUntilIdle(1000));
+        assertFalse(itemAnimator.isRunning());
+        // Removed views get reset for recycling
+        assertEquals(1f, removed.itemView.getAlpha(), 0.001f);
+        assertEquals(1f, added.itemView.getAlpha(), 0.001f);
+    }
+
+    @Test
+    public void addsStartWhenRemovesFinish() {
+        RecyclerView.ViewHolder removed = createHolder(), added = createHolder();
+        itemAnimator.animateRemove(removed);
+        itemAnimator.animateAdd(added);
+        itemAnimator.runPendingAnimations();
+
+        clock.advance(50);
+        assertFalse(isAnimating(added.itemView));
+
+        // Not the duration of the remove template, The add must start as soon as the remove is finished
+        itemAnimator.endAnimation(removed);
+        assertTrue(isAnimating(added.itemView));
+        assertTrue(clock.advanceUntilIdle(1000));
+        assertFalse(itemAnimator.isRunning());
+    }
+
+    @Test
+    public void runningItemsHaveTheirOwnRules() {
+        RecyclerView.ViewHolder first = createHolder(), second = createHolder();
+        itemAnimator.animateAdd(first);
+        itemAnimator.animateAdd(second);
+        itemAnimator.runPendingAnimations();
+
+        AXAnimation a = AXAnimation.getAnimationsOfView(first.itemView).get(0);
+        AXAnimation b = AXAnimation.getAnimationsOfView(second.itemView).get(0);
+        assertNotSame(a.getAllRuleSections().get(0).getRules()[0],
+                b.getAllRuleSections().get(0).getRules()[0]);
+    }
+
+    @Test
+    public void doesNotChangeTemplate() {
+        AXAnimation template = AXAnimation.create().duration(100).alpha(0f);
+        itemAnimator.setRemoveAnimation(template);
+        assertEquals(0, template.getAllRuleSections().size());
+    }
+
+    @Test
+    public void recycledHolderDropsAnimation() {
+        RecyclerView.ViewHolder holder = createHolder();
+        itemAnimator.animateRemove(holder);
+        itemAnimator.runPendingAnimations();
+        clock.advance(50);
+        assertTrue(isAnimating(holder.itemView));
+
+        itemAnimator.onViewRecycled(holder);
+        assertFalse(itemAnimator.isRunning());
+        assertFalse(isAnimating(holder.itemView));
+        assertEquals(1f, holder.itemView.getAlpha(), 0.001f);
+    }
+
+    @Test
+    public void reusesPooledInstances() {
+        RecyclerView.ViewHolder first = createHolder(), second = createHolder();
+        itemAnimator.animateAdd(first);
+        itemAnimator.runPendingAnimations();
+        itemAnimator.endAnimation(first);
+        assertFalse(itemAnimator.isRunning());
+
+        itemAnimator.animateAdd(second);
+        itemAnimator.runPendingAnimations();
+        // The pooled instance must leave the running animations of its last view
+        assertFalse(isAnimating(first.itemView));
+        assertTrue(isAnimating(second.itemView));
+        assertTrue(clock.advanceUntilIdle(1000));
+        assertFalse(itemAnimator.isRunning());
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.content.Context;
+import android.view.View;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.aghajari.axanimation.clock.VirtualAnimationClock;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of {@link AXStagger}
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class AXStaggerTest {
+
+    private VirtualAnimationClock clock;
+    private View[] views;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        views = new View[3];
+        for (int i = 0; i < views.length; i++)
+            views[i] = new View(context);
+        clock = new VirtualAnimationClock();
+    }
+
+    private AXStagger create() {
+        return AXStagger.of(AXAnimation.create().duration(100).alpha(0.5f))
+                .views(views)
+                .interval(200)
+                .setClock(clock);
+    }
+
+    @Test
+    public void startsOnOneTimeline() {
+        final boolean[] ended = {false};
+        AXStagger stagger = create().withEndAction(new Runnable() {
+            @Override
+            public void run() {
+                ended[0] = true;
+            }
+        });
+        stagger.start();
+
+        clock.advance(150);
+        assertEquals(0.5f, views[0].getAlpha(), 0.001f);
+        assertEquals(1f, views[1].getAlpha(), 0.001f);
+        assertEquals(1f, views[2].getAlpha(), 0.001f);
+
+        assertTrue(clock.advanceUntilIdle(1000));
+        assertTrue(ended[0]);
+        assertFalse(stagger.isRunning());
+        for (View view : views)
+            assertEquals(0.5f, view.getAlpha(), 0.001f);
+    }
+
+    @Test
+    public void fromCenterStartsMiddleFirst() {
+        AXStagger stagger = create().function(AXStagger.fromCenter());
+        assertEquals(200, stagger.getStartOffset(0));
+        assertEquals(0, stagger.getStartOffset(1));
+        assertEquals(200, stagger.getStartOffset(2));
+
+        stagger.start();
+        clock.advance(150);
+        assertEquals(1f, views[0].getAlpha(), 0.001f);
+        assertEquals(0.5f, views[1].getAlpha(), 0.001f);
+        stagger.cancel();
+        assertFalse(stagger.isRunning());
+    }
+
+    @Test
+    public void reverseRestoresStartValueOfEachView() {
+        float[] starts = {1f, 0.8f, 0.6f};
+        for (int i = 0; i < views.length; i++)
+            views[i].setAlpha(starts[i]);
+
+        AXStagger stagger = create();
+        stagger.start();
+        assertTrue(clock.advanceUntilIdle(1000));
+        for (View view : views)
+            assertEquals(0.5f, view.getAlpha(), 0.001f);
+
+        // Each view must go back to it's own start value, Not to the one of the last started view
+        stagger.reverse();
+        assertTrue(clock.advanceUntilIdle(1000));
+        for (int i = 0; i < views.length; i++)
+            assertEquals(starts[i], views[i].getAlpha(), 0.001f);
+    }
+
+    @Test
+    public void canceledAnimationCountsAsEnded() {
+        final boolean[] ended = {false};
+        AXStagger stagger = create().withEndAction(new Runnable() {
+            @Override
+            public void run() {
+                ended[0] = true;
+            }
+        });
+        stagger.start();
+        clock.advance(50);
+
+        AXAnimation.clear(views[0]);
+        assertTrue(clock.advanceUntilIdle(1000));
+        assertTrue(ended[0]);
+        assertFalse(stagger.isRunning());
+    }
+
+    @Test
+    public void doesNotChangeTemplate() {
+        AXAnimation template = AXAnimation.create().duration(100).alpha(0.5f);
+        AXStagger.of(template);
+        assertEquals(0, template.getAllRuleSections().size());
+    }
+
+    @Test
+    public void gridOrdersByDistance() {
+        AXStagger.Function grid = AXStagger.grid(3);
+        assertEquals(0f, grid.getOrder(0, 9), 0.001f);
+        assertEquals(1f, grid.getOrder(3, 9), 0.001f);
+        assertEquals((float) Math.sqrt(8), grid.getOrder(8, 9), 0.001f);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import com.aghajari.axanimation.clock.VirtualAnimationClock;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures bytes allocated by the current thread.
+ * Requires a HotSpot based JVM (com.sun.management.ThreadMXBean).
+ *
+ * @author AmirHossein Aghajari
+ */
+final class AllocationTracker {
+
+    private static final com.sun.management.ThreadMXBean BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private AllocationTracker() {
+    }
+
+    static long allocatedBytes() {
+        return BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @return the cost of measuring itself, So it can be subtracted from results.
+     */
+    private static long overhead() {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            long start = allocatedBytes();
+            min = Math.min(min, allocatedBytes() - start);
+        }
+        return min;
+    }
+
+    /**
+     * Steps the clock frame by frame and returns the average allocated bytes per frame.
+     */
+    static long perFrame(VirtualAnimationClock clock, int frames) {
+        long overhead = overhead();
+        long start = allocatedBytes();
+        clock.advanceFrames(frames);
+        return average(allocatedBytes() - start - overhead, frames);
+    }
+
+    /**
+     * Runs the operation and returns the average allocated bytes per call.
+     */
+    static long perCall(Runnable operation, int calls) {
+        long overhead = overhead();
+        long start = allocatedBytes();
+        for (int i = 0; i < calls; i++)
+            operation.run();
+        return average(allocatedBytes() - start - overhead, calls);
+    }
+
+    /**
+     * Rounds up, So a single byte allocated in all of the calls still counts as one byte per call.
+     */
+    private static long average(long bytes, int count) {
+        return (Math.max(bytes, 0) + count - 1) / count;
+    }
+}
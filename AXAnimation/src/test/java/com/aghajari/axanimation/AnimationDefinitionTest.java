@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.content.Context;
+import android.view.Gravity;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.aghajari.axanimation.clock.VirtualAnimationClock;
+import com.aghajari.axanimation.layouts.AXAFrameLayout;
+import com.aghajari.axanimation.layouts.AnimatedLayoutParams;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of {@link AXAnimationDefinition}
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class AnimationDefinitionTest {
+
+    private static final String DEFINITION = "{"
+            + "\"duration\": 160, \"interpolator\": \"linear\","
+            + "\"sections\": ["
+            + "  {\"rules\": [{\"rule\": \"alpha\", \"value\": 0}, {\"rule\": \"translationX\", \"values\": [0, 100]}]},"
+            + "  {\"wait\": 40, \"rules\": ["
+            + "    {\"rule\": \"resize\", \"gravity\": \"center\", \"width\": 300, \"height\": [\"parent|height\", {\"divide\": 2}]}"
+            + "  ]}"
+            + "]}";
+
+    private Context context;
+    private View target;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        AXAFrameLayout layout = new AXAFrameLayout(context);
+        target = new View(context);
+        layout.addView(target, new FrameLayout.LayoutParams(100, 100));
+        layout.measure(View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY));
+        layout.layout(0, 0, 1000, 1000);
+    }
+
+    @After
+    public void tearDown() {
+        AXAnimationDefinition.unregister("definitionTest");
+        AXAnimationDefinition.unregister("invalidDefinitionTest");
+    }
+
+    @Test
+    public void createsTheSameSectionsAsBuilder() {
+        AXAnimation animation = AXAnimationDefinition.parse(DEFINITION).create(context);
+        AXAnimation builder = AXAnimation.create()
+                .duration(160)
+                .linearInterpolator()
+                .alpha(0f)
+                .translationX(0f, 100f)
+                .nextSectionWithDelay(40)
+                .resize(Gravity.CENTER, 300, 300);
+
+        assertEquals(builder.getAllRuleSections().size(), animation.getAllRuleSections().size());
+        assertEquals(builder.getTotalDuration(), animation.getTotalDuration());
+
+        VirtualAnimationClock clock = new VirtualAnimationClock();
+        animation.setClock(clock).start(target);
+        assertTrue(clock.advanceUntilIdle(10000));
+
+        assertEquals(0f, target.getAlpha(), 0.001f);
+        assertEquals(100f, target.getTranslationX(), 0.001f);
+        AnimatedLayoutParams lp = (AnimatedLayoutParams) target.getLayoutParams();
+        assertEquals(300, lp.getWidth());
+        assertEquals(500, lp.getHeight());
+    }
+
+    private static void assertInvalid(String json, String path) {
+        try {
+            AXAnimationDefinition.parse(json);
+            fail("Invalid definition must be rejected: " + json);
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(path));
+        }
+    }
+
+    @Test
+    public void rejectsInvalidDefinitions() {
+        assertInvalid("{\"rules\": [{\"rule\": \"wobble\"}]}", "animation.rules[0].rule");
+        assertInvalid("{\"rules\": [{\"rule\": \"alpha\", \"value\": 0, \"speed\": 2}]}", "animation.rules[0]");
+        assertInvalid("{\"sections\": [{}, {\"interpolator\": \"springy\"}]}", "sections[1].interpolator");
+        assertInvalid("{\"rules\": [{\"rule\": \"toLeft\", \"value\": [\"parent|middle\"]}]}", "animation.rules[0].value[0]");
+        assertInvalid("{\"rules\": [{\"rule\": \"toLeft\", \"value\": [0, {\"plus\": \"@id/view\"}]}]}", "animation.rules[0].value[1]");
+        assertInvalid("{\"duration\": ", "Invalid animation definition");
+    }
+
+    @Test
+    public void rejectsMissingKeys() {
+        assertInvalid("{\"rules\": [{\"value\": 0}]}", "animation.rules[0].rule: Value is missing");
+        assertInvalid("{\"rules\": [{\"rule\": \"toLeft\"}]}", "animation.rules[0].value: Value is missing");
+        assertInvalid("{\"rules\": [{\"rule\": \"resize\", \"width\": 100, \"height\": 100}]}",
+                "animation.rules[0].gravity: Value is missing");
+        assertInvalid("{\"rules\": [{\"rule\": \"resize\", \"gravity\": \"center\", \"width\": 100}]}",
+                "animation.rules[0].height: Value is missing");
+        assertInvalid("{\"rules\": [{\"rule\": \"alpha\"}]}", "animation.rules[0]: Value is missing");
+        assertInvalid("{\"duration\": null}", "animation.duration: Value is missing");
+    }
+
+    @Test
+    public void rejectsWrongTypes() {
+        assertInvalid("{\"duration\": \"long\"}", "animation.duration: Must be an integer");
+        assertInvalid("{\"duration\": 100.5}", "animation.duration: Must be an integer");
+        assertInvalid("{\"rules\": [{\"rule\": 5}]}", "animation.rules[0].rule: Must be a string");
+        assertInvalid("{\"rules\": {}}", "animation.rules: Must be an array");
+        assertInvalid("{\"rules\": [0]}", "animation.rules[0]: Must be an object");
+        assertInvalid("{\"sections\": [{}, {\"wait\": \"soon\"}]}", "sections[1].wait: Must be an integer");
+        assertInvalid("{\"sections\": [{}, {\"wait\": -1}]}", "sections[1].wait");
+        assertInvalid("{\"rules\": [{\"rule\": \"alpha\", \"values\": [0, \"half\"]}]}",
+                "animation.rules[0].values[1]: Must be a number");
+        assertInvalid("{\"rules\": [{\"rule\": \"toLeft\", \"value\": 10.5}]}",
+                "animation.rules[0].value: Size must be an integer");
+    }
+
+    @Test
+    public void rejectsUnknownViewsWhenRegistering() {
+        AXAnimationDefinition definition = AXAnimationDefinition.parse(
+                "{\"rules\": [{\"rule\": \"toLeft\", \"value\": [0, {\"plus\": \"@id/unknownView\", \"gravity\": \"left\"}]}]}");
+        try {
+            AXAnimationDefinition.register(context, "invalidDefinitionTest", definition);
+            fail("Unknown view id must be rejected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("unknownView"));
+        }
+        assertFalse(AXAnimationDefinition.isRegistered("invalidDefinitionTest"));
+    }
+
+    @Test
+    public void unregisterRemovesTheAnimation() {
+        AXAnimationDefinition.register(context, "definitionTest", DEFINITION);
+        AXAnimation animation = AXAnimation.getAnimation("definitionTest");
+        assertSame(animation, AXAnimation.getAllSavedAnimations().get("definitionTest"));
+
+        AXAnimationDefinition.unregister("definitionTest");
+        assertFalse(AXAnimation.getAllSavedAnimations().containsKey("definitionTest"));
+        assertNull(AXAnimationDefinition.get("definitionTest"));
+    }
+
+    @Test
+    public void assetDefinitionsAreReadOnFirstUse() {
+        // Registering doesn't touch the assets
+        AXAnimationDefinition.registerAsset(context, "invalidDefinitionTest", "animations/missing.json");
+        assertTrue(AXAnimationDefinition.isRegistered("invalidDefinitionTest"));
+
+        try {
+            AXAnimation.getAnimation("invalidDefinitionTest");
+            fail("Missing asset must be rejected on the first use");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("invalidDefinitionTest"));
+        }
+        // Still registered, So it can be read again
+        assertTrue(AXAnimationDefinition.isRegistered("invalidDefinitionTest"));
+    }
+
+    @Test
+    public void registeredDefinitionsAreCreatedOnFirstUse() {
+        AXAnimationDefinition.register(context, "definitionTest", DEFINITION);
+        AXAnimationDefinition.register(context, "invalidDefinitionTest", "{\"rules\": [{\"rule\": \"wobble\"}]}");
+        assertTrue(AXAnimationDefinition.isRegistered("invalidDefinitionTest"));
+        assertFalse(AXAnimation.getAllSavedAnimations() != null
+                && AXAnimation.getAllSavedAnimations().containsKey("definitionTest"));
+
+        AXAnimation animation = AXAnimation.getAnimation("definitionTest");
+        assertSame(animation, AXAnimation.getAnimation("definitionTest"));
+        assertEquals(2, animation.getAllRuleSections().size());
+
+        try {
+            AXAnimation.getAnimation("invalidDefinitionTest");
+            fail("Invalid definition must be rejected on the first use");
+        } catch (IllegalArgumentException ignore) {
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.content.Context;
+import android.view.Gravity;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.aghajari.axanimation.clock.VirtualAnimationClock;
+import com.aghajari.axanimation.layouts.AXAFrameLayout;
+import com.aghajari.axanimation.layouts.AnimatedLayoutParams;
+import com.aghajari.axanimation.listener.AXAnimatorListenerAdapter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of {@link AXBakedAnimation}
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class BakedAnimationTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private View target;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        AXAFrameLayout layout = new AXAFrameLayout(context);
+        target = new View(context);
+        layout.addView(target, new FrameLayout.LayoutParams(100, 100));
+        layout.measure(View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY));
+        layout.layout(0, 0, 1000, 1000);
+        AXBakedAnimation.clearCache();
+    }
+
+    private AXAnimation create() {
+        return AXAnimation.create()
+                .duration(160)
+                .linearInterpolator()
+                .alpha(0f)
+                .translationX(100f)
+                .nextSection()
+                .resize(Gravity.CENTER, 300, 300);
+    }
+
+    @Test
+    public void recordsChangedValuesAndRestoresView() {
+        AXBakedAnimation baked = AXBakedAnimation.bake(create(), target, 16);
+
+        assertEquals(2, baked.getPropertyCount());
+        assertEquals("alpha", baked.getPropertyName(0));
+        assertEquals("translationX", baked.getPropertyName(1));
+        assertTrue(baked.hasLayout());
+        assertTrue(baked.getDuration() >= 320);
+
+        int last = baked.getFrameCount() - 1;
+        assertEquals(0f, baked.getValue(last, 0), 0.001f);
+        assertEquals(100f, baked.getValue(last, 1), 0.001f);
+
+        // Baking doesn't change the view
+        assertEquals(1f, target.getAlpha(), 0.001f);
+        assertEquals(0f, target.getTranslationX(), 0.001f);
+        assertFalse(target.getLayoutParams() instanceof AnimatedLayoutParams);
+    }
+
+    @Test
+    public void replaysLikeTheAnimation() {
+        AXBakedAnimation baked = AXBakedAnimation.bake(create(), target, 16);
+        VirtualAnimationClock clock = new VirtualAnimationClock();
+
+        baked.start(target, clock);
+        clock.advance(80);
+        assertEquals(0.5f, target.getAlpha(), 0.05f);
+        assertEquals(50f, target.getTranslationX(), 5f);
+
+        assertTrue(clock.advanceUntilIdle(1000));
+        assertEquals(0f, target.getAlpha(), 0.001f);
+        AnimatedLayoutParams lp = (AnimatedLayoutParams) target.getLayoutParams();
+        assertEquals(300, lp.getWidth());
+        assertEquals(300, lp.getHeight());
+    }
+
+    @Test
+    public void cachesByAnimationAndSize() {
+        AXAnimation animation = create();
+        AXBakedAnimation baked = AXBakedAnimation.get(animation, target);
+        assertSame(baked, AXBakedAnimation.get(animation, target));
+
+        target.layout(0, 0, 200, 200);
+        assertNotSame(baked, AXBakedAnimation.get(animation, target));
+
+        animation.notifySectionsChanged();
+        target.layout(0, 0, 100, 100);
+        assertNotSame(baked, AXBakedAnimation.get(animation, target));
+    }
+
+    @Test
+    public void cachesByInitialValues() {
+        AXAnimation animation = create();
+        AXBakedAnimation baked = AXBakedAnimation.get(animation, target);
+
+        target.setTranslationX(50f);
+        AXBakedAnimation moved = AXBakedAnimation.get(animation, target);
+        assertNotSame(baked, moved);
+        assertEquals(50f, moved.getValue(0, 1), 0.001f);
+        assertSame(moved, AXBakedAnimation.get(animation, target));
+    }
+
+    @Test
+    public void bakesOnProxy() {
+        VirtualAnimationClock clock = new VirtualAnimationClock();
+        AXAnimation running = AXAnimation.create()
+                .setClock(clock)
+                .ownProperties(true)
+                .duration(1000)
+                .linearInterpolator()
+                .alpha(0f);
+        running.start(target);
+        clock.advance(500);
+
+        final int[] starts = {0};
+        AXAnimation animation = create().ownProperties(true);
+        animation.addAnimatorListener(new AXAnimatorListenerAdapter() {
+            @Override
+            public void onAnimationStart(AXAnimation animation) {
+                starts[0]++;
+            }
+        });
+        AXBakedAnimation baked = AXBakedAnimation.bake(animation, target, 16);
+        assertEquals(0.5f, baked.getValue(0, 0), 0.02f);
+        assertEquals(0, starts[0]);
+        assertFalse(animation.isRunning());
+
+        // The running animation still owns alpha of the view
+        clock.advance(250);
+        assertEquals(0.25f, target.getAlpha(), 0.02f);
+        assertTrue(clock.advanceUntilIdle(1000));
+    }
+
+    private static void assertSameTracks(AXBakedAnimation expected, AXBakedAnimation actual) {
+        assertEquals(expected.getFrameInterval(), actual.getFrameInterval());
+        assertEquals(expected.getFrameCount(), actual.getFrameCount());
+        assertEquals(expected.getPropertyCount(), actual.getPropertyCount());
+        assertEquals(expected.hasLayout(), actual.hasLayout());
+        for (int frame = 0; frame < expected.getFrameCount(); frame++) {
+            for (int i = 0; i < expected.getPropertyCount(); i++)
+                assertEquals(expected.getValue(frame, i), actual.getValue(frame, i), 0f);
+        }
+        assertTrue(Arrays.equals(expected.layout, actual.layout));
+    }
+
+    @Test
+    public void writesAndReadsBinaryFormat() throws IOException {
+        AXBakedAnimation baked = AXBakedAnimation.bake(create(), target, 16);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        baked.write(out);
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        assertSameTracks(baked, AXBakedAnimation.read(buffer));
+        assertEquals(0, buffer.position());
+
+        File file = folder.newFile("baked.axba");
+        baked.save(file);
+        assertSameTracks(baked, AXBakedAnimation.load(file));
+    }
+
+    @Test
+    public void rejectsInvalidData() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AXBakedAnimation.bake(create(), target, 16).write(out);
+        byte[] data = out.toByteArray();
+
+        try {
+            AXBakedAnimation.read(ByteBuffer.wrap(data, 0, data.length / 2).slice());
+            fail("Truncated data must be rejected");
+        } catch (IOException ignore) {
+        }
+
+        // frameCount and propertyCount, A corrupted count must not allocate huge arrays
+        for (int offset : new int[]{12, 16}) {
+            byte[] corrupted = data.clone();
+            ByteBuffer.wrap(corrupted).order(ByteOrder.LITTLE_ENDIAN).putInt(offset, Integer.MAX_VALUE);
+            try {
+                AXBakedAnimation.read(ByteBuffer.wrap(corrupted));
+                fail("Corrupted count must be rejected");
+            } catch (IOException ignore) {
+            }
+        }
+
+        data[4] = 99; // version
+        try {
+            AXBakedAnimation.read(ByteBuffer.wrap(data));
+            fail("Unsupported version must be rejected");
+        } catch (IOException ignore) {
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.content.res.ColorStateList;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Shader;
+import android.graphics.drawable.GradientDrawable;
+
+import com.aghajari.axanimation.evaluator.ArgbEvaluator;
+import com.aghajari.axanimation.evaluator.ColorStateListEvaluator;
+import com.aghajari.axanimation.evaluator.DrawableEvaluator;
+import com.aghajari.axanimation.utils.GradientDrawableWrapper;
+
+import java.lang.reflect.Field;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Compares the primitive color paths of the evaluators with the platform {@link android.animation.ArgbEvaluator}.
+ * API 25 blends the channels as integers, API 28 blends them in linear space.
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = {25, 28})
+public class ColorEvaluatorTest {
+
+    private static final int[] COLORS = {
+            Color.TRANSPARENT, Color.BLACK, Color.WHITE, Color.RED, Color.GREEN, Color.BLUE,
+            0x80FF8000, 0x12345678, 0xFEDCBA98, 0x7F00FF7F, 0x01010101, 0xFFFEFDFC
+    };
+
+    private static final float[] FRACTIONS = {
+            0f, 0.001f, 0.1f, 0.25f, 0.333f, 0.5f, 0.666f, 0.75f, 0.9f, 0.999f, 1f
+    };
+
+    private final android.animation.ArgbEvaluator platform = new android.animation.ArgbEvaluator();
+
+    private int platform(float fraction, int start, int end) {
+        return (Integer) platform.evaluate(fraction, start, end);
+    }
+
+    private int[] platform(float fraction, int[] start, int[] end) {
+        int[] colors = new int[start.length];
+        for (int i = 0; i < colors.length; i++)
+            colors[i] = platform(fraction, start[i], end[i]);
+        return colors;
+    }
+
+    /**
+     * ReflectionUtils caches the fields by name only, So it can't read mColors of different classes.
+     */
+    private static int[] getColors(Object object) {
+        try {
+            Field field = object.getClass().getDeclaredField("mColors");
+            field.setAccessible(true);
+            return (int[]) field.get(object);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Test
+    public void argbMatchesPlatform() {
+        ArgbEvaluator evaluator = ArgbEvaluator.getInstance();
+        for (int start : COLORS) {
+            for (int end : COLORS) {
+                for (float fraction : FRACTIONS) {
+                    assertEquals("fraction " + fraction + " from " + Integer.toHexString(start)
+                                    + " to " + Integer.toHexString(end),
+                            platform(fraction, start, end), evaluator.evaluate(fraction, start, end));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void colorStateListMatchesPlatform() {
+        int[][] states = {{android.R.attr.state_pressed}, {}};
+        int[] startColors = {Color.RED, 0x80FF8000};
+        int[] endColors = {Color.BLUE, 0x12345678};
+        ColorStateList start = new ColorStateList(states, startColors);
+        ColorStateList end = new ColorStateList(states, endColors.clone());
+
+        // The same evaluator must give the right colors on every frame
+        ColorStateListEvaluator evaluator = new ColorStateListEvaluator();
+        for (float fraction : FRACTIONS) {
+            if (fraction == 0f || fraction == 1f)
+                continue;
+
+            ColorStateList csl = evaluator.evaluate(fraction, start, end);
+            int[] expected = platform(fraction, startColors, endColors);
+            assertArrayEquals("fraction " + fraction, expected, getColors(csl));
+            assertEquals(expected[0], csl.getColorForState(states[0], 0));
+            assertEquals(expected[1], csl.getDefaultColor());
+        }
+
+        ColorStateList csl = evaluator.evaluate(1f, start, end);
+        assertSame(end, csl);
+        assertArrayEquals(endColors, getColors(csl));
+        assertEquals(endColors[1], csl.getDefaultColor());
+    }
+
+    @Test
+    public void gradientColorsMatchPlatform() {
+        int[] startColors = {Color.RED, Color.YELLOW, 0x80FF8000};
+        int[] endColors = {Color.BLUE, Color.GREEN, 0x12345678};
+        GradientDrawable start = new GradientDrawable(GradientDrawable.Orientation.LEFT_RIGHT, startColors);
+        start.setBounds(0, 0, 100, 100);
+        GradientDrawable end = new GradientDrawable(GradientDrawable.Orientation.LEFT_RIGHT, endColors);
+        end.setBounds(0, 0, 100, 100);
+
+        DrawableEvaluator evaluator = new DrawableEvaluator();
+        for (float fraction : FRACTIONS) {
+            GradientDrawable gd = (GradientDrawable) evaluator.evaluate(fraction, start, end);
+            assertArrayEquals("fraction " + fraction,
+                    platform(fraction, startColors, endColors), gd.getColors());
+        }
+    }
+
+    @Test
+    public void linearShaderMatchesPlatform() {
+        int[] startColors = {Color.RED, Color.YELLOW};
+        int[] endColors = {Color.BLUE, 0x12345678};
+        GradientDrawable start = new GradientDrawable(GradientDrawable.Orientation.LEFT_RIGHT, startColors);
+        start.setBounds(0, 0, 100, 100);
+        // Another orientation, So the ShaderEvaluator creates the shaders
+        GradientDrawable end = new GradientDrawable(GradientDrawable.Orientation.TOP_BOTTOM, endColors);
+        end.setBounds(0, 0, 100, 100);
+
+        assertShaderColors(new DrawableEvaluator(), start, end, startColors, endColors);
+    }
+
+    @Test
+    public void radialShaderMatchesPlatform() {
+        int[] startColors = {Color.RED, Color.YELLOW};
+        int[] endColors = {Color.BLUE, 0x12345678};
+        GradientDrawable start = new GradientDrawable(GradientDrawable.Orientation.LEFT_RIGHT, startColors);
+        start.setGradientType(GradientDrawable.RADIAL_GRADIENT);
+        start.setGradientRadius(10);
+        start.setBounds(0, 0, 100, 100);
+        // Another radius, So the ShaderEvaluator creates the shaders
+        GradientDrawable end = new GradientDrawable(GradientDrawable.Orientation.LEFT_RIGHT, endColors);
+        end.setGradientType(GradientDrawable.RADIAL_GRADIENT);
+        end.setGradientRadius(50);
+        end.setBounds(0, 0, 100, 100);
+
+        assertShaderColors(new DrawableEvaluator(), start, end, startColors, endColors);
+    }
+
+    private void assertShaderColors(DrawableEvaluator evaluator, GradientDrawable start, GradientDrawable end,
+                                    int[] startColors, int[] endColors) {
+        for (float fraction : FRACTIONS) {
+            GradientDrawable gd = (GradientDrawable) evaluator.evaluate(fraction, start, end);
+            Paint fillPaint = GradientDrawableWrapper.getFillPaint(gd);
+            assertNotNull(fillPaint);
+            Shader shader = fillPaint.getShader();
+            assertNotNull("fraction " + fraction, shader);
+
+            int[] expected = platform(fraction, startColors, endColors);
+            assertArrayEquals("fraction " + fraction, expected, gd.getColors());
+            assertArrayEquals("fraction " + fraction, expected, getColors(shader));
+        }
+    }
+}
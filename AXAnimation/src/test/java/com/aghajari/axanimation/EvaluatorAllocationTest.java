@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.content.res.ColorStateList;
+import android.graphics.Color;
+import android.graphics.PointF;
+import android.graphics.drawable.GradientDrawable;
+
+import com.aghajari.axanimation.evaluator.ColorStateListEvaluator;
+import com.aghajari.axanimation.evaluator.DrawableEvaluator;
+import com.aghajari.axanimation.evaluator.EvaluatorFactory;
+import com.aghajari.axanimation.evaluator.FloatArrayEvaluator;
+import com.aghajari.axanimation.evaluator.IntArrayEvaluator;
+import com.aghajari.axanimation.evaluator.LayoutSizeEvaluator;
+import com.aghajari.axanimation.evaluator.PointFArrayEvaluator;
+import com.aghajari.axanimation.livevar.LayoutSize;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Allocation budgets (bytes per steady-state evaluate call) of the evaluators.
+ * Lower a budget whenever a hot path becomes cheaper, So it stays that way.
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class EvaluatorAllocationTest {
+
+    private static final int WARMUP_CALLS = 100;
+    private static final int MEASURED_CALLS = 1000;
+
+    /* Measured with Robolectric (sdk 28) on JDK 11, Escape analysis is disabled in build.gradle */
+    private static final long BUDGET_FLOAT_ARRAY_REUSE = 0;
+    private static final long BUDGET_INT_ARRAY_REUSE = 0;
+    private static final long BUDGET_LAYOUT_SIZE = 0;
+    private static final long BUDGET_POINTF_ARRAY = 0;
+    private static final long BUDGET_COLOR_STATE_LIST = 0;
+    private static final long BUDGET_GRADIENT_DRAWABLE = 432;
+    /* Only the returned arrays (and points) */
+    private static final long BUDGET_FLOAT_ARRAY_NEW = 32;
+    private static final long BUDGET_INT_ARRAY_NEW = 32;
+    private static final long BUDGET_POINTF_ARRAY_NEW = 72;
+
+    private float fraction = 0f;
+
+    private float nextFraction() {
+        fraction += 0.016f;
+        if (fraction >= 1f)
+            fraction = 0.016f;
+        return fraction;
+    }
+
+    private void assertBudget(String name, long budget, Runnable operation) {
+        long bytes = measure(operation);
+        assertTrue(name + " allocated " + bytes + " bytes per call, budget is " + budget,
+                bytes <= budget);
+    }
+
+    private long measure(Runnable operation) {
+        for (int i = 0; i < WARMUP_CALLS; i++)
+            operation.run();
+
+        return AllocationTracker.perCall(operation, MEASURED_CALLS);
+    }
+
+    @Test
+    public void floatArrayEvaluator_reuseArray() {
+        final FloatArrayEvaluator evaluator = new FloatArrayEvaluator(new float[4]);
+        final float[] start = new float[]{0f, 0f, 0f, 0f};
+        final float[] end = new float[]{1f, 2f, 3f, 4f};
+
+        assertBudget("FloatArrayEvaluator", BUDGET_FLOAT_ARRAY_REUSE, new Runnable() {
+            @Override
+            public void run() {
+                evaluator.evaluate(nextFraction(), start, end);
+            }
+        });
+    }
+
+    @Test
+    public void intArrayEvaluator_reuseArray() {
+        final IntArrayEvaluator evaluator = new IntArrayEvaluator(new int[4]);
+        final int[] start = new int[]{0, 0, 0, 0};
+        final int[] end = new int[]{100, 200, 300, 400};
+
+        assertBudget("IntArrayEvaluator", BUDGET_INT_ARRAY_REUSE, new Runnable() {
+            @Override
+            public void run() {
+                evaluator.evaluate(nextFraction(), start, end);
+            }
+        });
+    }
+
+    @Test
+    public void floatArrayEvaluator_factory() {
+        final float[] start = new float[]{0f, 0f, 0f};
+        final float[] end = new float[]{1f, 2f, 3f};
+        final FloatArrayEvaluator evaluator = (FloatArrayEvaluator)
+                EvaluatorFactory.create(FloatArrayEvaluator.class, new Object[]{start, end});
+
+        assertBudget("FloatArrayEvaluator (factory)", BUDGET_FLOAT_ARRAY_REUSE, new Runnable() {
+            @Override
+            public void run() {
+                evaluator.evaluate(nextFraction(), start, end);
+            }
+        });
+    }
+
+    @Test
+    public void layoutSizeEvaluator() {
+        final LayoutSizeEvaluator evaluator = new LayoutSizeEvaluator();
+        final LayoutSize start = new LayoutSize(0, 0, 100, 100);
+        final LayoutSize end = new LayoutSize(100, 200, 400, 600);
+
+        assertBudget("LayoutSizeEvaluator", BUDGET_LAYOUT_SIZE, new Runnable() {
+            @Override
+            public void run() {
+                evaluator.evaluate(nextFraction(), start, end);
+            }
+        });
+    }
+
+    @Test
+    public void pointFArrayEvaluator_factory() {
+        final PointF[] start = new PointF[]{new PointF(0, 0), new PointF(10, 10)};
+        final PointF[] end = new PointF[]{new PointF(100, 0), new PointF(110, 50)};
+        final PointFArrayEvaluator evaluator = (PointFArrayEvaluator)
+                EvaluatorFactory.create(PointFArrayEvaluator.class, new Object[]{start, end});
+
+        assertBudget("PointFArrayEvaluator", BUDGET_POINTF_ARRAY, new Runnable() {
+            @Override
+            public void run() {
+                evaluator.evaluate(nextFraction(), start, end);
+            }
+        });
+    }
+
+    @Test
+    public void colorStateListEvaluator() {
+        final ColorStateListEvaluator evaluator = new ColorStateListEvaluator();
+        final ColorStateList start = ColorStateList.valueOf(Color.RED);
+        final ColorStateList end = ColorStateList.valueOf(Color.BLUE);
+
+        assertBudget("ColorStateListEvaluator", BUDGET_COLOR_STATE_LIST, new Runnable() {
+            @Override
+            public void run() {
+                evaluator.evaluate(nextFraction(), start, end);
+            }
+        });
+    }
+
+    @Test
+    public void drawableEvaluator_gradient() {
+        final DrawableEvaluator evaluator = new DrawableEvaluator();
+        final GradientDrawable start = new GradientDrawable(GradientDrawable.Orientation.LEFT_RIGHT,
+                new int[]{Color.RED, Color.YELLOW});
+        start.setBounds(0, 0, 100, 100);
+        final GradientDrawable end = new GradientDrawable(GradientDrawable.Orientation.LEFT_RIGHT,
+                new int[]{Color.BLUE, Color.GREEN});
+        end.setBounds(0, 0, 100, 100);
+
+        assertBudget("DrawableEvaluator (ShaderEvaluator)", BUDGET_GRADIENT_DRAWABLE, new Runnable() {
+            @Override
+            public void run() {
+                evaluator.evaluate(nextFraction(), start, end);
+            }
+        });
+    }
+
+    @Test
+    public void floatArrayEvaluator_newArray() {
+        final FloatArrayEvaluator evaluator = new FloatArrayEvaluator();
+        final float[] start = new float[]{0f, 0f, 0f, 0f};
+        final float[] end = new float[]{1f, 2f, 3f, 4f};
+
+        assertBudget("FloatArrayEvaluator (new array)", BUDGET_FLOAT_ARRAY_NEW, new Runnable() {
+            @Override
+            public void run() {
+                evaluator.evaluate(nextFraction(), start, end);
+            }
+        });
+    }
+
+    @Test
+    public void intArrayEvaluator_newArray() {
+        final IntArrayEvaluator evaluator = new IntArrayEvaluator();
+        final int[] start = new int[]{0, 0, 0, 0};
+        final int[] end = new int[]{100, 200, 300, 400};
+
+        assertBudget("IntArrayEvaluator (new array)", BUDGET_INT_ARRAY_NEW, new Runnable() {
+            @Override
+            public void run() {
+                evaluator.evaluate(nextFraction(), start, end);
+            }
+        });
+    }
+
+    @Test
+    public void pointFArrayEvaluator_newArray() {
+        final PointFArrayEvaluator evaluator = new PointFArrayEvaluator();
+        final PointF[] start = new PointF[]{new PointF(0, 0), new PointF(10, 10)};
+        final PointF[] end = new PointF[]{new PointF(100, 0), new PointF(110, 50)};
+
+        assertBudget("PointFArrayEvaluator (new array)", BUDGET_POINTF_ARRAY_NEW, new Runnable() {
+            @Override
+            public void run() {
+                evaluator.evaluate(nextFraction(), start, end);
+            }
+        });
+    }
+}
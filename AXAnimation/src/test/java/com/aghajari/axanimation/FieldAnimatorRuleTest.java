@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.animation.FloatEvaluator;
+import android.animation.IntEvaluator;
+import android.animation.ValueAnimator;
+import android.content.Context;
+import android.util.FloatProperty;
+import android.view.View;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.aghajari.axanimation.clock.VirtualAnimationClock;
+import com.aghajari.axanimation.rules.reflect.UpdateFieldAnimatorRule;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the primitive (float, int) paths of {@link UpdateFieldAnimatorRule}.
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class FieldAnimatorRuleTest {
+
+    private static final int WARMUP_CALLS = 100;
+    private static final int MEASURED_CALLS = 1000;
+
+    public static class FieldView extends View {
+        public float progress;
+        public int count;
+
+        public FieldView(Context context) {
+            super(context);
+        }
+    }
+
+    public static class PropertyView extends View {
+        float level;
+
+        public PropertyView(Context context) {
+            super(context);
+        }
+    }
+
+    private Context context;
+    private VirtualAnimationClock clock;
+    private float fraction = 0f;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        clock = new VirtualAnimationClock();
+    }
+
+    private float nextFraction() {
+        fraction += 0.016f;
+        if (fraction >= 1f)
+            fraction = 0.016f;
+        return fraction;
+    }
+
+    private long measure(final ValueAnimator animator) {
+        Runnable frame = new Runnable() {
+            @Override
+            public void run() {
+                animator.setCurrentFraction(nextFraction());
+            }
+        };
+        for (int i = 0; i < WARMUP_CALLS; i++)
+            frame.run();
+
+        return AllocationTracker.perCall(frame, MEASURED_CALLS);
+    }
+
+    /**
+     * The rule's update listener must not allocate anything,
+     * So the budget is the cost of a frame of ValueAnimator itself.
+     */
+    private void assertBudget(String name, ValueAnimator animator) {
+        ValueAnimator reference = ValueAnimator.ofFloat(0f, 100f);
+        reference.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+            }
+        });
+        long budget = measure(reference);
+
+        long bytes = measure(animator);
+        assertTrue(name + " allocated " + bytes + " bytes per frame, budget is " + budget,
+                bytes <= budget);
+    }
+
+    @Test
+    public void animatesFieldsLikeKeyframes() {
+        FieldView view = new FieldView(context);
+        AXAnimation.create()
+                .setClock(clock)
+                .duration(1000)
+                .linearInterpolator()
+                .fieldAnimatorSet("progress", false, new FloatEvaluator(), 0f, 100f, 50f)
+                .fieldAnimatorSet("count", false, new IntEvaluator(), 0, 10)
+                .start(view);
+
+        clock.advance(250);
+        assertEquals(50f, view.progress, 0.5f);
+        assertEquals(2, view.count);
+
+        clock.advance(500);
+        assertEquals(75f, view.progress, 0.5f);
+        assertEquals(7, view.count);
+
+        assertTrue(clock.advanceUntilIdle(2000));
+        assertEquals(50f, view.progress, 0.001f);
+        assertEquals(10, view.count);
+    }
+
+    @Test
+    public void floatField_noBoxing() {
+        FieldView view = new FieldView(context);
+        UpdateFieldAnimatorRule<Number> rule = new UpdateFieldAnimatorRule<>("progress",
+                null, new FloatEvaluator(), false, 0f, 100f);
+        ValueAnimator animator = (ValueAnimator) rule.onCreateAnimator(view, null, null, null);
+
+        assertBudget("float field", animator);
+        animator.setCurrentFraction(0.5f);
+        assertEquals(50f, view.progress, 0.001f);
+    }
+
+    @Test
+    public void intField_noBoxing() {
+        FieldView view = new FieldView(context);
+        UpdateFieldAnimatorRule<Integer> rule = new UpdateFieldAnimatorRule<>("count",
+                null, new IntEvaluator(), false, 0, 1000);
+        ValueAnimator animator = (ValueAnimator) rule.onCreateAnimator(view, null, null, null);
+
+        assertBudget("int field", animator);
+        animator.setCurrentFraction(0.5f);
+        assertEquals(500, view.count);
+    }
+
+    @Test
+    public void floatProperty_noBoxing() {
+        AXPropertyRegistry.registerField(PropertyView.class, new FloatProperty<PropertyView>("level") {
+            @Override
+            public void setValue(PropertyView object, float value) {
+                object.level = value;
+            }
+
+            @Override
+            public Float get(PropertyView object) {
+                return object.level;
+            }
+        }, "level");
+
+        PropertyView view = new PropertyView(context);
+        UpdateFieldAnimatorRule<Number> rule = new UpdateFieldAnimatorRule<>("level",
+                null, new FloatEvaluator(), false, 0f, 100f);
+        ValueAnimator animator = (ValueAnimator) rule.onCreateAnimator(view, null, null, null);
+
+        assertBudget("FloatProperty", animator);
+        animator.setCurrentFraction(0.5f);
+        assertEquals(50f, view.level, 0.001f);
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.drawable.GradientDrawable;
+import android.view.Gravity;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.aghajari.axanimation.clock.VirtualAnimationClock;
+import com.aghajari.axanimation.layouts.AXAFrameLayout;
+import com.aghajari.axanimation.listener.AXAnimatorListenerAdapter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs representative animations on a {@link VirtualAnimationClock} and checks
+ * the allocated bytes per steady-state frame against a budget.
+ * Lower a budget whenever a hot path becomes cheaper so it stays that way.
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class FrameAllocationTest {
+
+    private static final int WARMUP_FRAMES = 100;
+    private static final int MEASURED_FRAMES = 100;
+    /* Long enough to keep every measured frame in the same section */
+    private static final long DURATION = 60000;
+
+    /* Measured with Robolectric (sdk 28) on JDK 11, Escape analysis is disabled in build.gradle */
+    private static final long BUDGET_PROPERTY = 96;
+    private static final long BUDGET_LAYOUT = 960;
+    private static final long BUDGET_DRAWABLE = 464;
+    private static final long BUDGET_DRAW_RULE = 480;
+    private static final long BUDGET_PATH = 2800;
+    private static final long BUDGET_MATRIX = 2048;
+    private static final long BUDGET_SECTIONS = 704;
+    private static final long BUDGET_LISTENERS = 0;
+
+    private VirtualAnimationClock clock;
+    private AXAFrameLayout layout;
+    private View target;
+    private AXAnimation running;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        layout = new AXAFrameLayout(context);
+        target = new View(context);
+        layout.addView(target, new FrameLayout.LayoutParams(100, 100));
+        layout.measure(View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY));
+        layout.layout(0, 0, 1000, 1000);
+        clock = new VirtualAnimationClock();
+    }
+
+    @After
+    public void tearDown() {
+        if (running != null)
+            running.cancel();
+    }
+
+    private void assertBudget(String name, long budget, AXAnimation animation) {
+        running = animation;
+        animation.setClock(clock);
+        animation.start(target);
+        clock.advanceFrames(WARMUP_FRAMES);
+        assertTrue(name + " didn't start", animation.isRunning());
+
+        long bytes = AllocationTracker.perFrame(clock, MEASURED_FRAMES);
+        assertTrue(name + " allocated " + bytes + " bytes per frame, budget is " + budget,
+                bytes <= budget);
+    }
+
+    @Test
+    public void propertyAnimation() {
+        assertBudget("Property", BUDGET_PROPERTY, AXAnimation.create()
+                .duration(DURATION)
+                .alpha(0.5f)
+                .scale(0.5f)
+                .translationX(100f)
+                .rotation(90f));
+    }
+
+    @Test
+    public void layoutAnimation() {
+        assertBudget("Layout", BUDGET_LAYOUT, AXAnimation.create()
+                .duration(DURATION)
+                .resize(Gravity.CENTER, 300, 300));
+    }
+
+    @Test
+    public void drawableAnimation() {
+        GradientDrawable start = new GradientDrawable(GradientDrawable.Orientation.LEFT_RIGHT,
+                new int[]{Color.RED, Color.YELLOW});
+        GradientDrawable end = new GradientDrawable(GradientDrawable.Orientation.LEFT_RIGHT,
+                new int[]{Color.BLUE, Color.GREEN});
+        end.setCornerRadius(20);
+
+        assertBudget("Drawable", BUDGET_DRAWABLE, AXAnimation.create()
+                .duration(DURATION)
+                .background(start, end));
+    }
+
+    @Test
+    public void drawRuleAnimation() {
+        final Canvas canvas = new Canvas(Bitmap.createBitmap(1000, 1000, Bitmap.Config.ARGB_8888));
+        clock.addFrameListener(new VirtualAnimationClock.FrameListener() {
+            @Override
+            public void onFrame(VirtualAnimationClock clock, long frameTime) {
+                layout.draw(canvas);
+            }
+        });
+
+        Paint paint = new Paint();
+        paint.setStrokeWidth(4);
+        assertBudget("DrawRule", BUDGET_DRAW_RULE, AXAnimation.create()
+                .duration(DURATION)
+                .drawLine("line", true, Gravity.START, paint, 0, 0, 500, 500));
+    }
+
+    @Test
+    public void pathAnimation() {
+        Path path = new Path();
+        path.moveTo(0, 0);
+        path.quadTo(200, 50, 400, 400);
+
+        assertBudget("Path", BUDGET_PATH, AXAnimation.create()
+                .duration(DURATION)
+                .moveOnPath(path));
+    }
+
+    @Test
+    public void matrixAnimation() {
+        Matrix matrix = new Matrix();
+        matrix.setRotate(45);
+        matrix.postScale(2, 2);
+
+        assertBudget("Matrix", BUDGET_MATRIX, AXAnimation.create()
+                .duration(DURATION)
+                .matrix(matrix));
+    }
+
+    @Test
+    public void repeatedSections() {
+        final int[] repeats = new int[1];
+        // Short sections, So the measured frames cross many section changes and repeats
+        AXAnimation animation = AXAnimation.create()
+                .duration(50)
+                .alpha(0.5f)
+                .nextSectionWithDelay(20)
+                .translationX(100f)
+                .nextSection()
+                .alpha(1f)
+                .translationX(0f)
+                .animationRepeatCount(AXAnimation.INFINITE);
+        animation.addAnimatorListener(new AXAnimatorListenerAdapter() {
+            @Override
+            public void onAnimationRepeat(AXAnimation animation) {
+                repeats[0]++;
+            }
+        });
+
+        running = animation;
+        animation.setClock(clock);
+        animation.start(target);
+
+        // The first run creates the animators, Only the repeats are measured
+        clock.advance(10 * (50 + 20 + 50));
+        assertTrue("Sections didn't repeat", repeats[0] > 0);
+
+        int measured = repeats[0];
+        long bytes = AllocationTracker.perFrame(clock, MEASURED_FRAMES);
+        assertTrue("Sections didn't repeat while measuring", repeats[0] - measured >= 5);
+        assertTrue("Sections allocated " + bytes + " bytes per frame, budget is " + BUDGET_SECTIONS,
+                bytes <= BUDGET_SECTIONS);
+    }
+
+    @Test
+    public void listenerIteration() {
+        final AXAnimation animation = AXAnimation.create()
+                .duration(DURATION)
+                .alpha(0.5f)
+                .translationX(100f);
+        for (int i = 0; i < 4; i++)
+            animation.addAnimatorListener(new AXAnimatorListenerAdapter() {
+            });
+
+        running = animation;
+        animation.setClock(clock);
+        animation.start(target);
+        clock.advanceFrames(WARMUP_FRAMES);
+
+        Runnable pauseResume = new Runnable() {
+            @Override
+            public void run() {
+                animation.pause();
+                animation.resume();
+            }
+        };
+        for (int i = 0; i < WARMUP_FRAMES; i++)
+            pauseResume.run();
+
+        long bytes = AllocationTracker.perCall(pauseResume, MEASURED_FRAMES);
+        assertTrue("Listeners allocated " + bytes + " bytes per pause/resume, budget is " + BUDGET_LISTENERS,
+                bytes <= BUDGET_LISTENERS);
+    }
+}
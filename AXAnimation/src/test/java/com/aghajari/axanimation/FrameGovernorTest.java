@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of {@link AXFrameGovernor}
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class FrameGovernorTest {
+
+    private static final long MS = 1000000L;
+
+    private long frameTime = 0;
+    private final Object key = new Object();
+
+    @Before
+    public void setUp() {
+        AXFrameGovernor.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        AXFrameGovernor.setEnabled(false);
+    }
+
+    /* Runs frames of the given time, Asks for an expensive update on each frame */
+    private int frames(int count, long millis) {
+        int updates = 0;
+        for (int i = 0; i < count; i++) {
+            frameTime += millis * MS;
+            AXFrameGovernor.onFrame(frameTime);
+            if (AXFrameGovernor.shouldUpdate(key, 0.5f))
+                updates++;
+        }
+        return updates;
+    }
+
+    @Test
+    public void throttlesUnderPressureAndRecovers() {
+        final int[] changes = {0};
+        AXFrameGovernor.Listener listener = new AXFrameGovernor.Listener() {
+            @Override
+            public void onThrottleChanged(int throttle, float frameTimeMillis) {
+                changes[0]++;
+            }
+        };
+        AXFrameGovernor.addListener(listener);
+
+        assertEquals(20, frames(20, 16));
+        assertEquals(1, AXFrameGovernor.getThrottle());
+        assertTrue(AXFrameGovernor.isOptionalWorkAllowed(key));
+
+        frames(100, 40);
+        assertEquals(AXFrameGovernor.DEFAULT_MAX_THROTTLE, AXFrameGovernor.getThrottle());
+        assertTrue(AXFrameGovernor.getInterventions() > 0);
+
+        // Runs once every throttle frames
+        assertEquals(10, frames(40, 40));
+        assertTrue(AXFrameGovernor.getSkippedUpdates() > 0);
+
+        // The first and the last frame are never skipped
+        assertTrue(AXFrameGovernor.shouldUpdate(key, 0f));
+        assertTrue(AXFrameGovernor.shouldUpdate(key, 1f));
+
+        frames(300, 8);
+        assertEquals(1, AXFrameGovernor.getThrottle());
+        assertTrue(changes[0] >= 2 * (AXFrameGovernor.DEFAULT_MAX_THROTTLE - 1));
+        AXFrameGovernor.removeListener(listener);
+    }
+
+    @Test
+    public void optionalWorkRunsOnItsOwnFrames() {
+        frames(100, 40);
+        assertEquals(AXFrameGovernor.DEFAULT_MAX_THROTTLE, AXFrameGovernor.getThrottle());
+
+        int allowed = 0;
+        for (int i = 0; i < 40; i++) {
+            frames(1, 40);
+            if (AXFrameGovernor.isOptionalWorkAllowed(key))
+                allowed++;
+        }
+        assertEquals(10, allowed);
+        assertEquals(30, AXFrameGovernor.getDroppedOptionalWork());
+    }
+
+    @Test
+    public void optionalWorkDoesNotKeepObserving() {
+        frames(100, 40);
+        assertEquals(AXFrameGovernor.DEFAULT_MAX_THROTTLE, AXFrameGovernor.getThrottle());
+
+        // Only an overlay is drawing now, The governor goes idle and stops throttling it
+        for (int i = 0; i < 200; i++) {
+            frameTime += 40 * MS;
+            AXFrameGovernor.onFrame(frameTime);
+            AXFrameGovernor.isOptionalWorkAllowed(key);
+        }
+        assertEquals(1, AXFrameGovernor.getThrottle());
+        assertTrue(AXFrameGovernor.isOptionalWorkAllowed(key));
+    }
+
+    @Test
+    public void disabledGovernorNeverThrottles() {
+        AXFrameGovernor.setEnabled(false);
+        assertEquals(100, frames(100, 40));
+        assertEquals(1, AXFrameGovernor.getThrottle());
+        assertEquals(0, AXFrameGovernor.getSkippedUpdates());
+    }
+}
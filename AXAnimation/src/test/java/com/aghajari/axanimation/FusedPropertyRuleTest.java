@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.view.View;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.aghajari.axanimation.clock.VirtualAnimationClock;
+import com.aghajari.axanimation.rules.FusedPropertyRule;
+import com.aghajari.axanimation.rules.PropertyRule;
+import com.aghajari.axanimation.rules.Rule;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of {@link FusedPropertyRule#fuse(Rule[], AXAnimatorData)}
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class FusedPropertyRuleTest {
+
+    private static Rule<?> rule(Rule<?> rule, long duration) {
+        rule.setAnimatorValues(new AXAnimatorData(duration));
+        return rule;
+    }
+
+    @Test
+    public void fusesAdjacentIdenticalAnimatorData() {
+        Rule<?>[] rules = new Rule<?>[]{
+                rule(PropertyRule.alpha(0f), 300),
+                rule(PropertyRule.scaleX(2f), 300),
+                rule(PropertyRule.rotation(90f), 500),
+                rule(PropertyRule.translationX(100f), 300),
+                rule(PropertyRule.translationY(100f), 300),
+        };
+
+        Rule<?>[] fused = FusedPropertyRule.fuse(rules, null);
+        assertEquals(3, fused.length);
+        assertTrue(fused[0] instanceof FusedPropertyRule);
+        assertEquals(2, ((PropertyRule<?>[]) fused[0].getData()).length);
+        assertSame(rules[2], fused[1]);
+        assertTrue(fused[2] instanceof FusedPropertyRule);
+        assertSame(rules[3], ((PropertyRule<?>[]) fused[2].getData())[0]);
+    }
+
+    @Test
+    public void doesNotFuseAcrossOtherRules() {
+        Rule<?>[] rules = new Rule<?>[]{
+                rule(PropertyRule.alpha(0f), 300),
+                rule(PropertyRule.translationX(100f), 500),
+                rule(PropertyRule.translationX(50f), 300),
+        };
+
+        assertSame(rules, FusedPropertyRule.fuse(rules, null));
+    }
+
+    @Test
+    public void keepsTheOrderOfRulesOnSameProperty() {
+        View target = new View(ApplicationProvider.getApplicationContext());
+        VirtualAnimationClock clock = new VirtualAnimationClock();
+
+        // The last translationX rule updates the view last, So it wins while both are running
+        AXAnimation.create()
+                .setClock(clock)
+                .linearInterpolator()
+                .duration(300)
+                .alpha(0.5f)
+                .duration(500)
+                .translationX(100f)
+                .duration(300)
+                .translationX(50f)
+                .start(target);
+
+        clock.advance(150);
+        assertEquals(25f, target.getTranslationX(), 1f);
+    }
+
+    @Test
+    public void usesSectionAnimatorData() {
+        Rule<?>[] rules = new Rule<?>[]{
+                PropertyRule.alpha(0f),
+                PropertyRule.scaleY(2f),
+        };
+
+        Rule<?>[] fused = FusedPropertyRule.fuse(rules, new AXAnimatorData(300));
+        assertEquals(1, fused.length);
+        assertTrue(fused[0] instanceof FusedPropertyRule);
+    }
+
+    @Test
+    public void keepsRulesWhenNothingToFuse() {
+        Rule<?>[] rules = new Rule<?>[]{
+                rule(PropertyRule.alpha(0f), 300),
+                rule(PropertyRule.scaleX(2f), 400),
+        };
+
+        assertSame(rules, FusedPropertyRule.fuse(rules, null));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.app.Activity;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.aghajari.axanimation.clock.VirtualAnimationClock;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of {@link AXAnimation#pauseWhenHidden(boolean)}
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class PauseWhenHiddenTest {
+
+    private VirtualAnimationClock clock;
+    private FrameLayout root;
+    private View target;
+
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.buildActivity(Activity.class)
+                .setup()
+                .windowFocusChanged(true)
+                .get();
+        root = new FrameLayout(activity);
+        activity.setContentView(root);
+        target = new View(activity);
+        root.addView(target, new FrameLayout.LayoutParams(100, 100));
+        clock = new VirtualAnimationClock();
+    }
+
+    private AXAnimation fadeOut() {
+        return AXAnimation.create()
+                .setClock(clock)
+                .pauseWhenHidden(true)
+                .duration(1000)
+                .linearInterpolator()
+                .alpha(0f);
+    }
+
+    @Test
+    public void pausesWhileDetachedAndResyncs() {
+        AXAnimation animation = fadeOut();
+        animation.start(target);
+        clock.advance(200);
+        assertFalse(animation.isPausedWhileHidden());
+        assertEquals(0.8f, target.getAlpha(), 0.02f);
+
+        root.removeView(target);
+        assertTrue(animation.isPausedWhileHidden());
+        clock.advance(300);
+        assertEquals(0.8f, target.getAlpha(), 0.02f);
+
+        // Continues from where it would be if it had never been paused
+        root.addView(target);
+        assertFalse(animation.isPausedWhileHidden());
+        clock.advanceFrame();
+        assertEquals(1f - clock.uptimeMillis() / 1000f, target.getAlpha(), 0.02f);
+
+        assertTrue(clock.advanceUntilIdle(1000));
+        assertFalse(animation.isRunning());
+        assertEquals(0f, target.getAlpha(), 0.001f);
+    }
+
+    @Test
+    public void staysPausedByUserAfterAttach() {
+        AXAnimation animation = fadeOut();
+        animation.start(target);
+        clock.advance(200);
+
+        root.removeView(target);
+        animation.pause();
+        root.addView(target);
+        clock.advance(300);
+        assertTrue(animation.isPaused());
+        assertEquals(0.8f, target.getAlpha(), 0.02f);
+
+        animation.resume();
+        clock.advanceFrame();
+        assertEquals(0.8f, target.getAlpha(), 0.04f);
+    }
+}
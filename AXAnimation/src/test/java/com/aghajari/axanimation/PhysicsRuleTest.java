@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.content.Context;
+import android.view.View;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.aghajari.axanimation.clock.VirtualAnimationClock;
+import com.aghajari.axanimation.rules.physics.FlingRule;
+import com.aghajari.axanimation.rules.physics.PhysicsRule;
+import com.aghajari.axanimation.rules.physics.SpringRule;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of {@link SpringRule} and {@link FlingRule}
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class PhysicsRuleTest {
+
+    private VirtualAnimationClock clock;
+    private View target;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        target = new View(context);
+        clock = new VirtualAnimationClock();
+    }
+
+    @Test
+    public void nextSectionWaitsForSpring() {
+        SpringRule spring = new SpringRule(View.TRANSLATION_X, 100f);
+        AXAnimation animation = AXAnimation.create()
+                .setClock(clock)
+                .duration(50)
+                .addRule(spring)
+                .nextSection()
+                .alpha(0.5f);
+        animation.start(target);
+
+        long duration = spring.getOwnDuration();
+        assertTrue(duration > 50);
+
+        clock.advance(duration - 20);
+        assertEquals(1f, target.getAlpha(), 0.001f);
+        assertTrue(clock.advanceUntilIdle(2000));
+        assertFalse(animation.isRunning());
+        assertEquals(100f, target.getTranslationX(), 0.001f);
+        assertEquals(0.5f, target.getAlpha(), 0.001f);
+    }
+
+    @Test
+    public void springAcceptsNewTarget() {
+        SpringRule spring = new SpringRule(View.TRANSLATION_X, 100f);
+        AXAnimation animation = AXAnimation.create()
+                .setClock(clock)
+                .addRule(spring);
+        animation.start(target);
+
+        clock.advance(100);
+        assertTrue(spring.isMoving());
+        spring.setTarget(-50f);
+        assertEquals(1, clock.getRunningAnimatorCount());
+
+        assertTrue(clock.advanceUntilIdle(PhysicsRule.MAX_DURATION));
+        assertFalse(spring.isMoving());
+        assertEquals(-50f, target.getTranslationX(), 0.001f);
+    }
+
+    @Test
+    public void sectionWaitsForRetargetedSpring() {
+        SpringRule spring = new SpringRule(View.TRANSLATION_X, 10f);
+        AXAnimation animation = AXAnimation.create()
+                .setClock(clock)
+                .duration(300)
+                .addRule(spring)
+                .alpha(0.5f)
+                .nextSection()
+                .duration(50)
+                .scaleX(2f);
+        animation.start(target);
+
+        // The alpha rule is the longest one at start
+        assertTrue(spring.getOwnDuration() < 300);
+
+        clock.advance(100);
+        spring.setTarget(1000f);
+        long duration = spring.getOwnDuration();
+        assertTrue(duration > 320);
+
+        clock.advance(duration - 120);
+        assertEquals(0.5f, target.getAlpha(), 0.001f);
+        assertEquals(1f, target.getScaleX(), 0.001f);
+
+        assertTrue(clock.advanceUntilIdle(2000));
+        assertFalse(animation.isRunning());
+        assertEquals(1000f, target.getTranslationX(), 0.001f);
+        assertEquals(2f, target.getScaleX(), 0.001f);
+    }
+
+    @Test
+    public void estimatesDurationBeforeStart() {
+        SpringRule spring = new SpringRule(View.TRANSLATION_X, 100f);
+        assertTrue(spring.getOwnDuration() > 0);
+
+        // A fling doesn't depend on the position
+        FlingRule fling = new FlingRule(View.TRANSLATION_Y, 1000f);
+        long estimate = fling.getOwnDuration();
+        assertTrue(estimate > 0);
+
+        AXAnimation.create()
+                .setClock(clock)
+                .addRule(fling)
+                .start(target);
+        assertEquals(estimate, fling.getOwnDuration());
+    }
+
+    @Test
+    public void flingSlowsDown() {
+        FlingRule fling = new FlingRule(View.TRANSLATION_Y, 1000f);
+        AXAnimation animation = AXAnimation.create()
+                .setClock(clock)
+                .addRule(fling);
+        animation.start(target);
+
+        assertTrue(clock.advanceUntilIdle(PhysicsRule.MAX_DURATION));
+        // distance = velocity / friction
+        assertEquals(1000f / FlingRule.DEFAULT_FRICTION, target.getTranslationY(), 10f);
+    }
+}
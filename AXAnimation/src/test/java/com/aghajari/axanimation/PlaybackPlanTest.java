@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.animation.Animator;
+import android.animation.ValueAnimator;
+import android.content.Context;
+import android.view.View;
+import android.view.animation.LinearInterpolator;
+import android.widget.FrameLayout;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.aghajari.axanimation.clock.VirtualAnimationClock;
+import com.aghajari.axanimation.layouts.AXAFrameLayout;
+import com.aghajari.axanimation.listener.AXAnimatorListenerAdapter;
+import com.aghajari.axanimation.livevar.LayoutSize;
+import com.aghajari.axanimation.livevar.LiveVar;
+import com.aghajari.axanimation.rules.Rule;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of {@link AXAnimation#reusePlaybackPlan(boolean)}
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class PlaybackPlanTest {
+
+    private static final int REPEATS = 3;
+
+    private VirtualAnimationClock clock;
+    private View target;
+
+    /* Counts the created animators */
+    private static class CountingRule extends Rule<Float> {
+        int created = 0;
+
+        CountingRule() {
+            super(1f);
+        }
+
+        @Nullable
+        @Override
+        public Animator onCreateAnimator(@NonNull View view, @Nullable LayoutSize target, @Nullable LayoutSize original, @Nullable LayoutSize parentSize) {
+            created++;
+            return ValueAnimator.ofFloat(0f, data);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        AXAFrameLayout layout = new AXAFrameLayout(context);
+        target = new View(context);
+        layout.addView(target, new FrameLayout.LayoutParams(100, 100));
+        layout.measure(View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY));
+        layout.layout(0, 0, 1000, 1000);
+        clock = new VirtualAnimationClock();
+    }
+
+    private AXAnimation create(CountingRule first, CountingRule second, int mode) {
+        return AXAnimation.create()
+                .duration(100)
+                .addRule(first)
+                .nextSectionWithDelay(50)
+                .addRule(second)
+                .animationRepeatCount(REPEATS)
+                .animationRepeatMode(mode)
+                .setClock(clock);
+    }
+
+    private void run(AXAnimation animation) {
+        animation.start(target);
+        assertTrue(clock.advanceUntilIdle(10000));
+        assertFalse(animation.isRunning());
+    }
+
+    @Test
+    public void createsAnimatorsOnEachRepeat() {
+        CountingRule first = new CountingRule(), second = new CountingRule();
+        run(create(first, second, AXAnimation.RESTART));
+
+        assertEquals(REPEATS + 1, first.created);
+        assertEquals(REPEATS + 1, second.created);
+    }
+
+    @Test
+    public void replaysAnimators() {
+        CountingRule first = new CountingRule(), second = new CountingRule();
+        AXAnimation animation = create(first, second, AXAnimation.RESTART).reusePlaybackPlan(true);
+        run(animation);
+
+        assertEquals(1, first.created);
+        assertEquals(1, second.created);
+    }
+
+    @Test
+    public void replaysAnimatorsAsReverse() {
+        CountingRule first = new CountingRule(), second = new CountingRule();
+        AXAnimation animation = create(first, second, AXAnimation.REVERSE).reusePlaybackPlan(true);
+        long start = clock.uptimeMillis();
+        run(animation);
+
+        assertEquals(1, first.created);
+        assertEquals(1, second.created);
+        // Reversed animators must play for their whole duration
+        assertTrue(clock.uptimeMillis() - start >= animation.getTotalDuration());
+    }
+
+    private AXAnimation createPropertyAnimation(boolean reusePlan) {
+        return AXAnimation.create()
+                .duration(100)
+                .interpolator(new LinearInterpolator())
+                .alpha(0f)
+                .nextSectionWithDelay(50)
+                .translationX(100f)
+                .animationRepeatCount(1)
+                .animationRepeatMode(AXAnimation.REVERSE)
+                .reusePlaybackPlan(reusePlan)
+                .setClock(clock);
+    }
+
+    /**
+     * Runs the animation and returns the alpha and translationX of target on each frame.
+     */
+    private List<float[]> record(AXAnimation animation) {
+        final List<float[]> frames = new ArrayList<>();
+        clock.addFrameListener(new VirtualAnimationClock.FrameListener() {
+            @Override
+            public void onFrame(VirtualAnimationClock clock, long frameTime) {
+                frames.add(new float[]{target.getAlpha(), target.getTranslationX()});
+            }
+        });
+        run(animation);
+        return frames;
+    }
+
+    @Test
+    public void replayedReversePassMatchesFreshOne() {
+        List<float[]> fresh = record(createPropertyAnimation(false));
+
+        target.setAlpha(1f);
+        target.setTranslationX(0f);
+        clock = new VirtualAnimationClock();
+        List<float[]> replayed = record(createPropertyAnimation(true));
+
+        assertEquals(fresh.size(), replayed.size());
+        for (int i = 0; i < fresh.size(); i++) {
+            assertEquals("alpha of frame " + i, fresh.get(i)[0], replayed.get(i)[0], 0.001f);
+            assertEquals("translationX of frame " + i, fresh.get(i)[1], replayed.get(i)[1], 0.001f);
+        }
+
+        // Forward: alpha 300ms (incl. the delay) then translationX, Reverse: translationX then alpha
+        int reverseStart = (int) (250 / VirtualAnimationClock.DEFAULT_FRAME_INTERVAL);
+        float[] middleOfTranslation = replayed.get(reverseStart + 3);
+        assertEquals(0f, middleOfTranslation[0], 0.001f);
+        assertTrue(middleOfTranslation[1] > 0f && middleOfTranslation[1] < 100f);
+
+        float[] last = replayed.get(replayed.size() - 1);
+        assertEquals(1f, last[0], 0.001f);
+        assertEquals(0f, last[1], 0.001f);
+    }
+
+    @Test
+    public void liveVarChangeInvalidatesPlan() {
+        CountingRule first = new CountingRule(), second = new CountingRule();
+        final LiveVar<Integer> liveVar = LiveVar.ofValue(0);
+        AXAnimation animation = create(first, second, AXAnimation.RESTART).reusePlaybackPlan(true);
+        animation.addAnimatorListener(new AXAnimatorListenerAdapter() {
+            @Override
+            public void onAnimationRepeat(AXAnimation animation) {
+                liveVar.set(liveVar.get() + 1);
+            }
+        });
+        run(animation);
+
+        assertEquals(REPEATS + 1, first.created);
+        assertEquals(REPEATS + 1, second.created);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.content.Context;
+import android.view.View;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.aghajari.axanimation.clock.VirtualAnimationClock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of {@link AXPropertyOwners}
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class PropertyOwnersTest {
+
+    private VirtualAnimationClock clock;
+    private View target;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        target = new View(context);
+        clock = new VirtualAnimationClock();
+        AXPropertyOwners.setReportEnabled(true);
+        AXPropertyOwners.clearReport();
+    }
+
+    @After
+    public void tearDown() {
+        AXPropertyOwners.setReportEnabled(false);
+        AXPropertyOwners.clearReport();
+    }
+
+    private AXAnimation animation(long duration) {
+        return AXAnimation.create()
+                .setClock(clock)
+                .ownProperties(true)
+                .duration(duration)
+                .linearInterpolator();
+    }
+
+    @Test
+    public void olderAnimationStopsWritingTakenProperty() {
+        AXAnimation first = animation(1000).alpha(0f).translationX(100f);
+        first.start(target);
+        clock.advance(500);
+
+        AXAnimation second = animation(1000).alpha(1f);
+        second.start(target);
+        clock.advanceFrame();
+        second.pause();
+        float alpha = target.getAlpha();
+
+        // The first one keeps it's translationX but doesn't touch alpha anymore
+        clock.advance(200);
+        assertTrue(first.isRunning());
+        assertEquals(alpha, target.getAlpha(), 0.0001f);
+        assertTrue(target.getTranslationX() > 60f);
+
+        second.resume();
+        assertTrue(clock.advanceUntilIdle(2000));
+        assertEquals(1f, target.getAlpha(), 0.0001f);
+        assertEquals(100f, target.getTranslationX(), 0.001f);
+    }
+
+    @Test
+    public void reportsConflicts() {
+        animation(1000).alpha(0f).start(target);
+        clock.advance(100);
+        animation(1000).alpha(1f).start(target);
+        animation(1000).translationY(10f).start(target);
+        assertTrue(clock.advanceUntilIdle(2000));
+
+        List<AXPropertyOwners.Conflict> conflicts = AXPropertyOwners.getConflicts();
+        assertEquals(1, conflicts.size());
+        assertEquals("alpha", conflicts.get(0).getProperty());
+        assertEquals(1, conflicts.get(0).getCount());
+        assertTrue(AXPropertyOwners.getReport().contains("alpha"));
+
+        AXPropertyOwners.clearReport();
+        assertTrue(AXPropertyOwners.getConflicts().isEmpty());
+    }
+
+    @Test
+    public void delayedRuleTakesOverOnItsFirstUpdate() {
+        AXAnimation animation = animation(300).alpha(0f).delay(500).alpha(1f);
+        animation.start(target);
+
+        // The delayed alpha hasn't written anything yet
+        clock.advance(150);
+        assertEquals(0.5f, target.getAlpha(), 0.02f);
+        clock.advance(200);
+        assertEquals(0f, target.getAlpha(), 0.0001f);
+
+        assertTrue(clock.advanceUntilIdle(2000));
+        assertEquals(1f, target.getAlpha(), 0.0001f);
+        assertTrue(AXPropertyOwners.getConflicts().isEmpty());
+    }
+
+    @Test
+    public void doesNotRegisterByDefault() {
+        AXAnimation.create().setClock(clock).duration(1000).alpha(0f).start(target);
+        clock.advance(100);
+        AXAnimation.create().setClock(clock).duration(1000).alpha(1f).start(target);
+        clock.advanceFrame();
+
+        assertNull(AXPropertyOwners.find(target));
+        assertTrue(clock.advanceUntilIdle(2000));
+        assertTrue(AXPropertyOwners.getConflicts().isEmpty());
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.content.Context;
+import android.util.Property;
+import android.view.View;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.aghajari.axanimation.rules.PropertyRule;
+import com.aghajari.axanimation.rules.reflect.UpdateFieldRule;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the lookups of {@link AXPropertyRegistry}.
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class PropertyRegistryTest {
+
+    public static class GaugeView extends View {
+        public float value;
+        float setterValue;
+        int setterCalls;
+
+        public GaugeView(Context context) {
+            super(context);
+        }
+
+        // Not related to the field, It only shares the property name
+        public void setValue(float value) {
+            setterCalls++;
+            setterValue = value;
+        }
+
+        public float getLevel() {
+            return 42f;
+        }
+
+        public void setLevel(float level) {
+        }
+    }
+
+    public static class ChildGaugeView extends GaugeView {
+
+        public ChildGaugeView(Context context) {
+            super(context);
+        }
+    }
+
+    private static final Property<GaugeView, Float> VALUE_SETTER =
+            new Property<GaugeView, Float>(Float.class, "value") {
+                @Override
+                public Float get(GaugeView object) {
+                    return object.setterValue;
+                }
+
+                @Override
+                public void set(GaugeView object, Float value) {
+                    object.setValue(value);
+                }
+            };
+
+    private static final Property<GaugeView, Float> LEVEL =
+            new Property<GaugeView, Float>(Float.class, "level") {
+                @Override
+                public Float get(GaugeView object) {
+                    // Registered without getter
+                    return null;
+                }
+
+                @Override
+                public void set(GaugeView object, Float value) {
+                    object.setLevel(value);
+                }
+            };
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        AXPropertyRegistry.registerSetter(GaugeView.class, VALUE_SETTER, "setValue", true);
+        AXPropertyRegistry.registerSetter(GaugeView.class, LEVEL, "setLevel", false);
+    }
+
+    @Test
+    public void lookupsAreKeyedByMember() {
+        assertSame(VALUE_SETTER, AXPropertyRegistry.findProperty(GaugeView.class, "value"));
+        assertSame(VALUE_SETTER, AXPropertyRegistry.findSetter(GaugeView.class, "setValue"));
+        assertNull(AXPropertyRegistry.findField(GaugeView.class, "value"));
+        assertNull(AXPropertyRegistry.findSetter(GaugeView.class, "value"));
+
+        // Superclasses are looked up too
+        assertSame(VALUE_SETTER, AXPropertyRegistry.findSetter(ChildGaugeView.class, "setValue"));
+    }
+
+    @Test
+    public void fieldRuleDoesNotCallSetterWithSameName() {
+        GaugeView view = new GaugeView(context);
+        new UpdateFieldRule(10f, "value").apply(view);
+
+        assertEquals(10f, view.value, 0f);
+        assertEquals(0, view.setterCalls);
+    }
+
+    @Test
+    public void writeOnlyPropertyFallsBackToReflectionGetter() {
+        assertSame(LEVEL, AXPropertyRegistry.findProperty(GaugeView.class, "level"));
+        assertNull(AXPropertyRegistry.findGetter(GaugeView.class, "level"));
+        assertSame(VALUE_SETTER, AXPropertyRegistry.findGetter(GaugeView.class, "value"));
+
+        GaugeView view = new GaugeView(context);
+        PropertyRule<Float> rule = new PropertyRule<>("level", 0f);
+        assertEquals(42f, (Float) rule.getStartValue(view), 0f);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.aghajari.axanimation.clock.VirtualAnimationClock;
+import com.aghajari.axanimation.layouts.AXAFrameLayout;
+import com.aghajari.axanimation.rules.PropertyRule;
+import com.aghajari.axanimation.rules.PropertyTrackRule;
+import com.aghajari.axanimation.rules.Rule;
+import com.aghajari.axanimation.rules.RuleSection;
+import com.aghajari.axanimation.rules.SkippedRule;
+import com.aghajari.axanimation.rules.WaitNotifyRule;
+import com.aghajari.axanimation.rules.WaitRule;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of {@link PropertyTrackRule#createTracks(List)}
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class PropertyTrackRuleTest {
+
+    private static RuleSection section(Rule<?>... rules) {
+        for (Rule<?> rule : rules)
+            rule.setAnimatorValues(new AXAnimatorData(300));
+        return new RuleSection(rules);
+    }
+
+    @Test
+    public void mergesPropertyAcrossSections() {
+        List<RuleSection> sections = new ArrayList<>();
+        sections.add(section(PropertyRule.alpha(0f), PropertyRule.scaleX(2f)));
+        sections.add(new WaitRule(200));
+        sections.add(section(PropertyRule.alpha(1f)));
+
+        Rule<?>[][] tracks = PropertyTrackRule.createTracks(sections);
+        assertEquals(3, tracks.length);
+        assertTrue(tracks[0][0] instanceof PropertyTrackRule);
+        assertTrue(tracks[0][1] instanceof SkippedRule);
+        assertNull(tracks[1]);
+        assertTrue(tracks[2][0] instanceof SkippedRule);
+        // The last section keeps it's duration
+        assertEquals(2, tracks[2].length);
+    }
+
+    @Test
+    public void ignoresUnpredictableTimeline() {
+        List<RuleSection> sections = new ArrayList<>();
+        sections.add(section(PropertyRule.alpha(0f)));
+        sections.add(new WaitNotifyRule(100, null));
+        sections.add(section(PropertyRule.alpha(1f)));
+
+        assertNull(PropertyTrackRule.createTracks(sections));
+    }
+
+    @Test
+    public void ignoresSingleOccurrence() {
+        List<RuleSection> sections = new ArrayList<>();
+        sections.add(section(PropertyRule.alpha(0f)));
+        sections.add(section(PropertyRule.scaleX(1f)));
+
+        assertNull(PropertyTrackRule.createTracks(sections));
+    }
+
+    @Test
+    public void repeatsReuseTracks() {
+        Context context = ApplicationProvider.getApplicationContext();
+        AXAFrameLayout layout = new AXAFrameLayout(context);
+        View target = new View(context);
+        layout.addView(target, new FrameLayout.LayoutParams(100, 100));
+
+        VirtualAnimationClock clock = new VirtualAnimationClock();
+        AXAnimation animation = AXAnimation.create()
+                .setClock(clock)
+                .mergePropertyTracks(true)
+                .duration(100)
+                .alpha(0f)
+                .nextSection()
+                .scaleX(2f)
+                .nextSection()
+                .alpha(1f)
+                .nextSection()
+                .animationRepeatCount(3);
+        SectionInfo info = animation.getSectionInfo();
+
+        // Creating the tracks doesn't change any AXAnimatorData of the animation
+        animation.start(target);
+        assertTrue(clock.advanceUntilIdle(10000));
+        assertSame(info, animation.getSectionInfo());
+        assertEquals(1f, target.getAlpha(), 0.001f);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.content.Context;
+import android.view.View;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.aghajari.axanimation.clock.VirtualAnimationClock;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of {@link AXAnimation#retarget(boolean)}
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class RetargetTest {
+
+    private VirtualAnimationClock clock;
+    private View target;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        target = new View(context);
+        clock = new VirtualAnimationClock();
+    }
+
+    private AXAnimation translate(float value) {
+        return AXAnimation.create()
+                .setClock(clock)
+                .retarget(true)
+                .duration(1000)
+                .linearInterpolator()
+                .translationX(value);
+    }
+
+    @Test
+    public void continuesFromValueAndVelocity() {
+        AXAnimation first = translate(100f).alpha(0.5f);
+        first.start(target);
+        clock.advance(500);
+        float value = target.getTranslationX();
+        assertEquals(50f, value, 2f);
+
+        translate(0f).start(target);
+        assertEquals(value, target.getTranslationX(), 0.001f);
+
+        // Keeps moving forward for a while before turning back
+        clock.advanceFrame();
+        assertTrue(target.getTranslationX() > value);
+
+        // The first one keeps running it's alpha but doesn't touch translationX anymore
+        assertTrue(first.isRunning());
+        clock.advance(600);
+        assertFalse(first.isRunning());
+        assertEquals(0.5f, target.getAlpha(), 0.001f);
+        assertTrue(target.getTranslationX() < value);
+
+        assertTrue(clock.advanceUntilIdle(2000));
+        assertEquals(0f, target.getTranslationX(), 0.001f);
+    }
+}
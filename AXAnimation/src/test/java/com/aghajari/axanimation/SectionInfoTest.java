@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.content.Context;
+import android.view.View;
+import android.view.animation.LinearInterpolator;
+import android.widget.FrameLayout;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.aghajari.axanimation.clock.VirtualAnimationClock;
+import com.aghajari.axanimation.layouts.AXAFrameLayout;
+import com.aghajari.axanimation.rules.Rule;
+import com.aghajari.axanimation.rules.RuleSection;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the cached {@link SectionInfo} of {@link AXAnimation}
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class SectionInfoTest {
+
+    private VirtualAnimationClock clock;
+    private View target;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        AXAFrameLayout layout = new AXAFrameLayout(context);
+        target = new View(context);
+        layout.addView(target, new FrameLayout.LayoutParams(100, 100));
+        layout.measure(View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY));
+        layout.layout(0, 0, 1000, 1000);
+        clock = new VirtualAnimationClock();
+    }
+
+    @Test
+    public void editedValuesAfterFirstStart() {
+        AXAnimation animation = AXAnimation.create()
+                .setClock(clock)
+                .duration(300)
+                .alpha(0f);
+        animation.start(target);
+        assertTrue(clock.advanceUntilIdle(2000));
+        assertEquals(300, animation.getTotalDuration());
+
+        // Same section list, Only the timing of the rule has been changed in place
+        animation.getAllRuleSections().get(0).getRules()[0].getAnimatorValues().setDuration(600);
+        assertEquals(600, animation.getTotalDuration());
+
+        target.setAlpha(1f);
+        animation.start(target);
+        clock.advanceFrame();
+        clock.advance(400);
+        assertTrue(animation.isRunning());
+        assertTrue(clock.advanceUntilIdle(2000));
+        assertFalse(animation.isRunning());
+        assertEquals(0f, target.getAlpha(), 0f);
+    }
+
+    @Test
+    public void replacedValuesAfterFirstStart() {
+        AXAnimation animation = AXAnimation.create()
+                .setClock(clock)
+                .duration(300)
+                .alpha(0f);
+        animation.start(target);
+        assertTrue(clock.advanceUntilIdle(2000));
+
+        animation.getAllRuleSections().get(0).getRules()[0].setAnimatorValues(new AXAnimatorData(800));
+        assertEquals(800, animation.getTotalDuration());
+    }
+
+    @Test
+    public void keepsInfoWhenOtherDataChanges() {
+        AXAnimation animation = AXAnimation.create()
+                .duration(300)
+                .alpha(0f)
+                .nextSection();
+        SectionInfo info = animation.getSectionInfo();
+        RuleSection section = animation.getAllRuleSections().get(0);
+        Rule<?>[] fused = section.getFusedRules();
+
+        // Building, cloning or editing another animation doesn't touch this one
+        AXAnimation.create().duration(500).alpha(1f);
+        AXAnimation clone = animation.clone();
+        clone.getAllRuleSections().get(0).getRules()[0].setAnimatorValues(new AXAnimatorData(700));
+        assertEquals(700, clone.getTotalDuration());
+        assertSame(info, animation.getSectionInfo());
+        assertSame(fused, section.getFusedRules());
+
+        animation.getAllRuleSections().get(0).getRules()[0].getAnimatorValues().setDelay(100);
+        assertNotSame(info, animation.getSectionInfo());
+        assertEquals(400, animation.getTotalDuration());
+    }
+
+    @Test
+    public void fusesEditedRulesAgain() {
+        AXAnimation animation = AXAnimation.create()
+                .duration(300)
+                .alpha(0f)
+                .scaleX(2f)
+                .nextSection();
+        RuleSection section = animation.getAllRuleSections().get(0);
+        assertEquals(1, section.getFusedRules().length);
+
+        section.getRules()[1].getAnimatorValues().setDuration(600);
+        assertEquals(2, section.getFusedRules().length);
+    }
+
+    @Test
+    public void fusesEditedInterpolatorsAgain() {
+        AXAnimation animation = AXAnimation.create()
+                .duration(300)
+                .alpha(0f)
+                .scaleX(2f)
+                .nextSection();
+        RuleSection section = animation.getAllRuleSections().get(0);
+        SectionInfo info = animation.getSectionInfo();
+        assertEquals(1, section.getFusedRules().length);
+
+        section.getRules()[1].getAnimatorValues().setInterpolator(new LinearInterpolator());
+        assertEquals(2, section.getFusedRules().length);
+        assertNotSame(info, animation.getSectionInfo());
+
+        section.getRules()[0].getAnimatorValues().setFirstValueFromView(false);
+        assertEquals(2, section.getFusedRules().length);
+    }
+}
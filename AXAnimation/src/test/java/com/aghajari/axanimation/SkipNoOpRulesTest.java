@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.aghajari.axanimation.clock.VirtualAnimationClock;
+import com.aghajari.axanimation.layouts.AXAFrameLayout;
+import com.aghajari.axanimation.livevar.LayoutSize;
+import com.aghajari.axanimation.rules.Rule;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of {@link AXAnimation#skipNoOpRules(boolean)} and {@link Rule#isNoOp()}
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class SkipNoOpRulesTest {
+
+    private VirtualAnimationClock clock;
+    private View target;
+    private AXAnimation running;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        AXAFrameLayout layout = new AXAFrameLayout(context);
+        target = new View(context);
+        layout.addView(target, new FrameLayout.LayoutParams(100, 100));
+        layout.measure(View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY));
+        layout.layout(0, 0, 1000, 1000);
+        clock = new VirtualAnimationClock();
+    }
+
+    /**
+     * Starts the animation and returns it's first rule once it has created the animator.
+     */
+    private Rule<?> startAndGetRule(AXAnimation animation) {
+        if (running != null)
+            running.cancel();
+        running = animation;
+
+        animation.setClock(clock)
+                .skipNoOpRules(true)
+                .start(target);
+        clock.advanceFrame();
+        return animation.rules.get(0).getRules()[0];
+    }
+
+    @Test
+    public void propertyRules() {
+        assertTrue(startAndGetRule(AXAnimation.create()
+                .duration(300)
+                .alpha(1f)).isNoOp());
+
+        assertFalse(startAndGetRule(AXAnimation.create()
+                .duration(300)
+                .alpha(0.5f)).isNoOp());
+    }
+
+    @Test
+    public void noOpRuleKeepsItsDuration() {
+        AXAnimation animation = AXAnimation.create()
+                .duration(300)
+                .alpha(1f);
+        assertTrue(startAndGetRule(animation).isNoOp());
+
+        clock.advance(200);
+        assertTrue(animation.isRunning());
+        assertEquals(1f, target.getAlpha(), 0f);
+
+        clock.advance(200);
+        assertFalse(animation.isRunning());
+    }
+
+    @Test
+    public void layoutRules() {
+        assertTrue(startAndGetRule(AXAnimation.create()
+                .duration(300)
+                .resize(new LayoutSize(0, 0, 100, 100))).isNoOp());
+
+        assertFalse(startAndGetRule(AXAnimation.create()
+                .duration(300)
+                .resize(new LayoutSize(0, 0, 200, 100))).isNoOp());
+    }
+
+    @Test
+    public void singleAxisLayoutRules() {
+        // Only the animating axis is compared with the current layout
+        assertTrue(startAndGetRule(AXAnimation.create()
+                .duration(300)
+                .resizeHorizontal(new LayoutSize(0, 500, 100, 900))).isNoOp());
+
+        assertFalse(startAndGetRule(AXAnimation.create()
+                .duration(300)
+                .resizeHorizontal(new LayoutSize(0, 0, 200, 100))).isNoOp());
+
+        assertTrue(startAndGetRule(AXAnimation.create()
+                .duration(300)
+                .resizeVertical(new LayoutSize(500, 0, 900, 100))).isNoOp());
+
+        assertFalse(startAndGetRule(AXAnimation.create()
+                .duration(300)
+                .resizeVertical(new LayoutSize(0, 500, 100, 900))).isNoOp());
+    }
+}
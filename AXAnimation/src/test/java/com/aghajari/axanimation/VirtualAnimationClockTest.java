@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.AnimatorSet;
+import android.animation.ValueAnimator;
+import android.view.animation.LinearInterpolator;
+
+import com.aghajari.axanimation.clock.VirtualAnimationClock;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of {@link VirtualAnimationClock} itself,
+ * Callbacks and animators must only move when the clock is advanced.
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class VirtualAnimationClockTest {
+
+    private VirtualAnimationClock clock;
+
+    @Before
+    public void setUp() {
+        clock = new VirtualAnimationClock();
+    }
+
+    private static ValueAnimator linear(long duration) {
+        ValueAnimator animator = ValueAnimator.ofFloat(0f, 100f);
+        animator.setDuration(duration);
+        animator.setInterpolator(new LinearInterpolator());
+        return animator;
+    }
+
+    private static class Events extends AnimatorListenerAdapter {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onAnimationStart(Animator animation) {
+            events.add("start");
+        }
+
+        @Override
+        public void onAnimationCancel(Animator animation) {
+            events.add("cancel");
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            events.add("end");
+        }
+    }
+
+    @Test
+    public void runsCallbacksInOrderOfTime() {
+        final List<String> runs = new ArrayList<>();
+        Runnable late = new Runnable() {
+            @Override
+            public void run() {
+                runs.add("late");
+            }
+        };
+        Runnable removed = new Runnable() {
+            @Override
+            public void run() {
+                runs.add("removed");
+            }
+        };
+        clock.postDelayed(null, late, 50);
+        clock.postDelayed(null, new Runnable() {
+            @Override
+            public void run() {
+                runs.add("early");
+            }
+        }, 20);
+        clock.postDelayed(null, removed, 30);
+        clock.removeCallbacks(null, removed);
+        assertEquals(2, clock.getPendingCallbackCount());
+
+        clock.advance(40);
+        assertEquals(40, clock.uptimeMillis());
+        assertEquals(1, runs.size());
+        assertEquals("early", runs.get(0));
+
+        assertTrue(clock.advanceUntilIdle(1000));
+        assertEquals(2, runs.size());
+        assertEquals("late", runs.get(1));
+    }
+
+    @Test
+    public void stepsValueAnimator() {
+        ValueAnimator animator = linear(100);
+        animator.setStartDelay(32);
+        Events events = new Events();
+        animator.addListener(events);
+
+        clock.start(animator, false);
+        assertEquals(1, events.events.size());
+        assertEquals(1, clock.getRunningAnimatorCount());
+
+        // Start delay
+        clock.advance(32);
+        assertEquals(0f, (float) animator.getAnimatedValue(), 0.001f);
+
+        clock.advance(48);
+        assertEquals(48f, (float) animator.getAnimatedValue(), 0.001f);
+        assertEquals(1, events.events.size());
+
+        clock.advance(52);
+        assertEquals(100f, (float) animator.getAnimatedValue(), 0.001f);
+        assertEquals("end", events.events.get(1));
+        assertTrue(clock.isIdle());
+    }
+
+    @Test
+    public void stepsReversedAnimator() {
+        ValueAnimator animator = linear(100);
+        clock.start(animator, true);
+        clock.advance(25);
+        assertEquals(75f, (float) animator.getAnimatedValue(), 0.001f);
+
+        assertTrue(clock.advanceUntilIdle(1000));
+        assertEquals(0f, (float) animator.getAnimatedValue(), 0.001f);
+    }
+
+    @Test
+    public void pausedTimeDoesNotCount() {
+        ValueAnimator animator = linear(100);
+        clock.start(animator, false);
+        clock.advance(20);
+        clock.pause(animator);
+        clock.advance(500);
+        assertEquals(20f, (float) animator.getAnimatedValue(), 0.001f);
+
+        clock.resume(animator);
+        clock.advance(30);
+        assertEquals(50f, (float) animator.getAnimatedValue(), 0.001f);
+
+        // The skipped duration counts as played
+        clock.pause(animator);
+        clock.advance(40);
+        clock.resume(animator, 40);
+        clock.advance(10);
+        assertEquals(100f, (float) animator.getAnimatedValue(), 0.001f);
+        assertTrue(clock.isIdle());
+    }
+
+    @Test
+    public void cancelNotifiesCancelAndEnd() {
+        ValueAnimator animator = linear(100);
+        Events events = new Events();
+        animator.addListener(events);
+
+        clock.start(animator, false);
+        clock.advance(20);
+        clock.cancel(animator);
+        assertEquals(3, events.events.size());
+        assertEquals("cancel", events.events.get(1));
+        assertEquals("end", events.events.get(2));
+
+        clock.advance(100);
+        assertEquals(20f, (float) animator.getAnimatedValue(), 0.001f);
+        assertTrue(clock.isIdle());
+    }
+
+    @Test
+    public void stopsAfterMaxDuration() {
+        ValueAnimator animator = linear(100);
+        // Robolectric turns INFINITE into a single repeat, A long animator works the same way here
+        animator.setRepeatCount(100);
+        clock.start(animator, false);
+
+        assertFalse(clock.advanceUntilIdle(1000));
+        assertEquals(1000, clock.uptimeMillis());
+        assertEquals(1, clock.getRunningAnimatorCount());
+        clock.cancel(animator);
+        assertTrue(clock.isIdle());
+    }
+
+    @Test
+    public void stepsAnimatorSet() {
+        ValueAnimator first = linear(100);
+        ValueAnimator second = linear(100);
+        AnimatorSet set = new AnimatorSet();
+        set.playSequentially(first, second);
+
+        clock.start(set, false);
+        clock.advance(150);
+        assertEquals(100f, (float) first.getAnimatedValue(), 0.001f);
+        assertEquals(50f, (float) second.getAnimatedValue(), 0.001f);
+
+        assertTrue(clock.advanceUntilIdle(1000));
+        assertEquals(100f, (float) second.getAnimatedValue(), 0.001f);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    @Config(sdk = 25)
+    public void rejectsAnimatorSetBeforeO() {
+        AnimatorSet set = new AnimatorSet();
+        set.playTogether(linear(100), linear(100));
+        clock.start(set, false);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation;
+
+import android.content.Context;
+import android.view.View;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.aghajari.axanimation.clock.VirtualAnimationClock;
+import com.aghajari.axanimation.rules.WaitNotifyRule;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of {@link WaitNotifyRule}
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class WaitNotifyRuleTest {
+
+    private VirtualAnimationClock clock;
+    private View target;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        target = new View(context);
+        clock = new VirtualAnimationClock();
+    }
+
+    @Test
+    public void notifierParksWithoutCallbacks() {
+        WaitNotifyRule.Notifier notifier = new WaitNotifyRule.Notifier();
+        AXAnimation animation = AXAnimation.create()
+                .setClock(clock)
+                .waitForNotifierBefore(notifier)
+                .duration(100)
+                .alpha(0.5f);
+        animation.start(target);
+
+        clock.advance(1000);
+        assertTrue(animation.isRunning());
+        assertEquals(0, clock.getPendingCallbackCount());
+        assertEquals(0, clock.getRunningAnimatorCount());
+
+        notifier.notifyDone();
+        assertTrue(clock.advanceUntilIdle(1000));
+        assertFalse(animation.isRunning());
+        assertEquals(0.5f, target.getAlpha(), 0.001f);
+    }
+
+    @Test
+    public void notifierDoneBeforeStart() {
+        WaitNotifyRule.Notifier notifier = new WaitNotifyRule.Notifier();
+        notifier.notifyDone();
+
+        AXAnimation animation = AXAnimation.create()
+                .setClock(clock)
+                .waitForNotifierBefore(notifier)
+                .duration(100)
+                .alpha(0.5f);
+        animation.start(target);
+
+        assertTrue(clock.advanceUntilIdle(1000));
+        assertFalse(animation.isRunning());
+    }
+
+    @Test
+    public void listenerPollsWithMinimumInterval() {
+        final int[] polls = {0};
+        AXAnimation animation = AXAnimation.create()
+                .setClock(clock)
+                .waitNotifyBefore(new WaitNotifyRule.Listener() {
+                    @Override
+                    public boolean isDone(View view) {
+                        polls[0]++;
+                        return false;
+                    }
+                })
+                .duration(100)
+                .alpha(0.5f);
+        animation.start(target);
+
+        clock.advance(WaitNotifyRule.MIN_POLL_INTERVAL * 10);
+        assertTrue(polls[0] <= 11);
+        animation.cancel();
+    }
+}
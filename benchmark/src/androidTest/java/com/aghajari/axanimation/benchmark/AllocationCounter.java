@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation.benchmark;
+
+import android.os.Bundle;
+import android.os.Debug;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Measures objects and bytes allocated per operation on the current thread.
+ * Results are written to <code>allocations.json</code> next to the benchmark json output,
+ * So they can be diffed in review just like the timing results.
+ *
+ * @author AmirHossein Aghajari
+ */
+@SuppressWarnings("deprecation")
+class AllocationCounter {
+
+    private static final int WARMUP = 100;
+    private static final int ITERATIONS = 1000;
+    private static final String OUTPUT_FILE = "allocations.json";
+
+    private static final Map<String, long[]> results = new TreeMap<>();
+
+    private AllocationCounter() {
+    }
+
+    /**
+     * Runs the operation {@link #ITERATIONS} times (after a warm up) and
+     * records the allocated objects and bytes per operation.
+     *
+     * @return allocated objects per operation
+     */
+    static long measure(String name, Runnable operation) {
+        for (int i = 0; i < WARMUP; i++)
+            operation.run();
+
+        Debug.resetThreadAllocCount();
+        Debug.resetThreadAllocSize();
+        Debug.startAllocCounting();
+        for (int i = 0; i < ITERATIONS; i++)
+            operation.run();
+        Debug.stopAllocCounting();
+
+        long count = Debug.getThreadAllocCount() / ITERATIONS;
+        long size = Debug.getThreadAllocSize() / ITERATIONS;
+        synchronized (results) {
+            results.put(name, new long[]{count, size});
+            write();
+        }
+        return count;
+    }
+
+    private static void write() {
+        JSONObject json = new JSONObject();
+        try {
+            for (Map.Entry<String, long[]> entry : results.entrySet()) {
+                JSONObject item = new JSONObject();
+                item.put("objectsPerOp", entry.getValue()[0]);
+                item.put("bytesPerOp", entry.getValue()[1]);
+                json.put(entry.getKey(), item);
+            }
+
+            FileWriter writer = new FileWriter(new File(getOutputDirectory(), OUTPUT_FILE));
+            try {
+                writer.write(json.toString(2));
+            } finally {
+                writer.close();
+            }
+        } catch (JSONException | IOException e) {
+            throw new RuntimeException("Couldn't write " + OUTPUT_FILE, e);
+        }
+    }
+
+    private static File getOutputDirectory() {
+        Bundle arguments = InstrumentationRegistry.getArguments();
+        String dir = arguments.getString("additionalTestOutputDir");
+        if (dir != null)
+            return new File(dir);
+
+        return InstrumentationRegistry.getInstrumentation().getContext().getExternalFilesDir(null);
+    }
+}
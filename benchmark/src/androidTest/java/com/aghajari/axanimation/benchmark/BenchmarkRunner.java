@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+
+/**
+ * Runs an operation of the benchmarks,
+ * Measures it's allocations by {@link AllocationCounter} and then it's timing by the {@link BenchmarkRule}.
+ *
+ * @author AmirHossein Aghajari
+ */
+final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    static void run(BenchmarkRule benchmarkRule, String name, Runnable operation) {
+        AllocationCounter.measure(name, operation);
+
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning())
+            operation.run();
+    }
+}
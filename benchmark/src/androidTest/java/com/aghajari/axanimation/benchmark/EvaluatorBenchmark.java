@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation.benchmark;
+
+import android.graphics.Color;
+import android.graphics.PointF;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.GradientDrawable;
+
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.aghajari.axanimation.evaluator.DrawableEvaluator;
+import com.aghajari.axanimation.evaluator.FloatArrayEvaluator;
+import com.aghajari.axanimation.evaluator.LayoutSizeEvaluator;
+import com.aghajari.axanimation.evaluator.PointFArrayEvaluator;
+import com.aghajari.axanimation.livevar.LayoutSize;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Benchmarks per-frame cost of the evaluators.
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(AndroidJUnit4.class)
+public class EvaluatorBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private float fraction = 0f;
+
+    private float nextFraction() {
+        fraction += 0.016f;
+        if (fraction > 1f)
+            fraction = 0f;
+        return fraction;
+    }
+
+    @Test
+    public void drawableEvaluator_colorDrawable() {
+        final DrawableEvaluator evaluator = new DrawableEvaluator();
+        final ColorDrawable start = new ColorDrawable(Color.RED);
+        final ColorDrawable end = new ColorDrawable(Color.BLUE);
+
+        BenchmarkRunner.run(benchmarkRule, "DrawableEvaluator_ColorDrawable", new Runnable() {
+            @Override
+            public void run() {
+                evaluator.evaluate(nextFraction(), start, end);
+            }
+        });
+    }
+
+    @Test
+    public void drawableEvaluator_gradientDrawable() {
+        final DrawableEvaluator evaluator = new DrawableEvaluator();
+        final GradientDrawable start = new GradientDrawable(GradientDrawable.Orientation.LEFT_RIGHT,
+                new int[]{Color.RED, Color.YELLOW});
+        start.setCornerRadius(10);
+        start.setStroke(2, Color.BLACK);
+        start.setBounds(0, 0, 100, 100);
+
+        final GradientDrawable end = new GradientDrawable(GradientDrawable.Orientation.LEFT_RIGHT,
+                new int[]{Color.BLUE, Color.GREEN});
+        end.setCornerRadius(40);
+        end.setStroke(6, Color.WHITE);
+        end.setBounds(0, 0, 100, 100);
+
+        BenchmarkRunner.run(benchmarkRule, "DrawableEvaluator_GradientDrawable", new Runnable() {
+            @Override
+            public void run() {
+                evaluator.evaluate(nextFraction(), start, end);
+            }
+        });
+    }
+
+    @Test
+    public void layoutSizeEvaluator() {
+        final LayoutSizeEvaluator evaluator = new LayoutSizeEvaluator();
+        final LayoutSize start = new LayoutSize(0, 0, 100, 100);
+        final LayoutSize end = new LayoutSize(200, 300, 600, 900);
+
+        BenchmarkRunner.run(benchmarkRule, "LayoutSizeEvaluator", new Runnable() {
+            @Override
+            public void run() {
+                evaluator.evaluate(nextFraction(), start, end);
+            }
+        });
+    }
+
+    @Test
+    public void floatArrayEvaluator() {
+        final FloatArrayEvaluator evaluator = new FloatArrayEvaluator();
+        final float[] start = new float[]{0f, 0f, 0f, 0f, 0f, 0f, 0f, 0f, 0f};
+        final float[] end = new float[]{1f, 2f, 3f, 4f, 5f, 6f, 7f, 8f, 9f};
+
+        BenchmarkRunner.run(benchmarkRule, "FloatArrayEvaluator", new Runnable() {
+            @Override
+            public void run() {
+                evaluator.evaluate(nextFraction(), start, end);
+            }
+        });
+    }
+
+    @Test
+    public void floatArrayEvaluator_reuseArray() {
+        final FloatArrayEvaluator evaluator = new FloatArrayEvaluator(new float[9]);
+        final float[] start = new float[]{0f, 0f, 0f, 0f, 0f, 0f, 0f, 0f, 0f};
+        final float[] end = new float[]{1f, 2f, 3f, 4f, 5f, 6f, 7f, 8f, 9f};
+
+        BenchmarkRunner.run(benchmarkRule, "FloatArrayEvaluator_ReuseArray", new Runnable() {
+            @Override
+            public void run() {
+                evaluator.evaluate(nextFraction(), start, end);
+            }
+        });
+    }
+
+    @Test
+    public void pointFArrayEvaluator() {
+        final PointFArrayEvaluator evaluator = new PointFArrayEvaluator();
+        final PointF[] start = new PointF[]{new PointF(0, 0), new PointF(10, 10), new PointF(20, 20)};
+        final PointF[] end = new PointF[]{new PointF(100, 0), new PointF(110, 50), new PointF(120, 200)};
+
+        BenchmarkRunner.run(benchmarkRule, "PointFArrayEvaluator", new Runnable() {
+            @Override
+            public void run() {
+                evaluator.evaluate(nextFraction(), start, end);
+            }
+        });
+    }
+}
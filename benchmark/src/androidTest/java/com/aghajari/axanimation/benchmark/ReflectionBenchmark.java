@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation.benchmark;
+
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.aghajari.axanimation.utils.ReflectionUtils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Benchmarks the lookups of {@link ReflectionUtils}.
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(AndroidJUnit4.class)
+public class ReflectionBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @SuppressWarnings("unused")
+    public static class Target {
+        private float progress;
+
+        public void setProgress(Number progress) {
+            this.progress = progress.floatValue();
+        }
+    }
+
+    private final Target target = new Target();
+
+    @Test
+    public void getMethod_superclassParameter() {
+        final Object[] params = new Object[]{1f};
+
+        BenchmarkRunner.run(benchmarkRule, "ReflectionUtils_getMethod", new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    ReflectionUtils.getMethod(Target.class, "setProgress", params);
+                } catch (NoSuchMethodException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void getPrivateFieldValue() {
+        BenchmarkRunner.run(benchmarkRule, "ReflectionUtils_getPrivateFieldValue", new Runnable() {
+            @Override
+            public void run() {
+                ReflectionUtils.getPrivateFieldValue(target, "progress");
+            }
+        });
+    }
+}
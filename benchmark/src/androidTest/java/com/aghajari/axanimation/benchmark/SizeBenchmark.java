@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2021 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.aghajari.axanimation.benchmark;
+
+import android.view.Gravity;
+
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.aghajari.axanimation.AXAnimation;
+import com.aghajari.axanimation.livevar.LayoutSize;
+import com.aghajari.axanimation.livevar.LiveSize;
+import com.aghajari.axanimation.utils.SizeUtils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Benchmarks the size math of {@link LiveSize} and {@link SizeUtils}.
+ *
+ * @author AmirHossein Aghajari
+ */
+@RunWith(AndroidJUnit4.class)
+public class SizeBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final LayoutSize parent = new LayoutSize(0, 0, 1080, 1920);
+    private final LayoutSize target = new LayoutSize(100, 200, 400, 600);
+    private final LayoutSize original = new LayoutSize(100, 200, 400, 600);
+
+    @Test
+    public void sizeUtils_calculate() {
+        BenchmarkRunner.run(benchmarkRule, "SizeUtils_calculate", new Runnable() {
+            @Override
+            public void run() {
+                SizeUtils.calculate(AXAnimation.PARENT_WIDTH, 300, 400,
+                        parent, target, original, Gravity.LEFT);
+                SizeUtils.calculate(AXAnimation.MATCH_PARENT, 300, 400,
+                        parent, target, original, Gravity.TOP);
+                SizeUtils.calculate(AXAnimation.TARGET | Gravity.RIGHT, 300, 400,
+                        parent, target, original, Gravity.RIGHT);
+            }
+        });
+    }
+
+    @Test
+    public void liveSize_calculate() {
+        final LiveSize size = LiveSize.create(AXAnimation.PARENT_WIDTH)
+                .divide(2)
+                .minus(AXAnimation.TARGET | Gravity.FILL_HORIZONTAL)
+                .thenPlus()
+                .plus(16);
+
+        BenchmarkRunner.run(benchmarkRule, "LiveSize_calculate", new Runnable() {
+            @Override
+            public void run() {
+                size.calculate(300, 400, parent, target, original, Gravity.LEFT);
+            }
+        });
+    }
+}